@@ -312,6 +312,9 @@ dependencies {
     // https://github.com/spring-projects/spring-boot/wiki/Spring-Boot-4.0-Migration-Guide#starters
     implementation("org.springframework.boot:spring-boot-starter-webmvc")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    // binaere Formate CBOR und Smile fuer Aufrufe zwischen Microservices, Version gemaess Jackson BOM
+    implementation("tools.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("tools.jackson.dataformat:jackson-dataformat-smile")
 
     if (usePersistence) {
         println("Persistence            a k t i v i e r t")
@@ -873,6 +876,7 @@ tasks.named<Test>("test") {
                 "unit" -> setOf("unit")
                 "service-read" -> setOf("service-read")
                 "service-write" -> setOf("service-write")
+                "benchmark" -> setOf("benchmark")
                 else -> setOf("integration", "unit")
             }
     }
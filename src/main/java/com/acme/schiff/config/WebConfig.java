@@ -16,21 +16,37 @@
  */
 package com.acme.schiff.config;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
 import org.springframework.web.accept.StandardApiVersionDeprecationHandler;
 import org.springframework.web.servlet.config.annotation.ApiVersionConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
 /// Versionierung der Endpunkte mit [Semantic Versioning](https://semver.org)
 ///
 /// @author [Jürgen Zimmermann](mailto:Juergen.Zimmermann@h-ka.de)
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+    private final List<JacksonModule> modules;
+
     /// Konstruktor mit _package private_ für _Spring_.
-    WebConfig() {
-        // leerer Rumpf
+    ///
+    /// @param modules Die Jackson-Module, die Spring Boot auch für JSON registriert.
+    WebConfig(final ObjectProvider<JacksonModule> modules) {
+        this.modules = modules.orderedStream().toList();
     }
 
     /// Deprecation von versionierten Endpunkten.
@@ -54,4 +70,37 @@ public class WebConfig implements WebMvcConfigurer {
 
         configurer.setDeprecationHandler(deprecationHandler);
     }
+
+    /// Mapper für das binäre Format _CBOR_ mit denselben Einstellungen und Modulen wie für JSON.
+    ///
+    /// @return Der Mapper für _CBOR_.
+    @Bean
+    CBORMapper cborMapper() {
+        return configure(CBORMapper.builder()).build();
+    }
+
+    /// Mapper für das binäre Format _Smile_ mit denselben Einstellungen und Modulen wie für JSON.
+    ///
+    /// @return Der Mapper für _Smile_.
+    @Bean
+    SmileMapper smileMapper() {
+        return configure(SmileMapper.builder()).build();
+    }
+
+    /// _CBOR_ und _Smile_ zusätzlich zu JSON für Request- und Response-Bodies, z.B. für `SchiffDTO`, gemäß
+    /// `Content-Type` und `Accept`.
+    /// @param builder Injiziertes Objekt vom Typ HttpMessageConverters.ServerBuilder
+    @Override
+    public void configureMessageConverters(final HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper()))
+            .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper()));
+    }
+
+    // wie jackson.default-property-inclusion in application.yml und wie bei Spring Boot fuer JSON
+    private <B extends MapperBuilder<?, B>> B configure(final B builder) {
+        return builder
+            .addModules(modules)
+            .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
 }
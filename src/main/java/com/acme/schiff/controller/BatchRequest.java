@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import java.util.List;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+
+/// Eine Operation im Request-Body von `POST /api/batch` und `POST /api/transaction`.
+///
+/// @param op Die Operation: `get`, `check`, `create`, `update` oder `delete`.
+/// @param ids Die IDs der zu lesenden Schiffe bei `get`.
+/// @param id Die ID des Schiffs bei `check`, `update` und `delete`.
+/// @param ifMatch Das ETag aus einem vorherigen Lesezugriff wie beim Header `If-Match` oder `null`.
+/// @param schiff Das Schiff wie beim Request-Body von `POST` und `PUT` bei `create` und `update`.
+/// @author Murat Yahsi
+record BatchRequest(
+    @Nullable String op,
+    @Nullable List<UUID> ids,
+    @Nullable UUID id,
+    @Nullable String ifMatch,
+    @Nullable SchiffInput schiff
+) {
+}
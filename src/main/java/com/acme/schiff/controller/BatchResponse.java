@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.service.BatchResult;
+import java.util.List;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+
+/// Das Ergebnis einer Operation im Response-Body von `POST /api/batch` und `POST /api/transaction`.
+///
+/// @param status Der Statuscode, den die einzelne Anfrage geliefert hätte.
+/// @param id Die ID des geprüften, angelegten, geänderten oder gelöschten Schiffs.
+/// @param etag Das ETag der geprüften oder neuen Version wie beim Header `ETag`.
+/// @param schiffe Die gelesenen Schiffe.
+/// @param detail Die Fehlermeldung wie bei einem `ProblemDetail`.
+/// @author Murat Yahsi
+record BatchResponse(
+    int status,
+    @Nullable UUID id,
+    @Nullable String etag,
+    @Nullable List<Schiff> schiffe,
+    @Nullable String detail
+) {
+    /// Das Ergebnis des Service für die REST-Schnittstelle umwandeln.
+    ///
+    /// @param result Das Ergebnis des Service.
+    /// @return Das Ergebnis mit dem ETag statt der Version.
+    static BatchResponse of(final BatchResult result) {
+        final var version = result.version();
+        return new BatchResponse(
+            result.status(),
+            result.id(),
+            version == null ? null : ETags.of(version),
+            result.schiffe(),
+            result.detail()
+        );
+    }
+}
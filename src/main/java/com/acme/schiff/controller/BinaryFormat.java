@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.MediaType;
+import static com.acme.schiff.controller.Constants.APPLICATION_SMILE_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+
+/// Binäre Darstellungen eines Schiffs für Aufrufe zwischen Microservices. Die Auswahl erfolgt wie bei JSON mit
+/// dem Header `Accept`, für einen Request-Body mit `Content-Type`.
+///
+/// @author Murat Yahsi
+enum BinaryFormat {
+    /// _Concise Binary Object Representation_ gemäß _RFC 8949_.
+    CBOR(APPLICATION_CBOR_VALUE, "cbor"),
+
+    /// _Smile_ von Jackson mit Rückverweisen auf bereits geschriebene Property-Namen.
+    SMILE(APPLICATION_SMILE_VALUE, "smile");
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+
+    BinaryFormat(final String mediaType, final String etagSuffix) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.etagSuffix = etagSuffix;
+    }
+
+    /// Der MIME-Typ für `Content-Type`.
+    ///
+    /// @return Der MIME-Typ.
+    MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /// Der Suffix für das starke `ETag` dieser Darstellung, z.B. `"42-cbor"`, da sie aus anderen Bytes als JSON
+    /// oder das andere binäre Format besteht.
+    ///
+    /// @return Der Suffix ohne Trennzeichen.
+    String getEtagSuffix() {
+        return etagSuffix;
+    }
+
+    /// Das bevorzugte binäre Format ermitteln. Bei gleicher Gewichtung wird ein explizit angegebener MIME-Typ
+    /// einem Wildcard vorgezogen und danach _CBOR_ vor _Smile_ gewählt.
+    ///
+    /// @param accept Der Header `Accept` oder `null`.
+    /// @return Das ausgewählte Format; _CBOR_, falls keines explizit akzeptiert wird.
+    static BinaryFormat negotiate(final @Nullable String accept) {
+        if (accept == null) {
+            return CBOR;
+        }
+        var result = CBOR;
+        var quality = 0.0;
+        var concrete = false;
+        for (final var accepted : MediaType.parseMediaTypes(accept)) {
+            final var acceptedQuality = accepted.getQualityValue();
+            for (final var format : values()) {
+                final var better = acceptedQuality > quality
+                    || acceptedQuality == quality && accepted.isConcrete() && !concrete;
+                if (acceptedQuality > 0 && better && accepted.includes(format.mediaType)) {
+                    result = format;
+                    quality = acceptedQuality;
+                    concrete = accepted.isConcrete();
+                }
+            }
+        }
+        return result;
+    }
+}
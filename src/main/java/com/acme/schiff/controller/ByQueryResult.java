@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+/// Response-Body für das Ändern und Löschen aller Schiffe zu Suchparametern.
+///
+/// @param count Die Anzahl der geänderten bzw. gelöschten Schiffe.
+/// @author Murat Yahsi
+record ByQueryResult(int count) {
+}
@@ -32,9 +32,18 @@ final class Constants {
     /// Version-Header für Swagger
     static final String X_VERSION = "X-Version";
 
+    /// Header, mit dem ein Client einen Request ohne doppelte Ausführung wiederholen kann.
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     /// Aktuelle Versionsnummer als Beispiel für Swagger
     static final String VERSION_1_EXAMPLE = "1.0.0";
 
+    /// MIME-Typ für das binäre JSON-Format _Smile_.
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /// MIME-Typ für _JSON Merge Patch_ gemäß _RFC 7396_.
+    static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private Constants() {
         // Leerer Konstruktor
     }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import com.acme.schiff.service.Precompressed;
+import java.util.Locale;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.ResponseEntity;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/// Auswahl der komprimierten Variante eines [Precompressed] anhand des Headers `Accept-Encoding` gemäß
+/// _RFC 9110_. Eine bereits komprimierte Variante wird mit `Content-Encoding` gesendet, so dass sie vom
+/// Webserver nicht erneut komprimiert wird. Das `ETag` eines Schiffs wird je Kodierung mit [ETags#of(long, String)]
+/// gebildet, weil sich die Bytes der Varianten unterscheiden.
+///
+/// @author Murat Yahsi
+final class ContentCodings {
+    /// Kleinere Bodies werden wie bei `server.compression.min-response-size` nicht komprimiert.
+    static final int MIN_SIZE = 2048;
+
+    /// Die Kodierung _gzip_.
+    static final String GZIP = "gzip";
+
+    /// Die Kodierung _deflate_ im _zlib_-Format.
+    static final String DEFLATE = "deflate";
+
+    private static final String ANY = "*";
+    private static final String QUALITY = "q=";
+
+    private ContentCodings() {
+    }
+
+    /// Den Response mit der passenden Variante als JSON-Body erstellen.
+    ///
+    /// @param response Der Response mit Statuscode und ggf. weiteren Headern.
+    /// @param json Der Body mit den komprimierten Varianten.
+    /// @param acceptEncoding Der Header `Accept-Encoding` oder `null`.
+    /// @return Der Response mit der ausgewählten Variante.
+    static ResponseEntity<byte[]> body(
+        final ResponseEntity.BodyBuilder response,
+        final Precompressed json,
+        final @Nullable String acceptEncoding
+    ) {
+        return body(response, json, coding(json, acceptEncoding));
+    }
+
+    /// Den Response mit der passenden Variante als JSON-Body und dem `ETag` der Variante erstellen.
+    ///
+    /// @param response Der Response mit Statuscode und ggf. weiteren Headern.
+    /// @param version Die Version des Schiffs für das `ETag`.
+    /// @param json Der Body mit den komprimierten Varianten.
+    /// @param acceptEncoding Der Header `Accept-Encoding` oder `null`.
+    /// @return Der Response mit der ausgewählten Variante.
+    static ResponseEntity<byte[]> body(
+        final ResponseEntity.BodyBuilder response,
+        final long version,
+        final Precompressed json,
+        final @Nullable String acceptEncoding
+    ) {
+        final var coding = coding(json, acceptEncoding);
+        response.eTag(ETags.of(version, coding));
+        return body(response, json, coding);
+    }
+
+    private static ResponseEntity<byte[]> body(
+        final ResponseEntity.BodyBuilder response,
+        final Precompressed json,
+        final @Nullable String coding
+    ) {
+        response.contentType(APPLICATION_JSON).varyBy(ACCEPT_ENCODING);
+        if (coding == null) {
+            return response.body(json.identity());
+        }
+        return response.header(CONTENT_ENCODING, coding).body(GZIP.equals(coding) ? json.gzip() : json.deflate());
+    }
+
+    private static @Nullable String coding(final Precompressed json, final @Nullable String acceptEncoding) {
+        return json.identity().length < MIN_SIZE ? null : negotiate(acceptEncoding);
+    }
+
+    /// Die bevorzugte Kodierung ermitteln. Bei gleicher Gewichtung wird _gzip_ vor _deflate_ gewählt.
+    ///
+    /// @param acceptEncoding Der Header `Accept-Encoding` oder `null`.
+    /// @return `gzip`, `deflate` oder `null`, falls der Body unkomprimiert gesendet wird.
+    static @Nullable String negotiate(final @Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        var gzip = -1.0;
+        var deflate = -1.0;
+        var any = -1.0;
+        for (final var element : acceptEncoding.split(",")) {
+            final var parts = element.split(";");
+            final var coding = parts[0].strip().toLowerCase(Locale.ROOT);
+            final var quality = quality(parts);
+            switch (coding) {
+                case GZIP, "x-gzip" -> gzip = Math.max(gzip, quality);
+                case DEFLATE -> deflate = Math.max(deflate, quality);
+                case ANY -> any = quality;
+                default -> {
+                    // nicht unterstützt
+                }
+            }
+        }
+        final var gzipQuality = gzip < 0 ? any : gzip;
+        final var deflateQuality = deflate < 0 ? any : deflate;
+        if (gzipQuality <= 0 && deflateQuality <= 0) {
+            return null;
+        }
+        return gzipQuality >= deflateQuality ? GZIP : DEFLATE;
+    }
+
+    private static double quality(final String[] parts) {
+        for (var i = 1; i < parts.length; i++) {
+            final var parameter = parts[i].strip();
+            if (parameter.startsWith(QUALITY)) {
+                try {
+                    return Double.parseDouble(parameter.substring(QUALITY.length()));
+                } catch (final NumberFormatException _) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -18,6 +18,7 @@ package com.acme.schiff.controller;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.jspecify.annotations.Nullable;
 
 /// ValueObject für das Neuanlegen und Ändern eines Crew-Mitglieds.
 ///
@@ -27,10 +28,13 @@ import jakarta.validation.constraints.NotNull;
 /// @param rolle Rolle des Crew-Mitglieds
 record CrewDTO(
     @NotBlank
+    @Nullable
     String vorname,
     @NotBlank
+    @Nullable
     String nachname,
     @NotNull
+    @Nullable
     String rolle
 ) {
 }
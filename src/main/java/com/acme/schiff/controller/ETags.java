@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+import org.springframework.web.server.ResponseStatusException;
+import static com.acme.schiff.repository.SchiffRepository.ANY_VERSION;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+/// Hilfsfunktionen für _Entity Tags_ gemäß _RFC 9110_, die aus der Version eines Schiffs gebildet werden. Die
+/// Version wird nur als ETag übertragen und ist deshalb nicht im JSON-Datensatz eines Schiffs enthalten. Eine mit
+/// _gzip_ oder _deflate_ komprimierte Variante besteht aus anderen Bytes und erhält deshalb ein eigenes starkes
+/// ETag mit der Kodierung als Suffix, z.B. `"42-gzip"`. Ebenso erhalten die binären Darstellungen _CBOR_ und
+/// _Smile_ den Suffix ihres Formats, z.B. `"42-cbor"`. Beim Vergleich wird der Suffix ignoriert, d.h. alle
+/// Varianten gehören zur selben Version.
+///
+/// @author Murat Yahsi
+final class ETags {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final char QUOTE = '"';
+    private static final char CODING_SEPARATOR = '-';
+    private static final long NO_VERSION = Long.MIN_VALUE;
+    private static final Set<String> SUFFIXES = Set.of(
+        ContentCodings.GZIP,
+        ContentCodings.DEFLATE,
+        BinaryFormat.CBOR.getEtagSuffix(),
+        BinaryFormat.SMILE.getEtagSuffix()
+    );
+
+    private ETags() {
+    }
+
+    /// Das starke ETag zu einer Version bilden, z.B. `"42"`.
+    ///
+    /// @param version Die Version des Schiffs.
+    /// @return Das ETag einschließlich der Anführungszeichen.
+    static String of(final long version) {
+        return QUOTE + Long.toString(version) + QUOTE;
+    }
+
+    /// Das starke ETag zu einer Version in einer Kodierung bilden, z.B. `"42-gzip"`.
+    ///
+    /// @param version Die Version des Schiffs.
+    /// @param coding Die Kodierung des Bodys oder `null`, falls er unkomprimiert gesendet wird.
+    /// @return Das ETag einschließlich der Anführungszeichen.
+    static String of(final long version, final @Nullable String coding) {
+        return coding == null ? of(version) : QUOTE + Long.toString(version) + CODING_SEPARATOR + coding + QUOTE;
+    }
+
+    /// Das starke ETag zu einer Version in einer binären Darstellung bilden, z.B. `"42-cbor"`.
+    ///
+    /// @param version Die Version des Schiffs.
+    /// @param format Das binäre Format des Bodys.
+    /// @return Das ETag einschließlich der Anführungszeichen.
+    static String of(final long version, final BinaryFormat format) {
+        return of(version, format.getEtagSuffix());
+    }
+
+    /// Den Header `If-None-Match` mit dem schwachen Vergleich prüfen. Ein ETag passt unabhängig von seiner
+    /// Kodierung zur Version.
+    ///
+    /// @param ifNoneMatch Der Header mit einer Liste von ETags oder `*`.
+    /// @param version Die aktuelle Version des Schiffs.
+    /// @return Das passende ETag ohne `W/`, das mit `304` gesendet wird, oder `null`, falls keines passt.
+    static @Nullable String match(final String ifNoneMatch, final long version) {
+        for (final var tag : ifNoneMatch.split(",")) {
+            final var trimmed = tag.strip();
+            if (ANY.equals(trimmed)) {
+                return of(version);
+            }
+            final var opaque = trimmed.startsWith(WEAK_PREFIX) ? trimmed.substring(WEAK_PREFIX.length()) : trimmed;
+            if (version(opaque) == version) {
+                return opaque;
+            }
+        }
+        return null;
+    }
+
+    /// Die erwartete Version aus dem Header `If-Match` ermitteln. Der Header kann gemäß _RFC 9110_ eine Liste von
+    /// ETags enthalten. Da der starke Vergleich verwendet wird, kann ein schwaches ETag nie übereinstimmen und wird
+    /// übergangen. Enthält die Liste mehrere Versionen, wird die aktuelle Version verwendet, falls sie enthalten ist;
+    /// das Repository prüft sie beim Schreiben erneut.
+    ///
+    /// @param ifMatch Der Header mit einer Liste von ETags, `*` oder `null`.
+    /// @param current Die aktuelle Version des Schiffs, die nur bei mehreren Versionen ermittelt wird; leer, falls es
+    ///     das Schiff nicht gibt.
+    /// @return Die erwartete Version oder [com.acme.schiff.repository.SchiffRepository#ANY_VERSION].
+    /// @throws ResponseStatusException mit `412`, falls keines der ETags zur aktuellen Version gehören kann.
+    static long expectedVersion(final @Nullable String ifMatch, final Supplier<OptionalLong> current) {
+        if (ifMatch == null || ANY.equals(ifMatch.strip())) {
+            return ANY_VERSION;
+        }
+        final var versions = Arrays.stream(ifMatch.split(","))
+            .mapToLong(ETags::version)
+            .filter(version -> version != NO_VERSION)
+            .distinct()
+            .toArray();
+        final var expected = switch (versions.length) {
+            case 0 -> NO_VERSION;
+            case 1 -> versions[0];
+            default -> select(versions, current.get());
+        };
+        if (expected == NO_VERSION) {
+            throw new ResponseStatusException(PRECONDITION_FAILED, "Das ETag " + ifMatch + " ist nicht aktuell");
+        }
+        return expected;
+    }
+
+    /// Aus mehreren Versionen die aktuelle Version auswählen.
+    ///
+    /// @param versions Die Versionen aus dem Header `If-Match`.
+    /// @param current Die aktuelle Version oder leer, falls es das Schiff nicht gibt.
+    /// @return Die aktuelle Version, falls sie enthalten ist, die erste Version, falls es das Schiff nicht gibt,
+    ///     damit wie bei einem einzelnen ETag `404` geliefert wird, oder sonst `NO_VERSION`.
+    private static long select(final long[] versions, final OptionalLong current) {
+        if (current.isEmpty()) {
+            return versions[0];
+        }
+        final var version = current.getAsLong();
+        return Arrays.stream(versions).anyMatch(v -> v == version) ? version : NO_VERSION;
+    }
+
+    /// Die Version aus einem einzelnen starken ETag ermitteln, ggf. ohne den Suffix mit der Kodierung oder dem
+    /// binären Format.
+    ///
+    /// @param etag Ein ETag aus einer Liste, ggf. mit Leerzeichen.
+    /// @return Die Version oder `NO_VERSION` bei einem schwachen ETag oder einem ETag, das nicht von dieser
+    ///     Schnittstelle stammt.
+    @SuppressWarnings("MagicNumber")
+    private static long version(final String etag) {
+        final var tag = etag.strip();
+        final var end = versionEnd(tag);
+        if (end <= 1) {
+            return NO_VERSION;
+        }
+        try {
+            final var version = Long.parseLong(tag, 1, end, 10);
+            return version >= 0 ? version : NO_VERSION;
+        } catch (final NumberFormatException _) {
+            return NO_VERSION;
+        }
+    }
+
+    /// Das Ende der Version in einem ETag ermitteln, d.h. das schließende Anführungszeichen oder den Beginn des
+    /// Suffix mit der Kodierung bzw. dem binären Format.
+    ///
+    /// @param tag Ein ETag ohne Leerzeichen.
+    /// @return Die Position nach der Version oder `0`, falls das ETag nicht von dieser Schnittstelle stammt.
+    private static int versionEnd(final String tag) {
+        final var last = tag.length() - 1;
+        if (last < 2 || tag.charAt(0) != QUOTE || tag.charAt(last) != QUOTE) {
+            return 0;
+        }
+        final var separator = tag.indexOf(CODING_SEPARATOR);
+        if (separator < 0) {
+            return last;
+        }
+        return SUFFIXES.contains(tag.substring(separator + 1, last)) ? separator : 0;
+    }
+}
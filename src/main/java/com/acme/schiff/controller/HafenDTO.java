@@ -17,6 +17,7 @@
 package com.acme.schiff.controller;
 
 import jakarta.validation.constraints.NotBlank;
+import org.jspecify.annotations.Nullable;
 
 /// ValueObject für das Neuanlegen und Ändern eines Hafens.
 ///
@@ -25,8 +26,10 @@ import jakarta.validation.constraints.NotBlank;
 /// @param land Land des Hafens
 record HafenDTO(
     @NotBlank
+    @Nullable
     String name,
     @NotBlank
+    @Nullable
     String land
 ) {
 }
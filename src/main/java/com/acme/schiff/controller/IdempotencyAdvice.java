@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Set;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import static com.acme.schiff.controller.Constants.IDEMPOTENCY_KEY;
+import static com.acme.schiff.controller.IdempotencyCache.BODY_HASH;
+
+/// [org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdvice], die bei einem Request mit dem
+/// Header `Idempotency-Key` den Hashwert des unveränderten Request-Bodys für den [IdempotencyCache] berechnet,
+/// bevor der Request-Body eingelesen wird. Der Hashwert ist damit unabhängig davon, ob der Request-Body mit JSON,
+/// _CBOR_ oder _Smile_ gesendet wird und ob er gültig ist. Der Request-Body wird dazu vollständig gepuffert, und
+/// zwar nur bei den Endpoints, die den Hashwert verwenden.
+///
+/// @author Murat Yahsi
+@ControllerAdvice(assignableTypes = SchiffWriteController.class)
+@SuppressWarnings("NullableProblems")
+class IdempotencyAdvice extends RequestBodyAdviceAdapter {
+    /// Die Methoden von [SchiffWriteController], die [IdempotencyCache#execute] mit dem Hashwert aufrufen.
+    private static final Set<String> METHODS = Set.of("post", "postBatch", "postTransaction");
+
+    /// Konstruktor mit _package private_ für _Spring_.
+    IdempotencyAdvice() {
+    }
+
+    @Override
+    public boolean supports(
+        final MethodParameter methodParameter,
+        final Type targetType,
+        final Class<? extends HttpMessageConverter<?>> converterType
+    ) {
+        final var method = methodParameter.getMethod();
+        return method != null && METHODS.contains(method.getName());
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(
+        final HttpInputMessage inputMessage,
+        final MethodParameter parameter,
+        final Type targetType,
+        final Class<? extends HttpMessageConverter<?>> converterType
+    ) throws IOException {
+        if (inputMessage.getHeaders().getFirst(IDEMPOTENCY_KEY) == null) {
+            return inputMessage;
+        }
+        final var body = inputMessage.getBody().readAllBytes();
+        final var hash = IdempotencyCache.digest().digest(body);
+        RequestContextHolder.currentRequestAttributes().setAttribute(BODY_HASH, hash, RequestAttributes.SCOPE_REQUEST);
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        };
+    }
+}
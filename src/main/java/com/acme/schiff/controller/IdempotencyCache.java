@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_CONTENT;
+
+/// Begrenzter Cache für die Antworten auf Requests mit dem Header `Idempotency-Key`, damit ein Client einen
+/// Request z.B. nach einem Timeout wiederholen kann: Die Wiederholung erhält sofort die ursprüngliche Antwort,
+/// ohne dass der Request erneut validiert oder ausgeführt wird. Zu jedem Schlüssel wird der SHA-256-Hashwert des
+/// Request-Bodys gespeichert; wird derselbe Schlüssel für einen anderen Request-Body verwendet, wird `422`
+/// geliefert, und während der ursprüngliche Request noch ausgeführt wird `409`.
+///
+/// Gespeichert werden nur erfolgreiche Antworten. Scheitert ein Request mit einer Exception, wird der Schlüssel
+/// wieder freigegeben. Ein Eintrag verfällt [#TTL] nach dem ersten Request; sind mehr als [#MAX_SIZE] Einträge
+/// vorhanden oder belegen die Antworten mehr als [#MAX_BYTES], werden die ältesten verdrängt. Eine Antwort mit
+/// mehr als [#ENTRY_MAX_BYTES] wird nicht gespeichert, sondern der Schlüssel wie bei einem Fehler freigegeben.
+///
+/// @author Murat Yahsi
+@Component
+final class IdempotencyCache {
+    /// Name des Request-Attributs mit dem Hashwert des Request-Bodys, siehe [IdempotencyAdvice].
+    static final String BODY_HASH = IdempotencyCache.class.getName() + ".bodyHash";
+
+    /// Maximale Anzahl an Einträgen.
+    static final int MAX_SIZE = 10_000;
+
+    /// Maximale Größe aller gespeicherten Antworten zusammen in Bytes.
+    static final long MAX_BYTES = 64L << 20;
+
+    /// Maximale Größe einer gespeicherten Antwort in Bytes.
+    static final int ENTRY_MAX_BYTES = 256 << 10;
+
+    /// Gültigkeitsdauer eines Eintrags.
+    static final Duration TTL = Duration.ofHours(24);
+
+    private static final int KEY_MAX_LENGTH = 255;
+    private static final String ALGORITHM = "SHA-256";
+    private static final byte[] NO_BODY = {};
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private long bytes;
+
+    /// Konstruktor mit _package private_ für _Spring_.
+    IdempotencyCache() {
+    }
+
+    /// Einen Request mit einem Request-Body, der von _Spring_ eingelesen wird, höchstens einmal ausführen.
+    ///
+    /// @param idempotencyKey Der Wert des Headers `Idempotency-Key` oder `null`.
+    /// @param request Der Request mit dem Hashwert des Request-Bodys als Attribut [#BODY_HASH].
+    /// @param action Die Ausführung des Requests.
+    /// @param size Die Größe einer Antwort in Bytes, z.B. serialisiert als JSON.
+    /// @param <T> Der Typ der Antwort, die unveränderlich sein muss.
+    /// @return Die Antwort der Ausführung oder die gespeicherte Antwort eines früheren Requests.
+    /// @throws ResponseStatusException falls der Schlüssel ungültig ist, noch verwendet wird oder zu einem anderen
+    ///     Request-Body gehört.
+    @SuppressWarnings("unchecked")
+    <T> T execute(
+        final @Nullable String idempotencyKey,
+        final HttpServletRequest request,
+        final Supplier<T> action,
+        final ToLongFunction<? super T> size
+    ) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        final var hash = request.getAttribute(BODY_HASH) instanceof byte[] bytes ? bytes : NO_BODY;
+        final var key = key(idempotencyKey, request);
+        final var completed = reserve(key);
+        if (completed != null) {
+            return (T) completed.replay(hash);
+        }
+        final T response;
+        try {
+            response = action.get();
+        } catch (final RuntimeException ex) {
+            abort(key);
+            throw ex;
+        }
+        complete(key, hash, response, size.applyAsLong(response));
+        return response;
+    }
+
+    /// Den Schlüssel im Cache aus dem Header und dem Pfad des Requests bilden, damit derselbe Wert für
+    /// verschiedene Endpoints verwendet werden kann.
+    ///
+    /// @param idempotencyKey Der Wert des Headers `Idempotency-Key`.
+    /// @param request Der Request.
+    /// @return Der Schlüssel im Cache.
+    /// @throws ResponseStatusException falls der Wert leer oder zu lang ist.
+    static String key(final String idempotencyKey, final HttpServletRequest request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > KEY_MAX_LENGTH) {
+            throw new ResponseStatusException(BAD_REQUEST,
+                "Der Idempotency-Key muss 1 bis " + KEY_MAX_LENGTH + " Zeichen haben");
+        }
+        return request.getMethod() + ' ' + request.getRequestURI() + ' ' + idempotencyKey;
+    }
+
+    /// Einen Schlüssel für einen Request reservieren, der anschließend mit [#complete(String, byte[], Object, long)]
+    /// oder [#abort(String)] abgeschlossen werden muss.
+    ///
+    /// @param key Der Schlüssel im Cache.
+    /// @return `null`, falls der Schlüssel reserviert wurde und der Request ausgeführt werden muss, oder die
+    ///     gespeicherte Antwort eines früheren Requests.
+    /// @throws ResponseStatusException mit `409`, falls ein Request mit dem Schlüssel noch ausgeführt wird.
+    @Nullable
+    Completed reserve(final String key) {
+        final var now = System.nanoTime();
+        lock.lock();
+        try {
+            expire(now);
+            final var entry = entries.get(key);
+            if (entry == null) {
+                entries.put(key, new Entry(null, now + TTL.toNanos(), 0));
+                evict();
+                return null;
+            }
+            final var completed = entry.completed();
+            if (completed == null) {
+                throw new ResponseStatusException(CONFLICT,
+                    "Ein Request mit demselben Idempotency-Key wird noch ausgeführt");
+            }
+            return completed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Die Antwort zu einem reservierten Schlüssel speichern. Ist die Antwort größer als [#ENTRY_MAX_BYTES], wird
+    /// der Schlüssel stattdessen freigegeben, so dass eine Wiederholung erneut ausgeführt wird.
+    ///
+    /// @param key Der Schlüssel im Cache.
+    /// @param hash Der Hashwert des Request-Bodys.
+    /// @param response Die unveränderliche Antwort.
+    /// @param size Die Größe der Antwort in Bytes.
+    void complete(final String key, final byte[] hash, final Object response, final long size) {
+        lock.lock();
+        try {
+            final var entry = entries.get(key);
+            if (entry == null) {
+                // bereits verdrängt
+                return;
+            }
+            if (size > ENTRY_MAX_BYTES) {
+                remove(key);
+                return;
+            }
+            // die Gültigkeit beginnt mit dem ersten Request, damit die Einträge nach ihrem Verfall sortiert bleiben
+            entries.put(key, new Entry(new Completed(hash, response), entry.expires(), size));
+            bytes += size;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Einen reservierten Schlüssel wieder freigeben, z.B. weil der Request gescheitert ist.
+    ///
+    /// @param key Der Schlüssel im Cache.
+    void abort(final String key) {
+        lock.lock();
+        try {
+            remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Einen [MessageDigest] für den Hashwert eines Request-Bodys erzeugen.
+    ///
+    /// @return Der neue [MessageDigest].
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /// Den Hashwert eines Request-Bodys berechnen, der vollständig gelesen wird.
+    ///
+    /// @param body Der Request-Body.
+    /// @return Der Hashwert.
+    /// @throws IOException falls der Request-Body nicht gelesen werden kann.
+    static byte[] hash(final InputStream body) throws IOException {
+        final var input = new DigestInputStream(body, digest());
+        input.transferTo(OutputStream.nullOutputStream());
+        return input.getMessageDigest().digest();
+    }
+
+    /// Abgelaufene Einträge am Anfang der Map entfernen, die nach dem Zeitpunkt des Verfalls sortiert ist.
+    private void expire(final long now) {
+        final var iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final var entry = iterator.next();
+            if (entry.expires() - now > 0) {
+                return;
+            }
+            iterator.remove();
+            bytes -= entry.size();
+        }
+    }
+
+    /// Die ältesten Einträge verdrängen, solange zu viele Einträge vorhanden sind oder sie zu viele Bytes belegen.
+    private void evict() {
+        final var iterator = entries.values().iterator();
+        while ((entries.size() > MAX_SIZE || bytes > MAX_BYTES) && iterator.hasNext()) {
+            bytes -= iterator.next().size();
+            iterator.remove();
+        }
+    }
+
+    private void remove(final String key) {
+        final var entry = entries.remove(key);
+        if (entry != null) {
+            bytes -= entry.size();
+        }
+    }
+
+    /// Eine gespeicherte Antwort.
+    ///
+    /// @param hash Der Hashwert des Request-Bodys.
+    /// @param response Die Antwort.
+    record Completed(byte[] hash, Object response) {
+        /// Die gespeicherte Antwort für einen wiederholten Request liefern.
+        ///
+        /// @param requestHash Der Hashwert des wiederholten Request-Bodys.
+        /// @return Die gespeicherte Antwort.
+        /// @throws ResponseStatusException mit `422`, falls der Request-Body ein anderer ist.
+        Object replay(final byte[] requestHash) {
+            if (!MessageDigest.isEqual(hash, requestHash)) {
+                throw new ResponseStatusException(UNPROCESSABLE_CONTENT,
+                    "Der Idempotency-Key wurde bereits für einen anderen Request-Body verwendet");
+            }
+            return response;
+        }
+    }
+
+    /// Ein Eintrag im Cache.
+    ///
+    /// @param completed Die gespeicherte Antwort oder `null`, solange der Request ausgeführt wird.
+    /// @param expires Der Zeitpunkt des Verfalls gemäß [System#nanoTime()].
+    /// @param size Die Größe der gespeicherten Antwort in Bytes.
+    private record Entry(@Nullable Completed completed, long expires, long size) {
+    }
+
+    /// [OutputStream], der die geschriebenen Bytes bis zu einer maximalen Anzahl zusätzlich aufzeichnet, z.B.
+    /// einen gestreamten Response-Body.
+    static final class RecordingOutputStream extends FilterOutputStream {
+        private final int limit;
+        private @Nullable ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+
+        /// Einen aufzeichnenden [OutputStream] erzeugen.
+        ///
+        /// @param out Der eigentliche [OutputStream].
+        /// @param limit Die maximale Anzahl aufzuzeichnender Bytes.
+        RecordingOutputStream(final OutputStream out, final int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            record(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            record(b, off, len);
+        }
+
+        /// Die aufgezeichneten Bytes ermitteln.
+        ///
+        /// @return Die aufgezeichneten Bytes oder `null`, falls mehr Bytes geschrieben wurden als aufgezeichnet.
+        byte @Nullable [] recorded() {
+            final var bytes = recorded;
+            return bytes == null ? null : bytes.toByteArray();
+        }
+
+        private void record(final byte[] b, final int off, final int len) {
+            final var bytes = recorded;
+            if (bytes != null && bytes.size() + len > limit) {
+                recorded = null;
+            } else if (bytes != null) {
+                bytes.write(b, off, len);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+
+/// Ergebnis für ein Schiff beim Import, das als eine Zeile im _Newline Delimited JSON_ der Response gesendet
+/// wird.
+///
+/// @param line Die Position des Schiffs im Request-Body, beginnend mit 1.
+/// @param status Der Statuscode wie beim Neuanlegen eines einzelnen Schiffs, d.h. `201`, `400`, `409` oder `422`.
+/// @param id Die generierte ID, falls das Schiff angelegt wurde.
+/// @param detail Die Fehlermeldung wie bei einem `ProblemDetail`, falls das Schiff nicht angelegt wurde.
+/// @author Murat Yahsi
+record ImportResult(int line, int status, @Nullable UUID id, @Nullable String detail) {
+}
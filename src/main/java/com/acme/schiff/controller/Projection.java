@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import com.acme.schiff.entity.Crew;
+import com.acme.schiff.entity.Hafen;
+import com.acme.schiff.entity.Schiff;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectWriter;
+
+/// Kompilierte Projektion für den Query-Parameter `fields`, z.B. `fields=id,name,typ,hafen.name`. Die
+/// ausgewählten Attribute werden einmal in eine Liste von Schreibfunktionen übersetzt, die ein Schiff direkt mit
+/// einem [JsonGenerator] ausgeben, ohne eine Map oder einen Baum als Zwischenergebnis aufzubauen. Wie bei der
+/// vollständigen Serialisierung werden Attribute mit dem Wert `null` ausgelassen, und die Attribute stehen
+/// unabhängig von der Reihenfolge in `fields` in derselben Reihenfolge wie bei einem vollständigen Schiff.
+///
+/// Bei `hafen` und `crewList` kann ein einzelnes Attribut mit einem Punkt ausgewählt werden; ohne Punkt werden
+/// alle Attribute ausgegeben.
+///
+/// @author Murat Yahsi
+final class Projection {
+    private static final List<String> SCHIFF =
+        List.of("id", "name", "baujahr", "kapazitaet", "typ", "hafen", "crewList");
+    private static final List<String> HAFEN = List.of("id", "name", "land");
+    private static final List<String> CREW = List.of("id", "vorname", "nachname", "rolle");
+    private static final Map<String, List<String>> NESTED = Map.of("hafen", HAFEN, "crewList", CREW);
+    private static final char SEPARATOR = '.';
+
+    private final List<Writer<Schiff>> writers;
+
+    private Projection(final List<Writer<Schiff>> writers) {
+        this.writers = writers;
+    }
+
+    /// Den Query-Parameter `fields` in eine Projektion übersetzen.
+    ///
+    /// @param fields Die durch Komma getrennten Attribute.
+    /// @return Die Projektion oder `null`, falls ein Attribut unbekannt ist oder keines angegeben wurde.
+    @SuppressWarnings("ReturnCount")
+    static @Nullable Projection compile(final String fields) {
+        // Attribut -> ausgewählte Attribute des eingebetteten Objekts; eine leere Menge steht für alle
+        final var selection = new HashMap<String, Set<String>>();
+        for (final var field : fields.split(",")) {
+            final var path = field.strip();
+            if (path.isEmpty()) {
+                continue;
+            }
+            final var dot = path.indexOf(SEPARATOR);
+            final var name = dot < 0 ? path : path.substring(0, dot);
+            if (!SCHIFF.contains(name)) {
+                return null;
+            }
+            if (dot < 0) {
+                selection.put(name, Set.of());
+                continue;
+            }
+            final var nested = NESTED.get(name);
+            final var subfield = path.substring(dot + 1);
+            if (nested == null || !nested.contains(subfield)) {
+                return null;
+            }
+            final var current = selection.get(name);
+            if (current == null || !current.isEmpty()) {
+                selection.computeIfAbsent(name, _ -> new HashSet<>()).add(subfield);
+            }
+        }
+        if (selection.isEmpty()) {
+            return null;
+        }
+
+        final var writers = new ArrayList<Writer<Schiff>>(selection.size());
+        for (final var name : SCHIFF) {
+            final var subfields = selection.get(name);
+            if (subfields != null) {
+                writers.add(schiff(name, subfields));
+            }
+        }
+        return new Projection(List.copyOf(writers));
+    }
+
+    /// Ein Schiff als JSON-Objekt mit den ausgewählten Attributen ausgeben.
+    ///
+    /// @param generator Der Generator für die Ausgabe.
+    /// @param schiff Das auszugebende Schiff.
+    void write(final JsonGenerator generator, final Schiff schiff) {
+        writeObject(generator, schiff, writers);
+    }
+
+    /// Schiffe als JSON-Array mit den ausgewählten Attributen serialisieren.
+    ///
+    /// @param writer Der Writer, dessen Konfiguration, z.B. zum Einrücken, für den Generator verwendet wird.
+    /// @param schiffe Die auszugebenden Schiffe.
+    /// @return Das JSON-Array.
+    byte[] writeArray(final ObjectWriter writer, final Collection<Schiff> schiffe) {
+        final var out = new ByteArrayOutputStream();
+        try (var generator = writer.createGenerator(out)) {
+            generator.writeStartArray();
+            for (final var schiff : schiffe) {
+                write(generator, schiff);
+            }
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("CyclomaticComplexity")
+    private static Writer<Schiff> schiff(final String name, final Set<String> subfields) {
+        return switch (name) {
+            case "id" -> text(name, Schiff::getId);
+            case "name" -> string(name, Schiff::getName);
+            case "baujahr" -> text(name, Schiff::getBaujahr);
+            case "kapazitaet" -> (generator, schiff) -> generator.writeNumberProperty(name, schiff.getKapazitaet());
+            case "typ" -> string(name, schiff -> schiff.getTyp() == null ? null : schiff.getTyp().getValue());
+            case "hafen" -> object(name, Schiff::getHafen, nested(HAFEN, subfields, Projection::hafen));
+            case "crewList" -> array(name, Schiff::getCrewList, nested(CREW, subfields, Projection::crew));
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    private static Writer<Hafen> hafen(final String name) {
+        return switch (name) {
+            case "id" -> text(name, Hafen::getId);
+            case "name" -> string(name, Hafen::getName);
+            case "land" -> string(name, Hafen::getLand);
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    private static Writer<Crew> crew(final String name) {
+        return switch (name) {
+            case "id" -> text(name, Crew::getId);
+            case "vorname" -> string(name, Crew::getVorname);
+            case "nachname" -> string(name, Crew::getNachname);
+            case "rolle" -> string(name, Crew::getRolle);
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    private static <T> List<Writer<T>> nested(
+        final List<String> attributes,
+        final Set<String> subfields,
+        final Function<String, Writer<T>> factory
+    ) {
+        return attributes.stream()
+            .filter(attribute -> subfields.isEmpty() || subfields.contains(attribute))
+            .map(factory)
+            .toList();
+    }
+
+    private static <T> Writer<T> string(final String name, final Function<T, @Nullable String> getter) {
+        return (generator, value) -> {
+            final var string = getter.apply(value);
+            if (string != null) {
+                generator.writeStringProperty(name, string);
+            }
+        };
+    }
+
+    /// Ein Attribut wie eine UUID oder ein Datum in ISO-8601 mit `toString()` ausgeben.
+    private static <T> Writer<T> text(final String name, final Function<T, @Nullable Object> getter) {
+        return string(name, value -> {
+            final var text = getter.apply(value);
+            return text == null ? null : text.toString();
+        });
+    }
+
+    private static <T, V> Writer<T> object(
+        final String name,
+        final Function<T, @Nullable V> getter,
+        final List<Writer<V>> writers
+    ) {
+        return (generator, value) -> {
+            final var object = getter.apply(value);
+            if (object != null) {
+                generator.writeName(name);
+                writeObject(generator, object, writers);
+            }
+        };
+    }
+
+    private static <T, V> Writer<T> array(
+        final String name,
+        final Function<T, @Nullable List<V>> getter,
+        final List<Writer<V>> writers
+    ) {
+        return (generator, value) -> {
+            final var list = getter.apply(value);
+            if (list != null) {
+                generator.writeArrayPropertyStart(name);
+                for (final var element : list) {
+                    writeObject(generator, element, writers);
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    private static <T> void writeObject(final JsonGenerator generator, final T value, final List<Writer<T>> writers) {
+        generator.writeStartObject();
+        for (final var writer : writers) {
+            writer.write(generator, value);
+        }
+        generator.writeEndObject();
+    }
+
+    /// Schreibfunktion für ein Attribut einschließlich seines Namens.
+    ///
+    /// @param <T> Der Typ des Objekts, zu dem das Attribut gehört.
+    @FunctionalInterface
+    private interface Writer<T> {
+        /// Das Attribut eines Objekts ausgeben, sofern es nicht `null` ist.
+        ///
+        /// @param generator Der Generator für die Ausgabe.
+        /// @param value Das Objekt mit dem Attribut.
+        void write(JsonGenerator generator, T value);
+    }
+}
@@ -17,30 +17,65 @@
 package com.acme.schiff.controller;
 
 import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.repository.QueryPlan;
+import com.acme.schiff.service.Precompressed;
 import com.acme.schiff.service.SchiffService;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.info.Info;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 import static com.acme.schiff.controller.Constants.API_PATH;
+import static com.acme.schiff.controller.Constants.APPLICATION_SMILE_VALUE;
 import static com.acme.schiff.controller.Constants.ID_PATTERN;
 import static com.acme.schiff.controller.Constants.VERSION_1;
 import static com.acme.schiff.controller.Constants.VERSION_1_EXAMPLE;
 import static com.acme.schiff.controller.Constants.X_VERSION;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LINK;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.ResponseEntity.notFound;
+import static org.springframework.http.ResponseEntity.ok;
+import static org.springframework.http.ResponseEntity.status;
 
 /// Eine Controller-Klasse bildet die REST-Schnittstelle, wobei die HTTP-Methoden, Pfade und MIME-Typen auf die
 /// Methoden der Klasse abgebildet werden.
@@ -51,60 +86,322 @@ import static com.acme.schiff.controller.Constants.X_VERSION;
 @RestController
 @RequestMapping(API_PATH)
 @OpenAPIDefinition(info = @Info(title = "Schiff API", version = VERSION_1))
-@SuppressWarnings("java:S1075")
+@SuppressWarnings({"ClassFanOutComplexity", "java:S1075"})
 class SchiffController {
     private static final String SUCHEN_TAG = "Suchen";
+    private static final String EXPLAIN_PARAM = "explain";
+    private static final String LIMIT_PARAM = "limit";
+    private static final String CURSOR_PARAM = "cursor";
+    private static final int LIMIT_DEFAULT = 100;
+    private static final int LIMIT_MAX = 1000;
+    private static final String FIELDS_PARAM = "fields";
+    private static final int PROJECTIONS_MAX = 64;
     /// Pfad, um Namen abzufragen.
     private final SchiffService service;
+    private final UriHelper uriHelper;
+    private final ObjectWriter jsonWriter;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter cborWriter;
+    private final ObjectWriter smileWriter;
+    private final Map<String, Projection> projections = new ConcurrentHashMap<>();
     private final StableValue<Logger> logger = StableValue.of();
 
     /// Konstruktor mit _package private_ für _Spring_.
     ///
     /// @param service Injiziertes Service-Objekt.
-    SchiffController(final SchiffService service) {
+    /// @param uriHelper Hilfsklasse zum Erzeugen von URIs
+    /// @param jsonMapper Injizierter JSON-Mapper, um die Schiffe zu serialisieren
+    /// @param cborMapper Injizierter Mapper, um die Schiffe mit _CBOR_ zu serialisieren
+    /// @param smileMapper Injizierter Mapper, um die Schiffe mit _Smile_ zu serialisieren
+    SchiffController(
+        final SchiffService service,
+        final UriHelper uriHelper,
+        final JsonMapper jsonMapper,
+        final CBORMapper cborMapper,
+        final SmileMapper smileMapper
+    ) {
         this.service = service;
+        this.uriHelper = uriHelper;
+        jsonWriter = jsonMapper.writerFor(Schiff.class);
+        cborWriter = cborMapper.writerFor(Schiff.class);
+        smileWriter = smileMapper.writerFor(Schiff.class);
+        // je Schiff genau eine Zeile, auch wenn die Ausgabe sonst eingerückt wird
+        ndjsonWriter = jsonMapper.writerFor(Schiff.class)
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("");
     }
 
     // https://docs.spring.io/spring-framework/docs/current/reference/html/web-reactive.html#webflux-ann-methods
     // https://localhost:8443/swagger-ui.html
     /// Suche anhand der Schiff-ID als Pfad-Parameter.
     ///
+    /// Der JSON-Datensatz wird nur beim ersten Lesen und nach einer Änderung des Schiffs serialisiert. Wird kein
+    /// Schiff gefunden, wird der Statuscode `404` ohne eine Exception geliefert. Das `ETag` wird aus der Version
+    /// des Schiffs gebildet; passt es zum Header `If-None-Match`, wird `304` geliefert, ohne zu serialisieren.
+    /// Eine mit `gzip` oder `deflate` komprimierte Variante wird ebenfalls nur einmal je Version berechnet.
+    ///
     /// @param id ID des zu suchenden Schiffe
-    /// @return Gefundener Schiff.
+    /// @param ifNoneMatch Die ETags aus einem vorherigen Lesezugriff.
+    /// @param acceptEncoding Die vom Client akzeptierten Kodierungen.
+    /// @return Gefundener Schiff als JSON-Datensatz.
     @GetMapping(path = "{id:" + ID_PATTERN + "}", version = VERSION_1)
     @Operation(summary = "Suche mit der Schiff-ID", tags = SUCHEN_TAG)
     @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
         schema = @Schema(implementation = String.class))
-    @ApiResponse(responseCode = "200", description = "Schiff gefunden")
+    @ApiResponse(responseCode = "200", description = "Schiff gefunden",
+        content = @Content(schema = @Schema(implementation = Schiff.class)))
+    @ApiResponse(responseCode = "304", description = "Schiff nicht geaendert")
     @ApiResponse(responseCode = "404", description = "Schiff nicht gefunden")
-    Schiff getById(@PathVariable final UUID id) {
+    ResponseEntity<byte[]> getById(
+        @PathVariable final UUID id,
+        @RequestHeader(value = IF_NONE_MATCH, required = false) final @Nullable String ifNoneMatch,
+        @RequestHeader(value = ACCEPT_ENCODING, required = false) final @Nullable String acceptEncoding
+    ) {
         getLogger().debug("getById: id={}, Thread={}", id, Thread.currentThread().getName());
 
+        if (ifNoneMatch != null) {
+            final var version = service.findVersionById(id);
+            final var etag = version.isPresent() ? ETags.match(ifNoneMatch, version.getAsLong()) : null;
+            if (etag != null) {
+                getLogger().debug("getById: nicht geaendert, etag={}", etag);
+                return status(NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+
+        // Geschaeftslogik
+        final var json = service.findJsonById(id, jsonWriter::writeValueAsBytes);
+
+        getLogger().debug("getById: gefunden={}", json.isPresent());
+        return json
+            .map(body -> ContentCodings.body(ok(), body.version(), body.json(), acceptEncoding))
+            .orElseGet(() -> notFound().build());
+    }
+
+    /// Suche anhand der Schiff-ID als Pfad-Parameter mit einer binären Darstellung gemäß `Accept`, d.h.
+    /// `application/cbor` oder `application/x-jackson-smile`. Wie bei JSON wird das `ETag` aus der Version des
+    /// Schiffs gebildet, und zwar mit dem Format als Suffix, z.B. `"42-cbor"`, und `If-None-Match` ausgewertet.
+    ///
+    /// @param id ID des zu suchenden Schiffe
+    /// @param ifNoneMatch Die ETags aus einem vorherigen Lesezugriff.
+    /// @param accept Die vom Client akzeptierten MIME-Typen.
+    /// @return Gefundener Schiff mit _CBOR_ oder _Smile_ serialisiert.
+    @GetMapping(
+        path = "{id:" + ID_PATTERN + "}",
+        version = VERSION_1,
+        produces = {APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+    )
+    @Operation(summary = "Suche mit der Schiff-ID als CBOR oder Smile", tags = SUCHEN_TAG)
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Schiff gefunden",
+        content = @Content(schema = @Schema(implementation = Schiff.class)))
+    @ApiResponse(responseCode = "304", description = "Schiff nicht geaendert")
+    @ApiResponse(responseCode = "404", description = "Schiff nicht gefunden")
+    ResponseEntity<byte[]> getByIdBinary(
+        @PathVariable final UUID id,
+        @RequestHeader(value = IF_NONE_MATCH, required = false) final @Nullable String ifNoneMatch,
+        @RequestHeader(value = ACCEPT, required = false) final @Nullable String accept
+    ) {
+        getLogger().debug("getByIdBinary: id={}, accept={}", id, accept);
+
+        if (ifNoneMatch != null) {
+            final var version = service.findVersionById(id);
+            final var etag = version.isPresent() ? ETags.match(ifNoneMatch, version.getAsLong()) : null;
+            if (etag != null) {
+                return status(NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+
         // Geschaeftslogik
-        final var schiff = service.findById(id);
+        final var schiff = service.findOptionalById(id);
 
-        getLogger().debug("getById: schiff={}", schiff);
-        return schiff;
+        getLogger().debug("getByIdBinary: gefunden={}", schiff.isPresent());
+        final var format = BinaryFormat.negotiate(accept);
+        return schiff
+            .map(gefunden -> ok()
+                .eTag(ETags.of(gefunden.getVersion(), format))
+                .contentType(format.getMediaType())
+                .varyBy(ACCEPT)
+                .body(writer(format).writeValueAsBytes(gefunden)))
+            .orElseGet(() -> notFound().build());
     }
 
-    /// Suche mit diversen Query-Parameter.
+    /// Suche mit diversen Query-Parameter. Mit `limit` werden die Schiffe seitenweise geliefert, z.B.
+    /// `GET /api?typ=F&limit=100`. Die URI der nächsten Seite mit dem Query-Parameter `cursor` steht im
+    /// `Link`-Header mit `rel="next"`; alle Seiten stammen aus demselben Datenbestand. Ohne `limit` wird das
+    /// JSON-Array bis zur nächsten Änderung des Datenbestands wiederverwendet, und zwar auch die mit `gzip` oder
+    /// `deflate` komprimierte Variante, die gemäß `Accept-Encoding` gesendet wird. Mit `fields` werden nur die
+    /// angegebenen Attribute geliefert, z.B. `GET /api?fields=id,name,typ,hafen.name`.
     ///
     /// @param queryparam Query-Parameter als Map .
-    /// @return Gefundenen Schiffe als [Collection].
+    /// @param request Das Request-Objekt, um die URIs im `Link`-Header zu bauen.
+    /// @param acceptEncoding Die vom Client akzeptierten Kodierungen.
+    /// @return Gefundenen Schiffe als JSON-Array.
     @GetMapping(version = VERSION_1)
     @Operation(summary = "Suche mit Query-Parameter", tags = SUCHEN_TAG)
     @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
         schema = @Schema(implementation = String.class))
-    @ApiResponse(responseCode = "200", description = "Collection mit den Schiffe")
+    @ApiResponse(responseCode = "200", description = "Collection mit den Schiffe",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = Schiff.class))))
+    @ApiResponse(responseCode = "400", description = "Ungueltiges Limit, ungueltiger Cursor oder ungueltige Attribute")
     @ApiResponse(responseCode = "404", description = "Keine Schiffe gefunden")
-    Collection<Schiff> get(@RequestParam final MultiValueMap<String, String> queryparam) {
+    ResponseEntity<byte[]> get(
+        @RequestParam final MultiValueMap<String, String> queryparam,
+        final HttpServletRequest request,
+        @RequestHeader(value = ACCEPT_ENCODING, required = false) final @Nullable String acceptEncoding
+    ) {
         getLogger().debug("get: queryparam={}", queryparam);
+        return find(queryparam, request, null, acceptEncoding);
+    }
+
+    /// Suche mit diversen Query-Parameter wie bei JSON einschließlich `limit`, `cursor` und `fields`, wobei die
+    /// Schiffe gemäß `Accept` mit _CBOR_ oder _Smile_ serialisiert werden. Das binäre Array wird jeweils neu
+    /// serialisiert, die Suche selbst wird wie bei JSON wiederverwendet.
+    ///
+    /// @param queryparam Query-Parameter als Map.
+    /// @param request Das Request-Objekt, um die URIs im `Link`-Header zu bauen.
+    /// @param accept Die vom Client akzeptierten MIME-Typen.
+    /// @return Gefundenen Schiffe als Array mit _CBOR_ oder _Smile_ serialisiert.
+    @GetMapping(version = VERSION_1, produces = {APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Suche mit Query-Parameter als CBOR oder Smile", tags = SUCHEN_TAG)
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Collection mit den Schiffe",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = Schiff.class))))
+    @ApiResponse(responseCode = "400", description = "Ungueltiges Limit, ungueltiger Cursor oder ungueltige Attribute")
+    @ApiResponse(responseCode = "404", description = "Keine Schiffe gefunden")
+    ResponseEntity<byte[]> getBinary(
+        @RequestParam final MultiValueMap<String, String> queryparam,
+        final HttpServletRequest request,
+        @RequestHeader(value = ACCEPT, required = false) final @Nullable String accept
+    ) {
+        getLogger().debug("getBinary: queryparam={}, accept={}", queryparam, accept);
+        return find(queryparam, request, BinaryFormat.negotiate(accept), null);
+    }
+
+    private ResponseEntity<byte[]> find(
+        final MultiValueMap<String, String> queryparam,
+        final HttpServletRequest request,
+        final @Nullable BinaryFormat format,
+        final @Nullable String acceptEncoding
+    ) {
+        final var suchparameter = new LinkedMultiValueMap<>(queryparam);
+        final var fields = suchparameter.remove(FIELDS_PARAM);
+        final var projection = projection(fields);
+        if (!suchparameter.containsKey(LIMIT_PARAM) && !suchparameter.containsKey(CURSOR_PARAM)) {
+            return getAll(suchparameter, projection, format, acceptEncoding);
+        }
+
+        final var limit = parseLimit(suchparameter.remove(LIMIT_PARAM));
+        final var cursor = suchparameter.remove(CURSOR_PARAM);
+        if (cursor != null && cursor.size() != 1) {
+            throw new ResponseStatusException(BAD_REQUEST, "Genau ein Cursor ist erforderlich");
+        }
+        final var page = service.find(suchparameter, limit, cursor == null ? null : cursor.getFirst());
+        if (cursor == null && page.schiffe().isEmpty()) {
+            return notFound().build();
+        }
+
+        final var uri = UriComponentsBuilder.fromUri(uriHelper.getBaseUri(request))
+            .queryParams(suchparameter)
+            .queryParam(LIMIT_PARAM, limit);
+        if (fields != null) {
+            uri.queryParam(FIELDS_PARAM, fields);
+        }
+        final var links = new ArrayList<String>(2);
+        links.add("<" + uri.build().encode().toUriString() + ">; rel=\"first\"");
+        final var next = page.next();
+        if (next != null) {
+            links.add("<" + uri.queryParam(CURSOR_PARAM, next).build().encode().toUriString() + ">; rel=\"next\"");
+        }
+        getLogger().debug("find: #schiffe={}, links={}", page.schiffe().size(), links);
+        return response(format)
+            .header(LINK, String.join(", ", links))
+            .body(writeArray(format, projection, page.schiffe()));
+    }
+
+    private ResponseEntity<byte[]> getAll(
+        final MultiValueMap<String, String> suchparameter,
+        final @Nullable Projection projection,
+        final @Nullable BinaryFormat format,
+        final @Nullable String acceptEncoding
+    ) {
+        if (projection != null || format != null) {
+            // Geschaeftslogik
+            final var schiffe = service.findOptional(suchparameter);
+            getLogger().debug("getAll: gefunden={}", schiffe.isPresent());
+            return schiffe
+                .map(gefunden -> response(format).body(writeArray(format, projection, gefunden)))
+                .orElseGet(() -> notFound().build());
+        }
 
         // Geschaeftslogik
-        final var schiffe = service.find(queryparam);
+        final var json = service.findJson(suchparameter, jsonWriter::writeValueAsBytes);
+        getLogger().debug("getAll: gefunden={}", json.isPresent());
+        return json
+            .map(body -> ContentCodings.body(ok(), body, acceptEncoding))
+            .orElseGet(() -> notFound().build());
+    }
+
+    /// Suche mit diversen Query-Parameter, wobei die gefundenen Schiffe als _Newline Delimited JSON_ einzeln
+    /// geschrieben werden, während das Repository den Datenbestand durchläuft. Der Speicherbedarf ist dadurch
+    /// unabhängig von der Anzahl der Treffer und das erste Schiff wird sofort gesendet. Gibt es keine Treffer,
+    /// ist der Response-Body leer. Wie bei der Suche ohne NDJSON können die Attribute mit `fields` ausgewählt
+    /// werden.
+    ///
+    /// @param queryparam Query-Parameter als Map.
+    /// @return Die gefundenen Schiffe als Stream mit je einem JSON-Datensatz pro Zeile.
+    @GetMapping(version = VERSION_1, produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Suche mit Query-Parameter als NDJSON-Stream", tags = SUCHEN_TAG)
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Stream mit den Schiffe")
+    ResponseEntity<StreamingResponseBody> getNdjson(@RequestParam final MultiValueMap<String, String> queryparam) {
+        getLogger().debug("getNdjson: queryparam={}", queryparam);
 
-        getLogger().debug("get: schiffe={}", schiffe);
-        return schiffe;
+        final var suchparameter = new LinkedMultiValueMap<>(queryparam);
+        final var projection = projection(suchparameter.remove(FIELDS_PARAM));
+        final StreamingResponseBody body = out -> {
+            try (var generator = ndjsonWriter.createGenerator(out)) {
+                final var written = new boolean[1];
+                final var count = service.forEach(suchparameter, schiff -> {
+                    if (projection == null) {
+                        ndjsonWriter.writeValue(generator, schiff);
+                    } else {
+                        projection.write(generator, schiff);
+                    }
+                    generator.writeRaw('\n');
+                    // das erste Schiff sofort senden, danach schreiben die Puffer selbst, sobald sie voll sind
+                    if (!written[0]) {
+                        generator.flush();
+                        written[0] = true;
+                    }
+                });
+                getLogger().debug("getNdjson: count={}", count);
+            }
+        };
+        return ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    /// Ausführungsplan für eine Suche mit diversen Query-Parameter, z.B. `GET /api?typ=F&explain=true`.
+    ///
+    /// @param queryparam Query-Parameter als Map einschließlich `explain=true`.
+    /// @return Der gewählte Zugriffspfad mit geschätzten und tatsächlichen Zeilen.
+    @GetMapping(version = VERSION_1, params = EXPLAIN_PARAM + "=true")
+    @Operation(summary = "Ausfuehrungsplan fuer eine Suche mit Query-Parameter", tags = SUCHEN_TAG)
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Ausfuehrungsplan")
+    QueryPlan explain(@RequestParam final MultiValueMap<String, String> queryparam) {
+        getLogger().debug("explain: queryparam={}", queryparam);
+
+        final var suchparameter = new LinkedMultiValueMap<>(queryparam);
+        suchparameter.remove(EXPLAIN_PARAM);
+        final var plan = service.explain(suchparameter);
+
+        getLogger().debug("explain: plan={}", plan);
+        return plan;
     }
 
     /// Beispiel für Deprecation.
@@ -120,6 +417,79 @@ class SchiffController {
         return Map.of("deprecated", "Support ist abgelaufen");
     }
 
+    /// Einen Response mit `200` und dem `Content-Type` des gewählten Formats erstellen.
+    private static ResponseEntity.BodyBuilder response(final @Nullable BinaryFormat format) {
+        return format == null
+            ? ok().contentType(APPLICATION_JSON)
+            : ok().contentType(format.getMediaType()).varyBy(ACCEPT);
+    }
+
+    /// Die Schiffe als Array im gewählten Format schreiben, ggf. nur mit den Attributen der Projektion.
+    private byte[] writeArray(
+        final @Nullable BinaryFormat format,
+        final @Nullable Projection projection,
+        final Collection<Schiff> schiffe
+    ) {
+        final var writer = format == null ? jsonWriter : writer(format);
+        if (projection != null) {
+            return projection.writeArray(writer, schiffe);
+        }
+        if (format == null) {
+            return Precompressed.jsonArray(schiffe.stream().map(jsonWriter::writeValueAsBytes).toList()).identity();
+        }
+        final var out = new ByteArrayOutputStream();
+        try (var generator = writer.createGenerator(out)) {
+            generator.writeStartArray();
+            for (final var schiff : schiffe) {
+                writer.writeValue(generator, schiff);
+            }
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    private ObjectWriter writer(final BinaryFormat format) {
+        return switch (format) {
+            case CBOR -> cborWriter;
+            case SMILE -> smileWriter;
+        };
+    }
+
+    /// Die Projektion zum Query-Parameter `fields` ermitteln. Eine übersetzte Projektion wird wiederverwendet,
+    /// wobei nur eine begrenzte Anzahl verschiedener Werte von `fields` vorgehalten wird.
+    private @Nullable Projection projection(final @Nullable List<String> fields) {
+        if (fields == null) {
+            return null;
+        }
+        final var key = String.join(",", fields);
+        var projection = projections.get(key);
+        if (projection == null) {
+            projection = Projection.compile(key);
+            if (projection == null) {
+                throw new ResponseStatusException(BAD_REQUEST, "Ungueltige Attribute in fields: " + key);
+            }
+            if (projections.size() < PROJECTIONS_MAX) {
+                projections.putIfAbsent(key, projection);
+            }
+        }
+        return projection;
+    }
+
+    private static int parseLimit(final @Nullable List<String> limit) {
+        if (limit == null) {
+            return LIMIT_DEFAULT;
+        }
+        try {
+            final var value = limit.size() == 1 ? Integer.parseInt(limit.getFirst()) : 0;
+            if (value >= 1 && value <= LIMIT_MAX) {
+                return value;
+            }
+        } catch (final NumberFormatException _) {
+            // siehe unten
+        }
+        throw new ResponseStatusException(BAD_REQUEST, "Das Limit muss zwischen 1 und " + LIMIT_MAX + " liegen");
+    }
+
     private Logger getLogger() {
         return logger.orElseSet(() -> LoggerFactory.getLogger(SchiffController.class));
     }
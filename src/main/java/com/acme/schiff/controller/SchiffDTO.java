@@ -28,7 +28,8 @@ import java.time.LocalDate;
 import java.util.List;
 import org.jspecify.annotations.Nullable;
 
-/// ValueObject für das Neuanlegen und Ändern eines Schiffs.
+/// ValueObject für das Neuanlegen und Ändern eines Schiffs. Beim Einlesen fehlende Werte sind `null` und werden
+/// erst anschließend mit _Jakarta Validation_ geprüft.
 ///
 /// @author Murat Yahsi
 /// @param name Name des Schiffs, d.h. mit einem geeigneten Muster.
@@ -42,10 +43,12 @@ record SchiffDTO(
     @NotNull
     @Pattern(regexp = NAME_PATTERN)
     @Size(max = NAME_MAX_LENGTH)
+    @Nullable
     String name,
 
     @NotNull
     @Past
+    @Nullable
     LocalDate baujahr,
 
     @Min(MIN_KAPAZITAET)
@@ -53,14 +56,16 @@ record SchiffDTO(
     int kapazitaet,
 
     @NotNull
+    @Nullable
     SchiffTyp typ,
 
     @Valid
     @NotNull(groups = OnCreate.class)
+    @Nullable
     HafenDTO hafen,
 
     @Nullable
-    List<@Valid CrewDTO> crewList
+    List<@Valid @NotNull @Nullable CrewDTO> crewList
 ) {
     public static final String NAME_PATTERN = "[A-ZÄÖÜ][a-zäöüß]+(-[A-ZÄÖÜ][a-zäöüß]+)?";
     public static final int MIN_KAPAZITAET = 1;
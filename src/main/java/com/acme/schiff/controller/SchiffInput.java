@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import com.acme.schiff.entity.Schiff;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+import static com.acme.schiff.controller.SchiffDTO.MAX_KAPAZITAET;
+import static com.acme.schiff.controller.SchiffDTO.MIN_KAPAZITAET;
+import static com.acme.schiff.controller.SchiffDTO.NAME_MAX_LENGTH;
+import static com.acme.schiff.controller.SchiffDTO.NAME_PATTERN;
+import static java.util.Collections.singletonList;
+
+/// Request-Body für das Neuanlegen und Ändern eines Schiffs, der von [SchiffModule] beim Lesen der Token direkt
+/// als [Schiff] mit [com.acme.schiff.entity.Hafen] und [com.acme.schiff.entity.Crew] erzeugt wird, d.h. ohne
+/// [SchiffDTO] als Zwischenschritt.
+///
+/// Die Constraints von [SchiffDTO], [HafenDTO] und [CrewDTO] werden dabei mit einfachen Vergleichen geprüft.
+/// Jeder Wert, der einen Constraint verletzen _kann_, wird als [Violation] vorgemerkt und anschließend im
+/// Controller mit _Jakarta Validation_ für genau dieses Attribut bestätigt, damit die Fehlermeldungen unverändert
+/// bleiben. Ein gültiger Request-Body kommt deshalb ohne Reflection bei der Validierung aus.
+///
+/// @param schiff Das eingelesene Schiff ohne ID und Version.
+/// @param violations Die möglichen Verletzungen der Constraints; leer, falls der Request-Body gültig ist.
+/// @author Murat Yahsi
+record SchiffInput(Schiff schiff, List<Violation> violations) {
+    private static final Pattern NAME = Pattern.compile(NAME_PATTERN);
+
+    /// Ein eingelesenes Schiff prüfen.
+    ///
+    /// @param schiff Das eingelesene Schiff, dessen Attribute `null` sein können.
+    /// @return Das Schiff mit den möglichen Verletzungen der Constraints.
+    @SuppressWarnings({"CyclomaticComplexity", "NPathComplexity"})
+    static SchiffInput of(final Schiff schiff) {
+        final var violations = new ArrayList<Violation>();
+        final var name = schiff.getName();
+        if (name == null || name.length() > NAME_MAX_LENGTH || !NAME.matcher(name).matches()) {
+            violations.add(new Violation("name", SchiffDTO.class, "name", name));
+        }
+        // @Past wird mit der Uhr des Validators geprüft; ein Tag Abstand deckt abweichende Zeitzonen ab
+        final var baujahr = schiff.getBaujahr();
+        if (baujahr == null || !baujahr.isBefore(LocalDate.now().minusDays(1))) {
+            violations.add(new Violation("baujahr", SchiffDTO.class, "baujahr", baujahr));
+        }
+        final var kapazitaet = schiff.getKapazitaet();
+        if (kapazitaet < MIN_KAPAZITAET || kapazitaet > MAX_KAPAZITAET) {
+            violations.add(new Violation("kapazitaet", SchiffDTO.class, "kapazitaet", kapazitaet));
+        }
+        if (schiff.getTyp() == null) {
+            violations.add(new Violation("typ", SchiffDTO.class, "typ", null));
+        }
+
+        final var hafen = schiff.getHafen();
+        if (hafen == null) {
+            // nur beim Neuanlegen erforderlich, siehe SchiffDTO.OnCreate
+            violations.add(new Violation("hafen", SchiffDTO.class, "hafen", null));
+        } else {
+            checkBlank(violations, "hafen.name", HafenDTO.class, "name", hafen.getName());
+            checkBlank(violations, "hafen.land", HafenDTO.class, "land", hafen.getLand());
+        }
+
+        final var crewList = schiff.getCrewList();
+        if (crewList != null) {
+            for (var i = 0; i < crewList.size(); i++) {
+                final var crew = crewList.get(i);
+                if (crew == null) {
+                    // @NotNull für das Element mit einer Liste aus nur diesem Element prüfen, damit die
+                    // Fehlermeldung genau einmal je Element entsteht
+                    final var path = "crewList[" + i + "]";
+                    violations.add(new Violation(path, SchiffDTO.class, "crewList", singletonList(null)));
+                    continue;
+                }
+                final var prefix = "crewList[" + i + "].";
+                checkBlank(violations, prefix + "vorname", CrewDTO.class, "vorname", crew.getVorname());
+                checkBlank(violations, prefix + "nachname", CrewDTO.class, "nachname", crew.getNachname());
+                if (crew.getRolle() == null) {
+                    violations.add(new Violation(prefix + "rolle", CrewDTO.class, "rolle", null));
+                }
+            }
+        }
+        return new SchiffInput(schiff, violations);
+    }
+
+    /// Wie bei `@NotBlank` wird der Wert vor der Prüfung mit [String#trim()] gekürzt.
+    private static void checkBlank(
+        final List<Violation> violations,
+        final String path,
+        final Class<?> type,
+        final String property,
+        final @Nullable String value
+    ) {
+        if (value == null || value.trim().isEmpty()) {
+            violations.add(new Violation(path, type, property, value));
+        }
+    }
+
+    /// Eine mögliche Verletzung eines Constraints.
+    ///
+    /// @param path Der Pfad des Attributs im Request-Body, z.B. `crewList[0].vorname`.
+    /// @param type Die Klasse mit den Constraints für das Attribut.
+    /// @param property Der Name des Attributs in dieser Klasse.
+    /// @param value Der eingelesene Wert.
+    record Violation(String path, Class<?> type, String property, @Nullable Object value) {
+    }
+}
@@ -0,0 +1,621 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import com.acme.schiff.controller.SchiffPatch.HafenPatch;
+import com.acme.schiff.controller.SchiffPatch.Value;
+import com.acme.schiff.entity.Crew;
+import com.acme.schiff.entity.Hafen;
+import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.entity.SchiffTyp;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.StreamWriteCapability;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.deser.std.StdDeserializer;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+/// Jackson-Modul mit handgeschriebenen Serializern für [Schiff], [Hafen] und [Crew] sowie Deserializern
+/// für [SchiffDTO], [SchiffInput] und [SchiffPatch]. Die Attribute werden direkt mit dem [JsonGenerator]
+/// geschrieben bzw. vom [JsonParser] gelesen, ohne Reflection und ohne `@JsonValue` bei [SchiffTyp]. Die
+/// Property-Namen und die Werte von [SchiffTyp] sind vorab kodiert; Datum und UUID werden ohne einen String als
+/// Zwischenergebnis geschrieben.
+///
+/// Wie bei `jackson.default-property-inclusion: non_null` werden `null`-Werte nicht geschrieben. Bei binären
+/// Formaten wie _CBOR_ wird eine UUID wie bei Jackson als 16 Bytes geschrieben. Alle anderen Token, z.B. eine
+/// Zahl als String oder ein ungültiges Datum, werden an die Standard-Deserializer von Jackson delegiert, damit
+/// Konvertierungen und Fehlermeldungen unverändert bleiben.
+///
+/// Spring Boot registriert das Modul für den JSON-Mapper, die `WebConfig` für _CBOR_ und _Smile_.
+///
+/// @author Murat Yahsi
+@Component
+@SuppressWarnings({"ClassDataAbstractionCoupling", "serial"})
+final class SchiffModule extends SimpleModule {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString BAUJAHR = new SerializedString("baujahr");
+    private static final SerializedString KAPAZITAET = new SerializedString("kapazitaet");
+    private static final SerializedString TYP = new SerializedString("typ");
+    private static final SerializedString HAFEN = new SerializedString("hafen");
+    private static final SerializedString CREW_LIST = new SerializedString("crewList");
+    private static final SerializedString LAND = new SerializedString("land");
+    private static final SerializedString VORNAME = new SerializedString("vorname");
+    private static final SerializedString NACHNAME = new SerializedString("nachname");
+    private static final SerializedString ROLLE = new SerializedString("rolle");
+
+    /// Die Werte von [SchiffTyp] gemäß [SchiffTyp#getValue()], indiziert mit der Ordinalzahl.
+    private static final SerializableString[] TYPEN = Stream.of(SchiffTyp.values())
+        .map(typ -> new SerializedString(typ.getValue()))
+        .toArray(SerializableString[]::new);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int DATE_LENGTH = 10;
+    private static final int UUID_LENGTH = 36;
+    private static final int YEAR_MAX = 9999;
+    private static final Factory<SchiffDTO, HafenDTO, CrewDTO> DTO = new DtoFactory();
+    private static final Factory<Schiff, Hafen, Crew> ENTITY = new EntityFactory();
+
+    /// Konstruktor mit _package private_ für _Spring_.
+    SchiffModule() {
+        super("SchiffModule");
+        addSerializer(Schiff.class, new SchiffSerializer());
+        addSerializer(Hafen.class, new HafenSerializer());
+        addSerializer(Crew.class, new CrewSerializer());
+        addDeserializer(SchiffDTO.class, new SchiffDTODeserializer());
+        addDeserializer(SchiffInput.class, new SchiffInputDeserializer());
+        addDeserializer(SchiffPatch.class, new SchiffPatchDeserializer());
+    }
+
+    // -------------------------------------------------------------------------------------------------------------
+    // Serialisieren
+    // -------------------------------------------------------------------------------------------------------------
+
+    private static void writeSchiff(final JsonGenerator generator, final Schiff schiff) {
+        generator.writeStartObject(schiff);
+        writeUuid(generator, ID, schiff.getId());
+        writeString(generator, NAME, schiff.getName());
+        final var baujahr = schiff.getBaujahr();
+        if (baujahr != null) {
+            generator.writeName(BAUJAHR);
+            writeDate(generator, baujahr);
+        }
+        generator.writeName(KAPAZITAET);
+        generator.writeNumber(schiff.getKapazitaet());
+        final var typ = schiff.getTyp();
+        if (typ != null) {
+            generator.writeName(TYP);
+            generator.writeString(TYPEN[typ.ordinal()]);
+        }
+        final var hafen = schiff.getHafen();
+        if (hafen != null) {
+            generator.writeName(HAFEN);
+            writeHafen(generator, hafen);
+        }
+        final var crewList = schiff.getCrewList();
+        if (crewList != null) {
+            generator.writeName(CREW_LIST);
+            generator.writeStartArray(crewList, crewList.size());
+            for (final var crew : crewList) {
+                writeCrew(generator, crew);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeHafen(final JsonGenerator generator, final Hafen hafen) {
+        generator.writeStartObject(hafen);
+        writeUuid(generator, ID, hafen.getId());
+        writeString(generator, NAME, hafen.getName());
+        writeString(generator, LAND, hafen.getLand());
+        generator.writeEndObject();
+    }
+
+    private static void writeCrew(final JsonGenerator generator, final Crew crew) {
+        generator.writeStartObject(crew);
+        writeUuid(generator, ID, crew.getId());
+        writeString(generator, VORNAME, crew.getVorname());
+        writeString(generator, NACHNAME, crew.getNachname());
+        writeString(generator, ROLLE, crew.getRolle());
+        generator.writeEndObject();
+    }
+
+    private static void writeString(
+        final JsonGenerator generator,
+        final SerializableString name,
+        final @Nullable String value
+    ) {
+        if (value != null) {
+            generator.writeName(name);
+            generator.writeString(value);
+        }
+    }
+
+    /// Eine UUID wie [UUID#toString()] schreiben, bei einem binären Format wie bei Jackson als 16 Bytes.
+    @SuppressWarnings("MagicNumber")
+    private static void writeUuid(
+        final JsonGenerator generator,
+        final SerializableString name,
+        final @Nullable UUID uuid
+    ) {
+        if (uuid == null) {
+            return;
+        }
+        generator.writeName(name);
+        final var msb = uuid.getMostSignificantBits();
+        final var lsb = uuid.getLeastSignificantBits();
+        if (generator.has(StreamWriteCapability.CAN_WRITE_BINARY_NATIVELY)) {
+            final var bytes = new byte[Long.BYTES * 2];
+            for (var i = 0; i < Long.BYTES; i++) {
+                bytes[i] = (byte) (msb >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+                bytes[Long.BYTES + i] = (byte) (lsb >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+            }
+            generator.writeBinary(bytes);
+            return;
+        }
+        final var chars = new char[UUID_LENGTH];
+        hex(chars, 0, msb >>> 32, 8);
+        chars[8] = '-';
+        hex(chars, 9, msb >>> 16, 4);
+        chars[13] = '-';
+        hex(chars, 14, msb, 4);
+        chars[18] = '-';
+        hex(chars, 19, lsb >>> 48, 4);
+        chars[23] = '-';
+        hex(chars, 24, lsb, 12);
+        generator.writeString(chars, 0, UUID_LENGTH);
+    }
+
+    /// Ein Datum wie [LocalDate#toString()] im Format `yyyy-MM-dd` schreiben.
+    @SuppressWarnings("MagicNumber")
+    private static void writeDate(final JsonGenerator generator, final LocalDate date) {
+        final var year = date.getYear();
+        if (year < 0 || year > YEAR_MAX) {
+            generator.writeString(date.toString());
+            return;
+        }
+        final var chars = new char[DATE_LENGTH];
+        digits(chars, 0, year, 4);
+        chars[4] = '-';
+        digits(chars, 5, date.getMonthValue(), 2);
+        chars[7] = '-';
+        digits(chars, 8, date.getDayOfMonth(), 2);
+        generator.writeString(chars, 0, DATE_LENGTH);
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static void hex(final char[] chars, final int offset, final long value, final int count) {
+        var rest = value;
+        for (var i = offset + count - 1; i >= offset; i--) {
+            chars[i] = HEX[(int) (rest & 0xF)];
+            rest >>>= 4;
+        }
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static void digits(final char[] chars, final int offset, final int value, final int count) {
+        var rest = value;
+        for (var i = offset + count - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------------------
+    // Deserialisieren
+    // -------------------------------------------------------------------------------------------------------------
+
+    private static <S> S deserialize(
+        final JsonParser parser,
+        final DeserializationContext ctx,
+        final ValueDeserializer<?> deserializer,
+        final Factory<S, ?, ?> factory
+    ) {
+        if (parser.hasToken(JsonToken.START_OBJECT) || parser.hasToken(JsonToken.PROPERTY_NAME)
+            || parser.hasToken(JsonToken.END_OBJECT)) {
+            return readSchiff(parser, ctx, deserializer, factory);
+        }
+        @SuppressWarnings("unchecked")
+        final var result = (S) ctx.handleUnexpectedToken(SchiffDTO.class, parser);
+        return result;
+    }
+
+    @SuppressWarnings("CyclomaticComplexity")
+    private static <S, H, C> S readSchiff(
+        final JsonParser parser,
+        final DeserializationContext ctx,
+        final ValueDeserializer<?> deserializer,
+        final Factory<S, H, C> factory
+    ) {
+        String name = null;
+        LocalDate baujahr = null;
+        var kapazitaet = 0;
+        SchiffTyp typ = null;
+        H hafen = null;
+        List<@Nullable C> crewList = null;
+        // innerhalb eines gepufferten Objekts steht der Parser bereits auf dem ersten Property
+        var token = parser.hasToken(JsonToken.START_OBJECT) ? parser.nextToken() : parser.currentToken();
+        for (; token == JsonToken.PROPERTY_NAME; token = parser.nextToken()) {
+            final var property = parser.currentName();
+            parser.nextToken();
+            switch (property) {
+                case "name" -> name = readString(parser, ctx);
+                case "baujahr" -> baujahr = readDate(parser, ctx);
+                case "kapazitaet" -> kapazitaet = readInt(parser, ctx);
+                case "typ" -> typ = readTyp(parser, ctx);
+                case "hafen" -> hafen = readHafen(parser, ctx, deserializer, factory);
+                case "crewList" -> crewList = readCrewList(parser, ctx, deserializer, factory);
+                default -> ctx.handleUnknownProperty(parser, deserializer, SchiffDTO.class, property);
+            }
+        }
+        return factory.schiff(name, baujahr, kapazitaet, typ, hafen, crewList);
+    }
+
+    private static <H> @Nullable H readHafen(
+        final JsonParser parser,
+        final DeserializationContext ctx,
+        final ValueDeserializer<?> deserializer,
+        final Factory<?, H, ?> factory
+    ) {
+        if (!parser.hasToken(JsonToken.START_OBJECT)) {
+            return parser.hasToken(JsonToken.VALUE_NULL) ? null : unexpected(parser, ctx, HafenDTO.class);
+        }
+        String name = null;
+        String land = null;
+        for (var token = parser.nextToken(); token == JsonToken.PROPERTY_NAME; token = parser.nextToken()) {
+            final var property = parser.currentName();
+            parser.nextToken();
+            switch (property) {
+                case "name" -> name = readString(parser, ctx);
+                case "land" -> land = readString(parser, ctx);
+                default -> ctx.handleUnknownProperty(parser, deserializer, HafenDTO.class, property);
+            }
+        }
+        return factory.hafen(name, land);
+    }
+
+    private static <C> @Nullable List<@Nullable C> readCrewList(
+        final JsonParser parser,
+        final DeserializationContext ctx,
+        final ValueDeserializer<?> deserializer,
+        final Factory<?, ?, C> factory
+    ) {
+        if (!parser.hasToken(JsonToken.START_ARRAY)) {
+            return parser.hasToken(JsonToken.VALUE_NULL) ? null : unexpected(parser, ctx, List.class);
+        }
+        final var crewList = new ArrayList<@Nullable C>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            crewList.add(readCrew(parser, ctx, deserializer, factory));
+        }
+        return crewList;
+    }
+
+    private static <C> @Nullable C readCrew(
+        final JsonParser parser,
+        final DeserializationContext ctx,
+        final ValueDeserializer<?> deserializer,
+        final Factory<?, ?, C> factory
+    ) {
+        if (!parser.hasToken(JsonToken.START_OBJECT)) {
+            return parser.hasToken(JsonToken.VALUE_NULL) ? null : unexpected(parser, ctx, CrewDTO.class);
+        }
+        String vorname = null;
+        String nachname = null;
+        String rolle = null;
+        for (var token = parser.nextToken(); token == JsonToken.PROPERTY_NAME; token = parser.nextToken()) {
+            final var property = parser.currentName();
+            parser.nextToken();
+            switch (property) {
+                case "vorname" -> vorname = readString(parser, ctx);
+                case "nachname" -> nachname = readString(parser, ctx);
+                case "rolle" -> rolle = readString(parser, ctx);
+                default -> ctx.handleUnknownProperty(parser, deserializer, CrewDTO.class, property);
+            }
+        }
+        return factory.crew(vorname, nachname, rolle);
+    }
+
+    /// Einen _JSON Merge Patch_ lesen: Für jedes vorhandene Attribut wird der Wert wie bei [#readSchiff] gelesen,
+    /// fehlende Attribute bleiben `null`.
+    @SuppressWarnings("CyclomaticComplexity")
+    private static SchiffPatch readPatch(
+        final JsonParser parser,
+        final DeserializationContext ctx,
+        final ValueDeserializer<?> deserializer
+    ) {
+        Value<String> name = null;
+        Value<LocalDate> baujahr = null;
+        Integer kapazitaet = null;
+        Value<SchiffTyp> typ = null;
+        Value<HafenPatch> hafen = null;
+        Value<List<@Nullable Crew>> crewList = null;
+        var token = parser.hasToken(JsonToken.START_OBJECT) ? parser.nextToken() : parser.currentToken();
+        for (; token == JsonToken.PROPERTY_NAME; token = parser.nextToken()) {
+            final var property = parser.currentName();
+            parser.nextToken();
+            switch (property) {
+                case "name" -> name = new Value<>(readString(parser, ctx));
+                case "baujahr" -> baujahr = new Value<>(readDate(parser, ctx));
+                case "kapazitaet" -> kapazitaet = readInt(parser, ctx);
+                case "typ" -> typ = new Value<>(readTyp(parser, ctx));
+                case "hafen" -> hafen = new Value<>(readHafenPatch(parser, ctx, deserializer));
+                case "crewList" -> crewList = new Value<>(readCrewList(parser, ctx, deserializer, ENTITY));
+                default -> ctx.handleUnknownProperty(parser, deserializer, SchiffPatch.class, property);
+            }
+        }
+        return new SchiffPatch(name, baujahr, kapazitaet, typ, hafen, crewList);
+    }
+
+    private static @Nullable HafenPatch readHafenPatch(
+        final JsonParser parser,
+        final DeserializationContext ctx,
+        final ValueDeserializer<?> deserializer
+    ) {
+        if (!parser.hasToken(JsonToken.START_OBJECT)) {
+            return parser.hasToken(JsonToken.VALUE_NULL) ? null : unexpected(parser, ctx, HafenDTO.class);
+        }
+        Value<String> name = null;
+        Value<String> land = null;
+        for (var token = parser.nextToken(); token == JsonToken.PROPERTY_NAME; token = parser.nextToken()) {
+            final var property = parser.currentName();
+            parser.nextToken();
+            switch (property) {
+                case "name" -> name = new Value<>(readString(parser, ctx));
+                case "land" -> land = new Value<>(readString(parser, ctx));
+                default -> ctx.handleUnknownProperty(parser, deserializer, HafenDTO.class, property);
+            }
+        }
+        return new HafenPatch(name, land);
+    }
+
+    /// Fehler für ein Token, das weder ein Objekt bzw. Array noch `null` ist, wie beim Standard-Deserializer.
+    private static <T> @Nullable T unexpected(
+        final JsonParser parser,
+        final DeserializationContext ctx,
+        final Class<?> type
+    ) {
+        ctx.handleUnexpectedToken(type, parser);
+        return null;
+    }
+
+    private static @Nullable String readString(final JsonParser parser, final DeserializationContext ctx) {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return parser.getString();
+        }
+        return parser.hasToken(JsonToken.VALUE_NULL) ? null : ctx.readValue(parser, String.class);
+    }
+
+    private static int readInt(final JsonParser parser, final DeserializationContext ctx) {
+        if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+            return parser.getIntValue();
+        }
+        return ctx.readValue(parser, Integer.TYPE);
+    }
+
+    private static @Nullable SchiffTyp readTyp(final JsonParser parser, final DeserializationContext ctx) {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return SchiffTyp.of(parser.getString());
+        }
+        return parser.hasToken(JsonToken.VALUE_NULL) ? null : ctx.readValue(parser, SchiffTyp.class);
+    }
+
+    /// Ein Datum im Format `yyyy-MM-dd` direkt aus den Ziffern lesen; alle anderen Formate und ungültige Werte
+    /// werden an den Standard-Deserializer für [LocalDate] delegiert.
+    @SuppressWarnings("MagicNumber")
+    private static @Nullable LocalDate readDate(final JsonParser parser, final DeserializationContext ctx) {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            final var text = parser.getString();
+            if (text.length() == DATE_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-') {
+                final var year = parseDigits(text, 0, 4);
+                final var month = parseDigits(text, 5, 2);
+                final var day = parseDigits(text, 8, 2);
+                if (year >= 0 && month >= 1 && month <= 12 && day >= 1
+                    && day <= Month.of(month).length(Year.isLeap(year))) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+        }
+        return parser.hasToken(JsonToken.VALUE_NULL) ? null : ctx.readValue(parser, LocalDate.class);
+    }
+
+    /// Ziffern als Zahl lesen.
+    ///
+    /// @return Die Zahl oder `-1`, falls ein Zeichen keine Ziffer ist.
+    @SuppressWarnings("MagicNumber")
+    private static int parseDigits(final String text, final int offset, final int count) {
+        var value = 0;
+        for (var i = offset; i < offset + count; i++) {
+            final var c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    // -------------------------------------------------------------------------------------------------------------
+    // Serializer und Deserializer
+    // -------------------------------------------------------------------------------------------------------------
+
+    private static final class SchiffSerializer extends StdSerializer<Schiff> {
+        SchiffSerializer() {
+            super(Schiff.class);
+        }
+
+        @Override
+        public void serialize(final Schiff schiff, final JsonGenerator generator, final SerializationContext ctx) {
+            writeSchiff(generator, schiff);
+        }
+    }
+
+    private static final class HafenSerializer extends StdSerializer<Hafen> {
+        HafenSerializer() {
+            super(Hafen.class);
+        }
+
+        @Override
+        public void serialize(final Hafen hafen, final JsonGenerator generator, final SerializationContext ctx) {
+            writeHafen(generator, hafen);
+        }
+    }
+
+    private static final class CrewSerializer extends StdSerializer<Crew> {
+        CrewSerializer() {
+            super(Crew.class);
+        }
+
+        @Override
+        public void serialize(final Crew crew, final JsonGenerator generator, final SerializationContext ctx) {
+            writeCrew(generator, crew);
+        }
+    }
+
+    private static final class SchiffDTODeserializer extends StdDeserializer<SchiffDTO> {
+        SchiffDTODeserializer() {
+            super(SchiffDTO.class);
+        }
+
+        @Override
+        public SchiffDTO deserialize(final JsonParser parser, final DeserializationContext ctx) {
+            return SchiffModule.deserialize(parser, ctx, this, DTO);
+        }
+    }
+
+    private static final class SchiffInputDeserializer extends StdDeserializer<SchiffInput> {
+        SchiffInputDeserializer() {
+            super(SchiffInput.class);
+        }
+
+        @Override
+        public SchiffInput deserialize(final JsonParser parser, final DeserializationContext ctx) {
+            return SchiffInput.of(SchiffModule.deserialize(parser, ctx, this, ENTITY));
+        }
+    }
+
+    private static final class SchiffPatchDeserializer extends StdDeserializer<SchiffPatch> {
+        SchiffPatchDeserializer() {
+            super(SchiffPatch.class);
+        }
+
+        @Override
+        public SchiffPatch deserialize(final JsonParser parser, final DeserializationContext ctx) {
+            if (parser.hasToken(JsonToken.START_OBJECT) || parser.hasToken(JsonToken.PROPERTY_NAME)
+                || parser.hasToken(JsonToken.END_OBJECT)) {
+                return readPatch(parser, ctx, this);
+            }
+            // ein Merge Patch, der kein Objekt ist, würde das ganze Schiff ersetzen
+            return (SchiffPatch) ctx.handleUnexpectedToken(SchiffPatch.class, parser);
+        }
+    }
+
+    /// Erzeugung der Objekte beim Deserialisieren. Fehlende Werte werden wie bei Jackson als `null` übergeben und
+    /// erst anschließend validiert.
+    ///
+    /// @param <S> Der Typ für ein Schiff.
+    /// @param <H> Der Typ für einen Hafen.
+    /// @param <C> Der Typ für ein Crew-Mitglied.
+    private interface Factory<S, H, C> {
+        S schiff(
+            @Nullable String name,
+            @Nullable LocalDate baujahr,
+            int kapazitaet,
+            @Nullable SchiffTyp typ,
+            @Nullable H hafen,
+            @Nullable List<@Nullable C> crewList
+        );
+
+        H hafen(@Nullable String name, @Nullable String land);
+
+        C crew(@Nullable String vorname, @Nullable String nachname, @Nullable String rolle);
+    }
+
+    /// [SchiffDTO] mit [HafenDTO] und [CrewDTO] erzeugen. Fehlende Werte werden wie bei Jackson mit `null`
+    /// übergeben, weil die DTOs erst anschließend mit _Jakarta Validation_ geprüft werden.
+    private static final class DtoFactory implements Factory<SchiffDTO, HafenDTO, CrewDTO> {
+        @Override
+        public SchiffDTO schiff(
+            final @Nullable String name,
+            final @Nullable LocalDate baujahr,
+            final int kapazitaet,
+            final @Nullable SchiffTyp typ,
+            final @Nullable HafenDTO hafen,
+            final @Nullable List<@Nullable CrewDTO> crewList
+        ) {
+            return new SchiffDTO(name, baujahr, kapazitaet, typ, hafen, crewList);
+        }
+
+        @Override
+        public HafenDTO hafen(final @Nullable String name, final @Nullable String land) {
+            return new HafenDTO(name, land);
+        }
+
+        @Override
+        public CrewDTO crew(
+            final @Nullable String vorname,
+            final @Nullable String nachname,
+            final @Nullable String rolle
+        ) {
+            return new CrewDTO(vorname, nachname, rolle);
+        }
+    }
+
+    /// [Schiff] mit [Hafen] und [Crew] direkt erzeugen, und zwar ohne ID und Version, die das Repository setzt.
+    private static final class EntityFactory implements Factory<Schiff, Hafen, Crew> {
+        @Override
+        public Schiff schiff(
+            final @Nullable String name,
+            final @Nullable LocalDate baujahr,
+            final int kapazitaet,
+            final @Nullable SchiffTyp typ,
+            final @Nullable Hafen hafen,
+            final @Nullable List<@Nullable Crew> crewList
+        ) {
+            return new Schiff(null, name, baujahr, kapazitaet, typ, hafen, crewList);
+        }
+
+        @Override
+        public Hafen hafen(final @Nullable String name, final @Nullable String land) {
+            return new Hafen(null, name, land);
+        }
+
+        @Override
+        public Crew crew(
+            final @Nullable String vorname,
+            final @Nullable String nachname,
+            final @Nullable String rolle
+        ) {
+            return new Crew(null, vorname, nachname, rolle);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import com.acme.schiff.entity.Crew;
+import com.acme.schiff.entity.Hafen;
+import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.entity.SchiffTyp;
+import java.time.LocalDate;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/// Request-Body für `PATCH` als _JSON Merge Patch_ gemäß _RFC 7396_, der von [SchiffModule] beim Lesen der Token
+/// direkt erzeugt wird. Ein Attribut, das im Request-Body fehlt, ist `null` und bleibt unverändert; ein Attribut
+/// mit dem Wert `null` wird entfernt. Beim Hafen werden die Attribute einzeln übernommen, die Crew wird wie jedes
+/// Array im Merge Patch vollständig ersetzt.
+///
+/// @param name Der neue Name oder `null`.
+/// @param baujahr Das neue Baujahr oder `null`.
+/// @param kapazitaet Die neue Kapazität oder `null`; `null` im Request-Body wird wie bei `PUT` gelesen.
+/// @param typ Der neue Typ oder `null`.
+/// @param hafen Die Änderungen am Hafen oder `null`.
+/// @param crewList Die neue Crew oder `null`.
+/// @author Murat Yahsi
+record SchiffPatch(
+    @Nullable Value<String> name,
+    @Nullable Value<LocalDate> baujahr,
+    @Nullable Integer kapazitaet,
+    @Nullable Value<SchiffTyp> typ,
+    @Nullable Value<HafenPatch> hafen,
+    @Nullable Value<List<@Nullable Crew>> crewList
+) {
+    /// Den Merge Patch auf eine Kopie des gespeicherten Schiffs anwenden. Das gespeicherte Schiff gehört zu einem
+    /// Snapshot und wird deshalb nicht verändert; unveränderte Attribute wie die Crew werden nicht kopiert.
+    ///
+    /// Ein entferntes Attribut ist im geänderten Schiff `null`. Ob es entfernt werden darf, wird nicht hier,
+    /// sondern anschließend wie bei `PUT` mit [SchiffInput] geprüft, d.h. ein entferntes Pflichtattribut wie `name`
+    /// oder `typ` führt zu `422`.
+    ///
+    /// @param schiff Das gespeicherte Schiff.
+    /// @return Das geänderte Schiff mit ID und Version des gespeicherten Schiffs; entfernte Attribute sind `null`.
+    Schiff apply(final Schiff schiff) {
+        final var neueKapazitaet = kapazitaet;
+        final var neuerHafen = hafen;
+        final var result = new Schiff(
+            schiff.getId(),
+            merge(name, schiff.getName()),
+            merge(baujahr, schiff.getBaujahr()),
+            neueKapazitaet == null ? schiff.getKapazitaet() : neueKapazitaet.intValue(),
+            merge(typ, schiff.getTyp()),
+            neuerHafen == null ? schiff.getHafen() : HafenPatch.apply(neuerHafen.value(), schiff.getHafen()),
+            merge(crewList, schiff.getCrewList())
+        );
+        result.setVersion(schiff.getVersion());
+        return result;
+    }
+
+    /// Ein Attribut zusammenführen.
+    ///
+    /// @param patch Das Attribut im Merge Patch oder `null`, falls es fehlt.
+    /// @param current Der gespeicherte Wert oder `null`.
+    /// @param <T> Der Typ des Attributs.
+    /// @return Der gespeicherte Wert, falls das Attribut fehlt, sonst der neue Wert oder `null`, falls das
+    ///     Attribut entfernt wird.
+    private static <T> @Nullable T merge(final @Nullable Value<T> patch, final @Nullable T current) {
+        return patch == null ? current : patch.value();
+    }
+
+    /// Ein Attribut im Merge Patch.
+    ///
+    /// @param value Der neue Wert oder `null`, falls das Attribut entfernt wird.
+    /// @param <T> Der Typ des Attributs.
+    record Value<T>(@Nullable T value) {
+    }
+
+    /// Die Änderungen am Hafen.
+    ///
+    /// @param name Der neue Name oder `null`.
+    /// @param land Das neue Land oder `null`.
+    record HafenPatch(@Nullable Value<String> name, @Nullable Value<String> land) {
+        /// Die Änderungen auf eine Kopie des gespeicherten Hafens anwenden.
+        ///
+        /// @param patch Die Änderungen oder `null`, falls der Hafen entfernt wird.
+        /// @param hafen Der gespeicherte Hafen oder `null`.
+        /// @return Der geänderte Hafen oder `null`; ein entferntes Attribut ist `null` und wird mit [SchiffInput]
+        ///     als `422` gemeldet.
+        static @Nullable Hafen apply(final @Nullable HafenPatch patch, final @Nullable Hafen hafen) {
+            if (patch == null) {
+                return null;
+            }
+            if (hafen == null) {
+                return new Hafen(null, merge(patch.name(), null), merge(patch.land(), null));
+            }
+            return new Hafen(
+                hafen.getId(),
+                merge(patch.name(), hafen.getName()),
+                merge(patch.land(), hafen.getLand())
+            );
+        }
+    }
+}
@@ -17,41 +17,82 @@
 package com.acme.schiff.controller;
 
 import com.acme.schiff.controller.SchiffDTO.OnCreate;
+import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.service.BatchOperation;
+import com.acme.schiff.service.BatchResult;
 import com.acme.schiff.service.SchiffWriteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Validator;
 import jakarta.validation.groups.Default;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.MultiValueMap;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.ErrorResponse;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
 import static com.acme.schiff.controller.Constants.API_PATH;
+import static com.acme.schiff.controller.Constants.APPLICATION_MERGE_PATCH_JSON_VALUE;
+import static com.acme.schiff.controller.Constants.IDEMPOTENCY_KEY;
 import static com.acme.schiff.controller.Constants.ID_PATTERN;
 import static com.acme.schiff.controller.Constants.VERSION_1;
 import static com.acme.schiff.controller.Constants.VERSION_1_EXAMPLE;
 import static com.acme.schiff.controller.Constants.X_VERSION;
+import static com.acme.schiff.repository.SchiffRepository.ANY_VERSION;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.CONTENT_TOO_LARGE;
+import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_CONTENT;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.ResponseEntity.created;
+import static org.springframework.http.ResponseEntity.noContent;
+import static org.springframework.http.ResponseEntity.ok;
 
 /// Eine Controller-Klasse bildet die REST-Schnittstelle, wobei die HTTP-Methoden, Pfade und MIME-Typen auf die
 /// Methoden der Klasse abgebildet werden.
@@ -63,26 +104,69 @@ import static org.springframework.http.ResponseEntity.created;
 @Validated
 @SuppressWarnings({"ClassFanOutComplexity", "MethodCount", "java:S1075"})
 class SchiffWriteController {
+    /// Pfad für den Import vieler Schiffe.
+    static final String IMPORT_PATH = "import";
+
+    /// Pfad für mehrere Operationen in einem Request.
+    static final String BATCH_PATH = "batch";
+
+    /// Pfad für mehrere Operationen in einer Transaktion.
+    static final String TRANSACTION_PATH = "transaction";
+
+    /// Pfad, um alle Schiffe zu Suchparametern zu ändern.
+    static final String UPDATE_BY_QUERY_PATH = "update-by-query";
+
+    /// Pfad, um alle Schiffe zu Suchparametern zu löschen.
+    static final String DELETE_BY_QUERY_PATH = "delete-by-query";
+
+    private static final int IMPORT_BATCH_SIZE = 1000;
+    private static final int BATCH_MAX = 1000;
+    private static final int GET_IDS_MAX = 100;
+
     private final SchiffWriteService service;
-    private final SchiffMapper mapper;
+    private final Validator validator;
     private final UriHelper uriHelper;
+    private final IdempotencyCache idempotency;
+    private final ObjectReader importReader;
+    private final ObjectWriter importWriter;
+    private final ObjectWriter responseWriter;
     private final StableValue<Logger> logger = StableValue.of();
 
     /// Konstruktor für Constructor Injection durch Spring.
     ///
     /// @param service   Schreibservice für Schiffe
-    /// @param mapper    Mapper zum Umwandeln von DTO zu Entity
+    /// @param validator Validator für _Jakarta Validation_
     /// @param uriHelper Hilfsklasse zum Erzeugen von URIs
-    SchiffWriteController(final SchiffWriteService service, final SchiffMapper mapper, final UriHelper uriHelper) {
+    /// @param idempotency Cache für die Antworten auf Requests mit `Idempotency-Key`
+    /// @param jsonMapper Injizierter JSON-Mapper für den Import
+    SchiffWriteController(
+        final SchiffWriteService service,
+        final Validator validator,
+        final UriHelper uriHelper,
+        final IdempotencyCache idempotency,
+        final JsonMapper jsonMapper
+    ) {
         this.service = service;
-        this.mapper = mapper;
+        this.validator = validator;
         this.uriHelper = uriHelper;
+        this.idempotency = idempotency;
+        importReader = jsonMapper.readerFor(SchiffInput.class);
+        // je Ergebnis genau eine Zeile, auch wenn die Ausgabe sonst eingerückt wird
+        importWriter = jsonMapper.writerFor(ImportResult.class)
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("");
+        responseWriter = jsonMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
     }
 
-    /// Ein neues Schiff anlegen.
+    /// Ein neues Schiff anlegen. Der Request-Body kann gemäß `Content-Type` statt JSON auch mit _CBOR_ oder
+    /// _Smile_ gesendet werden. Der Request-Body wird mit den Constraints von [SchiffDTO] direkt als Entity
+    /// eingelesen, siehe [SchiffInput]. Mit dem Header `Idempotency-Key` erhält eine Wiederholung des Requests
+    /// die ursprüngliche Antwort, siehe [IdempotencyCache].
     ///
-    /// @param schiffDTO     Eingabedaten als DTO
+    /// @param input   Das eingelesene Schiff
     /// @param request HTTP-Request für URI-Ermittlung
+    /// @param idempotencyKey Der Schlüssel für Wiederholungen oder `null`
     /// @return HTTP 201 mit Location-Header oder 400/422 im Fehlerfall
     @PostMapping(version = VERSION_1)
     @Operation(summary = "Ein neues Schiff anlegen", tags = "Neuanlegen")
@@ -90,43 +174,291 @@ class SchiffWriteController {
         schema = @Schema(implementation = String.class))
     @ApiResponse(responseCode = "201", description = "Schiff neu angelegt")
     @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
+    @ApiResponse(responseCode = "409", description = "Request mit demselben Idempotency-Key wird noch ausgeführt")
     @ApiResponse(responseCode = "422", description = "Ungültige Werte vorhanden")
     ResponseEntity<Void> post(
-        @RequestBody @Validated({Default.class, OnCreate.class}) final SchiffDTO schiffDTO,
-                              final HttpServletRequest request) {
-        getLogger().debug("post: {}", schiffDTO);
-        final var schiffInput = mapper.toSchiff(schiffDTO);
-        final var result = service.create(schiffInput);
-        final var baseUri = uriHelper.getBaseUri(request).toString();
-        final var location = URI.create(baseUri + "/" + result.getId());
-        return created(location).build();
+        @RequestBody @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content = @Content(schema = @Schema(implementation = SchiffDTO.class))
+        ) final SchiffInput input,
+        final HttpServletRequest request,
+        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final @Nullable String idempotencyKey
+    ) {
+        getLogger().debug("post: {}, idempotencyKey={}", input.schiff(), idempotencyKey);
+        return idempotency.execute(idempotencyKey, request, () -> {
+            validate(input, Default.class, OnCreate.class);
+            final var result = service.create(input.schiff());
+            final var baseUri = uriHelper.getBaseUri(request).toString();
+            final var location = URI.create(baseUri + "/" + result.getId());
+            return created(location).build();
+        }, _ -> 0L);
+    }
+
+    /// Viele neue Schiffe mit einem Request anlegen, z.B. die Flotte eines neuen Kunden. Der Request-Body ist ein
+    /// JSON-Array oder _Newline Delimited JSON_ mit den Schiffen wie bei `POST /api`. Die Schiffe werden beim
+    /// Lesen des Streams geprüft und in Blöcken zu je 1000 Schiffen mit einem einzigen Schreibvorgang angelegt,
+    /// d.h. die Namen werden je Block in einem Durchgang gegeneinander und gegen die vorhandenen Schiffe geprüft
+    /// und die Indexe nur einmal aktualisiert.
+    ///
+    /// Für jedes Schiff wird in der Reihenfolge des Request-Bodys ein [ImportResult] als eine Zeile
+    /// _Newline Delimited JSON_ gesendet, sobald sein Block geschrieben ist. Ein ungültiges Schiff wird mit `400`
+    /// bzw. `422` übersprungen, ein bereits vorhandener Name mit `409`. Bei einem Syntaxfehler endet der Import
+    /// mit einer Zeile für `400`; die bis dahin angelegten Schiffe bleiben erhalten.
+    ///
+    /// Mit dem Header `Idempotency-Key` erhält eine Wiederholung die ursprünglichen Ergebnisse, ohne dass die
+    /// Schiffe erneut eingelesen und angelegt werden. Dazu werden die Ergebnisse bis zu 256 KiB aufgezeichnet; bei
+    /// einem größeren Import wird der Import wiederholt und liefert dann `409` für die bereits angelegten Schiffe.
+    ///
+    /// @param body Der Request-Body als Stream.
+    /// @param request Der Request für den Schlüssel im [IdempotencyCache].
+    /// @param idempotencyKey Der Schlüssel für Wiederholungen oder `null`.
+    /// @return Die Ergebnisse als Stream mit je einem JSON-Datensatz pro Zeile.
+    /// @throws IOException falls der Request-Body einer Wiederholung nicht gelesen werden kann.
+    @PostMapping(
+        path = IMPORT_PATH,
+        version = VERSION_1,
+        consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE},
+        produces = APPLICATION_NDJSON_VALUE
+    )
+    @Operation(summary = "Viele neue Schiffe als JSON-Array oder NDJSON-Stream anlegen", tags = "Neuanlegen")
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Stream mit dem Ergebnis je Schiff")
+    @ApiResponse(responseCode = "409", description = "Request mit demselben Idempotency-Key wird noch ausgeführt")
+    ResponseEntity<StreamingResponseBody> postImport(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = SchiffDTO.class)))
+        ) final InputStream body,
+        final HttpServletRequest request,
+        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final @Nullable String idempotencyKey
+    ) throws IOException {
+        getLogger().debug("postImport: idempotencyKey={}", idempotencyKey);
+        if (idempotencyKey == null) {
+            return ok().contentType(APPLICATION_NDJSON).body(out -> importStream(body, out));
+        }
+        final var key = IdempotencyCache.key(idempotencyKey, request);
+        final var completed = idempotency.reserve(key);
+        if (completed != null) {
+            final var ndjson = (byte[]) completed.replay(IdempotencyCache.hash(body));
+            return ok().contentType(APPLICATION_NDJSON).body(out -> out.write(ndjson));
+        }
+        return ok().contentType(APPLICATION_NDJSON).body(out -> {
+            final var input = new DigestInputStream(body, IdempotencyCache.digest());
+            final var output = new IdempotencyCache.RecordingOutputStream(out, IdempotencyCache.ENTRY_MAX_BYTES);
+            try {
+                importStream(input, output);
+            } catch (final IOException | RuntimeException ex) {
+                idempotency.abort(key);
+                throw ex;
+            }
+            final var ndjson = output.recorded();
+            if (ndjson == null) {
+                idempotency.abort(key);
+            } else {
+                idempotency.complete(key, input.getMessageDigest().digest(), ndjson, ndjson.length);
+            }
+        });
+    }
+
+    /// Mehrere Operationen mit einem Request ausführen, z.B. für einen Client, der seinen Datenbestand
+    /// synchronisiert. Jede Operation liest Schiffe anhand von höchstens 100 IDs (`get`), prüft die Version eines
+    /// Schiffs (`check`), legt ein Schiff an (`create`), ändert es (`update`) oder löscht es (`delete`), und zwar
+    /// mit denselben Prüfungen wie die einzelnen Anfragen einschließlich `ifMatch` statt des Headers `If-Match`.
+    ///
+    /// Die Operationen werden in ihrer Reihenfolge ausgeführt: Aufeinanderfolgende Leseoperationen verwenden
+    /// denselben Snapshot und aufeinanderfolgende Schreiboperationen einen gemeinsamen Schreibvorgang. Jede
+    /// Operation wird für sich ausgeführt, d.h. bei einem Fehler werden die übrigen Operationen trotzdem
+    /// ausgeführt. Für jede Operation wird in derselben Reihenfolge ein [BatchResponse] geliefert. Mit dem Header
+    /// `Idempotency-Key` erhält eine Wiederholung die ursprünglichen Ergebnisse, sofern sie als JSON höchstens
+    /// 256 KiB umfassen; andernfalls wird die Wiederholung erneut ausgeführt.
+    ///
+    /// @param requests Die Operationen, höchstens 1000.
+    /// @param request Der Request für den Schlüssel im [IdempotencyCache].
+    /// @param idempotencyKey Der Schlüssel für Wiederholungen oder `null`.
+    /// @return HTTP 200 mit den Ergebnissen der Operationen.
+    @PostMapping(path = BATCH_PATH, version = VERSION_1)
+    @Operation(summary = "Mehrere Operationen in einem Request ausfuehren", tags = "Batch")
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Ergebnisse der Operationen")
+    @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
+    @ApiResponse(responseCode = "409", description = "Request mit demselben Idempotency-Key wird noch ausgeführt")
+    @ApiResponse(responseCode = "413", description = "Zu viele Operationen")
+    ResponseEntity<List<BatchResponse>> postBatch(
+        @RequestBody final List<BatchRequest> requests,
+        final HttpServletRequest request,
+        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final @Nullable String idempotencyKey
+    ) {
+        getLogger().debug("postBatch: #operations={}, idempotencyKey={}", requests.size(), idempotencyKey);
+        if (requests.size() > BATCH_MAX) {
+            throw new ResponseStatusException(CONTENT_TOO_LARGE, "Höchstens " + BATCH_MAX + " Operationen");
+        }
+        return idempotency.execute(idempotencyKey, request, () -> {
+            final var operations = requests.stream().map(this::operation).toList();
+            return ok(service.batch(operations).stream().map(BatchResponse::of).toList());
+        }, this::size);
     }
 
-    /// Ein vorhandenes Schiff aktualisieren.
+    /// Mehrere Operationen wie bei `POST /api/batch` als eine Transaktion ausführen: entweder alle oder keine.
+    /// Zusätzlich prüft `check` mit `id` und `ifMatch`, ob ein früher gelesenes Schiff unverändert ist, ohne
+    /// es zu ändern. Die Operationen werden ohne Sperre vorbereitet und beim Commit werden die Versionen aller
+    /// gelesenen und geänderten Schiffe sowie die Eindeutigkeit der Namen im Endzustand geprüft, so dass z.B. zwei
+    /// Schiffe ihre Namen tauschen können. Leseoperationen sehen den Stand vor der Transaktion.
+    ///
+    /// Scheitert eine Operation, wird nichts geändert und statt der Ergebnisse ein `ProblemDetail` mit dem
+    /// Statuscode der Operation geliefert. Mit dem Header `Idempotency-Key` erhält eine Wiederholung die
+    /// ursprünglichen Ergebnisse.
+    ///
+    /// @param requests Die Operationen, höchstens 1000.
+    /// @param request Der Request für den Schlüssel im [IdempotencyCache].
+    /// @param idempotencyKey Der Schlüssel für Wiederholungen oder `null`.
+    /// @return HTTP 200 mit den Ergebnissen der Operationen.
+    @PostMapping(path = TRANSACTION_PATH, version = VERSION_1)
+    @Operation(summary = "Mehrere Operationen atomar ausfuehren", tags = "Batch")
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Ergebnisse der Operationen")
+    @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
+    @ApiResponse(responseCode = "404", description = "Schiff nicht vorhanden")
+    @ApiResponse(responseCode = "409", description = "Namenskonflikt")
+    @ApiResponse(responseCode = "412", description = "Version nicht aktuell")
+    @ApiResponse(responseCode = "413", description = "Zu viele Operationen")
+    @ApiResponse(responseCode = "422", description = "Ungültige Werte vorhanden")
+    ResponseEntity<List<BatchResponse>> postTransaction(
+        @RequestBody final List<BatchRequest> requests,
+        final HttpServletRequest request,
+        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final @Nullable String idempotencyKey
+    ) {
+        getLogger().debug("postTransaction: #operations={}, idempotencyKey={}", requests.size(), idempotencyKey);
+        if (requests.size() > BATCH_MAX) {
+            throw new ResponseStatusException(CONTENT_TOO_LARGE, "Höchstens " + BATCH_MAX + " Operationen");
+        }
+        return idempotency.execute(idempotencyKey, request, () -> {
+            final var operations = requests.stream().map(this::operation).toList();
+            return ok(service.transaction(operations).stream().map(BatchResponse::of).toList());
+        }, this::size);
+    }
+
+    /// Ein vorhandenes Schiff aktualisieren. Mit dem Header `If-Match` wird das Schiff nur geändert, wenn es
+    /// noch in der Version des angegebenen ETags gespeichert ist; andernfalls wird `412` geliefert. Wie beim
+    /// Neuanlegen kann der Request-Body auch mit _CBOR_ oder _Smile_ gesendet werden.
     ///
     /// @param id  ID des zu ändernden Schiffs
-    /// @param schiffDTO Neue Werte als DTO
+    /// @param input Das eingelesene Schiff mit den neuen Werten
+    /// @param ifMatch Das ETag aus einem vorherigen Lesezugriff oder `null`
+    /// @return HTTP 204 mit dem ETag der neuen Version
     @PutMapping(path = "{id:" + ID_PATTERN + "}", version = VERSION_1)
-    @ResponseStatus(NO_CONTENT)
     @Operation(summary = "Ein Schiff mit neuen Werten aktualisieren", tags = "Aktualisieren")
     @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
         schema = @Schema(implementation = String.class))
     @ApiResponse(responseCode = "204", description = "Aktualisiert")
     @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
     @ApiResponse(responseCode = "404", description = "Schiff nicht vorhanden")
+    @ApiResponse(responseCode = "412", description = "Version nicht aktuell")
+    @ApiResponse(responseCode = "422", description = "Ungültige Werte vorhanden")
+    ResponseEntity<Void> put(
+        @PathVariable final UUID id,
+        @RequestBody @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content = @Content(schema = @Schema(implementation = SchiffDTO.class))
+        ) final SchiffInput input,
+        @RequestHeader(value = IF_MATCH, required = false) final @Nullable String ifMatch
+    ) {
+        getLogger().debug("put: id={}, {}, ifMatch={}", id, input.schiff(), ifMatch);
+        validate(input, Default.class);
+        final var schiff = input.schiff();
+        service.update(schiff, id, expectedVersion(ifMatch, id));
+        return noContent().eTag(ETags.of(schiff.getVersion())).build();
+    }
+
+    /// Einzelne Attribute eines vorhandenen Schiffs mit einem _JSON Merge Patch_ gemäß _RFC 7396_ ändern, z.B.
+    /// `{"kapazitaet": 5000}`. Fehlende Attribute bleiben unverändert, beim Hafen können einzelne Attribute
+    /// geändert werden und die Crew wird vollständig ersetzt. Das geänderte Schiff wird wie bei `PUT` validiert,
+    /// aber nur die Indexe der geänderten Attribute werden aktualisiert. Mit dem Header `If-Match` wird das Schiff
+    /// nur geändert, wenn es noch in der Version des angegebenen ETags gespeichert ist.
+    ///
+    /// @param id  ID des zu ändernden Schiffs
+    /// @param patch Die Änderungen
+    /// @param ifMatch Das ETag aus einem vorherigen Lesezugriff oder `null`
+    /// @return HTTP 204 mit dem ETag der neuen Version
+    @PatchMapping(path = "{id:" + ID_PATTERN + "}", consumes = APPLICATION_MERGE_PATCH_JSON_VALUE,
+        version = VERSION_1)
+    @Operation(summary = "Einzelne Attribute eines Schiffs aendern", tags = "Aktualisieren")
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "204", description = "Aktualisiert")
+    @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
+    @ApiResponse(responseCode = "404", description = "Schiff nicht vorhanden")
+    @ApiResponse(responseCode = "412", description = "Version nicht aktuell")
     @ApiResponse(responseCode = "422", description = "Ungültige Werte vorhanden")
-    void put(
+    ResponseEntity<Void> patch(
         @PathVariable final UUID id,
-        @RequestBody @Validated final SchiffDTO schiffDTO
+        @RequestBody @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content = @Content(schema = @Schema(implementation = SchiffDTO.class))
+        ) final SchiffPatch patch,
+        @RequestHeader(value = IF_MATCH, required = false) final @Nullable String ifMatch
     ) {
-        getLogger().debug("put: id={}, {}", id, schiffDTO);
-        final var schiff = mapper.toSchiff(schiffDTO);
-        service.update(schiff, id);
+        getLogger().debug("patch: id={}, {}, ifMatch={}", id, patch, ifMatch);
+        final var schiff = service.patch(id, expectedVersion(ifMatch, id), schiffDB -> {
+            final var patched = patch.apply(schiffDB);
+            validate(SchiffInput.of(patched), Default.class);
+            return patched;
+        });
+        return noContent().eTag(ETags.of(schiff.getVersion())).build();
     }
 
-    /// Ein Schiff anhand seiner ID löschen.
+    /// Alle Schiffe zu Suchparametern mit einem _JSON Merge Patch_ ändern, z.B. alle Schiffe eines Hafens mit
+    /// `POST /api/update-by-query?hafen=Hamburg` und `{"hafen": {"name": "Bremerhaven"}}`. Die Suchparameter sind
+    /// dieselben wie bei `GET`, die Treffer werden über die Indexe ermittelt und in einem einzigen Schreibvorgang
+    /// geändert. Jedes geänderte Schiff wird wie bei `PATCH` validiert; ist ein Schiff ungültig oder gibt es einen
+    /// Namenskonflikt, wird kein Schiff geändert.
+    ///
+    /// @param suchparameter Die Suchparameter; mindestens einer ist erforderlich.
+    /// @param patch Die Änderungen für jedes gefundene Schiff
+    /// @return HTTP 200 mit der Anzahl der geänderten Schiffe
+    @PostMapping(path = UPDATE_BY_QUERY_PATH, consumes = APPLICATION_MERGE_PATCH_JSON_VALUE, version = VERSION_1)
+    @Operation(summary = "Alle Schiffe zu Suchparametern aendern", tags = "Aktualisieren")
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Anzahl der geänderten Schiffe")
+    @ApiResponse(responseCode = "400", description = "Ungültige oder fehlende Suchparameter")
+    @ApiResponse(responseCode = "409", description = "Namenskonflikt")
+    @ApiResponse(responseCode = "422", description = "Ungültige Werte vorhanden")
+    ResponseEntity<ByQueryResult> updateByQuery(
+        @RequestParam final MultiValueMap<String, String> suchparameter,
+        @RequestBody @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content = @Content(schema = @Schema(implementation = SchiffDTO.class))
+        ) final SchiffPatch patch
+    ) {
+        getLogger().debug("updateByQuery: suchparameter={}, {}", suchparameter, patch);
+        final var count = service.updateByQuery(suchparameter, schiffDB -> {
+            final var patched = patch.apply(schiffDB);
+            validate(SchiffInput.of(patched), Default.class);
+            return patched;
+        });
+        return ok(new ByQueryResult(count));
+    }
+
+    /// Alle Schiffe zu Suchparametern löschen, z.B. alle Militärschiffe mit `POST /api/delete-by-query?typ=M`.
+    /// Die Suchparameter sind dieselben wie bei `GET`, die Treffer werden über die Indexe ermittelt und in einem
+    /// einzigen Schreibvorgang gelöscht.
+    ///
+    /// @param suchparameter Die Suchparameter; mindestens einer ist erforderlich.
+    /// @return HTTP 200 mit der Anzahl der gelöschten Schiffe
+    @PostMapping(path = DELETE_BY_QUERY_PATH, version = VERSION_1)
+    @Operation(summary = "Alle Schiffe zu Suchparametern loeschen", tags = "Loeschen")
+    @Parameter(name = X_VERSION, in = ParameterIn.HEADER, example = VERSION_1_EXAMPLE,
+        schema = @Schema(implementation = String.class))
+    @ApiResponse(responseCode = "200", description = "Anzahl der gelöschten Schiffe")
+    @ApiResponse(responseCode = "400", description = "Ungültige oder fehlende Suchparameter")
+    ResponseEntity<ByQueryResult> deleteByQuery(@RequestParam final MultiValueMap<String, String> suchparameter) {
+        getLogger().debug("deleteByQuery: suchparameter={}", suchparameter);
+        return ok(new ByQueryResult(service.deleteByQuery(suchparameter)));
+    }
+
+    /// Ein Schiff anhand seiner ID löschen. Mit dem Header `If-Match` wird das Schiff nur gelöscht, wenn es
+    /// noch in der Version des angegebenen ETags gespeichert ist; andernfalls wird `412` geliefert.
     ///
     /// @param id ID des zu löschenden Schiffs
+    /// @param ifMatch Das ETag aus einem vorherigen Lesezugriff oder `null`
     @DeleteMapping(path = "{id:" + ID_PATTERN + "}", version = VERSION_1)
     @ResponseStatus(NO_CONTENT)
     @Operation(summary = "Eine Schiff anhand der ID loeschen", tags = "Loeschen")
@@ -134,24 +466,13 @@ class SchiffWriteController {
         schema = @Schema(implementation = String.class))
     @ApiResponse(responseCode = "204", description = "Gelöscht")
     @ApiResponse(responseCode = "404", description = "Schiff nicht vorhanden")
-    void deleteById(@PathVariable final UUID id) {
-        getLogger().debug("deleteById: id={}", id);
-        service.deleteById(id);
-    }
-
-    /// [ExceptionHandler] für [MethodArgumentNotValidException]
-    ///
-    /// @param ex Exception für Fehler im Request-Body bei `POST` oder `PUT` gemäß _Jakarta Validation_.
-    /// @return ErrorResponse mit `ProblemDetail` gemäß _RFC 9457_.
-    @ExceptionHandler
-    ErrorResponse onConstraintViolations(final MethodArgumentNotValidException ex) {
-        getLogger().debug("onConstraintViolations: {}", ex.getMessage());
-
-        final var detailMessages = ex.getDetailMessageArguments();
-        final var detail = detailMessages.length == 0 || detailMessages[1] == null
-            ? "Constraint Violation"
-            : ((String) detailMessages[1]).replace(", and ", ", ");
-        return ErrorResponse.create(ex, UNPROCESSABLE_CONTENT, detail);
+    @ApiResponse(responseCode = "412", description = "Version nicht aktuell")
+    void deleteById(
+        @PathVariable final UUID id,
+        @RequestHeader(value = IF_MATCH, required = false) final @Nullable String ifMatch
+    ) {
+        getLogger().debug("deleteById: id={}, ifMatch={}", id, ifMatch);
+        service.deleteById(id, expectedVersion(ifMatch, id));
     }
 
     /// [ExceptionHandler] für [HttpMessageNotReadableException]
@@ -165,6 +486,175 @@ class SchiffWriteController {
         return ErrorResponse.create(ex, BAD_REQUEST, msg);
     }
 
+    /// Die Schiffe eines Imports lesen, prüfen und blockweise anlegen.
+    ///
+    /// @return Die Anzahl der gelesenen Schiffe.
+    private int importAll(final MappingIterator<SchiffInput> inputs, final JsonGenerator generator) {
+        final var results = new ArrayList<ImportResult>(IMPORT_BATCH_SIZE);
+        final var schiffe = new ArrayList<Schiff>(IMPORT_BATCH_SIZE);
+        var line = 0;
+        try {
+            while (inputs.hasNextValue()) {
+                line++;
+                try {
+                    final var input = inputs.nextValue();
+                    final var detail = violations(input, Default.class, OnCreate.class);
+                    if (detail == null) {
+                        // vorläufig, bis der Block geschrieben ist
+                        results.add(new ImportResult(line, CREATED.value(), null, null));
+                        schiffe.add(input.schiff());
+                    } else {
+                        results.add(new ImportResult(line, UNPROCESSABLE_CONTENT.value(), null, detail));
+                    }
+                } catch (final DatabindException ex) {
+                    // der Iterator setzt beim nächsten Schiff wieder auf
+                    results.add(new ImportResult(line, BAD_REQUEST.value(), null, ex.getOriginalMessage()));
+                }
+                if (results.size() == IMPORT_BATCH_SIZE) {
+                    writeBatch(results, schiffe, generator);
+                }
+            }
+        } catch (final StreamReadException ex) {
+            getLogger().debug("importAll: line={}, {}", line, ex.getOriginalMessage());
+            results.add(new ImportResult(line, BAD_REQUEST.value(), null, ex.getOriginalMessage()));
+        }
+        writeBatch(results, schiffe, generator);
+        return line;
+    }
+
+    /// Die gültigen Schiffe eines Blocks anlegen und die Ergebnisse des Blocks senden.
+    private void writeBatch(
+        final List<ImportResult> results,
+        final List<Schiff> schiffe,
+        final JsonGenerator generator
+    ) {
+        final var errors = schiffe.isEmpty() ? List.<@Nullable String>of() : service.createAll(schiffe);
+        var i = 0;
+        for (final var result : results) {
+            if (result.status() == CREATED.value()) {
+                final var error = errors.get(i);
+                final var schiff = schiffe.get(i++);
+                importWriter.writeValue(generator, error == null
+                    ? new ImportResult(result.line(), CREATED.value(), schiff.getId(), null)
+                    : new ImportResult(result.line(), CONFLICT.value(), null, error));
+            } else {
+                importWriter.writeValue(generator, result);
+            }
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        results.clear();
+        schiffe.clear();
+    }
+
+    /// Die Schiffe eines Imports einlesen, in Blöcken anlegen und die Ergebnisse schreiben. Danach wird der Rest
+    /// des Request-Bodys gelesen, z.B. nach einem Syntaxfehler, damit ein Hashwert den ganzen Request-Body umfasst.
+    private void importStream(final InputStream body, final OutputStream out) throws IOException {
+        try (var generator = importWriter.createGenerator(out);
+             MappingIterator<SchiffInput> inputs = importReader.readValues(body)) {
+            final var count = importAll(inputs, generator);
+            body.transferTo(OutputStream.nullOutputStream());
+            getLogger().debug("postImport: count={}", count);
+        }
+    }
+
+    /// Eine Operation eines Batches prüfen und für den Service umwandeln.
+    @SuppressWarnings("CyclomaticComplexity")
+    private BatchOperation operation(final BatchRequest request) {
+        final var op = request.op();
+        final var id = request.id();
+        final var schiff = request.schiff();
+        try {
+            return switch (op == null ? "" : op) {
+                case "get" -> {
+                    final var ids = request.ids();
+                    if (ids == null || ids.isEmpty()) {
+                        yield rejected(BAD_REQUEST, "ids fehlt");
+                    }
+                    yield ids.size() > GET_IDS_MAX
+                        ? rejected(CONTENT_TOO_LARGE, "Höchstens " + GET_IDS_MAX + " ids")
+                        : new BatchOperation.Get(ids);
+                }
+                case "check" -> {
+                    final var version = expectedVersion(request.ifMatch(), id);
+                    yield id == null || version == ANY_VERSION
+                        ? rejected(BAD_REQUEST, "id oder ifMatch fehlt")
+                        : new BatchOperation.Check(id, version);
+                }
+                case "create" -> schiff == null
+                    ? rejected(BAD_REQUEST, "schiff fehlt")
+                    : checked(schiff, new BatchOperation.Create(schiff.schiff()), Default.class, OnCreate.class);
+                case "update" -> id == null || schiff == null
+                    ? rejected(BAD_REQUEST, "id oder schiff fehlt")
+                    : checked(schiff, new BatchOperation.Update(id, schiff.schiff(),
+                        expectedVersion(request.ifMatch(), id)), Default.class);
+                case "delete" -> id == null
+                    ? rejected(BAD_REQUEST, "id fehlt")
+                    : new BatchOperation.Delete(id, expectedVersion(request.ifMatch(), id));
+                default -> rejected(BAD_REQUEST, "Unbekannte Operation '" + op + "'");
+            };
+        } catch (final ResponseStatusException ex) {
+            // ungültiges ETag
+            return rejected(PRECONDITION_FAILED, ex.getReason());
+        }
+    }
+
+    /// Die erwartete Version aus dem Header `If-Match` ermitteln. Die aktuelle Version wird nur für eine Liste mit
+    /// mehreren ETags gelesen.
+    private long expectedVersion(final @Nullable String ifMatch, final @Nullable UUID id) {
+        return ETags.expectedVersion(ifMatch, () -> id == null ? OptionalLong.empty() : service.findVersionById(id));
+    }
+
+    /// Die Größe der Ergebnisse eines Batches als JSON für den [IdempotencyCache] ermitteln.
+    private long size(final ResponseEntity<List<BatchResponse>> response) {
+        return responseWriter.writeValueAsBytes(response.getBody()).length;
+    }
+
+    private BatchOperation checked(
+        final SchiffInput input,
+        final BatchOperation operation,
+        final Class<?>... groups
+    ) {
+        final var detail = violations(input, groups);
+        return detail == null ? operation : rejected(UNPROCESSABLE_CONTENT, detail);
+    }
+
+    private static BatchOperation rejected(final HttpStatus status, final @Nullable String detail) {
+        return new BatchOperation.Rejected(BatchResult.error(status, detail));
+    }
+
+    /// Die vorgemerkten Verletzungen mit _Jakarta Validation_ bestätigen. Die Fehlermeldungen haben dasselbe
+    /// Format wie bei `@Validated` für einen Request-Body, d.h. `pfad: 'meldung'` getrennt durch `, `.
+    ///
+    /// @param input Das eingelesene Schiff mit den möglichen Verletzungen.
+    /// @param groups Die Gruppen der zu prüfenden Constraints.
+    /// @throws ResponseStatusException mit `422` als `ProblemDetail` gemäß _RFC 9457_.
+    private void validate(final SchiffInput input, final Class<?>... groups) {
+        final var detail = violations(input, groups);
+        if (detail != null) {
+            throw new ResponseStatusException(UNPROCESSABLE_CONTENT, detail);
+        }
+    }
+
+    /// Die Fehlermeldungen zu den vorgemerkten Verletzungen ermitteln.
+    ///
+    /// @return Die Fehlermeldungen oder `null`, falls das Schiff gültig ist.
+    private @Nullable String violations(final SchiffInput input, final Class<?>... groups) {
+        if (input.violations().isEmpty()) {
+            return null;
+        }
+        final var messages = new ArrayList<String>();
+        for (final var violation : input.violations()) {
+            validator.validateValue(violation.type(), violation.property(), violation.value(), groups)
+                .forEach(v -> messages.add(violation.path() + ": '" + v.getMessage() + "'"));
+        }
+        if (messages.isEmpty()) {
+            return null;
+        }
+        getLogger().debug("violations: {}", messages);
+        return String.join(", ", messages);
+    }
+
     private Logger getLogger() {
         return logger.orElseSet(() -> LoggerFactory.getLogger(SchiffWriteController.class));
     }
@@ -16,6 +16,7 @@
  */
 package com.acme.schiff.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
@@ -37,6 +38,7 @@ public class Schiff {
     private SchiffTyp typ;
     private Hafen hafen;
     private List<Crew> crewList;
+    private long version;
 
     /// Konstruktor für Schiff.
     ///
@@ -166,6 +168,22 @@ public class Schiff {
         this.crewList = crewList;
     }
 
+    /// Gibt die Version zurück, die bei jedem Speichern vom Repository erhöht wird. Sie wird nur als `ETag`
+    /// übertragen und deshalb nicht serialisiert.
+    ///
+    /// @return Version des Schiffs
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    /// Setzt die Version des Schiffs.
+    ///
+    /// @param version Version beim Speichern
+    public void setVersion(final long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Schiff{" +
@@ -174,6 +192,7 @@ public class Schiff {
             ", baujahr=" + baujahr +
             ", kapazitaet=" + kapazitaet +
             ", typ=" + typ +
+            ", version=" + version +
             '}';
     }
 }
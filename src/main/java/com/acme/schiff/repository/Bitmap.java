@@ -0,0 +1,584 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import org.jspecify.annotations.Nullable;
+
+/// Unveränderliche, komprimierte Bitmap über Zeilennummern nach dem Vorbild von _Roaring Bitmaps_.
+/// Die oberen 16 Bit einer Zeilennummer wählen einen Container, die unteren 16 Bit die Position im Container.
+/// Je nach Belegung ist ein Container
+/// - ein sortiertes Array, solange er höchstens 4096 Einträge hat,
+/// - eine Bitmap mit 65536 Bit oder
+/// - eine Liste von Intervallen (_Runs_), falls die Einträge überwiegend zusammenhängen.
+///
+/// Nach jeder Operation wird die jeweils kleinste Darstellung gewählt. Änderungen liefern eine neue Bitmap und
+/// teilen sich unveränderte Container mit der bisherigen.
+///
+/// @author Murat Yahsi
+final class Bitmap {
+    /// Leere Bitmap.
+    static final Bitmap EMPTY = new Bitmap(new char[0], new Container[0]);
+
+    private static final int WORDS = 1 << 10;
+    private static final int ARRAY_MAX = 1 << 12;
+    private static final int LOW_MASK = 0xFFFF;
+
+    private final char[] keys;
+    private final Container[] containers;
+
+    private Bitmap(final char[] keys, final Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    /// Eine Bitmap aus beliebig sortierten Zeilennummern erzeugen.
+    ///
+    /// @param ordinals Die Zeilennummern; das Array wird dabei sortiert.
+    /// @return Die neue Bitmap.
+    static Bitmap of(final int[] ordinals) {
+        if (ordinals.length == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(ordinals);
+        final var keys = new char[high(ordinals[ordinals.length - 1]) - high(ordinals[0]) + 1];
+        final var containers = new Container[keys.length];
+        var n = 0;
+        var i = 0;
+        while (i < ordinals.length) {
+            final var key = high(ordinals[i]);
+            final var words = new long[WORDS];
+            for (; i < ordinals.length && high(ordinals[i]) == key; i++) {
+                words[low(ordinals[i]) >>> 6] |= 1L << low(ordinals[i]);
+            }
+            keys[n] = key;
+            containers[n++] = Container.of(words);
+        }
+        return of(keys, containers, n);
+    }
+
+    /// Ist eine Zeilennummer in der Bitmap enthalten?
+    ///
+    /// @param ordinal Die Zeilennummer.
+    /// @return `true`, falls die Zeilennummer enthalten ist.
+    boolean contains(final int ordinal) {
+        final var i = Arrays.binarySearch(keys, high(ordinal));
+        return i >= 0 && containers[i].contains(low(ordinal));
+    }
+
+    /// Anzahl der enthaltenen Zeilennummern.
+    ///
+    /// @return Die Anzahl.
+    int cardinality() {
+        var cardinality = 0;
+        for (final var container : containers) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    /// Ist die Bitmap leer?
+    ///
+    /// @return `true`, falls keine Zeilennummer enthalten ist.
+    boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /// Die kleinste Zeilennummer ermitteln.
+    ///
+    /// @return Die kleinste Zeilennummer oder [IdIndex#NO_ROW], falls die Bitmap leer ist.
+    int first() {
+        final var first = new int[] {IdIndex.NO_ROW};
+        forEach(0, ordinal -> {
+            first[0] = ordinal;
+            return false;
+        });
+        return first[0];
+    }
+
+    /// Alle Zeilennummern in aufsteigender Reihenfolge verarbeiten.
+    ///
+    /// @param action Die Verarbeitung einer Zeilennummer.
+    void forEach(final IntConsumer action) {
+        forEach(0, ordinal -> {
+            action.accept(ordinal);
+            return true;
+        });
+    }
+
+    /// Die Zeilennummern ab einer Zeilennummer in aufsteigender Reihenfolge verarbeiten, bis die Verarbeitung
+    /// abgebrochen wird. Die Container vor der Zeilennummer werden übersprungen, z.B. beim Blättern.
+    ///
+    /// @param from Die kleinste zu verarbeitende Zeilennummer.
+    /// @param action Die Verarbeitung einer Zeilennummer; `false`, um abzubrechen.
+    void forEach(final int from, final IntPredicate action) {
+        final var start = Math.max(from, 0);
+        var i = Arrays.binarySearch(keys, high(start));
+        var low = low(start);
+        if (i < 0) {
+            i = -i - 1;
+            low = 0;
+        }
+        for (; i < keys.length; i++) {
+            if (!containers[i].forEach(keys[i] << Character.SIZE, low, action)) {
+                return;
+            }
+            low = 0;
+        }
+    }
+
+    /// Eine Bitmap mit einer zusätzlichen Zeilennummer erzeugen.
+    ///
+    /// @param ordinal Die hinzuzufügende Zeilennummer.
+    /// @return Die neue Bitmap.
+    Bitmap add(final int ordinal) {
+        final var i = Arrays.binarySearch(keys, high(ordinal));
+        if (i >= 0) {
+            final var container = containers[i];
+            return container.contains(low(ordinal)) ? this : with(i, container.add(low(ordinal)));
+        }
+        final var pos = -i - 1;
+        final var newKeys = new char[keys.length + 1];
+        final var newContainers = new Container[containers.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, pos);
+        System.arraycopy(containers, 0, newContainers, 0, pos);
+        newKeys[pos] = high(ordinal);
+        newContainers[pos] = new ArrayContainer(new char[] {low(ordinal)});
+        System.arraycopy(keys, pos, newKeys, pos + 1, keys.length - pos);
+        System.arraycopy(containers, pos, newContainers, pos + 1, containers.length - pos);
+        return new Bitmap(newKeys, newContainers);
+    }
+
+    /// Eine Bitmap ohne eine Zeilennummer erzeugen.
+    ///
+    /// @param ordinal Die zu entfernende Zeilennummer.
+    /// @return Die neue Bitmap.
+    Bitmap remove(final int ordinal) {
+        final var i = Arrays.binarySearch(keys, high(ordinal));
+        if (i < 0 || !containers[i].contains(low(ordinal))) {
+            return this;
+        }
+        final var words = containers[i].words();
+        words[low(ordinal) >>> 6] &= ~(1L << low(ordinal));
+        return with(i, Container.of(words));
+    }
+
+    /// Schnittmenge (AND) mit einer anderen Bitmap.
+    ///
+    /// @param other Die andere Bitmap.
+    /// @return Die Schnittmenge.
+    Bitmap and(final Bitmap other) {
+        final var newKeys = new char[Math.min(keys.length, other.keys.length)];
+        final var newContainers = new Container[newKeys.length];
+        var n = 0;
+        var i = 0;
+        var j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                final var container = Container.and(containers[i], other.containers[j]);
+                if (container != null) {
+                    newKeys[n] = keys[i];
+                    newContainers[n++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+        return of(newKeys, newContainers, n);
+    }
+
+    /// Vereinigung (OR) mit einer anderen Bitmap.
+    ///
+    /// @param other Die andere Bitmap.
+    /// @return Die Vereinigung.
+    Bitmap or(final Bitmap other) {
+        final var newKeys = new char[keys.length + other.keys.length];
+        final var newContainers = new Container[newKeys.length];
+        var n = 0;
+        var i = 0;
+        var j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || i < keys.length && keys[i] < other.keys[j]) {
+                newKeys[n] = keys[i];
+                newContainers[n++] = containers[i++];
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                newKeys[n] = other.keys[j];
+                newContainers[n++] = other.containers[j++];
+            } else {
+                newKeys[n] = keys[i];
+                newContainers[n++] = Container.or(containers[i++], other.containers[j++]);
+            }
+        }
+        return of(newKeys, newContainers, n);
+    }
+
+    /// Differenz (AND NOT) mit einer anderen Bitmap.
+    ///
+    /// @param other Die abzuziehende Bitmap.
+    /// @return Die Zeilennummern dieser Bitmap, die nicht in der anderen enthalten sind.
+    Bitmap andNot(final Bitmap other) {
+        final var newKeys = new char[keys.length];
+        final var newContainers = new Container[keys.length];
+        var n = 0;
+        var j = 0;
+        for (var i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            final var container = j < other.keys.length && other.keys[j] == keys[i]
+                ? Container.andNot(containers[i], other.containers[j])
+                : containers[i];
+            if (container != null) {
+                newKeys[n] = keys[i];
+                newContainers[n++] = container;
+            }
+        }
+        return of(newKeys, newContainers, n);
+    }
+
+    @Override
+    public String toString() {
+        return "Bitmap{cardinality=" + cardinality() + ", containers=" + containers.length + '}';
+    }
+
+    private Bitmap with(final int i, final @Nullable Container container) {
+        if (container == null) {
+            final var newKeys = new char[keys.length - 1];
+            final var newContainers = new Container[containers.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(containers, 0, newContainers, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, newKeys.length - i);
+            System.arraycopy(containers, i + 1, newContainers, i, newContainers.length - i);
+            return new Bitmap(newKeys, newContainers);
+        }
+        final var newContainers = containers.clone();
+        newContainers[i] = container;
+        return new Bitmap(keys, newContainers);
+    }
+
+    private static Bitmap of(final char[] keys, final Container[] containers, final int n) {
+        if (n == 0) {
+            return EMPTY;
+        }
+        return n == keys.length
+            ? new Bitmap(keys, containers)
+            : new Bitmap(Arrays.copyOf(keys, n), Arrays.copyOf(containers, n));
+    }
+
+    private static char high(final int ordinal) {
+        return (char) (ordinal >>> Character.SIZE);
+    }
+
+    private static char low(final int ordinal) {
+        return (char) (ordinal & LOW_MASK);
+    }
+
+    /// Unveränderlicher Container für die unteren 16 Bit der Zeilennummern.
+    private sealed interface Container permits ArrayContainer, BitmapContainer, RunContainer {
+        int cardinality();
+
+        boolean contains(char low);
+
+        /// Die Belegung als neues, veränderbares Array mit 1024 Wörtern.
+        long[] words();
+
+        /// Die Einträge ab `from` verarbeiten.
+        ///
+        /// @return `false`, falls die Verarbeitung abgebrochen wurde.
+        boolean forEach(int base, char from, IntPredicate action);
+
+        default @Nullable Container add(final char low) {
+            final var words = words();
+            words[low >>> 6] |= 1L << low;
+            return of(words);
+        }
+
+        @Nullable
+        static Container and(final Container a, final Container b) {
+            if (a instanceof ArrayContainer array) {
+                return array.filter(b, true);
+            }
+            if (b instanceof ArrayContainer array) {
+                return array.filter(a, true);
+            }
+            final var words = a.words();
+            final var other = b.words();
+            for (var i = 0; i < WORDS; i++) {
+                words[i] &= other[i];
+            }
+            return of(words);
+        }
+
+        static Container or(final Container a, final Container b) {
+            final var words = a.words();
+            final var other = b.words();
+            for (var i = 0; i < WORDS; i++) {
+                words[i] |= other[i];
+            }
+            final var container = of(words);
+            if (container == null) {
+                throw new IllegalStateException("Vereinigung nicht-leerer Container ist leer");
+            }
+            return container;
+        }
+
+        @Nullable
+        static Container andNot(final Container a, final Container b) {
+            if (a instanceof ArrayContainer array) {
+                return array.filter(b, false);
+            }
+            final var words = a.words();
+            final var other = b.words();
+            for (var i = 0; i < WORDS; i++) {
+                words[i] &= ~other[i];
+            }
+            return of(words);
+        }
+
+        /// Die kleinste Darstellung für eine Belegung wählen.
+        @Nullable
+        static Container of(final long[] words) {
+            var cardinality = 0;
+            var runs = 0;
+            var previous = 0L;
+            for (final var word : words) {
+                cardinality += Long.bitCount(word);
+                // ein Run beginnt bei jedem gesetzten Bit, dessen Vorgänger nicht gesetzt ist
+                runs += Long.bitCount(word & ~(word << 1 | previous >>> (Long.SIZE - 1)));
+                previous = word;
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            // Größe in char: Array 1 je Eintrag, Runs 2 je Intervall, Bitmap 4096
+            if (2 * runs < Math.min(cardinality, ARRAY_MAX)) {
+                return RunContainer.of(words, runs);
+            }
+            return cardinality <= ARRAY_MAX ? ArrayContainer.of(words, cardinality) : new BitmapContainer(words);
+        }
+    }
+
+    /// Container als sortiertes Array.
+    ///
+    /// @param values Die aufsteigend sortierten Einträge.
+    private record ArrayContainer(char[] values) implements Container {
+        static ArrayContainer of(final long[] words, final int cardinality) {
+            final var values = new char[cardinality];
+            var n = 0;
+            for (var i = 0; i < WORDS; i++) {
+                var word = words[i];
+                while (word != 0) {
+                    values[n++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        public int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        public boolean contains(final char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        public long[] words() {
+            final var words = new long[WORDS];
+            for (final var value : values) {
+                words[value >>> 6] |= 1L << value;
+            }
+            return words;
+        }
+
+        @Override
+        public boolean forEach(final int base, final char from, final IntPredicate action) {
+            final var pos = Arrays.binarySearch(values, from);
+            for (var i = pos < 0 ? -pos - 1 : pos; i < values.length; i++) {
+                if (!action.test(base | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public @Nullable Container add(final char low) {
+            if (values.length >= ARRAY_MAX) {
+                return Container.super.add(low);
+            }
+            final var pos = -Arrays.binarySearch(values, low) - 1;
+            final var newValues = new char[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, pos);
+            newValues[pos] = low;
+            System.arraycopy(values, pos, newValues, pos + 1, values.length - pos);
+            return new ArrayContainer(newValues);
+        }
+
+        /// Die Einträge behalten, die in einem anderen Container enthalten bzw. nicht enthalten sind.
+        @Nullable
+        ArrayContainer filter(final Container other, final boolean contained) {
+            final var result = new char[values.length];
+            var n = 0;
+            for (final var value : values) {
+                if (other.contains(value) == contained) {
+                    result[n++] = value;
+                }
+            }
+            if (n == 0) {
+                return null;
+            }
+            return n == values.length ? this : new ArrayContainer(Arrays.copyOf(result, n));
+        }
+    }
+
+    /// Container als Bitmap mit 65536 Bit.
+    ///
+    /// @param bits Die 1024 Wörter der Bitmap.
+    private record BitmapContainer(long[] bits) implements Container {
+        @Override
+        public int cardinality() {
+            var cardinality = 0;
+            for (final var word : bits) {
+                cardinality += Long.bitCount(word);
+            }
+            return cardinality;
+        }
+
+        @Override
+        public boolean contains(final char low) {
+            return (bits[low >>> 6] & 1L << low) != 0;
+        }
+
+        @Override
+        public long[] words() {
+            return bits.clone();
+        }
+
+        @Override
+        public boolean forEach(final int base, final char from, final IntPredicate action) {
+            // im ersten Wort die Bits vor from ausblenden
+            var mask = -1L << from;
+            for (var i = from >>> 6; i < WORDS; i++) {
+                var word = bits[i] & mask;
+                while (word != 0) {
+                    if (!action.test(base | i << 6 | Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+                mask = -1L;
+            }
+            return true;
+        }
+    }
+
+    /// Container als Liste von Intervallen.
+    ///
+    /// @param runs Paare aus Anfang und Ende (jeweils einschließlich) der Intervalle in aufsteigender Reihenfolge.
+    private record RunContainer(char[] runs) implements Container {
+        static RunContainer of(final long[] words, final int count) {
+            final var runs = new char[2 * count];
+            var n = 0;
+            var inRun = false;
+            for (var i = 0; i < WORDS; i++) {
+                final var word = words[i];
+                for (var bit = 0; bit < Long.SIZE; bit++) {
+                    final var set = (word & 1L << bit) != 0;
+                    if (set != inRun) {
+                        // Anfang eines Intervalls bzw. Ende des vorherigen Intervalls
+                        runs[n++] = (char) (set ? i << 6 | bit : (i << 6 | bit) - 1);
+                        inRun = set;
+                    }
+                }
+            }
+            if (inRun) {
+                runs[n] = (char) LOW_MASK;
+            }
+            return new RunContainer(runs);
+        }
+
+        @Override
+        public int cardinality() {
+            var cardinality = 0;
+            for (var i = 0; i < runs.length; i += 2) {
+                cardinality += runs[i + 1] - runs[i] + 1;
+            }
+            return cardinality;
+        }
+
+        @Override
+        public boolean contains(final char low) {
+            // das letzte Intervall, das nicht nach low beginnt
+            var lo = 0;
+            var hi = runs.length / 2 - 1;
+            while (lo <= hi) {
+                final var mid = (lo + hi) >>> 1;
+                if (runs[2 * mid] <= low) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi >= 0 && low <= runs[2 * hi + 1];
+        }
+
+        @Override
+        public long[] words() {
+            final var words = new long[WORDS];
+            for (var i = 0; i < runs.length; i += 2) {
+                for (int value = runs[i]; value <= runs[i + 1]; value++) {
+                    words[value >>> 6] |= 1L << value;
+                }
+            }
+            return words;
+        }
+
+        @Override
+        public boolean forEach(final int base, final char from, final IntPredicate action) {
+            for (var i = 0; i < runs.length; i += 2) {
+                for (int value = Math.max(runs[i], from); value <= runs[i + 1]; value++) {
+                    if (!action.test(base | value)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public @Nullable Container add(final char low) {
+            // neue Zeilennummern werden meist am Ende angefügt und verlängern dann das letzte Intervall
+            final var last = runs.length - 1;
+            if (runs[last] + 1 == low) {
+                final var newRuns = runs.clone();
+                newRuns[last] = low;
+                return new RunContainer(newRuns);
+            }
+            return Container.super.add(low);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/// Unveränderlicher Bitmap-Index für ein Attribut mit wenigen verschiedenen Werten, z.B. den Typ eines Schiffs.
+/// Zu jedem Wert gibt es eine [Bitmap] mit den Zeilennummern der Schiffe, die diesen Wert haben.
+///
+/// @param <K> Der Typ der Attributwerte.
+/// @author Murat Yahsi
+final class BitmapIndex<K> {
+    private static final BitmapIndex<?> EMPTY = new BitmapIndex<>(Map.of());
+
+    private final Map<K, Bitmap> bitmaps;
+
+    private BitmapIndex(final Map<K, Bitmap> bitmaps) {
+        this.bitmaps = bitmaps;
+    }
+
+    /// Leerer Index als Ausgangspunkt für einen [Builder].
+    ///
+    /// @param <K> Der Typ der Attributwerte.
+    /// @return Der leere Index.
+    @SuppressWarnings("unchecked")
+    static <K> BitmapIndex<K> empty() {
+        return (BitmapIndex<K>) EMPTY;
+    }
+
+    /// Die Zeilennummern zu einem Attributwert ermitteln.
+    ///
+    /// @param key Der Attributwert.
+    /// @return Die Bitmap mit den Zeilennummern, ggf. leer.
+    Bitmap get(final K key) {
+        return bitmaps.getOrDefault(key, Bitmap.EMPTY);
+    }
+
+    /// Einen Builder erzeugen, der von diesem Index ausgeht.
+    ///
+    /// @return Der neue Builder.
+    Builder<K> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    /// Veränderbare Kopie eines [BitmapIndex] für genau einen Schreibvorgang.
+    /// Die Map wird erst bei der ersten Änderung kopiert; die Bitmaps selbst sind unveränderlich.
+    ///
+    /// @param <K> Der Typ der Attributwerte.
+    static final class Builder<K> {
+        private Map<K, Bitmap> bitmaps;
+        private boolean owned;
+
+        private Builder(final BitmapIndex<K> base) {
+            bitmaps = base.bitmaps;
+        }
+
+        /// Eine Zeilennummer für einen Attributwert eintragen.
+        ///
+        /// @param key Der Attributwert; `null` wird nicht indiziert.
+        /// @param ordinal Die Zeilennummer.
+        void add(final @Nullable K key, final int ordinal) {
+            if (key != null) {
+                editable().put(key, get(key).add(ordinal));
+            }
+        }
+
+        /// Mehrere Zeilennummern eintragen. Je Attributwert wird die Bitmap nur einmal mit allen neuen
+        /// Zeilennummern vereinigt, statt sie für jede Zeilennummer zu kopieren.
+        ///
+        /// @param keys Die Attributwerte; `null` wird nicht indiziert.
+        /// @param ordinals Die Zeilennummern in derselben Reihenfolge wie die Attributwerte.
+        void addAll(final List<? extends @Nullable K> keys, final int[] ordinals) {
+            final var groups = new HashMap<K, IntList>();
+            for (var i = 0; i < ordinals.length; i++) {
+                final var key = keys.get(i);
+                if (key != null) {
+                    groups.computeIfAbsent(key, _ -> new IntList()).add(ordinals[i]);
+                }
+            }
+            groups.forEach((key, added) -> editable().put(key, get(key).or(Bitmap.of(added.toArray()))));
+        }
+
+        /// Mehrere Zeilennummern austragen. Je Attributwert wird die Bitmap nur einmal um alle entfernten
+        /// Zeilennummern verringert, statt sie für jede Zeilennummer zu kopieren.
+        ///
+        /// @param keys Die Attributwerte; `null` ist nicht indiziert.
+        /// @param ordinals Die Zeilennummern in derselben Reihenfolge wie die Attributwerte.
+        void removeAll(final List<? extends @Nullable K> keys, final int[] ordinals) {
+            final var groups = new HashMap<K, IntList>();
+            for (var i = 0; i < ordinals.length; i++) {
+                final var key = keys.get(i);
+                if (key != null) {
+                    groups.computeIfAbsent(key, _ -> new IntList()).add(ordinals[i]);
+                }
+            }
+            groups.forEach((key, removed) -> {
+                final var bitmap = get(key).andNot(Bitmap.of(removed.toArray()));
+                if (bitmap.isEmpty()) {
+                    editable().remove(key);
+                } else {
+                    editable().put(key, bitmap);
+                }
+            });
+        }
+
+        /// Eine Zeilennummer für einen Attributwert austragen.
+        ///
+        /// @param key Der Attributwert; `null` wird nicht indiziert.
+        /// @param ordinal Die Zeilennummer.
+        void remove(final @Nullable K key, final int ordinal) {
+            if (key == null || !get(key).contains(ordinal)) {
+                return;
+            }
+            final var bitmap = get(key).remove(ordinal);
+            if (bitmap.isEmpty()) {
+                editable().remove(key);
+            } else {
+                editable().put(key, bitmap);
+            }
+        }
+
+        /// Den unveränderlichen Index erzeugen.
+        ///
+        /// @return Der neue Index.
+        BitmapIndex<K> build() {
+            return new BitmapIndex<>(bitmaps);
+        }
+
+        private Bitmap get(final K key) {
+            return bitmaps.getOrDefault(key, Bitmap.EMPTY);
+        }
+
+        private Map<K, Bitmap> editable() {
+            if (!owned) {
+                bitmaps = new HashMap<>(bitmaps);
+                owned = true;
+            }
+            return bitmaps;
+        }
+    }
+}
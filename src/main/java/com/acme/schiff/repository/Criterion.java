@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import org.jspecify.annotations.Nullable;
+import static com.acme.schiff.repository.IdIndex.NO_ROW;
+
+/// Ein Suchkriterium einer [Query]. Jedes Kriterium ist zugleich ein möglicher Zugriffspfad über einen Index
+/// und ein Filter, der für eine einzelne [Row] geprüft werden kann.
+///
+/// @author Murat Yahsi
+sealed interface Criterion {
+    /// Die Anzahl der Zeilen abschätzen, die der Zugriffspfad liefert.
+    ///
+    /// @param snapshot Der zu durchsuchende Snapshot.
+    /// @return Die geschätzte Anzahl der Zeilen.
+    int estimate(Snapshot snapshot);
+
+    /// Die Zeilennummern über den Index ermitteln.
+    ///
+    /// @param snapshot Der zu durchsuchende Snapshot.
+    /// @return Die Zeilennummern; bei einem nicht exakten Zugriffspfad eine Obermenge der Treffer.
+    Bitmap evaluate(Snapshot snapshot);
+
+    /// Liefert der Zugriffspfad genau die Treffer oder muss das Kriterium zusätzlich geprüft werden?
+    ///
+    /// @return `true`, falls [#evaluate(Snapshot)] genau die Treffer liefert.
+    default boolean exact() {
+        return true;
+    }
+
+    /// Das Kriterium für eine Zeile prüfen.
+    ///
+    /// @param row Die zu prüfende Zeile.
+    /// @return `true`, falls die Zeile das Kriterium erfüllt.
+    boolean test(Row row);
+
+    /// Suche nach IDs.
+    ///
+    /// @param ids Die gesuchten IDs, die mit ODER verknüpft werden.
+    record Ids(Set<UUID> ids) implements Criterion {
+        @Override
+        public int estimate(final Snapshot snapshot) {
+            return ids.size();
+        }
+
+        @Override
+        public Bitmap evaluate(final Snapshot snapshot) {
+            return Bitmap.of(ids.stream()
+                .mapToInt(snapshot::ordinal)
+                .filter(ordinal -> ordinal != NO_ROW)
+                .toArray());
+        }
+
+        @Override
+        public boolean test(final Row row) {
+            return ids.contains(row.schiff().getId());
+        }
+
+        @Override
+        public String toString() {
+            return "id IN " + ids;
+        }
+    }
+
+    /// Suche nach einem Teilstring des Namens mit dem [TrigramIndex].
+    ///
+    /// @param teil Der gesuchte Teilstring.
+    /// @param ignoreCase `true`, falls Groß- und Kleinschreibung sowie Umlaute ignoriert werden.
+    /// @param muster Der Teilstring, mit dem die Namen verglichen werden, d.h. ggf. gefaltet.
+    record Name(String teil, boolean ignoreCase, String muster) implements Criterion {
+        /// Ein Kriterium für einen Teilstring des Namens erzeugen.
+        ///
+        /// @param teil Der gesuchte Teilstring.
+        /// @param ignoreCase `true`, falls Groß- und Kleinschreibung sowie Umlaute ignoriert werden.
+        /// @return Das Kriterium.
+        static Name of(final String teil, final boolean ignoreCase) {
+            return new Name(teil, ignoreCase, ignoreCase ? TrigramIndex.fold(teil) : teil);
+        }
+
+        @Override
+        public int estimate(final Snapshot snapshot) {
+            return snapshot.trigrams().estimate(teil, snapshot.size());
+        }
+
+        @Override
+        public Bitmap evaluate(final Snapshot snapshot) {
+            final var candidates = snapshot.trigrams().candidates(teil);
+            return candidates == null ? snapshot.live() : Bitmap.of(candidates);
+        }
+
+        @Override
+        public boolean exact() {
+            return false;
+        }
+
+        @Override
+        public boolean test(final Row row) {
+            return (ignoreCase ? TrigramIndex.fold(row.name()) : row.name()).contains(muster);
+        }
+
+        @Override
+        public String toString() {
+            return "name LIKE '%" + teil + "%'" + (ignoreCase ? " (ignoreCase)" : "");
+        }
+    }
+
+    /// Suche nach den Werten eines Attributs mit einem [BitmapIndex]. Die positiven Werte werden mit ODER
+    /// verknüpft, die negativen Werte ausgeschlossen.
+    ///
+    /// @param parameter Der Name des Suchparameters.
+    /// @param positiv Die gesuchten Werte; leer, falls es nur auszuschließende Werte gibt.
+    /// @param negativ Die auszuschließenden Werte.
+    /// @param index Der Bitmap-Index des Attributs im Snapshot.
+    /// @param attribut Das Attribut einer Zeile.
+    /// @param <K> Der Typ der Attributwerte.
+    record Values<K>(
+        String parameter,
+        Set<K> positiv,
+        Set<K> negativ,
+        Function<Snapshot, BitmapIndex<K>> index,
+        Function<Row, @Nullable K> attribut
+    ) implements Criterion {
+        @Override
+        public int estimate(final Snapshot snapshot) {
+            final var bitmaps = index.apply(snapshot);
+            if (positiv.isEmpty()) {
+                final var ausgeschlossen = negativ.stream().mapToInt(wert -> bitmaps.get(wert).cardinality()).sum();
+                return Math.max(snapshot.size() - ausgeschlossen, 0);
+            }
+            return positiv.stream().mapToInt(wert -> bitmaps.get(wert).cardinality()).sum();
+        }
+
+        @Override
+        public Bitmap evaluate(final Snapshot snapshot) {
+            final var bitmaps = index.apply(snapshot);
+            var result = positiv.isEmpty() ? snapshot.live() : Bitmap.EMPTY;
+            for (final var wert : positiv) {
+                result = result.or(bitmaps.get(wert));
+            }
+            for (final var wert : negativ) {
+                result = result.andNot(bitmaps.get(wert));
+            }
+            return result;
+        }
+
+        @Override
+        public boolean test(final Row row) {
+            final var wert = attribut.apply(row);
+            if (wert == null) {
+                return positiv.isEmpty();
+            }
+            return (positiv.isEmpty() || positiv.contains(wert)) && !negativ.contains(wert);
+        }
+
+        @Override
+        public String toString() {
+            final var sb = new StringBuilder(parameter);
+            if (!positiv.isEmpty()) {
+                sb.append(" IN ").append(positiv);
+            }
+            if (!negativ.isEmpty()) {
+                sb.append(positiv.isEmpty() ? "" : " AND").append(" NOT IN ").append(negativ);
+            }
+            return sb.toString();
+        }
+    }
+
+    /// Suche nach einem Bereich mit einem [RangeIndex].
+    ///
+    /// @param parameter Der Name des Attributs.
+    /// @param min Der kleinste Schlüssel (einschließlich).
+    /// @param max Der größte Schlüssel (einschließlich).
+    /// @param index Der sortierte Index des Attributs im Snapshot.
+    /// @param attribut Der Schlüssel einer Zeile oder `null`, falls das Attribut nicht gesetzt ist.
+    /// @param format Die Darstellung eines Schlüssels, z.B. als Datum.
+    record Range(
+        String parameter,
+        int min,
+        int max,
+        Function<Snapshot, RangeIndex> index,
+        Function<Row, @Nullable Integer> attribut,
+        IntFunction<String> format
+    ) implements Criterion {
+        @Override
+        public int estimate(final Snapshot snapshot) {
+            return index.apply(snapshot).count(min, max);
+        }
+
+        @Override
+        public Bitmap evaluate(final Snapshot snapshot) {
+            return index.apply(snapshot).range(min, max);
+        }
+
+        @Override
+        public boolean test(final Row row) {
+            final var wert = attribut.apply(row);
+            return wert != null && min <= wert && wert <= max;
+        }
+
+        @Override
+        public String toString() {
+            if (min == Integer.MIN_VALUE) {
+                return parameter + " <= " + format.apply(max);
+            }
+            if (max == Integer.MAX_VALUE) {
+                return parameter + " >= " + format.apply(min);
+            }
+            return parameter + " BETWEEN " + format.apply(min) + " AND " + format.apply(max);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jspecify.annotations.Nullable;
+
+/// Position beim Blättern durch die Treffer einer Suche (_Keyset Pagination_). Sortiert wird nach der
+/// Zeilennummer im festgehaltenen Snapshot der ersten Seite, in dem sich die Zeilennummern nicht mehr ändern. Die
+/// nächste Seite beginnt deshalb nach der letzten Zeilennummer der vorherigen Seite, auch wenn parallel Schiffe
+/// angelegt oder gelöscht werden. Nach außen ist der Cursor ein undurchsichtiger String.
+///
+/// @param version Die Version des Snapshots, in dem geblättert wird.
+/// @param after Die letzte Zeilennummer der vorherigen Seite.
+/// @param fingerprint Der Fingerabdruck der Suchparameter, siehe [#fingerprint(Map)], damit der Cursor nicht mit
+///     einer anderen Suche verwendet wird.
+/// @author Murat Yahsi
+record Cursor(long version, int after, long fingerprint) {
+    private static final String SEPARATOR = ":";
+    private static final int PARTS = 3;
+    private static final String ALGORITHM = "SHA-256";
+
+    /// Den Fingerabdruck von Suchparametern ermitteln: die ersten 64 Bit des SHA-256-Hashwerts einer kanonischen
+    /// Darstellung, in der die Suchparameter nach ihrem Namen sortiert sind.
+    ///
+    /// @param suchparameter Die Suchparameter ohne `limit` und `cursor`.
+    /// @return Der Fingerabdruck.
+    static long fingerprint(final Map<String, ? extends List<String>> suchparameter) {
+        final var canonical = new StringBuilder();
+        new TreeMap<>(suchparameter).forEach((name, werte) -> {
+            // Längenpräfixe, damit Trennzeichen in den Werten keine andere Suche vortäuschen können
+            canonical.append(name.length()).append(SEPARATOR).append(name).append(SEPARATOR).append(werte.size());
+            werte.forEach(wert -> canonical.append(SEPARATOR).append(wert.length()).append(SEPARATOR).append(wert));
+            canonical.append('\n');
+        });
+        try {
+            final var hash = MessageDigest.getInstance(ALGORITHM)
+                .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(hash).getLong();
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /// Einen Cursor aus einem String ermitteln.
+    ///
+    /// @param cursor Der Cursor als String, wie er von [#encode()] erzeugt wurde.
+    /// @return Der Cursor oder `null`, falls der String kein gültiger Cursor ist.
+    @Nullable
+    @SuppressWarnings("ReturnCount")
+    static Cursor decode(final String cursor) {
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(SEPARATOR);
+        } catch (final IllegalArgumentException _) {
+            return null;
+        }
+        if (parts.length != PARTS) {
+            return null;
+        }
+        try {
+            final var version = Long.parseLong(parts[0]);
+            final var after = Integer.parseInt(parts[1]);
+            final var fingerprint = Long.parseLong(parts[2]);
+            return version < 0 || after < 0 ? null : new Cursor(version, after, fingerprint);
+        } catch (final NumberFormatException _) {
+            return null;
+        }
+    }
+
+    /// Den Cursor als undurchsichtigen String darstellen, der in einer URI verwendet werden kann.
+    ///
+    /// @return Der Cursor als String.
+    String encode() {
+        final var cursor = version + SEPARATOR + after + SEPARATOR + fingerprint;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.util.Arrays;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+
+/// Unveränderlicher Hash-Index von der ID eines Schiffs auf die Zeilennummer in einem [Snapshot].
+/// Die UUID wird als zwei `long`-Werte in primitiven Arrays gespeichert (_Open Addressing_ mit _Linear Probing_),
+/// d.h. es gibt weder geboxte Schlüssel noch `Map.Entry`-Objekte und ein Lookup alloziert nichts.
+///
+/// Der Index ist in 256 Segmente aufgeteilt. Ein [Builder] kopiert nur die Segmente, die er tatsächlich ändert;
+/// alle anderen Segmente teilt sich der neue Index mit seinem Vorgänger.
+///
+/// @author Murat Yahsi
+final class IdIndex {
+    /// Rückgabewert, falls eine ID nicht im Index enthalten ist.
+    static final int NO_ROW = -1;
+
+    private static final int SEGMENT_BITS = 8;
+
+    /// Leerer Index als Ausgangspunkt für einen [Builder].
+    static final IdIndex EMPTY = new IdIndex(new Segment[1 << SEGMENT_BITS], 0);
+
+    private final @Nullable Segment[] segments;
+    private final int size;
+
+    private IdIndex(final @Nullable Segment[] segments, final int size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /// Die Zeilennummer zu einer ID ermitteln.
+    ///
+    /// @param id Die ID des gesuchten Schiffs.
+    /// @return Die Zeilennummer oder [#NO_ROW].
+    int get(final UUID id) {
+        final var msb = id.getMostSignificantBits();
+        final var lsb = id.getLeastSignificantBits();
+        final var hash = hash(msb, lsb);
+        final var segment = segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+        return segment == null ? NO_ROW : segment.get(msb, lsb, hash);
+    }
+
+    /// Anzahl der IDs im Index.
+    ///
+    /// @return Die Anzahl der IDs.
+    int size() {
+        return size;
+    }
+
+    /// Einen Builder erzeugen, der von diesem Index ausgeht.
+    ///
+    /// @return Der neue Builder.
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    // Finalizer von MurmurHash3, damit auch sequentielle IDs wie 00000000-...-000000000001 gut streuen
+    @SuppressWarnings("MagicNumber")
+    private static int hash(final long msb, final long lsb) {
+        var h = msb * 31 + lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe5c34e53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /// Veränderbare Kopie eines [IdIndex] für genau einen Schreibvorgang.
+    /// Nach [#build()] darf der Builder nicht mehr verwendet werden.
+    static final class Builder {
+        private final @Nullable Segment[] segments;
+        private final boolean[] owned;
+        private int size;
+
+        private Builder(final IdIndex base) {
+            segments = base.segments.clone();
+            owned = new boolean[segments.length];
+            size = base.size;
+        }
+
+        /// Die Zeilennummer zu einer ID ermitteln.
+        ///
+        /// @param id Die ID des gesuchten Schiffs.
+        /// @return Die Zeilennummer oder [#NO_ROW].
+        int get(final UUID id) {
+            final var msb = id.getMostSignificantBits();
+            final var lsb = id.getLeastSignificantBits();
+            final var hash = hash(msb, lsb);
+            final var segment = segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+            return segment == null ? NO_ROW : segment.get(msb, lsb, hash);
+        }
+
+        /// Eine ID mit ihrer Zeilennummer eintragen oder die Zeilennummer einer vorhandenen ID überschreiben.
+        ///
+        /// @param id Die ID des Schiffs.
+        /// @param row Die Zeilennummer des Schiffs.
+        void put(final UUID id, final int row) {
+            final var msb = id.getMostSignificantBits();
+            final var lsb = id.getLeastSignificantBits();
+            final var hash = hash(msb, lsb);
+            if (editable(hash).put(msb, lsb, hash, row)) {
+                size++;
+            }
+        }
+
+        /// Eine ID aus dem Index entfernen.
+        ///
+        /// @param id Die zu entfernende ID.
+        /// @return Die bisherige Zeilennummer oder [#NO_ROW].
+        int remove(final UUID id) {
+            final var msb = id.getMostSignificantBits();
+            final var lsb = id.getLeastSignificantBits();
+            final var hash = hash(msb, lsb);
+            if (segments[hash >>> (Integer.SIZE - SEGMENT_BITS)] == null) {
+                return NO_ROW;
+            }
+            final var row = editable(hash).remove(msb, lsb, hash);
+            if (row != NO_ROW) {
+                size--;
+            }
+            return row;
+        }
+
+        /// Den unveränderlichen Index erzeugen.
+        ///
+        /// @return Der neue Index.
+        IdIndex build() {
+            return new IdIndex(segments, size);
+        }
+
+        private Segment editable(final int hash) {
+            final var i = hash >>> (Integer.SIZE - SEGMENT_BITS);
+            var segment = segments[i];
+            if (segment == null) {
+                segment = new Segment();
+            } else if (!owned[i]) {
+                segment = segment.copy();
+            } else {
+                return segment;
+            }
+            segments[i] = segment;
+            owned[i] = true;
+            return segment;
+        }
+    }
+
+    /// Ein Segment als Hash-Tabelle mit _Open Addressing_. Die Position innerhalb des Segments ergibt sich aus den
+    /// niederwertigen Bits des Hashwerts, die Auswahl des Segments aus den höchstwertigen.
+    private static final class Segment {
+        private static final int MIN_CAPACITY = 8;
+
+        private long[] msbs;
+        private long[] lsbs;
+        private int[] rows;
+        private int size;
+
+        Segment() {
+            msbs = new long[MIN_CAPACITY];
+            lsbs = new long[MIN_CAPACITY];
+            rows = new int[MIN_CAPACITY];
+            Arrays.fill(rows, NO_ROW);
+        }
+
+        private Segment(final Segment other) {
+            msbs = other.msbs.clone();
+            lsbs = other.lsbs.clone();
+            rows = other.rows.clone();
+            size = other.size;
+        }
+
+        Segment copy() {
+            return new Segment(this);
+        }
+
+        int get(final long msb, final long lsb, final int hash) {
+            final var mask = rows.length - 1;
+            for (var slot = hash & mask; rows[slot] != NO_ROW; slot = (slot + 1) & mask) {
+                if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                    return rows[slot];
+                }
+            }
+            return NO_ROW;
+        }
+
+        // true, falls die ID neu ist
+        boolean put(final long msb, final long lsb, final int hash, final int row) {
+            if ((size + 1) * 2 > rows.length) {
+                resize(rows.length * 2);
+            }
+            final var mask = rows.length - 1;
+            var slot = hash & mask;
+            while (rows[slot] != NO_ROW) {
+                if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                    rows[slot] = row;
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            msbs[slot] = msb;
+            lsbs[slot] = lsb;
+            rows[slot] = row;
+            size++;
+            return true;
+        }
+
+        // Die nachfolgenden Eintraege der Kollisionskette werden zurueckgeschoben, damit keine Tombstones entstehen
+        int remove(final long msb, final long lsb, final int hash) {
+            final var mask = rows.length - 1;
+            var slot = hash & mask;
+            while (rows[slot] != NO_ROW) {
+                if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                    final var row = rows[slot];
+                    shiftBack(slot, mask);
+                    size--;
+                    return row;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NO_ROW;
+        }
+
+        private void shiftBack(final int removed, final int mask) {
+            var gap = removed;
+            var slot = (gap + 1) & mask;
+            while (rows[slot] != NO_ROW) {
+                final var home = hash(msbs[slot], lsbs[slot]) & mask;
+                // Eintrag nur verschieben, wenn seine Heimatposition nicht zyklisch zwischen Lücke und Slot liegt
+                if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                    msbs[gap] = msbs[slot];
+                    lsbs[gap] = lsbs[slot];
+                    rows[gap] = rows[slot];
+                    gap = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            rows[gap] = NO_ROW;
+        }
+
+        private void resize(final int capacity) {
+            final var oldMsbs = msbs;
+            final var oldLsbs = lsbs;
+            final var oldRows = rows;
+            msbs = new long[capacity];
+            lsbs = new long[capacity];
+            rows = new int[capacity];
+            Arrays.fill(rows, NO_ROW);
+            final var mask = capacity - 1;
+            for (var i = 0; i < oldRows.length; i++) {
+                if (oldRows[i] == NO_ROW) {
+                    continue;
+                }
+                var slot = hash(oldMsbs[i], oldLsbs[i]) & mask;
+                while (rows[slot] != NO_ROW) {
+                    slot = (slot + 1) & mask;
+                }
+                msbs[slot] = oldMsbs[i];
+                lsbs[slot] = oldLsbs[i];
+                rows[slot] = oldRows[i];
+            }
+        }
+    }
+}
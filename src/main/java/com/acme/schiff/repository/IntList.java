@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.util.Arrays;
+
+/// Wachsende Liste von `int`-Werten ohne Boxing, z.B. für die Zeilennummern, die ein Schreibvorgang für einen
+/// Schlüssel sammelt, bevor sie in einen Index eingetragen werden.
+///
+/// @author Murat Yahsi
+final class IntList {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /// Einen Wert anfügen.
+    ///
+    /// @param value Der anzufügende Wert.
+    void add(final int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /// Anzahl der Werte.
+    ///
+    /// @return Die Anzahl.
+    int size() {
+        return size;
+    }
+
+    /// Die Werte als neues Array ermitteln.
+    ///
+    /// @return Die Werte in der Reihenfolge, in der sie angefügt wurden.
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
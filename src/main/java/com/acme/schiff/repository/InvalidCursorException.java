@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.io.Serial;
+
+/// [RuntimeException], falls ein Cursor zum Blättern ungültig ist, zu einer anderen Suche gehört oder abgelaufen
+/// ist, weil sein Snapshot nicht mehr festgehalten wird.
+///
+/// @author Murat Yahsi
+public final class InvalidCursorException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 6920483815520470613L;
+
+    /// Der ungültige Cursor.
+    private final String cursor;
+
+    /// Ist der Cursor abgelaufen?
+    private final boolean expired;
+
+    /// Konstruktor für [SchiffRepository] mit dem ungültigen Cursor.
+    ///
+    /// @param cursor Der ungültige Cursor
+    /// @param expired `true`, falls der Cursor gültig war, aber sein Snapshot nicht mehr festgehalten wird
+    InvalidCursorException(final String cursor, final boolean expired) {
+        super("Der Cursor " + cursor + (expired ? " ist abgelaufen." : " ist ungueltig."));
+        this.cursor = cursor;
+        this.expired = expired;
+    }
+
+    /// Den ungültigen Cursor ermitteln.
+    ///
+    /// @return Der ungültige Cursor.
+    public String getCursor() {
+        return cursor;
+    }
+
+    /// Ist der Cursor abgelaufen, d.h. muss die Suche mit der ersten Seite neu begonnen werden?
+    ///
+    /// @return `true`, falls der Snapshot des Cursors nicht mehr festgehalten wird.
+    public boolean isExpired() {
+        return expired;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.io.Serial;
+
+/// [RuntimeException], falls Suchparameter für eine Änderung vieler Schiffe ungültig oder leer sind.
+///
+/// @author Murat Yahsi
+public final class InvalidQueryException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = -3184756201947385126L;
+
+    /// Die ungültigen Suchparameter.
+    private final String suchparameter;
+
+    /// Konstruktor für [SchiffRepository] mit den ungültigen Suchparametern.
+    ///
+    /// @param suchparameter Die ungültigen Suchparameter
+    InvalidQueryException(final String suchparameter) {
+        super("Die Suchparameter " + suchparameter + " sind ungueltig.");
+        this.suchparameter = suchparameter;
+    }
+
+    /// Die ungültigen Suchparameter ermitteln.
+    ///
+    /// @return Die ungültigen Suchparameter.
+    public String getSuchparameter() {
+        return suchparameter;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.Schiff;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/// Begrenzter Cache mit dem bereits serialisierten JSON-Datensatz je Schiff, damit ein unverändertes Schiff beim
+/// Lesen nicht jedes Mal neu serialisiert wird. Ein Eintrag gehört zu genau einer [Row] und ist nur gültig, solange
+/// die Version der Zeile übereinstimmt. Eingetragen werden nur Zeilen, die noch im aktuellen Snapshot enthalten
+/// sind; ein paralleler Lesezugriff auf einen älteren Snapshot belegt deshalb keinen Platz mit einem veralteten
+/// Datensatz. Sind mehr als `maxSize` Einträge vorhanden, wird wie beim Cache für Suchergebnisse im Service der am
+/// längsten nicht verwendete verdrängt.
+///
+/// Die Serialisierung wird vom Aufrufer festgelegt und muss für alle Aufrufe gleich sein. Komprimierte Varianten
+/// für HTTP werden nicht hier, sondern im Service vorgehalten.
+///
+/// @author Murat Yahsi
+final class JsonCache {
+    /// Standardwert für die maximale Anzahl an Einträgen.
+    static final int MAX_SIZE = 10_000;
+
+    private final SchiffStore store;
+    private final int maxSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>();
+
+    /// Einen leeren Cache anlegen.
+    ///
+    /// @param store Die Datenbasis, deren aktueller Snapshot vor dem Eintragen geprüft wird.
+    /// @param maxSize Die maximale Anzahl an Einträgen.
+    JsonCache(final SchiffStore store, final int maxSize) {
+        this.store = store;
+        this.maxSize = maxSize;
+    }
+
+    /// Den JSON-Datensatz einer Zeile ermitteln und bei Bedarf serialisieren.
+    ///
+    /// @param row Die Zeile mit dem Schiff.
+    /// @param encoder Die Serialisierung eines Schiffs als JSON.
+    /// @return Der JSON-Datensatz; das Array darf nicht verändert werden.
+    byte[] get(final Row row, final Function<Schiff, byte[]> encoder) {
+        final var id = row.schiff().getId();
+        lock.lock();
+        try {
+            final var entry = entries.remove(id);
+            if (entry != null) {
+                // erneut einfügen, damit der Eintrag als zuletzt verwendet gilt
+                entries.put(id, entry);
+                if (entry.version() == row.version()) {
+                    return entry.json();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        final var json = encoder.apply(row.schiff());
+        // eine Zeile aus einem älteren Snapshot, z.B. eines festgehaltenen, wird nicht eingetragen
+        if (store.snapshot().findRowById(id) == row) {
+            put(id, new Entry(row.version(), json));
+        }
+        return json;
+    }
+
+    /// Den Eintrag eines geänderten oder gelöschten Schiffs entfernen.
+    ///
+    /// @param id Die ID des Schiffs.
+    void invalidate(final UUID id) {
+        lock.lock();
+        try {
+            entries.remove(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(final UUID id, final Entry entry) {
+        lock.lock();
+        try {
+            final var current = entries.get(id);
+            // einen parallel eingetragenen Datensatz einer neueren Version nicht überschreiben
+            if (current != null && current.version() > entry.version()) {
+                return;
+            }
+            entries.put(id, entry);
+            if (entries.size() > maxSize) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Ein serialisierter Datensatz.
+    ///
+    /// @param version Die Version der serialisierten Zeile.
+    /// @param json Der JSON-Datensatz.
+    private record Entry(long version, byte[] json) {
+    }
+}
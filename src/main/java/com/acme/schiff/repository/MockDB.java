@@ -1,8 +1,6 @@
 package com.acme.schiff.repository;
 
-import com.acme.schiff.entity.Schiff;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -24,12 +22,11 @@ import static com.acme.schiff.entity.SchiffTyp.SEGELBOOT;
     "java:S1192"
 })
 final class MockDB {
-    /// Liste der Schiffe zur Emulation der Datenbank.
-    @SuppressWarnings("StaticCollection")
-    static final List<Schiff> SCHIFFE = new ArrayList<>();
+    /// Datenbasis mit den Schiffen zur Emulation der Datenbank.
+    static final SchiffStore STORE;
 
     static {
-        SCHIFFE.addAll(Stream.of(
+        STORE = new SchiffStore(Stream.of(
             // admin
             SchiffBuilder.getBuilder()
                 .setId(UUID.fromString("00000000-0000-0000-0000-000000000010"))
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.io.Serial;
+
+/// [RuntimeException], falls der Name eines Schiffs bereits von einem anderen Schiff verwendet wird.
+///
+/// @author Murat Yahsi
+public final class NameExistsException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 4182719316034211567L;
+
+    /// Der bereits vorhandene Name.
+    private final String name;
+
+    /// Konstruktor für [SchiffRepository] mit dem bereits vorhandenen Namen.
+    ///
+    /// @param name Der bereits vorhandene Name
+    NameExistsException(final String name) {
+        super("Der Name " + name + " existiert bereits.");
+        this.name = name;
+    }
+
+    /// Den bereits vorhandenen Namen ermitteln.
+    ///
+    /// @return Der bereits vorhandene Name.
+    public String getName() {
+        return name;
+    }
+}
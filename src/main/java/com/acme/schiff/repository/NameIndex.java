@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+import static java.text.Normalizer.Form.NFC;
+
+/// Unveränderlicher, eindeutiger Hash-Index vom normalisierten Namen eines Schiffs auf dessen ID.
+/// Ein Name ist genau dann belegt, wenn er im Index einer anderen ID zugeordnet ist; Teilstrings wie "Titan" und
+/// "Titanic" sind verschiedene Namen.
+///
+/// Wie beim [IdIndex] kopiert ein [Builder] nur die Segmente, die er ändert.
+///
+/// @author Murat Yahsi
+final class NameIndex {
+    private static final int SEGMENT_BITS = 8;
+
+    /// Leerer Index als Ausgangspunkt für einen [Builder].
+    static final NameIndex EMPTY = new NameIndex(new Segment[1 << SEGMENT_BITS]);
+
+    private final @Nullable Segment[] segments;
+
+    private NameIndex(final @Nullable Segment[] segments) {
+        this.segments = segments;
+    }
+
+    /// Einen Namen für den Vergleich normalisieren: Unicode-Normalform NFC, ohne Leerzeichen am Anfang und Ende und
+    /// in Kleinbuchstaben.
+    ///
+    /// @param name Der zu normalisierende Name.
+    /// @return Der normalisierte Name.
+    static String normalize(final String name) {
+        return Normalizer.normalize(name.strip(), NFC).toLowerCase(Locale.ROOT);
+    }
+
+    /// Einen Builder erzeugen, der von diesem Index ausgeht.
+    ///
+    /// @return Der neue Builder.
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static int segment(final String key) {
+        return (key.hashCode() * 0x9E3779B9) >>> (Integer.SIZE - SEGMENT_BITS);
+    }
+
+    /// Veränderbare Kopie eines [NameIndex] für genau einen Schreibvorgang.
+    /// Nach [#build()] darf der Builder nicht mehr verwendet werden.
+    static final class Builder {
+        private final @Nullable Segment[] segments;
+        private final boolean[] owned;
+
+        private Builder(final NameIndex base) {
+            segments = base.segments.clone();
+            owned = new boolean[segments.length];
+        }
+
+        /// Einen Namen atomar für ein Schiff reservieren, sofern er nicht bereits einem anderen Schiff gehört.
+        ///
+        /// @param name Der zu reservierende Name.
+        /// @param id Die ID des Schiffs.
+        /// @return `true`, falls der Name jetzt dem Schiff gehört, `false` bei einem Konflikt.
+        boolean reserve(final String name, final UUID id) {
+            final var key = normalize(name);
+            final var i = segment(key);
+            final var segment = segments[i];
+            if (segment != null) {
+                final var owner = segment.owners.get(key);
+                if (owner != null) {
+                    return owner.equals(id);
+                }
+            }
+            editable(i).owners.put(key, id);
+            return true;
+        }
+
+        /// Einen Namen freigeben, falls er dem Schiff gehört.
+        ///
+        /// @param name Der freizugebende Name.
+        /// @param id Die ID des Schiffs.
+        void release(final String name, final UUID id) {
+            final var key = normalize(name);
+            final var i = segment(key);
+            final var segment = segments[i];
+            if (segment != null && id.equals(segment.owners.get(key))) {
+                editable(i).owners.remove(key);
+            }
+        }
+
+        /// Den unveränderlichen Index erzeugen.
+        ///
+        /// @return Der neue Index.
+        NameIndex build() {
+            return new NameIndex(segments);
+        }
+
+        private Segment editable(final int i) {
+            var segment = segments[i];
+            if (segment == null) {
+                segment = new Segment(new HashMap<>());
+            } else if (!owned[i]) {
+                segment = new Segment(new HashMap<>(segment.owners));
+            } else {
+                return segment;
+            }
+            segments[i] = segment;
+            owned[i] = true;
+            return segment;
+        }
+    }
+
+    /// Ein Segment mit den Zuordnungen vom normalisierten Namen auf die ID.
+    ///
+    /// @param owners Die Zuordnungen des Segments.
+    private record Segment(Map<String, UUID> owners) {
+    }
+}
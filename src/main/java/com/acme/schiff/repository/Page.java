@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.Schiff;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/// Eine Seite der Treffer einer Suche beim Blättern mit `limit` und `cursor`.
+///
+/// @param schiffe Die Schiffe der Seite in der Reihenfolge, in der sie angelegt wurden.
+/// @param next Der Cursor für die nächste Seite oder `null`, falls es die letzte Seite ist.
+/// @author Murat Yahsi
+public record Page(List<Schiff> schiffe, @Nullable String next) {
+}
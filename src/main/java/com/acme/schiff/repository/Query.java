@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.SchiffTyp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+import static com.acme.schiff.repository.SchiffRepository.IGNORE_CASE;
+
+/// Eine Suche als Konjunktion von typisierten [Criterion]-Objekten, die aus den Suchparametern erzeugt wird.
+///
+/// | Suchparameter | Bedeutung |
+/// |---------------|-----------|
+/// | `id` | eine der IDs |
+/// | `name` | Teilstring des Namens, mit `ignoreCase=true` ohne Beachtung von Groß- und Kleinschreibung |
+/// | `typ`, `land`, `hafen` | einer der Werte; ein vorangestelltes `!` schließt einen Wert aus |
+/// | `kapazitaetMin`, `kapazitaetMax` | Kapazität im Bereich, jeweils einschließlich |
+/// | `baujahrVon`, `baujahrBis` | Baujahr im Zeitraum, jeweils einschließlich, z.B. `2000-01-01` |
+///
+/// @param criteria Die Kriterien, die mit UND verknüpft werden.
+/// @author Murat Yahsi
+record Query(List<Criterion> criteria) {
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String TYP = "typ";
+    private static final String LAND = "land";
+    private static final String HAFEN = "hafen";
+    private static final String KAPAZITAET_MIN = "kapazitaetMin";
+    private static final String KAPAZITAET_MAX = "kapazitaetMax";
+    private static final String BAUJAHR_VON = "baujahrVon";
+    private static final String BAUJAHR_BIS = "baujahrBis";
+    private static final String NICHT = "!";
+    private static final Set<String> PARAMETER = Set.of(
+        ID, NAME, IGNORE_CASE, TYP, LAND, HAFEN, KAPAZITAET_MIN, KAPAZITAET_MAX, BAUJAHR_VON, BAUJAHR_BIS
+    );
+
+    /// Eine Suche aus Suchparametern erzeugen.
+    ///
+    /// @param suchparameter Die Suchparameter.
+    /// @return Die Suche oder `null`, falls es einen unbekannten Suchparameter oder einen ungültigen Wert gibt.
+    @Nullable
+    @SuppressWarnings({"ReturnCount", "CyclomaticComplexity", "NPathComplexity"})
+    static Query parse(final Map<String, ? extends List<String>> suchparameter) {
+        if (!PARAMETER.containsAll(suchparameter.keySet())) {
+            return null;
+        }
+        final var criteria = new ArrayList<Criterion>();
+
+        final var ids = suchparameter.get(ID);
+        if (ids != null) {
+            final var uuids = parseIds(ids);
+            if (uuids == null) {
+                return null;
+            }
+            criteria.add(new Criterion.Ids(uuids));
+        }
+
+        final var namen = suchparameter.get(NAME);
+        if (namen != null) {
+            final var ignoreCase = suchparameter.get(IGNORE_CASE);
+            final var ignore = ignoreCase != null && ignoreCase.size() == 1
+                && Boolean.parseBoolean(ignoreCase.getFirst());
+            namen.forEach(name -> criteria.add(Criterion.Name.of(name, ignore)));
+        }
+
+        final var valid = addValues(criteria, suchparameter.get(TYP), TYP, SchiffTyp::of, Snapshot::typen, Row::typ)
+            && addValues(criteria, suchparameter.get(LAND), LAND, wert -> wert, Snapshot::laender, Row::land)
+            && addValues(criteria, suchparameter.get(HAFEN), HAFEN, wert -> wert, Snapshot::haefen, Row::hafen);
+        if (!valid) {
+            return null;
+        }
+
+        if (suchparameter.containsKey(KAPAZITAET_MIN) || suchparameter.containsKey(KAPAZITAET_MAX)) {
+            final var min = parseInt(suchparameter.get(KAPAZITAET_MIN), Integer.MIN_VALUE);
+            final var max = parseInt(suchparameter.get(KAPAZITAET_MAX), Integer.MAX_VALUE);
+            if (min == null || max == null) {
+                return null;
+            }
+            criteria.add(new Criterion.Range(
+                "kapazitaet", min, max, Snapshot::kapazitaeten, Row::kapazitaet, String::valueOf
+            ));
+        }
+
+        if (suchparameter.containsKey(BAUJAHR_VON) || suchparameter.containsKey(BAUJAHR_BIS)) {
+            final var von = parseDate(suchparameter.get(BAUJAHR_VON), LocalDate.MIN);
+            final var bis = parseDate(suchparameter.get(BAUJAHR_BIS), LocalDate.MAX);
+            if (von == null || bis == null) {
+                return null;
+            }
+            criteria.add(new Criterion.Range(
+                "baujahr",
+                Snapshot.epochDay(von),
+                Snapshot.epochDay(bis),
+                Snapshot::baujahre,
+                row -> {
+                    final var baujahr = row.baujahr();
+                    return baujahr == null ? null : Snapshot.epochDay(baujahr);
+                },
+                day -> LocalDate.ofEpochDay(day).toString()
+            ));
+        }
+
+        return new Query(List.copyOf(criteria));
+    }
+
+    /// Gibt es keine Kriterien, d.h. werden alle Schiffe gesucht?
+    ///
+    /// @return `true`, falls es keine Kriterien gibt.
+    boolean isEmpty() {
+        return criteria.isEmpty();
+    }
+
+    /// Das Kriterium für ein Attribut mit einem Bitmap-Index hinzufügen, falls es den Suchparameter gibt.
+    ///
+    /// @return `false` bei einem ungültigen Wert.
+    private static <K> boolean addValues(
+        final List<Criterion> criteria,
+        final @Nullable List<String> werte,
+        final String parameter,
+        final Function<String, @Nullable K> parser,
+        final Function<Snapshot, BitmapIndex<K>> index,
+        final Function<Row, @Nullable K> attribut
+    ) {
+        if (werte == null) {
+            return true;
+        }
+        final var positiv = new HashSet<K>();
+        final var negativ = new HashSet<K>();
+        for (final var wert : werte) {
+            final var nicht = wert.startsWith(NICHT);
+            final var key = parser.apply(nicht ? wert.substring(NICHT.length()) : wert);
+            if (key == null) {
+                return false;
+            }
+            (nicht ? negativ : positiv).add(key);
+        }
+        criteria.add(new Criterion.Values<>(parameter, Set.copyOf(positiv), Set.copyOf(negativ), index, attribut));
+        return true;
+    }
+
+    @Nullable
+    private static Set<UUID> parseIds(final List<String> werte) {
+        final var ids = new HashSet<UUID>();
+        try {
+            werte.forEach(wert -> ids.add(UUID.fromString(wert)));
+        } catch (final IllegalArgumentException _) {
+            return null;
+        }
+        return Set.copyOf(ids);
+    }
+
+    @Nullable
+    @SuppressWarnings("ReturnCount")
+    private static Integer parseInt(final @Nullable List<String> werte, final int standard) {
+        if (werte == null) {
+            return standard;
+        }
+        if (werte.size() != 1) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(werte.getFirst());
+        } catch (final NumberFormatException _) {
+            return null;
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("ReturnCount")
+    private static LocalDate parseDate(final @Nullable List<String> werte, final LocalDate standard) {
+        if (werte == null) {
+            return standard;
+        }
+        if (werte.size() != 1) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(werte.getFirst());
+        } catch (final DateTimeParseException _) {
+            return null;
+        }
+    }
+}
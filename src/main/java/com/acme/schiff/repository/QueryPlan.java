@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/// Ausführungsplan einer Suche, z.B. für `GET /api?typ=F&kapazitaetMin=1000&explain=true`.
+///
+/// @param gueltig `false`, falls die Suchparameter ungültig sind und deshalb nichts gefunden wird.
+/// @param zugriffspfad Das Kriterium, dessen Index als Erstes verwendet wird, oder `Full Scan`.
+/// @param geschaetzteZeilen Die geschätzte Anzahl der Zeilen des Zugriffspfads.
+/// @param tatsaechlicheZeilen Die tatsächliche Anzahl der Zeilen des Zugriffspfads.
+/// @param restfilter Die Kriterien, die für jede Zeile des Zugriffspfads geprüft werden.
+/// @param schaetzungen Die geschätzte Anzahl der Zeilen für jeden möglichen Zugriffspfad.
+/// @param treffer Die Anzahl der gefundenen Schiffe.
+/// @author Murat Yahsi
+public record QueryPlan(
+    boolean gueltig,
+    String zugriffspfad,
+    int geschaetzteZeilen,
+    int tatsaechlicheZeilen,
+    List<String> restfilter,
+    Map<String, Integer> schaetzungen,
+    int treffer
+) {
+}
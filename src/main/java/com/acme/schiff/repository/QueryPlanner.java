@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.Schiff;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.jspecify.annotations.Nullable;
+import static com.acme.schiff.repository.IdIndex.NO_ROW;
+
+/// Kostenbasierter Planer für eine [Query]: Für jedes Kriterium wird die Anzahl der Zeilen des zugehörigen
+/// Index geschätzt. Der selektivste Index ist der Zugriffspfad, alle übrigen Kriterien werden anschließend als
+/// Restfilter für jede Zeile des Zugriffspfads geprüft. Ist kein Index selektiver als das Lesen aller Zeilen,
+/// wird ein _Full Scan_ durchgeführt.
+///
+/// @author Murat Yahsi
+final class QueryPlanner {
+    /// Bezeichnung des Zugriffspfads, bei dem alle Zeilen gelesen werden.
+    static final String FULL_SCAN = "Full Scan";
+
+    private QueryPlanner() {
+    }
+
+    /// Die Schiffe zu einer Suche ermitteln.
+    ///
+    /// @param snapshot Der zu durchsuchende Snapshot.
+    /// @param query Die Suche.
+    /// @return Die gefundenen Schiffe in der Reihenfolge der Zeilennummern.
+    static List<Schiff> find(final Snapshot snapshot, final Query query) {
+        return execute(snapshot, plan(snapshot, query), 0, Integer.MAX_VALUE).schiffe();
+    }
+
+    /// Die Schiffe einer Seite ermitteln. Die Suche beginnt im Zugriffspfad direkt nach der letzten Zeilennummer
+    /// der vorherigen Seite und endet, sobald eine Zeile über die Seite hinaus gefunden wurde.
+    ///
+    /// @param snapshot Der zu durchsuchende Snapshot.
+    /// @param query Die Suche.
+    /// @param from Die kleinste Zeilennummer der Seite.
+    /// @param limit Die maximale Anzahl der Schiffe auf der Seite.
+    /// @return Die Schiffe der Seite und ggf. die Zeilennummer, nach der die nächste Seite beginnt.
+    static Slice find(final Snapshot snapshot, final Query query, final int from, final int limit) {
+        final var result = execute(snapshot, plan(snapshot, query), from, limit);
+        return new Slice(result.schiffe(), result.more() ? result.last() : NO_ROW);
+    }
+
+    /// Die Zeilen zu einer Suche einzeln verarbeiten, ohne sie zuvor in einer Liste zu sammeln.
+    ///
+    /// @param snapshot Der zu durchsuchende Snapshot.
+    /// @param query Die Suche.
+    /// @param action Die Verarbeitung einer gefundenen Zeile.
+    /// @return Die Anzahl der verarbeiteten Zeilen.
+    static int forEach(final Snapshot snapshot, final Query query, final Consumer<Row> action) {
+        final var plan = plan(snapshot, query);
+        final var count = new int[1];
+        scan(snapshot, kandidaten(snapshot, plan), plan.restfilter(), 0, row -> {
+            action.accept(row);
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /// Eine Suche ausführen und den Ausführungsplan mit geschätzten und tatsächlichen Zeilen ermitteln.
+    ///
+    /// @param snapshot Der zu durchsuchende Snapshot.
+    /// @param query Die Suche.
+    /// @return Der Ausführungsplan.
+    static QueryPlan explain(final Snapshot snapshot, final Query query) {
+        final var plan = plan(snapshot, query);
+        final var result = execute(snapshot, plan, 0, Integer.MAX_VALUE);
+        final var zugriffspfad = plan.zugriffspfad();
+        return new QueryPlan(
+            true,
+            zugriffspfad == null ? FULL_SCAN : zugriffspfad.toString(),
+            plan.geschaetzt(),
+            result.kandidaten(),
+            plan.restfilter().stream().map(Criterion::toString).toList(),
+            Collections.unmodifiableMap(plan.schaetzungen()),
+            result.schiffe().size()
+        );
+    }
+
+    private static Plan plan(final Snapshot snapshot, final Query query) {
+        final var schaetzungen = new LinkedHashMap<String, Integer>();
+        schaetzungen.put(FULL_SCAN, snapshot.size());
+        Criterion zugriffspfad = null;
+        var geschaetzt = snapshot.size();
+        for (final var criterion : query.criteria()) {
+            final var estimate = criterion.estimate(snapshot);
+            schaetzungen.put(criterion.toString(), estimate);
+            // bei gleicher Schätzung ist ein exakter Index besser, weil das Kriterium dann nicht geprüft wird
+            if (estimate < geschaetzt
+                || estimate == geschaetzt && zugriffspfad != null && criterion.exact() && !zugriffspfad.exact()) {
+                zugriffspfad = criterion;
+                geschaetzt = estimate;
+            }
+        }
+
+        final var restfilter = new ArrayList<Criterion>(query.criteria().size());
+        for (final var criterion : query.criteria()) {
+            if (criterion != zugriffspfad || !criterion.exact()) {
+                restfilter.add(criterion);
+            }
+        }
+        return new Plan(zugriffspfad, geschaetzt, restfilter, schaetzungen);
+    }
+
+    private static Result execute(final Snapshot snapshot, final Plan plan, final int from, final int limit) {
+        final var kandidaten = kandidaten(snapshot, plan);
+        final var schiffe = new ArrayList<Schiff>();
+        final var more = new boolean[1];
+        final var last = scan(snapshot, kandidaten, plan.restfilter(), from, row -> {
+            if (schiffe.size() == limit) {
+                more[0] = true;
+                return false;
+            }
+            schiffe.add(row.copy());
+            return true;
+        });
+        return new Result(kandidaten.cardinality(), schiffe, last, more[0]);
+    }
+
+    private static Bitmap kandidaten(final Snapshot snapshot, final Plan plan) {
+        final var zugriffspfad = plan.zugriffspfad();
+        return zugriffspfad == null ? snapshot.live() : zugriffspfad.evaluate(snapshot);
+    }
+
+    /// Die Zeilen des Zugriffspfads ab einer Zeilennummer mit den Restfiltern prüfen und die Treffer verarbeiten.
+    ///
+    /// @return Die Zeilennummer des letzten verarbeiteten Treffers oder [IdIndex#NO_ROW].
+    private static int scan(
+        final Snapshot snapshot,
+        final Bitmap kandidaten,
+        final List<Criterion> restfilter,
+        final int from,
+        final Predicate<Row> action
+    ) {
+        final var last = new int[] {NO_ROW};
+        kandidaten.forEach(from, ordinal -> {
+            final var row = snapshot.row(ordinal);
+            if (row == null) {
+                return true;
+            }
+            for (final var criterion : restfilter) {
+                if (!criterion.test(row)) {
+                    return true;
+                }
+            }
+            if (!action.test(row)) {
+                return false;
+            }
+            last[0] = ordinal;
+            return true;
+        });
+        return last[0];
+    }
+
+    /// Ein Ausführungsplan.
+    ///
+    /// @param zugriffspfad Das Kriterium für den Zugriffspfad oder `null` für einen Full Scan.
+    /// @param geschaetzt Die geschätzte Anzahl der Zeilen des Zugriffspfads.
+    /// @param restfilter Die Kriterien, die für jede Zeile geprüft werden.
+    /// @param schaetzungen Die Schätzungen für alle möglichen Zugriffspfade.
+    private record Plan(
+        @Nullable Criterion zugriffspfad,
+        int geschaetzt,
+        List<Criterion> restfilter,
+        Map<String, Integer> schaetzungen
+    ) {
+    }
+
+    /// Das Ergebnis einer Ausführung.
+    ///
+    /// @param kandidaten Die Anzahl der Zeilen des Zugriffspfads.
+    /// @param schiffe Die gefundenen Schiffe.
+    /// @param last Die Zeilennummer des letzten gefundenen Schiffs.
+    /// @param more `true`, falls es nach dem letzten gefundenen Schiff weitere Treffer gibt.
+    private record Result(int kandidaten, List<Schiff> schiffe, int last, boolean more) {
+    }
+
+    /// Die Schiffe einer Seite.
+    ///
+    /// @param schiffe Die Schiffe der Seite.
+    /// @param last Die Zeilennummer des letzten Schiffs oder [IdIndex#NO_ROW], falls es die letzte Seite ist.
+    record Slice(List<Schiff> schiffe, int last) {
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/// Unveränderlicher, sortierter Index für Bereichsabfragen auf einem `int`-Attribut, z.B. der Kapazität.
+/// Die Einträge sind Paare aus Schlüssel und Zeilennummer, die als `long` mit dem Schlüssel in den oberen 32 Bit
+/// kodiert werden, so dass die natürliche Ordnung der `long`-Werte der Ordnung nach Schlüssel entspricht.
+///
+/// Wie bei einem B+-Baum mit zwei Ebenen sind die Einträge auf sortierte Blätter mit höchstens 512 Einträgen
+/// verteilt; die innere Ebene besteht aus dem jeweils ersten Eintrag der Blätter. Eine Bereichsabfrage kostet
+/// damit O(log n + k), eine Änderung kopiert nur das betroffene Blatt.
+///
+/// @author Murat Yahsi
+final class RangeIndex {
+    /// Leerer Index als Ausgangspunkt für einen [Builder].
+    static final RangeIndex EMPTY = new RangeIndex(new long[0][]);
+
+    private static final int LEAF_MAX = 512;
+    private static final long ORDINAL_MASK = 0xFFFF_FFFFL;
+
+    private final long[][] leaves;
+    private final long[] firsts;
+    private final int[] offsets;
+
+    private RangeIndex(final long[][] leaves) {
+        this.leaves = leaves;
+        firsts = new long[leaves.length];
+        offsets = new int[leaves.length + 1];
+        for (var i = 0; i < leaves.length; i++) {
+            firsts[i] = leaves[i][0];
+            offsets[i + 1] = offsets[i] + leaves[i].length;
+        }
+    }
+
+    /// Anzahl der Einträge mit einem Schlüssel im Bereich ermitteln, ohne die Einträge zu lesen.
+    ///
+    /// @param min Der kleinste Schlüssel (einschließlich).
+    /// @param max Der größte Schlüssel (einschließlich).
+    /// @return Die Anzahl der Einträge.
+    int count(final int min, final int max) {
+        return min > max ? 0 : end(max) - position(lower(min));
+    }
+
+    /// Die Zeilennummern der Einträge mit einem Schlüssel im Bereich ermitteln.
+    ///
+    /// @param min Der kleinste Schlüssel (einschließlich).
+    /// @param max Der größte Schlüssel (einschließlich).
+    /// @return Die Zeilennummern als Bitmap.
+    Bitmap range(final int min, final int max) {
+        if (min > max) {
+            return Bitmap.EMPTY;
+        }
+        final var from = lower(min);
+        final var ordinals = new int[end(max) - position(from)];
+        var leaf = leaf(from);
+        var i = 0;
+        if (leaf < 0) {
+            leaf = 0;
+        } else {
+            i = index(leaves[leaf], from);
+        }
+        var n = 0;
+        while (n < ordinals.length) {
+            final var entries = leaves[leaf];
+            if (i == entries.length) {
+                leaf++;
+                i = 0;
+            } else {
+                ordinals[n++] = (int) (entries[i++] & ORDINAL_MASK);
+            }
+        }
+        return Bitmap.of(ordinals);
+    }
+
+    /// Einen Builder erzeugen, der von diesem Index ausgeht.
+    ///
+    /// @return Der neue Builder.
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /// Anzahl der Einträge, die kleiner als ein kodierter Eintrag sind.
+    private int position(final long entry) {
+        final var leaf = leaf(entry);
+        return leaf < 0 ? 0 : offsets[leaf] + index(leaves[leaf], entry);
+    }
+
+    /// Anzahl der Einträge mit einem Schlüssel bis einschließlich `max`.
+    private int end(final int max) {
+        return max == Integer.MAX_VALUE ? offsets[leaves.length] : position(lower(max + 1));
+    }
+
+    /// Das Blatt, in das ein kodierter Eintrag gehört, oder -1, falls er vor dem ersten Blatt liegt.
+    private int leaf(final long entry) {
+        return leaf(firsts, entry);
+    }
+
+    private static int leaf(final long[] firsts, final long entry) {
+        final var i = Arrays.binarySearch(firsts, entry);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /// Position des ersten Eintrags in einem Blatt, der nicht kleiner als ein kodierter Eintrag ist.
+    private static int index(final long[] entries, final long entry) {
+        final var i = Arrays.binarySearch(entries, entry);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static int index(final long[] entries, final int from, final int to, final long entry) {
+        final var i = Arrays.binarySearch(entries, from, to, entry);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /// Vereinigung eines Blatts mit einem Teil der sortierten neuen Einträge ohne Duplikate.
+    private static long[] union(final long[] a, final long[] b, final int from, final int to) {
+        final var result = new long[a.length + to - from];
+        var n = 0;
+        var i = 0;
+        var j = from;
+        while (i < a.length && j < to) {
+            if (a[i] < b[j]) {
+                result[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[n++] = a[i++];
+        }
+        while (j < to) {
+            result[n++] = b[j++];
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /// Differenz eines Blatts und eines Teils der sortierten zu entfernenden Einträge.
+    private static long[] difference(final long[] a, final long[] b, final int from, final int to) {
+        final var result = new long[a.length];
+        var n = 0;
+        var j = from;
+        for (final var entry : a) {
+            while (j < to && b[j] < entry) {
+                j++;
+            }
+            if (j == to || b[j] != entry) {
+                result[n++] = entry;
+            }
+        }
+        return n == result.length ? a : Arrays.copyOf(result, n);
+    }
+
+    private static long entry(final int key, final int ordinal) {
+        return (long) key << Integer.SIZE | ordinal & ORDINAL_MASK;
+    }
+
+    private static long lower(final int min) {
+        return (long) min << Integer.SIZE;
+    }
+
+    /// Veränderbare Kopie eines [RangeIndex] für genau einen Schreibvorgang.
+    /// Nach [#build()] darf der Builder nicht mehr verwendet werden.
+    static final class Builder {
+        private final List<long[]> leaves;
+
+        private Builder(final RangeIndex base) {
+            leaves = new ArrayList<>(Arrays.asList(base.leaves));
+        }
+
+        /// Einen Eintrag hinzufügen.
+        ///
+        /// @param key Der Schlüssel, z.B. die Kapazität.
+        /// @param ordinal Die Zeilennummer.
+        void add(final int key, final int ordinal) {
+            final var entry = entry(key, ordinal);
+            if (leaves.isEmpty()) {
+                leaves.add(new long[] {entry});
+                return;
+            }
+            final var leaf = Math.max(leaf(firsts(), entry), 0);
+            final var entries = leaves.get(leaf);
+            final var pos = Arrays.binarySearch(entries, entry);
+            if (pos >= 0) {
+                return;
+            }
+            // Blätter werden mit älteren Snapshots geteilt und deshalb nie in-place geändert
+            final var insert = -pos - 1;
+            final var copy = new long[entries.length + 1];
+            System.arraycopy(entries, 0, copy, 0, insert);
+            copy[insert] = entry;
+            System.arraycopy(entries, insert, copy, insert + 1, entries.length - insert);
+            if (copy.length <= LEAF_MAX) {
+                leaves.set(leaf, copy);
+                return;
+            }
+            final var half = copy.length / 2;
+            leaves.set(leaf, Arrays.copyOf(copy, half));
+            leaves.add(leaf + 1, Arrays.copyOfRange(copy, half, copy.length));
+        }
+
+        /// Mehrere Einträge hinzufügen. Die neuen Einträge werden sortiert und mit jedem betroffenen Blatt nur
+        /// einmal zusammengeführt, statt das Blatt für jeden Eintrag zu kopieren.
+        ///
+        /// @param keys Die Schlüssel, z.B. die Kapazitäten.
+        /// @param ordinals Die Zeilennummern in derselben Reihenfolge wie die Schlüssel.
+        void addAll(final int[] keys, final int[] ordinals) {
+            final var entries = new long[keys.length];
+            for (var i = 0; i < entries.length; i++) {
+                entries[i] = entry(keys[i], ordinals[i]);
+            }
+            Arrays.sort(entries);
+            if (leaves.isEmpty()) {
+                leaves.add(entries);
+                split(0, entries);
+                return;
+            }
+            // von hinten, damit geteilte Blätter die Nummern der vorderen Blätter nicht verschieben
+            final var firsts = firsts();
+            var end = entries.length;
+            for (var leaf = firsts.length - 1; leaf >= 0 && end > 0; leaf--) {
+                final var start = leaf == 0 ? 0 : index(entries, 0, end, firsts[leaf]);
+                if (start < end) {
+                    split(leaf, union(leaves.get(leaf), entries, start, end));
+                }
+                end = start;
+            }
+        }
+
+        /// Mehrere Einträge entfernen. Die Einträge werden sortiert und jedes betroffene Blatt wird nur einmal
+        /// kopiert, statt für jeden Eintrag.
+        ///
+        /// @param keys Die Schlüssel, z.B. die Kapazitäten.
+        /// @param ordinals Die Zeilennummern in derselben Reihenfolge wie die Schlüssel.
+        void removeAll(final int[] keys, final int[] ordinals) {
+            final var entries = new long[keys.length];
+            for (var i = 0; i < entries.length; i++) {
+                entries[i] = entry(keys[i], ordinals[i]);
+            }
+            Arrays.sort(entries);
+            // von hinten, damit entfernte Blätter die Nummern der vorderen Blätter nicht verschieben
+            final var firsts = firsts();
+            var end = entries.length;
+            for (var leaf = firsts.length - 1; leaf >= 0 && end > 0; leaf--) {
+                final var start = index(entries, 0, end, firsts[leaf]);
+                if (start < end) {
+                    final var rest = difference(leaves.get(leaf), entries, start, end);
+                    if (rest.length == 0) {
+                        leaves.remove(leaf);
+                    } else {
+                        leaves.set(leaf, rest);
+                    }
+                }
+                end = start;
+            }
+        }
+
+        /// Einen Eintrag entfernen.
+        ///
+        /// @param key Der Schlüssel, z.B. die Kapazität.
+        /// @param ordinal Die Zeilennummer.
+        void remove(final int key, final int ordinal) {
+            final var entry = entry(key, ordinal);
+            final var leaf = leaf(firsts(), entry);
+            if (leaf < 0) {
+                return;
+            }
+            final var entries = leaves.get(leaf);
+            final var pos = Arrays.binarySearch(entries, entry);
+            if (pos < 0) {
+                return;
+            }
+            if (entries.length == 1) {
+                leaves.remove(leaf);
+                return;
+            }
+            final var copy = new long[entries.length - 1];
+            System.arraycopy(entries, 0, copy, 0, pos);
+            System.arraycopy(entries, pos + 1, copy, pos, copy.length - pos);
+            leaves.set(leaf, copy);
+        }
+
+        /// Den unveränderlichen Index erzeugen.
+        ///
+        /// @return Der neue Index.
+        RangeIndex build() {
+            return new RangeIndex(leaves.toArray(long[][]::new));
+        }
+
+        /// Ein Blatt ersetzen und dabei in gleich große Blätter mit höchstens 512 Einträgen teilen.
+        private void split(final int leaf, final long[] entries) {
+            if (entries.length <= LEAF_MAX) {
+                leaves.set(leaf, entries);
+                return;
+            }
+            final var count = (entries.length + LEAF_MAX - 1) / LEAF_MAX;
+            final var parts = new ArrayList<long[]>(count);
+            for (var i = 0; i < count; i++) {
+                parts.add(Arrays.copyOfRange(entries, entries.length * i / count, entries.length * (i + 1) / count));
+            }
+            leaves.set(leaf, parts.getFirst());
+            leaves.addAll(leaf + 1, parts.subList(1, count));
+        }
+
+        private long[] firsts() {
+            final var firsts = new long[leaves.size()];
+            for (var i = 0; i < firsts.length; i++) {
+                firsts[i] = leaves.get(i)[0];
+            }
+            return firsts;
+        }
+    }
+}
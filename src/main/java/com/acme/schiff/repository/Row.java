@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.Crew;
+import com.acme.schiff.entity.Hafen;
+import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.entity.SchiffTyp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/// Eine Zeile in einem [Snapshot], d.h. eine Version eines Schiffs.
+/// Gespeichert wird eine eigene Kopie des Schiffs, die nur über [#copy()] nach außen gegeben wird. Dadurch können
+/// weder der Aufrufer beim Schreiben noch die Leser den Snapshot nachträglich verändern.
+///
+/// @author Murat Yahsi
+/// @param schiff Die gespeicherte Kopie des Schiffs; nur lesend zu verwenden.
+/// @param name Der Name des Schiffs beim Schreiben.
+/// @param typ Der Typ des Schiffs beim Schreiben.
+/// @param land Das Land des Heimathafens beim Schreiben.
+/// @param hafen Der Name des Heimathafens beim Schreiben.
+/// @param kapazitaet Die Kapazität des Schiffs beim Schreiben.
+/// @param baujahr Das Baujahr des Schiffs beim Schreiben.
+/// @param version Die Version des Snapshots, in der die Zeile geschrieben wurde.
+record Row(
+    Schiff schiff,
+    String name,
+    @Nullable SchiffTyp typ,
+    @Nullable String land,
+    @Nullable String hafen,
+    int kapazitaet,
+    @Nullable LocalDate baujahr,
+    long version
+) {
+    /// Eine Zeile für ein Schiff anlegen. Das Schiff wird dabei kopiert.
+    ///
+    /// @param schiff Das zu speichernde Schiff.
+    /// @param version Die Version des Snapshots, in der die Zeile geschrieben wird.
+    Row(final Schiff schiff, final long version) {
+        this(
+            copy(schiff, version),
+            schiff.getName(),
+            schiff.getTyp(),
+            land(schiff.getHafen()),
+            hafen(schiff.getHafen()),
+            schiff.getKapazitaet(),
+            schiff.getBaujahr(),
+            version
+        );
+    }
+
+    /// Eine Kopie des gespeicherten Schiffs einschließlich Heimathafen und Crew für einen Aufrufer erzeugen.
+    ///
+    /// @return Die neue Kopie mit der Version der Zeile.
+    Schiff copy() {
+        return copy(schiff, version);
+    }
+
+    private static Schiff copy(final Schiff schiff, final long version) {
+        final var hafen = schiff.getHafen();
+        final var crewList = schiff.getCrewList();
+        List<Crew> crewCopy = null;
+        if (crewList != null) {
+            crewCopy = new ArrayList<>(crewList.size());
+            for (final var crew : crewList) {
+                crewCopy.add(new Crew(crew.getId(), crew.getVorname(), crew.getNachname(), crew.getRolle()));
+            }
+        }
+        final var copy = new Schiff(
+            schiff.getId(),
+            schiff.getName(),
+            schiff.getBaujahr(),
+            schiff.getKapazitaet(),
+            schiff.getTyp(),
+            hafen == null ? null : new Hafen(hafen.getId(), hafen.getName(), hafen.getLand()),
+            crewCopy
+        );
+        copy.setVersion(version);
+        return copy;
+    }
+
+    @Nullable
+    private static String land(final @Nullable Hafen hafen) {
+        return hafen == null ? null : hafen.getLand();
+    }
+
+    @Nullable
+    private static String hafen(final @Nullable Hafen hafen) {
+        return hafen == null ? null : hafen.getName();
+    }
+}
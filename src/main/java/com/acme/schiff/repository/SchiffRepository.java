@@ -1,28 +1,43 @@
 package com.acme.schiff.repository;
 
 import com.acme.schiff.entity.Schiff;
-import com.acme.schiff.entity.SchiffTyp;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.IntStream;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
-import static com.acme.schiff.repository.MockDB.SCHIFFE;
+import static com.acme.schiff.repository.IdIndex.NO_ROW;
+import static com.acme.schiff.repository.MockDB.STORE;
 import static java.util.Collections.emptyList;
 
 /// Repository für die Entity-Klasse [Schiff].
-/// Implementiert die Persistenz in einer Map.
+/// Implementiert die Persistenz in einem [SchiffStore]: Lesende Zugriffe verwenden jeweils einen konsistenten
+/// [Snapshot], schreibende Zugriffe werden atomar veröffentlicht.
 ///
 /// @author Murat Yahsi
 @Repository
 //@SuppressWarnings("PMD.UseEnumCollections")
 public class SchiffRepository {
+    /// Suchparameter, um bei der Suche nach dem Namen Groß- und Kleinschreibung sowie Umlaute zu ignorieren,
+    /// z.B. `GET https://localhost:8080/api?name=tuerk&ignoreCase=true`.
+    public static final String IGNORE_CASE = "ignoreCase";
+
+    /// Version für Änderungen und Löschvorgänge, die unabhängig von der aktuellen Version ausgeführt werden.
+    public static final long ANY_VERSION = -1L;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JsonCache jsonCache = new JsonCache(STORE, JsonCache.MAX_SIZE);
     private final StableValue<Logger> logger = StableValue.of();
 
     /// Standardkonstruktor für das Repository.
@@ -30,6 +45,24 @@ public class SchiffRepository {
         // Default constructor for PMD compliance
     }
 
+    /// Die Generation des Datenbestands ermitteln. Sie wird durch jedes Neuanlegen, Ändern und Löschen erhöht,
+    /// so dass ein Suchergebnis derselben Generation noch aktuell ist.
+    ///
+    /// @return Die aktuelle Generation.
+    public long generation() {
+        return STORE.snapshot().version();
+    }
+
+    /// Die Generation der neu angelegten Schiffe ermitteln. Sie wird nur durch das Neuanlegen erhöht, so dass
+    /// eine ID, die in derselben Generation nicht gefunden wurde, weiterhin nicht vorhanden ist.
+    ///
+    /// @return Die aktuelle Generation der neu angelegten Schiffe.
+    public long insertGeneration() {
+        // nicht die Anzahl der Zeilennummern, da beim Neuanlegen die Zeilennummer eines gelöschten Schiffs
+        // wiederverwendet wird
+        return STORE.snapshot().inserts();
+    }
+
     /// Eines Schiff anhand seiner ID suchen.
     /// ```
     /// SELECT *
@@ -42,136 +75,346 @@ public class SchiffRepository {
     @Nullable
     public Schiff findById(final UUID id) {
         getLogger().debug("findById: id={}", id);
-        final var result = SCHIFFE.stream()
-            .filter(schiff -> Objects.equals(schiff.getId(), id))
-            .findFirst()
-            .orElse(null);
+        final var result = STORE.snapshot().findById(id);
         getLogger().debug("findById: result={}", result);
         return result;
     }
 
-    /// Schiffe anhand von Suchparameter ermitteln.
+    /// Mehrere Schiffe anhand ihrer IDs aus demselben Snapshot ermitteln.
+    /// ```
+    /// SELECT *
+    /// FROM   schiff
+    /// WHERE  id IN (...)
+    /// ```
+    ///
+    /// @param ids Die IDs der gesuchten Schiffe.
+    /// @return Die gefundenen Schiffe zu ihren IDs; nicht gefundene IDs sind nicht enthalten.
+    public Map<UUID, Schiff> findByIds(final Collection<UUID> ids) {
+        getLogger().debug("findByIds: ids={}", ids);
+        final var snapshot = STORE.snapshot();
+        final var result = new HashMap<UUID, Schiff>();
+        for (final var id : ids) {
+            final var schiff = snapshot.findById(id);
+            if (schiff != null) {
+                result.put(id, schiff);
+            }
+        }
+        getLogger().debug("findByIds: #schiffe={}", result.size());
+        return result;
+    }
+
+    /// Schiffe anhand von Suchparameter ermitteln. Die Suchparameter werden mit UND verknüpft; welche
+    /// Suchparameter es gibt, ist bei [Query] beschrieben. Der [QueryPlanner] wählt den selektivsten Index.
     /// Z.B. mit `GET https://localhost:8080/api?name=Titanic`
+    /// ```
+    /// SELECT *
+    /// FROM   schiff JOIN hafen ON ...
+    /// WHERE  name LIKE ... AND typ IN (...) AND kapazitaet BETWEEN ... AND ...
+    /// ```
     ///
     /// @param suchparameter Suchparameter.
-    /// @return Gefundenes Schiff oder leere Collection.
-    @SuppressWarnings({"ReturnCount", "JavadocLinkAsPlainText", "PMD.AvoidLiteralsInIfCondition"})
+    /// @return Gefundene Schiffe oder leere Collection, z.B. auch bei einem unbekannten Suchparameter.
+    @SuppressWarnings("JavadocLinkAsPlainText")
     public Collection<Schiff> find(final Map<String, ? extends List<String>> suchparameter) {
         getLogger().debug("find: suchparameter={}", suchparameter);
 
-        if (suchparameter.isEmpty()) {
-            return findAll();
+        final var snapshot = STORE.snapshot();
+        final var query = Query.parse(suchparameter);
+        if (query == null) {
+            getLogger().debug("find: ungueltige Suchparameter={}", suchparameter);
+            return emptyList();
         }
-
-        if (suchparameter.size() == 1) {
-            final var namen = suchparameter.get("name");
-            if (namen != null && namen.size() == 1) {
-                final var schiffe = findByName(namen.getFirst());
-                getLogger().debug("find (name): schiffe={}", schiffe);
-                return schiffe;
-            }
+        if (query.isEmpty()) {
+            return snapshot.schiffe();
         }
-        final var typen = suchparameter.get("typ");
-        if (typen != null) {
-            final var schiffe = findByTyp(typen);
-            getLogger().debug("find (typen): schiffe={}", schiffe);
-            return schiffe;
+
+        final var schiffe = QueryPlanner.find(snapshot, query);
+        getLogger().debug("find: schiffe={}", schiffe);
+        return schiffe;
+    }
+
+    /// Die Schiffe zu Suchparametern einzeln verarbeiten, während der Snapshot durchlaufen wird. Dabei wird
+    /// keine Liste der Treffer aufgebaut, so dass der Speicherbedarf nicht von der Anzahl der Treffer abhängt.
+    ///
+    /// @param suchparameter Suchparameter wie bei [#find(Map)].
+    /// @param action Die Verarbeitung eines gefundenen Schiffs.
+    /// @return Die Anzahl der verarbeiteten Schiffe, z.B. 0 bei einem unbekannten Suchparameter.
+    public int forEach(final Map<String, ? extends List<String>> suchparameter, final Consumer<Schiff> action) {
+        getLogger().debug("forEach: suchparameter={}", suchparameter);
+        final var query = Query.parse(suchparameter);
+        if (query == null) {
+            getLogger().debug("forEach: ungueltige Suchparameter={}", suchparameter);
+            return 0;
         }
-        getLogger().debug("find: ungueltige Suchparameter={}", suchparameter);
-        return emptyList();
+        final var count = QueryPlanner.forEach(STORE.snapshot(), query, row -> action.accept(row.copy()));
+        getLogger().debug("forEach: count={}", count);
+        return count;
     }
 
-    /// Alle Schiffe als Collection ermitteln, wie sie später auch von der DB kommen.
-    /// ```
-    /// SELECT *
-    /// FROM schiff
-    /// ```
+    /// Die Version eines Schiffs anhand seiner ID ermitteln, ohne das Schiff zu serialisieren.
     ///
-    /// @return Alle Schiffe
-    private Collection<Schiff> findAll() {
-        return SCHIFFE;
+    /// @param id Die Id des gesuchten Schiffs
+    /// @return Die Version oder `null`, falls es kein Schiff mit der ID gibt
+    @Nullable
+    public Long findVersionById(final UUID id) {
+        final var row = STORE.snapshot().findRowById(id);
+        return row == null ? null : row.version();
     }
 
-    /// Schiffe anhand des Namens suchen.
-    /// ```
-    /// SELECT *
-    /// FROM   schiff
-    /// WHERE  name LIKE ...
-    /// ```
+    /// Ein Schiff anhand seiner ID als bereits serialisierten JSON-Datensatz ermitteln. Der Datensatz wird beim
+    /// ersten Lesen serialisiert und bis zur nächsten Änderung des Schiffs wiederverwendet.
     ///
-    /// @param name Der (Teil-) Name dem gesuchten Schiff
-    /// @return Die gefundenen Schiffe oder eine leere Collection
-    private Collection<Schiff> findByName(final CharSequence name) {
-        getLogger().debug("findByName: name={}", name);
-        final var schiffs = SCHIFFE.stream()
-            .filter(schiff -> schiff.getName().contains(name))
-            .toList();
-        getLogger().debug("findByName: schiffs={}", schiffs);
-        return schiffs;
+    /// @param id Die Id des gesuchten Schiffs
+    /// @param encoder Die Serialisierung eines Schiffs als JSON, die für alle Aufrufe gleich sein muss.
+    /// @return Der JSON-Datensatz mit der Version, aus der er serialisiert wurde, oder `null`.
+    @Nullable
+    public VersionedJson findJsonById(final UUID id, final Function<Schiff, byte[]> encoder) {
+        getLogger().debug("findJsonById: id={}", id);
+        final var row = STORE.snapshot().findRowById(id);
+        return row == null ? null : new VersionedJson(row.version(), jsonCache.get(row, encoder));
+    }
+
+    /// Schiffe anhand von Suchparametern als bereits serialisierte JSON-Datensätze ermitteln, siehe
+    /// [#findJsonById(UUID, Function)].
+    ///
+    /// @param suchparameter Suchparameter wie bei [#find(Map)].
+    /// @param encoder Die Serialisierung eines Schiffs als JSON, die für alle Aufrufe gleich sein muss.
+    /// @return Die JSON-Datensätze der gefundenen Schiffe oder eine leere Liste.
+    public List<byte[]> findJson(
+        final Map<String, ? extends List<String>> suchparameter,
+        final Function<Schiff, byte[]> encoder
+    ) {
+        getLogger().debug("findJson: suchparameter={}", suchparameter);
+        final var query = Query.parse(suchparameter);
+        if (query == null) {
+            getLogger().debug("findJson: ungueltige Suchparameter={}", suchparameter);
+            return emptyList();
+        }
+        final var json = new ArrayList<byte[]>();
+        QueryPlanner.forEach(STORE.snapshot(), query, row -> json.add(jsonCache.get(row, encoder)));
+        getLogger().debug("findJson: #schiffe={}", json.size());
+        return json;
     }
 
-    /// Schiffe anhand von Typen suchen.
+    /// Eine Seite der Schiffe zu Suchparametern ermitteln (_Keyset Pagination_). Die Schiffe werden in der
+    /// Reihenfolge ihrer Zeilennummern geliefert. Die erste Seite hält den aktuellen Snapshot einmalig fest, alle
+    /// weiteren Seiten werden mit dem Cursor aus demselben Snapshot gelesen. Wird der Snapshot nicht mehr
+    /// festgehalten, ist der Cursor abgelaufen, weil die Zeilennummern im aktuellen Snapshot inzwischen neu vergeben
+    /// sein können.
     /// ```
     /// SELECT *
     /// FROM   schiff
-    /// WHERE  typ = ...
-    /// ```
-    ///
-    /// @param typStr Die Typen der gesuchten Schiffe
-    /// @return Die gefundenen Schiffe oder eine leere Collection
-    private Collection<Schiff> findByTyp(final Collection<String> typStr) {
-        getLogger().debug("findByTyp: typStr{}", typStr);
-        final var typen = typStr
-            .stream()
-            .map(SchiffTyp::of)
-            .toList();
-        if (typen.contains(null)) {
-            getLogger().debug("findByTyp: keine SchiffTyp");
-            return emptyList();
+    /// WHERE  ... AND ordinal > ...
+    /// ORDER BY ordinal
+    /// LIMIT  ...
+    /// ```
+    ///
+    /// @param suchparameter Suchparameter wie bei [#find(Map)], ohne `limit` und `cursor`.
+    /// @param limit Die maximale Anzahl der Schiffe auf der Seite.
+    /// @param cursor Der Cursor der vorherigen Seite oder `null` für die erste Seite.
+    /// @return Die Seite mit dem Cursor für die nächste Seite.
+    /// @throws InvalidCursorException Falls der Cursor ungültig ist, zu anderen Suchparametern gehört oder
+    ///     abgelaufen ist.
+    public Page find(
+        final Map<String, ? extends List<String>> suchparameter,
+        final int limit,
+        final @Nullable String cursor
+    ) {
+        getLogger().debug("find: suchparameter={}, limit={}, cursor={}", suchparameter, limit, cursor);
+        final var fingerprint = Cursor.fingerprint(suchparameter);
+        final @Nullable Cursor position;
+        final Snapshot snapshot;
+        if (cursor == null) {
+            position = null;
+            snapshot = STORE.snapshot();
+        } else {
+            position = Cursor.decode(cursor);
+            if (position == null || position.fingerprint() != fingerprint) {
+                throw new InvalidCursorException(cursor, false);
+            }
+            final var pinned = STORE.pinned(position.version());
+            if (pinned == null) {
+                throw new InvalidCursorException(cursor, true);
+            }
+            snapshot = pinned;
         }
-        getLogger().trace("findByTyp: typen={}", typen);
-        final var schiffe = SCHIFFE.stream()
-            .filter(schiff -> {
-                final Collection<SchiffTyp> schiffTypen = Set.of(schiff.getTyp());
-                return schiffTypen.containsAll(typen);
-            })
-
-            .toList();
-        getLogger().debug("findByTyp: schiffe={}", schiffe);
-        return schiffe;
+
+        final var query = Query.parse(suchparameter);
+        if (query == null) {
+            getLogger().debug("find: ungueltige Suchparameter={}", suchparameter);
+            return new Page(emptyList(), null);
+        }
+        final var slice = QueryPlanner.find(snapshot, query, position == null ? 0 : position.after() + 1, limit);
+        if (slice.last() == NO_ROW) {
+            return new Page(slice.schiffe(), null);
+        }
+
+        if (position == null) {
+            STORE.pin(snapshot);
+        }
+        final var next = new Cursor(snapshot.version(), slice.last(), fingerprint).encode();
+        getLogger().debug("find: version={}, #schiffe={}, next={}", snapshot.version(), slice.schiffe().size(), next);
+        return new Page(slice.schiffe(), next);
     }
 
-    /// Ein neues Schiff anlegen.
+    /// Den Ausführungsplan für eine Suche ermitteln. Die Suche wird dabei ausgeführt, um die geschätzte mit der
+    /// tatsächlichen Anzahl der Zeilen vergleichen zu können.
+    ///
+    /// @param suchparameter Suchparameter wie bei [#find(Map)].
+    /// @return Der Ausführungsplan.
+    public QueryPlan explain(final Map<String, ? extends List<String>> suchparameter) {
+        getLogger().debug("explain: suchparameter={}", suchparameter);
+        final var query = Query.parse(suchparameter);
+        final var plan = query == null
+            ? new QueryPlan(false, QueryPlanner.FULL_SCAN, 0, 0, List.of(), Map.of(), 0)
+            : QueryPlanner.explain(STORE.snapshot(), query);
+        getLogger().debug("explain: plan={}", plan);
+        return plan;
+    }
+
+    /// Ein neues Schiff anlegen. Der Name wird dabei atomar im eindeutigen Namensindex reserviert.
     /// ```sql
     /// INSERT INTO schiff VALUES ...
     /// ```
     /// @param schiff Das Schiff-Objekt
     /// @return Das neu angelegte Schiff mit generierter ID
+    /// @throws NameExistsException Falls der Name bereits von einem anderen Schiff verwendet wird
     public Schiff create(final Schiff schiff) {
         getLogger().debug("create: {}", schiff);
-        schiff.setId(UUID.randomUUID());
-        SCHIFFE.add(schiff);
+        write(batch -> batch.create(schiff));
         getLogger().debug("create: schiff={}", schiff);
         return schiff;
     }
 
+    /// Mehrere neue Schiffe in einem einzigen Schreibvorgang anlegen. Die Namen werden dabei gegeneinander und
+    /// gegen die vorhandenen Schiffe geprüft; ein Schiff mit einem bereits verwendeten Namen wird übersprungen
+    /// und erhält keine ID. Die Indexe werden für alle Schiffe zusammen aktualisiert und es wird nur ein neuer
+    /// Snapshot veröffentlicht.
+    /// ```sql
+    /// INSERT INTO schiff VALUES (...), (...), ...
+    /// ```
+    /// @param schiffe Die neuen Schiffe
+    /// @return Für jedes Schiff `true`, falls es angelegt wurde, oder `false` bei einem bereits verwendeten Namen
+    public boolean[] createAll(final List<Schiff> schiffe) {
+        getLogger().debug("createAll: #schiffe={}", schiffe.size());
+        final var ids = randomIds(schiffe.size());
+        final var created = STORE.write(builder -> builder.insertAll(schiffe, ids));
+        getLogger().debug("createAll: #SCHIFFE={}", STORE.snapshot().size());
+        return created;
+    }
+
+    /// Mehrere Schreibzugriffe in einem gemeinsamen Schreibvorgang ausführen, z.B. eine Folge von Änderungen eines
+    /// Clients. Die Zugriffe werden nacheinander auf demselben [WriteBatch] ausgeführt und gemeinsam mit einem
+    /// einzigen Snapshot veröffentlicht. Löst die Funktion selbst eine Exception aus, wird nichts veröffentlicht.
+    ///
+    /// @param changes Die Schreibzugriffe.
+    /// @param <T> Der Typ des Ergebnisses.
+    /// @return Das Ergebnis der Schreibzugriffe.
+    public <T> T write(final Function<WriteBatch, T> changes) {
+        final var changed = new ArrayList<UUID>();
+        final var result = STORE.write(builder -> changes.apply(new WriteBatch(builder, changed)));
+        changed.forEach(jsonCache::invalidate);
+        return result;
+    }
+
+    /// Eine optimistische [Transaction] über mehrere Schiffe beginnen. Bis zum Commit wird keine Sperre gehalten.
+    ///
+    /// @return Die Transaktion auf dem aktuellen Snapshot.
+    public Transaction begin() {
+        return new Transaction(STORE.snapshot());
+    }
+
+    /// Eine [Transaction] atomar abschließen. Die gelesenen Versionen werden zuerst ohne Sperre mit dem aktuellen
+    /// Snapshot verglichen, damit eine veraltete Transaktion andere Schreibvorgänge nicht aufhält. Danach werden
+    /// die Versionen im Schreibvorgang erneut geprüft und alle Schreibzugriffe mit einem einzigen Snapshot
+    /// veröffentlicht; scheitert ein Zugriff, wird nichts geändert.
+    /// ```sql
+    /// BEGIN; SELECT ...; UPDATE ... WHERE version = ...; ...; COMMIT
+    /// ```
+    ///
+    /// @param transaction Die abzuschließende Transaktion.
+    /// @throws NameExistsException Falls ein Name im Endzustand bereits von einem anderen Schiff verwendet wird.
+    /// @throws VersionMismatchException Falls ein gelesenes oder geändertes Schiff inzwischen in einer anderen
+    ///     Version gespeichert ist oder nicht mehr existiert.
+    public void commit(final Transaction transaction) {
+        getLogger().debug("commit: {}", transaction);
+        transaction.validate(STORE.snapshot());
+        write(batch -> {
+            transaction.apply(batch);
+            return transaction;
+        });
+        getLogger().debug("commit: #SCHIFFE={}", STORE.snapshot().size());
+    }
+
     /// Ein bestehendes Schiff aktualisieren.
     /// ```sql
     /// UPDATE schiff SET ...
     /// ```
     /// @param schiff Das Objekt mit neuen Daten
+    /// @throws NameExistsException Falls der neue Name bereits von einem anderen Schiff verwendet wird
     public void update(final Schiff schiff) {
-        getLogger().debug("update: {}", schiff);
-        final var index = IntStream
-            .range(0, SCHIFFE.size())
-            .filter(i -> Objects.equals(SCHIFFE.get(i).getId(), schiff.getId()))
-            .findFirst();
-
-        if (index.isEmpty()) {
-            return;
-        }
-        SCHIFFE.set(index.getAsInt(), schiff);
-        getLogger().debug("update: schiff={}", schiff);
+        update(schiff, ANY_VERSION);
+    }
+
+    /// Ein bestehendes Schiff nur dann aktualisieren, wenn es noch in der erwarteten Version gespeichert ist
+    /// (_Compare and Set_). Der Vergleich und die Änderung erfolgen im selben Schreibvorgang, so dass keine
+    /// parallele Änderung verloren geht.
+    /// ```sql
+    /// UPDATE schiff SET ... WHERE id = ... AND version = ...
+    /// ```
+    /// @param schiff Das Objekt mit neuen Daten
+    /// @param version Die erwartete Version oder [#ANY_VERSION]
+    /// @return `true`, falls das Schiff aktualisiert wurde, oder `false`, falls es kein Schiff mit der ID gibt
+    /// @throws NameExistsException Falls der neue Name bereits von einem anderen Schiff verwendet wird
+    /// @throws VersionMismatchException Falls das Schiff nicht in der erwarteten Version vorhanden ist
+    public boolean update(final Schiff schiff, final long version) {
+        getLogger().debug("update: {}, version={}", schiff, version);
+        final boolean updated = write(batch -> batch.update(schiff, version));
+        getLogger().debug("update: updated={}, schiff={}", updated, schiff);
+        return updated;
+    }
+
+    /// Alle Schiffe zu Suchparametern in einem einzigen Schreibvorgang ändern, z.B. alle Schiffe eines Hafens
+    /// in einen anderen Hafen verlegen. Die Treffer werden wie bei [#find(Map)] über die Indexe ermittelt und die
+    /// Indexe der geänderten Attribute je Schlüssel nur einmal aktualisiert.
+    /// ```sql
+    /// UPDATE schiff SET ...
+    /// WHERE  ...
+    /// ```
+    ///
+    /// @param suchparameter Suchparameter wie bei [#find(Map)]; mindestens einer ist erforderlich.
+    /// @param change Die Änderung, die aus einem gespeicherten Schiff ein neues Schiff mit derselben ID erzeugt,
+    ///     ohne das gespeicherte Schiff zu verändern. Löst sie eine Exception aus, wird kein Schiff geändert.
+    /// @return Die Anzahl der geänderten Schiffe.
+    /// @throws InvalidQueryException Falls die Suchparameter ungültig oder leer sind.
+    /// @throws NameExistsException Falls ein neuer Name bereits verwendet wird; dann wird kein Schiff geändert.
+    public int updateByQuery(
+        final Map<String, ? extends List<String>> suchparameter,
+        final UnaryOperator<Schiff> change
+    ) {
+        getLogger().debug("updateByQuery: suchparameter={}", suchparameter);
+        final var query = bulkQuery(suchparameter);
+        final int count = write(batch -> batch.updateAll(query, change));
+        getLogger().debug("updateByQuery: count={}", count);
+        return count;
+    }
+
+    /// Alle Schiffe zu Suchparametern in einem einzigen Schreibvorgang löschen. Die Treffer werden wie bei
+    /// [#find(Map)] über die Indexe ermittelt und die Indexe je Schlüssel nur einmal aktualisiert.
+    /// ```sql
+    /// DELETE FROM schiff
+    /// WHERE  ...
+    /// ```
+    ///
+    /// @param suchparameter Suchparameter wie bei [#find(Map)]; mindestens einer ist erforderlich.
+    /// @return Die Anzahl der gelöschten Schiffe.
+    /// @throws InvalidQueryException Falls die Suchparameter ungültig oder leer sind.
+    public int deleteByQuery(final Map<String, ? extends List<String>> suchparameter) {
+        getLogger().debug("deleteByQuery: suchparameter={}", suchparameter);
+        final var query = bulkQuery(suchparameter);
+        final int count = write(batch -> batch.deleteAll(query));
+        getLogger().debug("deleteByQuery: count={}", count);
+        return count;
     }
 
     /// Ein Schiff anhand der ID löschen.
@@ -180,15 +423,51 @@ public class SchiffRepository {
     /// ```
     /// @param id Die ID des zu löschenden Schiffs
     public void deleteById(final UUID id) {
-        getLogger().debug("deleteById: id={}", id);
-        final var index = IntStream
-            .range(0, SCHIFFE.size())
-            .filter(i -> Objects.equals(SCHIFFE.get(i).getId(), id))
-            .findFirst();
+        deleteById(id, ANY_VERSION);
+    }
 
-        index.ifPresent(SCHIFFE::remove);
-        getLogger().debug("deleteById: #SCHIFFE={}", SCHIFFE.size());
+    /// Ein Schiff anhand der ID nur dann löschen, wenn es noch in der erwarteten Version gespeichert ist.
+    /// ```sql
+    /// DELETE FROM schiff WHERE id = ... AND version = ...
+    /// ```
+    /// @param id Die ID des zu löschenden Schiffs
+    /// @param version Die erwartete Version oder [#ANY_VERSION]
+    /// @throws VersionMismatchException Falls das Schiff nicht in der erwarteten Version vorhanden ist
+    public void deleteById(final UUID id, final long version) {
+        getLogger().debug("deleteById: id={}, version={}", id, version);
+        write(batch -> {
+            batch.deleteById(id, version);
+            return id;
+        });
+        getLogger().debug("deleteById: #SCHIFFE={}", STORE.snapshot().size());
     }
+
+    /// Zufällige UUIDs der Version 4 wie bei [UUID#randomUUID()] erzeugen, aber mit nur einem Aufruf von
+    /// [SecureRandom#nextBytes(byte[])] für alle IDs.
+    @SuppressWarnings("MagicNumber")
+    private static UUID[] randomIds(final int count) {
+        final var bytes = new byte[count * 2 * Long.BYTES];
+        RANDOM.nextBytes(bytes);
+        final var buffer = ByteBuffer.wrap(bytes);
+        final var ids = new UUID[count];
+        for (var i = 0; i < count; i++) {
+            final var msb = buffer.getLong() & ~0xF000L | 0x4000L;
+            final var lsb = buffer.getLong() & ~(0b11L << 62) | 1L << 63;
+            ids[i] = new UUID(msb, lsb);
+        }
+        return ids;
+    }
+
+    /// Suchparameter für eine Änderung vieler Schiffe auswerten. Anders als bei [#find(Map)] sind ungültige
+    /// Suchparameter ein Fehler und ohne Suchparameter würden alle Schiffe geändert.
+    private static Query bulkQuery(final Map<String, ? extends List<String>> suchparameter) {
+        final var query = Query.parse(suchparameter);
+        if (query == null || query.isEmpty()) {
+            throw new InvalidQueryException(suchparameter.toString());
+        }
+        return query;
+    }
+
     private Logger getLogger() {
         return logger.orElseSet(() -> LoggerFactory.getLogger(SchiffRepository.class));
     }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.Schiff;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+/// Datenbasis mit _Multi-Version Concurrency Control_ (MVCC).
+/// Lesende Zugriffe arbeiten ohne Sperre auf dem jeweils aktuellen, unveränderlichen [Snapshot].
+/// Schreibende Zugriffe werden durch eine Sperre serialisiert, bauen den nachfolgenden Snapshot mit einem
+/// [Snapshot.Builder] auf und veröffentlichen ihn atomar.
+///
+/// Die gespeicherten Schiffe gelten als unveränderlich, sobald sie in einem Snapshot enthalten sind.
+///
+/// Damit beim Blättern alle Seiten aus demselben Snapshot stammen, kann ein Snapshot festgehalten werden. Es
+/// werden höchstens [#PINNED_MAX] Snapshots festgehalten; der am längsten nicht mehr verwendete wird verdrängt.
+/// Da sich aufeinanderfolgende Snapshots die unveränderten Teile teilen, kostet ein festgehaltener Snapshot nur
+/// den Speicher für die seitdem geänderten Zeilen und Indexe.
+///
+/// @author Murat Yahsi
+final class SchiffStore {
+    /// Maximale Anzahl festgehaltener Snapshots.
+    static final int PINNED_MAX = 32;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot current;
+    private final ReentrantLock pinLock = new ReentrantLock();
+    private final Map<Long, Snapshot> pinned = new LinkedHashMap<>();
+
+    /// Die Datenbasis mit initialen Schiffen anlegen.
+    ///
+    /// @param schiffe Die initialen Schiffe mit bereits gesetzter ID.
+    SchiffStore(final Collection<Schiff> schiffe) {
+        final var builder = Snapshot.EMPTY.toBuilder();
+        schiffe.forEach(schiff -> builder.insert(schiff, schiff.getId()));
+        current = builder.build();
+    }
+
+    /// Den aktuellen Snapshot ermitteln. Der Snapshot bleibt konsistent, auch wenn parallel geschrieben wird.
+    ///
+    /// @return Der aktuelle Snapshot.
+    Snapshot snapshot() {
+        return current;
+    }
+
+    /// Einen Snapshot festhalten, damit er später mit [#pinned(long)] wieder gelesen werden kann.
+    ///
+    /// @param snapshot Der festzuhaltende Snapshot.
+    void pin(final Snapshot snapshot) {
+        pinLock.lock();
+        try {
+            // erneut einfügen, damit der Snapshot als zuletzt verwendet gilt
+            pinned.remove(snapshot.version());
+            pinned.put(snapshot.version(), snapshot);
+            if (pinned.size() > PINNED_MAX) {
+                pinned.remove(pinned.keySet().iterator().next());
+            }
+        } finally {
+            pinLock.unlock();
+        }
+    }
+
+    /// Einen festgehaltenen Snapshot ermitteln und als zuletzt verwendet markieren.
+    ///
+    /// @param version Die Version des Snapshots.
+    /// @return Der Snapshot oder `null`, falls er nicht (mehr) festgehalten wird.
+    @Nullable
+    Snapshot pinned(final long version) {
+        final var snapshot = current;
+        if (snapshot.version() == version) {
+            return snapshot;
+        }
+        pinLock.lock();
+        try {
+            final var result = pinned.remove(version);
+            if (result != null) {
+                // erneut einfügen, damit der Snapshot als zuletzt verwendet gilt
+                pinned.put(version, result);
+            }
+            return result;
+        } finally {
+            pinLock.unlock();
+        }
+    }
+
+    /// Änderungen atomar durchführen. Falls die Änderungen eine Exception auslösen, wird kein neuer Snapshot
+    /// veröffentlicht.
+    ///
+    /// @param changes Die Änderungen auf Basis des aktuellen Snapshots.
+    /// @param <T> Der Typ des Ergebnisses.
+    /// @return Das Ergebnis der Änderungen.
+    <T> T write(final Function<Snapshot.Builder, T> changes) {
+        writeLock.lock();
+        try {
+            final var builder = current.toBuilder();
+            final var result = changes.apply(builder);
+            if (builder.isModified()) {
+                current = builder.build();
+            }
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,791 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.entity.SchiffTyp;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+import static com.acme.schiff.repository.IdIndex.NO_ROW;
+
+/// Unveränderlicher Stand der Datenbasis zu einer bestimmten Version.
+/// Die Zeilen sind in Blöcken zu je 1024 Einträgen abgelegt. Ein [Builder] kopiert nur die Blöcke, die er ändert,
+/// so dass aufeinanderfolgende Snapshots die unveränderten Blöcke gemeinsam nutzen.
+///
+/// Beim Ändern behält ein Schiff seine Zeilennummer. Die Zeilennummern gelöschter Schiffe werden vorgemerkt und beim
+/// Einfügen wiederverwendet, damit die Blöcke und Indexe nicht mit der Zahl der Löschungen wachsen.
+///
+/// Die Zeilen enthalten eigene Kopien der Schiffe; nach außen werden wiederum nur Kopien gegeben, siehe [Row#copy()].
+///
+/// @author Murat Yahsi
+final class Snapshot {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /// Leerer Snapshot mit der Version 0.
+    static final Snapshot EMPTY = new Snapshot();
+
+    private final long version;
+    private final long inserts;
+    private final @Nullable Row[][] chunks;
+    private final int rowCount;
+    private final int size;
+    private final IdIndex ids;
+    private final NameIndex names;
+    private final TrigramIndex trigrams;
+    private final Bitmap live;
+    private final Bitmap free;
+    private final BitmapIndex<SchiffTyp> typen;
+    private final BitmapIndex<String> laender;
+    private final BitmapIndex<String> haefen;
+    private final RangeIndex kapazitaeten;
+    private final RangeIndex baujahre;
+
+    private Snapshot() {
+        version = 0L;
+        inserts = 0L;
+        chunks = new Row[0][];
+        rowCount = 0;
+        size = 0;
+        ids = IdIndex.EMPTY;
+        names = NameIndex.EMPTY;
+        trigrams = TrigramIndex.EMPTY;
+        live = Bitmap.EMPTY;
+        free = Bitmap.EMPTY;
+        typen = BitmapIndex.empty();
+        laender = BitmapIndex.empty();
+        haefen = BitmapIndex.empty();
+        kapazitaeten = RangeIndex.EMPTY;
+        baujahre = RangeIndex.EMPTY;
+    }
+
+    private Snapshot(final Builder builder) {
+        version = builder.version;
+        inserts = builder.inserts;
+        chunks = builder.chunks;
+        rowCount = builder.rowCount;
+        size = builder.size;
+        ids = builder.ids.build();
+        names = builder.names.build();
+        trigrams = builder.trigrams.build();
+        live = builder.live;
+        free = builder.free;
+        typen = builder.typen.build();
+        laender = builder.laender.build();
+        haefen = builder.haefen.build();
+        kapazitaeten = builder.kapazitaeten.build();
+        baujahre = builder.baujahre.build();
+    }
+
+    /// Die Version des Snapshots ermitteln.
+    ///
+    /// @return Die Version.
+    long version() {
+        return version;
+    }
+
+    /// Anzahl der bisher neu angelegten Schiffe einschließlich gelöschter. Im Gegensatz zu [#rowCount()] wird sie
+    /// durch jedes Neuanlegen erhöht, auch wenn dabei die Zeilennummer eines gelöschten Schiffs wiederverwendet wird.
+    ///
+    /// @return Die Anzahl der bisher neu angelegten Schiffe.
+    long inserts() {
+        return inserts;
+    }
+
+    /// Anzahl der vorhandenen Schiffe.
+    ///
+    /// @return Die Anzahl der Schiffe.
+    int size() {
+        return size;
+    }
+
+    /// Anzahl der bisher vergebenen Zeilennummern einschließlich gelöschter, noch nicht wiederverwendeter Zeilen.
+    ///
+    /// @return Die höchste Zeilennummer plus 1.
+    int rowCount() {
+        return rowCount;
+    }
+
+    /// Eine Zeile anhand ihrer Zeilennummer ermitteln.
+    ///
+    /// @param ordinal Die Zeilennummer.
+    /// @return Die Zeile oder `null`, falls sie gelöscht wurde.
+    @Nullable
+    Row row(final int ordinal) {
+        return row(chunks, ordinal);
+    }
+
+    /// Ein Schiff anhand seiner ID ermitteln.
+    ///
+    /// @param id Die ID des gesuchten Schiffs.
+    /// @return Eine Kopie des gefundenen Schiffs oder `null`.
+    @Nullable
+    Schiff findById(final UUID id) {
+        final var row = findRowById(id);
+        return row == null ? null : row.copy();
+    }
+
+    /// Die Zeile eines Schiffs anhand seiner ID ermitteln.
+    ///
+    /// @param id Die ID des gesuchten Schiffs.
+    /// @return Die gefundene Zeile oder `null`.
+    @Nullable
+    Row findRowById(final UUID id) {
+        final var ordinal = ids.get(id);
+        return ordinal == NO_ROW ? null : row(ordinal);
+    }
+
+    /// Die Zeilennummer eines Schiffs ermitteln.
+    ///
+    /// @param id Die ID des gesuchten Schiffs.
+    /// @return Die Zeilennummer oder [IdIndex#NO_ROW].
+    int ordinal(final UUID id) {
+        return ids.get(id);
+    }
+
+    /// Die Zeilennummern aller vorhandenen Schiffe, z.B. als Grundmenge für eine Negation.
+    ///
+    /// @return Die Bitmap der vorhandenen Zeilen.
+    Bitmap live() {
+        return live;
+    }
+
+    /// Der Trigramm-Index über die Namen.
+    ///
+    /// @return Der Index.
+    TrigramIndex trigrams() {
+        return trigrams;
+    }
+
+    /// Der Bitmap-Index über die Typen.
+    ///
+    /// @return Der Index.
+    BitmapIndex<SchiffTyp> typen() {
+        return typen;
+    }
+
+    /// Der Bitmap-Index über die Länder der Heimathäfen.
+    ///
+    /// @return Der Index.
+    BitmapIndex<String> laender() {
+        return laender;
+    }
+
+    /// Der Bitmap-Index über die Namen der Heimathäfen.
+    ///
+    /// @return Der Index.
+    BitmapIndex<String> haefen() {
+        return haefen;
+    }
+
+    /// Der sortierte Index über die Kapazitäten.
+    ///
+    /// @return Der Index.
+    RangeIndex kapazitaeten() {
+        return kapazitaeten;
+    }
+
+    /// Der sortierte Index über die Baujahre als Tage seit 1970-01-01, siehe [#epochDay(LocalDate)].
+    ///
+    /// @return Der Index.
+    RangeIndex baujahre() {
+        return baujahre;
+    }
+
+    /// Die Schiffe zu den Zeilennummern einer Bitmap ermitteln.
+    ///
+    /// @param bitmap Die Bitmap mit den Zeilennummern.
+    /// @return Kopien der Schiffe in der Reihenfolge der Zeilennummern.
+    List<Schiff> schiffe(final Bitmap bitmap) {
+        final var result = new ArrayList<Schiff>(bitmap.cardinality());
+        bitmap.forEach(ordinal -> {
+            final var row = row(ordinal);
+            if (row != null) {
+                result.add(row.copy());
+            }
+        });
+        return result;
+    }
+
+    /// Alle Schiffe des Snapshots als unveränderliche Sicht, d.h. ohne Kopie der Sammlung. Die einzelnen Schiffe
+    /// werden erst beim Iterieren kopiert.
+    ///
+    /// @return Die Schiffe des Snapshots.
+    Collection<Schiff> schiffe() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Schiff> iterator() {
+                return new SchiffIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /// Einen Builder für den nachfolgenden Snapshot erzeugen.
+    ///
+    /// @return Der neue Builder.
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot{version=" + version + ", size=" + size + '}';
+    }
+
+    /// Ein Datum als Schlüssel für einen [RangeIndex] kodieren.
+    ///
+    /// @param datum Das Datum.
+    /// @return Die Tage seit 1970-01-01, auf den Wertebereich von `int` begrenzt.
+    static int epochDay(final LocalDate datum) {
+        return Math.clamp(datum.toEpochDay(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Nullable
+    private static Row row(final @Nullable Row[][] chunks, final int ordinal) {
+        final var chunk = ordinal >>> CHUNK_BITS;
+        if (chunk >= chunks.length) {
+            return null;
+        }
+        final var rows = chunks[chunk];
+        return rows == null ? null : rows[ordinal & CHUNK_MASK];
+    }
+
+    /// Iterator über die vorhandenen Schiffe, der gelöschte Zeilen überspringt.
+    private final class SchiffIterator implements Iterator<Schiff> {
+        private int ordinal;
+        private @Nullable Row next;
+
+        SchiffIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Schiff next() {
+            final var current = next;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return current.copy();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && ordinal < rowCount) {
+                next = row(ordinal++);
+            }
+        }
+    }
+
+    /// Veränderbare Kopie eines [Snapshot] für genau einen Schreibvorgang.
+    /// Nach [#build()] darf der Builder nicht mehr verwendet werden.
+    static final class Builder {
+        private final Snapshot base;
+        private final long version;
+        private @Nullable Row[][] chunks;
+        private final BitSet owned = new BitSet();
+        private final IdIndex.Builder ids;
+        private final NameIndex.Builder names;
+        private final TrigramIndex.Builder trigrams;
+        private Bitmap live;
+        private Bitmap free;
+        private final BitmapIndex.Builder<SchiffTyp> typen;
+        private final BitmapIndex.Builder<String> laender;
+        private final BitmapIndex.Builder<String> haefen;
+        private final RangeIndex.Builder kapazitaeten;
+        private final RangeIndex.Builder baujahre;
+        private long inserts;
+        private int rowCount;
+        private int size;
+        private boolean modified;
+
+        private Builder(final Snapshot base) {
+            this.base = base;
+            version = base.version + 1;
+            chunks = base.chunks.clone();
+            ids = base.ids.toBuilder();
+            names = base.names.toBuilder();
+            trigrams = base.trigrams.toBuilder();
+            live = base.live;
+            free = base.free;
+            typen = base.typen.toBuilder();
+            laender = base.laender.toBuilder();
+            haefen = base.haefen.toBuilder();
+            kapazitaeten = base.kapazitaeten.toBuilder();
+            baujahre = base.baujahre.toBuilder();
+            inserts = base.inserts;
+            rowCount = base.rowCount;
+            size = base.size;
+        }
+
+        /// Die Version des neuen Snapshots ermitteln.
+        ///
+        /// @return Die neue Version.
+        long version() {
+            return version;
+        }
+
+        /// Den Snapshot ermitteln, auf dem der Builder basiert, z.B. um vor der ersten Änderung darin zu suchen.
+        ///
+        /// @return Der bisherige Snapshot, der dem Zustand des Builders entspricht.
+        /// @throws IllegalStateException Falls der Builder bereits verändert wurde.
+        Snapshot base() {
+            if (modified) {
+                throw new IllegalStateException("Der Builder wurde bereits verändert");
+            }
+            return base;
+        }
+
+        /// Ein Schiff anhand seiner ID ermitteln, einschließlich der Änderungen dieses Builders.
+        ///
+        /// @param id Die ID des gesuchten Schiffs.
+        /// @return Eine Kopie des gefundenen Schiffs oder `null`.
+        @Nullable
+        Schiff findById(final UUID id) {
+            final var row = findRowById(id);
+            return row == null ? null : row.copy();
+        }
+
+        /// Die Zeile eines Schiffs anhand seiner ID ermitteln, einschließlich der Änderungen dieses Builders.
+        ///
+        /// @param id Die ID des gesuchten Schiffs.
+        /// @return Die gefundene Zeile oder `null`.
+        @Nullable
+        Row findRowById(final UUID id) {
+            final var ordinal = ids.get(id);
+            return ordinal == NO_ROW ? null : row(chunks, ordinal);
+        }
+
+        /// Ein neues Schiff anfügen. Gespeichert wird eine Kopie; beim übergebenen Schiff werden erst nach der
+        /// Reservierung des Namens die ID und die Version des neuen Snapshots gesetzt.
+        ///
+        /// @param schiff Das neue Schiff.
+        /// @param id Die ID des neuen Schiffs.
+        /// @return Die Zeilennummer des neuen Schiffs.
+        /// @throws NameExistsException Falls der Name bereits von einem anderen Schiff verwendet wird.
+        int insert(final Schiff schiff, final UUID id) {
+            if (!names.reserve(schiff.getName(), id)) {
+                throw new NameExistsException(schiff.getName());
+            }
+            final var ordinal = allocate();
+            schiff.setId(id);
+            schiff.setVersion(version);
+            final var row = new Row(schiff, version);
+            set(ordinal, row);
+            ids.put(id, ordinal);
+            trigrams.add(row.name(), ordinal);
+            live = live.add(ordinal);
+            addAttributes(row, ordinal);
+            size++;
+            return ordinal;
+        }
+
+        /// Mehrere neue Schiffe anfügen. Die Namen werden wie bei [#insert(Schiff, UUID)] nacheinander reserviert
+        /// und damit gegeneinander und gegen die vorhandenen Schiffe geprüft. Die übrigen Indexe werden anschließend
+        /// je Schlüssel nur einmal mit allen neuen Zeilen zusammengeführt.
+        ///
+        /// @param schiffe Die neuen Schiffe; nur die angefügten Schiffe erhalten ihre ID.
+        /// @param ids Die IDs der neuen Schiffe in derselben Reihenfolge.
+        /// @return Für jedes Schiff `true`, falls es angefügt wurde, oder `false`, falls der Name bereits von
+        ///     einem anderen Schiff verwendet wird.
+        boolean[] insertAll(final List<Schiff> schiffe, final UUID[] ids) {
+            final var inserted = new boolean[schiffe.size()];
+            final var rows = new ArrayList<Row>(schiffe.size());
+            final var ordinals = new IntList();
+            for (var i = 0; i < inserted.length; i++) {
+                final var schiff = schiffe.get(i);
+                if (!names.reserve(schiff.getName(), ids[i])) {
+                    continue;
+                }
+                final var ordinal = allocate();
+                schiff.setId(ids[i]);
+                schiff.setVersion(version);
+                final var row = new Row(schiff, version);
+                set(ordinal, row);
+                this.ids.put(ids[i], ordinal);
+                rows.add(row);
+                ordinals.add(ordinal);
+                inserted[i] = true;
+            }
+            if (rows.isEmpty()) {
+                return inserted;
+            }
+
+            final var added = ordinals.toArray();
+            trigrams.addAll(rows.stream().map(Row::name).toList(), added);
+            live = live.or(Bitmap.of(added.clone()));
+            typen.addAll(rows.stream().map(Row::typ).toList(), added);
+            laender.addAll(rows.stream().map(Row::land).toList(), added);
+            haefen.addAll(rows.stream().map(Row::hafen).toList(), added);
+            kapazitaeten.addAll(rows.stream().mapToInt(Row::kapazitaet).toArray(), added);
+            final var baujahrKeys = new IntList();
+            final var baujahrOrdinals = new IntList();
+            for (var i = 0; i < added.length; i++) {
+                final var baujahr = rows.get(i).baujahr();
+                if (baujahr != null) {
+                    baujahrKeys.add(epochDay(baujahr));
+                    baujahrOrdinals.add(added[i]);
+                }
+            }
+            baujahre.addAll(baujahrKeys.toArray(), baujahrOrdinals.toArray());
+            size += added.length;
+            return inserted;
+        }
+
+        /// Ein vorhandenes Schiff mit derselben ID durch eine Kopie ersetzen. Die Zeilennummer bleibt erhalten und die
+        /// Version des übergebenen Schiffs wird auf die Version des neuen Snapshots gesetzt. Es werden nur die Indexe
+        /// der Attribute aktualisiert, die sich gegenüber der bisherigen Zeile geändert haben, z.B. bei `PATCH` nur
+        /// ein Index.
+        ///
+        /// @param schiff Das Schiff mit den neuen Daten.
+        /// @return Die bisherige Zeile oder `null`, falls es kein Schiff mit der ID gibt.
+        /// @throws NameExistsException Falls der neue Name bereits von einem anderen Schiff verwendet wird.
+        @Nullable
+        Row replace(final Schiff schiff) {
+            final var ordinal = ids.get(schiff.getId());
+            if (ordinal == NO_ROW) {
+                return null;
+            }
+            final var old = row(chunks, ordinal);
+            final var renamed = old == null || !old.name().equals(schiff.getName());
+            if (renamed && !names.reserve(schiff.getName(), schiff.getId())) {
+                throw new NameExistsException(schiff.getName());
+            }
+            schiff.setVersion(version);
+            final var row = new Row(schiff, version);
+            set(ordinal, row);
+            if (old == null) {
+                addAttributes(row, ordinal);
+                return null;
+            }
+            if (renamed) {
+                if (!NameIndex.normalize(old.name()).equals(NameIndex.normalize(row.name()))) {
+                    names.release(old.name(), schiff.getId());
+                }
+                trigrams.update(old.name(), row.name(), ordinal);
+            }
+            updateAttributes(old, row, ordinal);
+            return old;
+        }
+
+        /// Die bisherigen Namen der Schiffe freigeben, die anschließend mit [#replace(Schiff)] umbenannt werden.
+        /// Da die neuen Namen erst dort reserviert werden, können mehrere Schiffe in einem Schreibvorgang ihre Namen
+        /// untereinander tauschen. Wird ein Schiff danach nicht ersetzt, darf der Builder nicht veröffentlicht werden.
+        ///
+        /// @param schiffe Die Schiffe mit den neuen Namen.
+        void releaseNames(final List<Schiff> schiffe) {
+            for (final var schiff : schiffe) {
+                final var old = findRowById(schiff.getId());
+                if (old != null && !old.name().equals(schiff.getName())) {
+                    names.release(old.name(), schiff.getId());
+                }
+            }
+        }
+
+        /// Mehrere vorhandene Schiffe ersetzen, z.B. alle Schiffe zu einer Suche. Wie bei [#replace(Schiff)]
+        /// werden nur die Indexe der geänderten Attribute aktualisiert, aber je Index und Schlüssel nur einmal mit
+        /// allen betroffenen Zeilen zusammengeführt.
+        ///
+        /// @param schiffe Die Schiffe mit den neuen Daten; Schiffe, deren ID es nicht gibt, werden übergangen.
+        /// @return Die Anzahl der ersetzten Schiffe.
+        /// @throws NameExistsException Falls ein neuer Name bereits von einem anderen Schiff verwendet wird. Der
+        ///     Builder darf danach nicht mehr verwendet werden.
+        int replaceAll(final List<Schiff> schiffe) {
+            final var delta = new IndexDelta();
+            for (final var schiff : schiffe) {
+                final var ordinal = ids.get(schiff.getId());
+                final var old = ordinal == NO_ROW ? null : row(chunks, ordinal);
+                if (old == null) {
+                    continue;
+                }
+                if (!old.name().equals(schiff.getName())) {
+                    if (!names.reserve(schiff.getName(), schiff.getId())) {
+                        throw new NameExistsException(schiff.getName());
+                    }
+                    if (!NameIndex.normalize(old.name()).equals(NameIndex.normalize(schiff.getName()))) {
+                        names.release(old.name(), schiff.getId());
+                    }
+                }
+                schiff.setVersion(version);
+                final var row = new Row(schiff, version);
+                set(ordinal, row);
+                delta.add(old, row, ordinal);
+            }
+            delta.apply();
+            return delta.count;
+        }
+
+        /// Mehrere Schiffe entfernen, z.B. alle Schiffe zu einer Suche. Die Indexe werden je Schlüssel nur einmal
+        /// um alle entfernten Zeilen verringert.
+        ///
+        /// @param ids Die IDs der zu entfernenden Schiffe; IDs, die es nicht gibt, werden übergangen.
+        /// @return Die Anzahl der entfernten Schiffe.
+        int removeAll(final List<UUID> ids) {
+            final var delta = new IndexDelta();
+            for (final var id : ids) {
+                final var ordinal = this.ids.remove(id);
+                final var old = ordinal == NO_ROW ? null : row(chunks, ordinal);
+                if (old == null) {
+                    continue;
+                }
+                names.release(old.name(), id);
+                set(ordinal, null);
+                delta.add(old, null, ordinal);
+            }
+            delta.apply();
+            final var removed = Bitmap.of(delta.removed.toArray());
+            live = live.andNot(removed);
+            free = free.or(removed);
+            size -= delta.count;
+            return delta.count;
+        }
+
+        /// Ein Schiff anhand seiner ID entfernen.
+        ///
+        /// @param id Die ID des zu löschenden Schiffs.
+        /// @return Die bisherige Zeile oder `null`, falls es kein Schiff mit der ID gibt.
+        @Nullable
+        Row remove(final UUID id) {
+            final var ordinal = ids.remove(id);
+            if (ordinal == NO_ROW) {
+                return null;
+            }
+            final var old = row(chunks, ordinal);
+            if (old != null) {
+                names.release(old.name(), id);
+                trigrams.remove(old.name(), ordinal);
+                removeAttributes(old, ordinal);
+            }
+            live = live.remove(ordinal);
+            free = free.add(ordinal);
+            set(ordinal, null);
+            size--;
+            return old;
+        }
+
+        /// Wurde der Snapshot durch den Builder verändert?
+        ///
+        /// @return `true`, falls es mindestens eine Änderung gibt.
+        boolean isModified() {
+            return modified;
+        }
+
+        /// Den unveränderlichen Snapshot erzeugen. Ohne Änderungen wird der bisherige Snapshot zurückgeliefert.
+        ///
+        /// @return Der neue Snapshot.
+        Snapshot build() {
+            if (!modified) {
+                return base;
+            }
+            return new Snapshot(this);
+        }
+
+        /// Eine Zeilennummer für ein neues Schiff vergeben: die kleinste freie Zeilennummer eines gelöschten Schiffs
+        /// oder andernfalls eine neue am Ende. Dabei wird die Anzahl der neu angelegten Schiffe erhöht.
+        private int allocate() {
+            inserts++;
+            final var ordinal = free.first();
+            if (ordinal == NO_ROW) {
+                return rowCount++;
+            }
+            free = free.remove(ordinal);
+            return ordinal;
+        }
+
+        private void addAttributes(final Row row, final int ordinal) {
+            typen.add(row.typ(), ordinal);
+            laender.add(row.land(), ordinal);
+            haefen.add(row.hafen(), ordinal);
+            kapazitaeten.add(row.kapazitaet(), ordinal);
+            final var baujahr = row.baujahr();
+            if (baujahr != null) {
+                baujahre.add(epochDay(baujahr), ordinal);
+            }
+        }
+
+        private void removeAttributes(final Row row, final int ordinal) {
+            typen.remove(row.typ(), ordinal);
+            laender.remove(row.land(), ordinal);
+            haefen.remove(row.hafen(), ordinal);
+            kapazitaeten.remove(row.kapazitaet(), ordinal);
+            final var baujahr = row.baujahr();
+            if (baujahr != null) {
+                baujahre.remove(epochDay(baujahr), ordinal);
+            }
+        }
+
+        private void updateAttributes(final Row old, final Row row, final int ordinal) {
+            if (old.typ() != row.typ()) {
+                typen.remove(old.typ(), ordinal);
+                typen.add(row.typ(), ordinal);
+            }
+            if (!Objects.equals(old.land(), row.land())) {
+                laender.remove(old.land(), ordinal);
+                laender.add(row.land(), ordinal);
+            }
+            if (!Objects.equals(old.hafen(), row.hafen())) {
+                haefen.remove(old.hafen(), ordinal);
+                haefen.add(row.hafen(), ordinal);
+            }
+            if (old.kapazitaet() != row.kapazitaet()) {
+                kapazitaeten.remove(old.kapazitaet(), ordinal);
+                kapazitaeten.add(row.kapazitaet(), ordinal);
+            }
+            final var baujahrAlt = old.baujahr();
+            final var baujahr = row.baujahr();
+            if (!Objects.equals(baujahrAlt, baujahr)) {
+                if (baujahrAlt != null) {
+                    baujahre.remove(epochDay(baujahrAlt), ordinal);
+                }
+                if (baujahr != null) {
+                    baujahre.add(epochDay(baujahr), ordinal);
+                }
+            }
+        }
+
+        /// Die geänderten Einträge der Indexe für mehrere Zeilen, damit jeder Index nur einmal aktualisiert wird.
+        private final class IndexDelta {
+            private final Delta<String> namen = new Delta<>();
+            private final Delta<SchiffTyp> typDelta = new Delta<>();
+            private final Delta<String> landDelta = new Delta<>();
+            private final Delta<String> hafenDelta = new Delta<>();
+            private final Delta<Integer> kapazitaetDelta = new Delta<>();
+            private final Delta<Integer> baujahrDelta = new Delta<>();
+            private final IntList removed = new IntList();
+            private int count;
+
+            /// Die Änderungen einer Zeile vormerken.
+            ///
+            /// @param old Die bisherige Zeile.
+            /// @param row Die neue Zeile oder `null`, falls die Zeile entfernt wird.
+            /// @param ordinal Die Zeilennummer.
+            void add(final Row old, final @Nullable Row row, final int ordinal) {
+                if (row == null) {
+                    removed.add(ordinal);
+                }
+                namen.add(old.name(), row == null ? null : row.name(), ordinal);
+                typDelta.add(old.typ(), row == null ? null : row.typ(), ordinal);
+                landDelta.add(old.land(), row == null ? null : row.land(), ordinal);
+                hafenDelta.add(old.hafen(), row == null ? null : row.hafen(), ordinal);
+                kapazitaetDelta.add(old.kapazitaet(), row == null ? null : row.kapazitaet(), ordinal);
+                baujahrDelta.add(baujahr(old), row == null ? null : baujahr(row), ordinal);
+                count++;
+            }
+
+            void apply() {
+                if (!namen.alt.isEmpty()) {
+                    trigrams.removeAll(namen.alt, namen.altOrdinals.toArray());
+                }
+                if (!namen.neu.isEmpty()) {
+                    trigrams.addAll(namen.neu, namen.neuOrdinals.toArray());
+                }
+                typDelta.apply(typen);
+                landDelta.apply(laender);
+                hafenDelta.apply(haefen);
+                Delta.apply(kapazitaetDelta, kapazitaeten);
+                Delta.apply(baujahrDelta, baujahre);
+            }
+
+            private static @Nullable Integer baujahr(final Row row) {
+                final var baujahr = row.baujahr();
+                return baujahr == null ? null : Snapshot.epochDay(baujahr);
+            }
+        }
+
+        private void set(final int ordinal, final @Nullable Row row) {
+            final var chunk = ordinal >>> CHUNK_BITS;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunk + 1);
+            }
+            var rows = chunks[chunk];
+            if (rows == null) {
+                rows = new Row[CHUNK_SIZE];
+                owned.set(chunk);
+            } else if (!owned.get(chunk)) {
+                rows = rows.clone();
+                owned.set(chunk);
+            }
+            rows[ordinal & CHUNK_MASK] = row;
+            chunks[chunk] = rows;
+            modified = true;
+        }
+    }
+
+    /// Die geänderten Einträge eines Index: die bisherigen Schlüssel, die ausgetragen werden, und die neuen
+    /// Schlüssel, die eingetragen werden. Unveränderte Schlüssel und `null` werden nicht vorgemerkt.
+    ///
+    /// @param <K> Der Typ der Schlüssel.
+    private static final class Delta<K> {
+        private final List<K> alt = new ArrayList<>();
+        private final IntList altOrdinals = new IntList();
+        private final List<K> neu = new ArrayList<>();
+        private final IntList neuOrdinals = new IntList();
+
+        void add(final @Nullable K altKey, final @Nullable K neuKey, final int ordinal) {
+            if (Objects.equals(altKey, neuKey)) {
+                return;
+            }
+            if (altKey != null) {
+                alt.add(altKey);
+                altOrdinals.add(ordinal);
+            }
+            if (neuKey != null) {
+                neu.add(neuKey);
+                neuOrdinals.add(ordinal);
+            }
+        }
+
+        void apply(final BitmapIndex.Builder<K> index) {
+            if (!alt.isEmpty()) {
+                index.removeAll(alt, altOrdinals.toArray());
+            }
+            if (!neu.isEmpty()) {
+                index.addAll(neu, neuOrdinals.toArray());
+            }
+        }
+
+        static void apply(final Delta<Integer> delta, final RangeIndex.Builder index) {
+            if (!delta.alt.isEmpty()) {
+                index.removeAll(delta.alt.stream().mapToInt(Integer::intValue).toArray(), delta.altOrdinals.toArray());
+            }
+            if (!delta.neu.isEmpty()) {
+                index.addAll(delta.neu.stream().mapToInt(Integer::intValue).toArray(), delta.neuOrdinals.toArray());
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.Schiff;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+import static com.acme.schiff.repository.SchiffRepository.ANY_VERSION;
+
+/// Optimistische Transaktion über mehrere Schiffe, die mit [SchiffRepository#begin()] begonnen und mit
+/// [SchiffRepository#commit(Transaction)] abgeschlossen wird.
+///
+/// Gelesen wird ohne Sperre aus dem Snapshot zu Beginn der Transaktion; dabei wird die Version jedes gelesenen
+/// Schiffs vermerkt. Schreibzugriffe werden nur gesammelt. Erst beim Commit werden in einem einzigen
+/// Schreibvorgang alle vermerkten Versionen geprüft und die Schreibzugriffe ausgeführt: entweder alle oder keiner.
+/// Die Eindeutigkeit der Namen wird dabei für den Endzustand geprüft, so dass z.B. zwei Schiffe ihre Namen
+/// tauschen können.
+///
+/// Eine Transaktion ist nicht threadsicher und darf nur einmal abgeschlossen werden.
+///
+/// @author Murat Yahsi
+public final class Transaction {
+    private final Snapshot snapshot;
+    private final List<Read> reads = new ArrayList<>();
+    private final List<UUID> deletes = new ArrayList<>();
+    private final List<Schiff> updates = new ArrayList<>();
+    private final List<Schiff> inserts = new ArrayList<>();
+
+    /// Eine Transaktion auf einem Snapshot beginnen.
+    ///
+    /// @param snapshot Der Snapshot, aus dem gelesen wird.
+    Transaction(final Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /// Ein Schiff anhand seiner ID aus dem Snapshot der Transaktion lesen und seine Version für den Commit
+    /// vermerken.
+    ///
+    /// @param id Die ID des gesuchten Schiffs.
+    /// @return Eine Kopie des gefundenen Schiffs oder `null`.
+    public @Nullable Schiff findById(final UUID id) {
+        final var row = snapshot.findRowById(id);
+        if (row == null) {
+            return null;
+        }
+        reads.add(new Read(id, row.version()));
+        return row.copy();
+    }
+
+    /// Eine außerhalb der Transaktion gelesene Version vermerken, z.B. aus dem ETag eines früheren `GET`.
+    ///
+    /// @param id Die ID des gelesenen Schiffs.
+    /// @param version Die gelesene Version.
+    public void read(final UUID id, final long version) {
+        reads.add(new Read(id, version));
+    }
+
+    /// Ein neues Schiff mit einer generierten ID anlegen.
+    ///
+    /// @param schiff Das neue Schiff; nach dem Commit mit ID und Version.
+    public void create(final Schiff schiff) {
+        inserts.add(schiff);
+    }
+
+    /// Ein bestehendes Schiff aktualisieren.
+    ///
+    /// @param schiff Das Schiff mit ID und den neuen Daten; nach dem Commit mit der neuen Version.
+    /// @param version Die gelesene Version oder [SchiffRepository#ANY_VERSION].
+    public void update(final Schiff schiff, final long version) {
+        read(schiff.getId(), version);
+        updates.add(schiff);
+    }
+
+    /// Ein Schiff löschen.
+    ///
+    /// @param id Die ID des zu löschenden Schiffs.
+    /// @param version Die gelesene Version oder [SchiffRepository#ANY_VERSION].
+    public void deleteById(final UUID id, final long version) {
+        read(id, version);
+        deletes.add(id);
+    }
+
+    /// Die vermerkten Versionen ohne Sperre mit dem aktuellen Snapshot vergleichen. Da Versionen nur wachsen,
+    /// scheitert eine Transaktion mit einer hier veralteten Version auch beim Commit.
+    ///
+    /// @param current Der aktuelle Snapshot.
+    /// @throws VersionMismatchException Falls ein Schiff nicht mehr in der gelesenen Version vorhanden ist.
+    void validate(final Snapshot current) {
+        if (current != snapshot) {
+            reads.forEach(read -> read.validate(current.findRowById(read.id())));
+        }
+    }
+
+    /// Die Transaktion in einem Schreibvorgang ausführen: zuerst alle vermerkten Versionen prüfen, dann löschen,
+    /// die bisherigen Namen umbenannter Schiffe freigeben, aktualisieren und zuletzt neu anlegen.
+    ///
+    /// @param batch Der Schreibvorgang.
+    /// @throws NameExistsException Falls ein Name im Endzustand mehrfach verwendet wird.
+    /// @throws VersionMismatchException Falls ein Schiff nicht in der gelesenen Version vorhanden ist.
+    void apply(final WriteBatch batch) {
+        reads.forEach(read -> batch.checkVersion(read.id(), read.version()));
+        deletes.forEach(id -> batch.deleteById(id, ANY_VERSION));
+        batch.releaseNames(updates);
+        for (final var schiff : updates) {
+            if (!batch.update(schiff, ANY_VERSION)) {
+                throw new VersionMismatchException(schiff.getId(), ANY_VERSION);
+            }
+        }
+        inserts.forEach(batch::create);
+    }
+
+    @Override
+    public String toString() {
+        return "Transaction{version=" + snapshot.version() + ", reads=" + reads.size() + ", deletes=" + deletes
+            + ", updates=" + updates.size() + ", inserts=" + inserts.size() + '}';
+    }
+
+    /// Eine vermerkte Version.
+    ///
+    /// @param id Die ID des gelesenen Schiffs.
+    /// @param version Die gelesene Version oder [SchiffRepository#ANY_VERSION].
+    record Read(UUID id, long version) {
+        /// Die gelesene Version mit einer Zeile vergleichen.
+        ///
+        /// @param row Die aktuelle Zeile des Schiffs oder `null`.
+        /// @throws VersionMismatchException Falls das Schiff nicht in der gelesenen Version vorhanden ist.
+        void validate(final @Nullable Row row) {
+            if (version != ANY_VERSION && (row == null || row.version() != version)) {
+                throw new VersionMismatchException(id, version);
+            }
+        }
+    }
+}
@@ -0,0 +1,475 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/// Unveränderlicher invertierter Index von den Trigrammen der Schiffsnamen auf die Zeilennummern in einem
+/// [Snapshot]. Zu jedem Trigramm gibt es eine aufsteigend sortierte Liste der Zeilennummern (_Posting List_).
+///
+/// Die Trigramme werden aus dem gefalteten Namen gebildet, siehe [#fold(CharSequence)]. Da die Faltung Zeichen
+/// für Zeichen erfolgt, ist jeder Teilstring eines Namens nach der Faltung auch ein Teilstring des gefalteten
+/// Namens. Damit liefert der Index sowohl für die exakte Suche als auch für die Suche ohne Beachtung von Groß- und
+/// Kleinschreibung sowie Umlauten eine Obermenge der Treffer, die anschließend nur noch geprüft werden muss.
+///
+/// Wie beim [IdIndex] kopiert ein [Builder] nur die Segmente, die er ändert. Die Posting Lists sind wie die Blätter
+/// eines [RangeIndex] auf sortierte Blöcke mit höchstens 512 Zeilennummern verteilt, so dass eine Änderung nur den
+/// betroffenen Block kopiert und nicht die gesamte Liste eines häufigen Trigramms.
+///
+/// @author Murat Yahsi
+final class TrigramIndex {
+    private static final int SEGMENT_BITS = 8;
+    private static final int GRAM = 3;
+    private static final int BLOCK_MAX = 512;
+
+    /// Leerer Index als Ausgangspunkt für einen [Builder].
+    static final TrigramIndex EMPTY = new TrigramIndex(new Segment[1 << SEGMENT_BITS]);
+
+    private final @Nullable Segment[] segments;
+
+    private TrigramIndex(final @Nullable Segment[] segments) {
+        this.segments = segments;
+    }
+
+    /// Einen Namen falten: Kleinbuchstaben, `ä`, `ö`, `ü` als `ae`, `oe`, `ue` und `ß` als `ss`.
+    ///
+    /// @param name Der zu faltende Name.
+    /// @return Der gefaltete Name.
+    static String fold(final CharSequence name) {
+        final var sb = new StringBuilder(name.length() + 2);
+        for (var i = 0; i < name.length(); i++) {
+            final var c = Character.toLowerCase(name.charAt(i));
+            switch (c) {
+                case 'ä' -> sb.append("ae");
+                case 'ö' -> sb.append("oe");
+                case 'ü' -> sb.append("ue");
+                case 'ß' -> sb.append("ss");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /// Die Kandidaten für einen Teilstring ermitteln, d.h. die Schnittmenge der Posting Lists aller Trigramme.
+    ///
+    /// @param teil Der gesuchte Teilstring, ungefaltet.
+    /// @return Aufsteigend sortierte Zeilennummern in einem neuen Array oder `null`, falls der gefaltete
+    ///     Teilstring kürzer als ein Trigramm ist und deshalb alle Zeilen in Frage kommen.
+    int @Nullable [] candidates(final CharSequence teil) {
+        final var grams = grams(fold(teil));
+        if (grams.length == 0) {
+            return null;
+        }
+
+        final var postings = new Posting[grams.length];
+        for (var i = 0; i < grams.length; i++) {
+            final var posting = posting(grams[i]);
+            if (posting == null) {
+                return new int[0];
+            }
+            postings[i] = posting;
+        }
+        // mit der kürzesten Liste beginnen, damit die Zwischenergebnisse möglichst klein bleiben
+        Arrays.sort(postings, (a, b) -> Integer.compare(a.size(), b.size()));
+        var result = postings[0].toArray();
+        for (var i = 1; i < postings.length && result.length > 0; i++) {
+            result = postings[i].intersect(result);
+        }
+        return result;
+    }
+
+    /// Die Anzahl der Kandidaten für einen Teilstring abschätzen, ohne die Posting Lists zu schneiden.
+    ///
+    /// @param teil Der gesuchte Teilstring, ungefaltet.
+    /// @param all Die Anzahl aller Zeilen, falls der Teilstring kürzer als ein Trigramm ist.
+    /// @return Die Länge der kürzesten Posting List als obere Schranke für die Anzahl der Kandidaten.
+    int estimate(final CharSequence teil, final int all) {
+        final var grams = grams(fold(teil));
+        if (grams.length == 0) {
+            return all;
+        }
+        var estimate = all;
+        for (final var gram : grams) {
+            final var posting = posting(gram);
+            estimate = Math.min(estimate, posting == null ? 0 : posting.size());
+        }
+        return estimate;
+    }
+
+    /// Einen Builder erzeugen, der von diesem Index ausgeht.
+    ///
+    /// @return Der neue Builder.
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    private @Nullable Posting posting(final long gram) {
+        final var segment = segments[segment(gram)];
+        return segment == null ? null : segment.postings.get(gram);
+    }
+
+    /// Die verschiedenen Trigramme eines gefalteten Namens als aufsteigend sortierte Schlüssel ermitteln.
+    @SuppressWarnings("MagicNumber")
+    private static long[] grams(final String folded) {
+        if (folded.length() < GRAM) {
+            return new long[0];
+        }
+        final var grams = new long[folded.length() - GRAM + 1];
+        for (var i = 0; i < grams.length; i++) {
+            grams[i] = (long) folded.charAt(i) << 32 | (long) folded.charAt(i + 1) << 16 | folded.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        var distinct = 0;
+        for (final var gram : grams) {
+            if (distinct == 0 || grams[distinct - 1] != gram) {
+                grams[distinct++] = gram;
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static int segment(final long gram) {
+        final var h = (int) (gram ^ gram >>> 32) * 0x9E3779B9;
+        return h >>> (Integer.SIZE - SEGMENT_BITS);
+    }
+
+    /// Vereinigung eines Blocks mit einem Teil der sortierten neuen Zeilennummern ohne Duplikate.
+    private static int[] union(final int[] a, final int[] b, final int from, final int to) {
+        final var result = new int[a.length + to - from];
+        var n = 0;
+        var i = 0;
+        var j = from;
+        while (i < a.length && j < to) {
+            if (a[i] < b[j]) {
+                result[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[n++] = a[i++];
+        }
+        while (j < to) {
+            result[n++] = b[j++];
+        }
+        return n == a.length ? a : Arrays.copyOf(result, n);
+    }
+
+    /// Differenz eines Blocks und eines Teils der sortierten zu entfernenden Zeilennummern.
+    private static int[] difference(final int[] a, final int[] b, final int from, final int to) {
+        final var result = new int[a.length];
+        var n = 0;
+        var j = from;
+        for (final var ordinal : a) {
+            while (j < to && b[j] < ordinal) {
+                j++;
+            }
+            if (j == to || b[j] != ordinal) {
+                result[n++] = ordinal;
+            }
+        }
+        return n == result.length ? a : Arrays.copyOf(result, n);
+    }
+
+    /// Position der ersten Zeilennummer, die nicht kleiner als `ordinal` ist.
+    private static int index(final int[] ordinals, final int from, final int to, final int ordinal) {
+        final var i = Arrays.binarySearch(ordinals, from, to, ordinal);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /// Veränderbare Kopie eines [TrigramIndex] für genau einen Schreibvorgang.
+    /// Nach [#build()] darf der Builder nicht mehr verwendet werden.
+    static final class Builder {
+        private final @Nullable Segment[] segments;
+        private final boolean[] owned;
+
+        private Builder(final TrigramIndex base) {
+            segments = base.segments.clone();
+            owned = new boolean[segments.length];
+        }
+
+        /// Die Trigramme eines Namens für eine Zeile eintragen.
+        ///
+        /// @param name Der Name des Schiffs.
+        /// @param ordinal Die Zeilennummer des Schiffs.
+        void add(final String name, final int ordinal) {
+            for (final var gram : grams(fold(name))) {
+                add(gram, ordinal);
+            }
+        }
+
+        /// Die Trigramme mehrerer Namen eintragen. Je Trigramm wird jeder betroffene Block der Posting List nur
+        /// einmal mit den neuen Zeilennummern zusammengeführt, statt ihn für jede Zeilennummer zu kopieren.
+        ///
+        /// @param names Die Namen der Schiffe.
+        /// @param ordinals Die Zeilennummern in derselben Reihenfolge wie die Namen.
+        void addAll(final List<String> names, final int[] ordinals) {
+            final var added = new HashMap<Long, IntList>();
+            for (var i = 0; i < ordinals.length; i++) {
+                for (final var gram : grams(fold(names.get(i)))) {
+                    added.computeIfAbsent(gram, _ -> new IntList()).add(ordinals[i]);
+                }
+            }
+            added.forEach((gram, list) -> {
+                final var postings = editable(segment(gram)).postings;
+                final var posting = postings.get(gram);
+                final var neu = list.toArray();
+                Arrays.sort(neu);
+                postings.put(gram, posting == null ? Posting.of(neu) : posting.merge(neu, true));
+            });
+        }
+
+        /// Die Trigramme eines Namens für eine Zeile entfernen.
+        ///
+        /// @param name Der Name des Schiffs.
+        /// @param ordinal Die Zeilennummer des Schiffs.
+        void remove(final String name, final int ordinal) {
+            for (final var gram : grams(fold(name))) {
+                remove(gram, ordinal);
+            }
+        }
+
+        /// Die Trigramme mehrerer Namen entfernen. Je Trigramm wird jeder betroffene Block der Posting List nur einmal
+        /// kopiert, statt für jede Zeilennummer.
+        ///
+        /// @param names Die Namen der Schiffe.
+        /// @param ordinals Die Zeilennummern in derselben Reihenfolge wie die Namen.
+        void removeAll(final List<String> names, final int[] ordinals) {
+            final var removed = new HashMap<Long, IntList>();
+            for (var i = 0; i < ordinals.length; i++) {
+                for (final var gram : grams(fold(names.get(i)))) {
+                    removed.computeIfAbsent(gram, _ -> new IntList()).add(ordinals[i]);
+                }
+            }
+            removed.forEach((gram, list) -> {
+                final var segment = segments[segment(gram)];
+                final var posting = segment == null ? null : segment.postings.get(gram);
+                if (posting == null) {
+                    return;
+                }
+                final var alt = list.toArray();
+                Arrays.sort(alt);
+                final var rest = posting.merge(alt, false);
+                if (rest == posting) {
+                    return;
+                }
+                final var postings = editable(segment(gram)).postings;
+                if (rest == null) {
+                    postings.remove(gram);
+                } else {
+                    postings.put(gram, rest);
+                }
+            });
+        }
+
+        /// Die Trigramme einer Zeile nach einer Namensänderung anpassen. Trigramme, die im alten und im neuen
+        /// Namen vorkommen, bleiben unverändert.
+        ///
+        /// @param oldName Der bisherige Name.
+        /// @param newName Der neue Name.
+        /// @param ordinal Die Zeilennummer des Schiffs.
+        void update(final String oldName, final String newName, final int ordinal) {
+            final var oldGrams = grams(fold(oldName));
+            final var newGrams = grams(fold(newName));
+            for (final var gram : oldGrams) {
+                if (Arrays.binarySearch(newGrams, gram) < 0) {
+                    remove(gram, ordinal);
+                }
+            }
+            for (final var gram : newGrams) {
+                if (Arrays.binarySearch(oldGrams, gram) < 0) {
+                    add(gram, ordinal);
+                }
+            }
+        }
+
+        /// Den unveränderlichen Index erzeugen.
+        ///
+        /// @return Der neue Index.
+        TrigramIndex build() {
+            return new TrigramIndex(segments);
+        }
+
+        private void add(final long gram, final int ordinal) {
+            final var segment = segments[segment(gram)];
+            final var posting = segment == null ? null : segment.postings.get(gram);
+            if (posting == null) {
+                editable(segment(gram)).postings.put(gram, Posting.of(new int[] {ordinal}));
+                return;
+            }
+            final var neu = posting.merge(new int[] {ordinal}, true);
+            if (neu != posting && neu != null) {
+                editable(segment(gram)).postings.put(gram, neu);
+            }
+        }
+
+        private void remove(final long gram, final int ordinal) {
+            final var i = segment(gram);
+            final var segment = segments[i];
+            final var posting = segment == null ? null : segment.postings.get(gram);
+            if (posting == null) {
+                return;
+            }
+            final var rest = posting.merge(new int[] {ordinal}, false);
+            if (rest == posting) {
+                return;
+            }
+            final var postings = editable(i).postings;
+            if (rest == null) {
+                postings.remove(gram);
+            } else {
+                postings.put(gram, rest);
+            }
+        }
+
+        private Segment editable(final int i) {
+            var segment = segments[i];
+            if (segment == null) {
+                segment = new Segment(new HashMap<>());
+            } else if (!owned[i]) {
+                segment = new Segment(new HashMap<>(segment.postings));
+            } else {
+                return segment;
+            }
+            segments[i] = segment;
+            owned[i] = true;
+            return segment;
+        }
+    }
+
+    /// Ein Segment mit den Posting Lists zu den Trigrammen.
+    ///
+    /// @param postings Die Posting Lists des Segments.
+    private record Segment(Map<Long, Posting> postings) {
+    }
+
+    /// Unveränderliche Posting List aus aufsteigend sortierten Blöcken mit höchstens 512 Zeilennummern. Die Blöcke
+    /// werden mit älteren Snapshots geteilt und deshalb nie in-place geändert.
+    private static final class Posting {
+        private final int[][] blocks;
+        private final int size;
+
+        private Posting(final int[][] blocks) {
+            this.blocks = blocks;
+            var n = 0;
+            for (final var block : blocks) {
+                n += block.length;
+            }
+            size = n;
+        }
+
+        /// Eine Posting List aus aufsteigend sortierten Zeilennummern erzeugen.
+        static Posting of(final int[] ordinals) {
+            return new Posting(split(ordinals).toArray(int[][]::new));
+        }
+
+        int size() {
+            return size;
+        }
+
+        /// Die Zeilennummern als neues Array, das herausgegeben werden darf.
+        int[] toArray() {
+            final var result = new int[size];
+            var n = 0;
+            for (final var block : blocks) {
+                System.arraycopy(block, 0, result, n, block.length);
+                n += block.length;
+            }
+            return result;
+        }
+
+        /// Schnittmenge mit aufsteigend sortierten Zeilennummern, die in einem neuen Array geliefert wird.
+        int[] intersect(final int[] ordinals) {
+            final var result = new int[Math.min(ordinals.length, size)];
+            var n = 0;
+            var b = 0;
+            var i = 0;
+            for (final var ordinal : ordinals) {
+                while (b < blocks.length && blocks[b][blocks[b].length - 1] < ordinal) {
+                    b++;
+                    i = 0;
+                }
+                if (b == blocks.length) {
+                    break;
+                }
+                final var block = blocks[b];
+                final var pos = Arrays.binarySearch(block, i, block.length, ordinal);
+                if (pos >= 0) {
+                    result[n++] = ordinal;
+                    i = pos + 1;
+                } else {
+                    i = -pos - 1;
+                }
+            }
+            return Arrays.copyOf(result, n);
+        }
+
+        /// Aufsteigend sortierte Zeilennummern eintragen oder entfernen. Jeder betroffene Block wird genau einmal
+        /// kopiert und bei Bedarf geteilt; die übrigen Blöcke werden übernommen.
+        ///
+        /// @return Die neue Posting List, `this` ohne Änderung oder `null`, falls die Liste leer wird.
+        @Nullable
+        Posting merge(final int[] ordinals, final boolean add) {
+            final var result = new ArrayList<int[]>(blocks.length + 1);
+            var changed = false;
+            var start = 0;
+            for (var b = 0; b < blocks.length; b++) {
+                final var end = b + 1 == blocks.length
+                    ? ordinals.length
+                    : index(ordinals, start, ordinals.length, blocks[b + 1][0]);
+                final var block = blocks[b];
+                var merged = block;
+                if (start < end) {
+                    merged = add ? union(block, ordinals, start, end) : difference(block, ordinals, start, end);
+                }
+                if (merged == block) {
+                    result.add(block);
+                } else {
+                    result.addAll(split(merged));
+                    changed = true;
+                }
+                start = end;
+            }
+            if (!changed) {
+                return this;
+            }
+            return result.isEmpty() ? null : new Posting(result.toArray(int[][]::new));
+        }
+
+        /// Einen Block in gleich große Blöcke mit höchstens 512 Zeilennummern teilen; ein leerer Block entfällt.
+        private static List<int[]> split(final int[] ordinals) {
+            if (ordinals.length <= BLOCK_MAX) {
+                return ordinals.length == 0 ? List.of() : List.of(ordinals);
+            }
+            final var count = (ordinals.length + BLOCK_MAX - 1) / BLOCK_MAX;
+            final var parts = new ArrayList<int[]>(count);
+            for (var i = 0; i < count; i++) {
+                parts.add(Arrays.copyOfRange(ordinals, ordinals.length * i / count, ordinals.length * (i + 1) / count));
+            }
+            return parts;
+        }
+    }
+}
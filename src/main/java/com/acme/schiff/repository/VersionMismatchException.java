@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import java.io.Serial;
+import java.util.UUID;
+
+/// [RuntimeException], falls ein Schiff nur in einer bestimmten Version geändert oder gelöscht werden darf, aber
+/// inzwischen in einer anderen Version gespeichert ist oder nicht mehr existiert.
+///
+/// @author Murat Yahsi
+public final class VersionMismatchException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = -6829264617450263107L;
+
+    /// Die ID des Schiffs.
+    private final UUID id;
+
+    /// Die erwartete Version.
+    private final long version;
+
+    /// Konstruktor für [SchiffRepository] mit der ID und der erwarteten Version.
+    ///
+    /// @param id Die ID des Schiffs
+    /// @param version Die erwartete Version
+    VersionMismatchException(final UUID id, final long version) {
+        super("Das Schiff " + id + " ist nicht in der Version " + version + " vorhanden.");
+        this.id = id;
+        this.version = version;
+    }
+
+    /// Die ID des Schiffs ermitteln.
+    ///
+    /// @return Die ID des Schiffs.
+    public UUID getId() {
+        return id;
+    }
+
+    /// Die erwartete Version ermitteln.
+    ///
+    /// @return Die erwartete Version.
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.repository;
+
+import com.acme.schiff.entity.Schiff;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import org.jspecify.annotations.Nullable;
+import static com.acme.schiff.repository.SchiffRepository.ANY_VERSION;
+
+/// Schreibzugriffe, die [SchiffRepository#write(java.util.function.Function)] in einem gemeinsamen
+/// Schreibvorgang ausführt. Jeder Zugriff sieht die vorherigen Zugriffe desselben Schreibvorgangs und alle
+/// zusammen werden mit einem einzigen Snapshot veröffentlicht. Ein Zugriff, der eine Exception auslöst, hat nichts
+/// geändert, so dass die übrigen Zugriffe trotzdem ausgeführt werden können.
+///
+/// @author Murat Yahsi
+public final class WriteBatch {
+    private final Snapshot.Builder builder;
+    private final List<UUID> changed;
+
+    WriteBatch(final Snapshot.Builder builder, final List<UUID> changed) {
+        this.builder = builder;
+        this.changed = changed;
+    }
+
+    /// Ein Schiff anhand seiner ID suchen, einschließlich der bisherigen Zugriffe dieses Schreibvorgangs.
+    ///
+    /// @param id Die ID des gesuchten Schiffs.
+    /// @return Das gefundene Schiff oder `null`.
+    public @Nullable Schiff findById(final UUID id) {
+        return builder.findById(id);
+    }
+
+    /// Ein neues Schiff mit einer generierten ID anlegen.
+    ///
+    /// @param schiff Das neue Schiff.
+    /// @return Das angelegte Schiff mit ID und Version.
+    /// @throws NameExistsException Falls der Name bereits von einem anderen Schiff verwendet wird.
+    public Schiff create(final Schiff schiff) {
+        builder.insert(schiff, UUID.randomUUID());
+        return schiff;
+    }
+
+    /// Ein bestehendes Schiff aktualisieren, falls es in der erwarteten Version gespeichert ist.
+    ///
+    /// @param schiff Das Schiff mit ID und den neuen Daten; danach mit der neuen Version.
+    /// @param version Die erwartete Version oder [SchiffRepository#ANY_VERSION].
+    /// @return `true`, falls das Schiff aktualisiert wurde, oder `false`, falls es kein Schiff mit der ID gibt.
+    /// @throws NameExistsException Falls der neue Name bereits von einem anderen Schiff verwendet wird.
+    /// @throws VersionMismatchException Falls das Schiff nicht in der erwarteten Version vorhanden ist.
+    public boolean update(final Schiff schiff, final long version) {
+        checkVersion(schiff.getId(), version);
+        if (builder.replace(schiff) == null) {
+            return false;
+        }
+        changed.add(schiff.getId());
+        return true;
+    }
+
+    /// Ein Schiff löschen, falls es in der erwarteten Version gespeichert ist.
+    ///
+    /// @param id Die ID des zu löschenden Schiffs.
+    /// @param version Die erwartete Version oder [SchiffRepository#ANY_VERSION].
+    /// @throws VersionMismatchException Falls das Schiff nicht in der erwarteten Version vorhanden ist.
+    public void deleteById(final UUID id, final long version) {
+        checkVersion(id, version);
+        if (builder.remove(id) != null) {
+            changed.add(id);
+        }
+    }
+
+    /// Alle Schiffe zu einer Suche ändern. Die Suche wird im Snapshot vor diesem Schreibvorgang ausgewertet, die
+    /// Änderung muss deshalb der erste Zugriff sein. Löst die Änderung eine Exception aus, darf der Schreibvorgang
+    /// nicht veröffentlicht werden.
+    ///
+    /// @param query Die Suche.
+    /// @param change Die Änderung, die aus einem gespeicherten Schiff ein neues Schiff mit derselben ID erzeugt.
+    /// @return Die Anzahl der geänderten Schiffe.
+    /// @throws NameExistsException Falls ein neuer Name bereits von einem anderen Schiff verwendet wird.
+    int updateAll(final Query query, final UnaryOperator<Schiff> change) {
+        final var schiffe = new ArrayList<Schiff>();
+        QueryPlanner.forEach(builder.base(), query, row -> schiffe.add(change.apply(row.copy())));
+        final var count = builder.replaceAll(schiffe);
+        schiffe.forEach(schiff -> changed.add(schiff.getId()));
+        return count;
+    }
+
+    /// Alle Schiffe zu einer Suche löschen. Die Suche wird im Snapshot vor diesem Schreibvorgang ausgewertet, das
+    /// Löschen muss deshalb der erste Zugriff sein.
+    ///
+    /// @param query Die Suche.
+    /// @return Die Anzahl der gelöschten Schiffe.
+    int deleteAll(final Query query) {
+        final var ids = new ArrayList<UUID>();
+        QueryPlanner.forEach(builder.base(), query, row -> ids.add(row.schiff().getId()));
+        changed.addAll(ids);
+        return builder.removeAll(ids);
+    }
+
+    /// Die bisherigen Namen umbenannter Schiffe vorab freigeben, siehe [Snapshot.Builder#releaseNames(List)].
+    ///
+    /// @param schiffe Die Schiffe mit den neuen Namen, die anschließend aktualisiert werden.
+    void releaseNames(final List<Schiff> schiffe) {
+        builder.releaseNames(schiffe);
+    }
+
+    /// Prüfen, ob ein Schiff in der erwarteten Version gespeichert ist.
+    ///
+    /// @param id Die ID des Schiffs.
+    /// @param version Die erwartete Version oder [SchiffRepository#ANY_VERSION].
+    /// @throws VersionMismatchException Falls das Schiff nicht in der erwarteten Version vorhanden ist.
+    void checkVersion(final UUID id, final long version) {
+        if (version == ANY_VERSION) {
+            return;
+        }
+        final var row = builder.findRowById(id);
+        if (row == null || row.version() != version) {
+            throw new VersionMismatchException(id, version);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.service;
+
+import com.acme.schiff.entity.Schiff;
+import java.util.List;
+import java.util.UUID;
+
+/// Eine Operation in einem Batch für [SchiffWriteService#batch(List)] oder in einer Transaktion für
+/// [SchiffWriteService#transaction(List)].
+///
+/// @author Murat Yahsi
+public sealed interface BatchOperation {
+    /// Schiffe anhand ihrer IDs lesen.
+    ///
+    /// @param ids Die IDs der gesuchten Schiffe.
+    record Get(List<UUID> ids) implements BatchOperation {
+    }
+
+    /// Prüfen, ob ein Schiff noch in einer früher gelesenen Version gespeichert ist, ohne es zu ändern. In einer
+    /// Transaktion wird die Version beim Commit erneut geprüft.
+    ///
+    /// @param id Die ID des Schiffs.
+    /// @param version Die gelesene Version.
+    record Check(UUID id, long version) implements BatchOperation {
+    }
+
+    /// Ein neues Schiff anlegen.
+    ///
+    /// @param schiff Das neue, bereits validierte Schiff.
+    record Create(Schiff schiff) implements BatchOperation {
+    }
+
+    /// Ein vorhandenes Schiff aktualisieren.
+    ///
+    /// @param id Die ID des Schiffs.
+    /// @param schiff Das bereits validierte Schiff mit den neuen Daten.
+    /// @param version Die erwartete Version oder [com.acme.schiff.repository.SchiffRepository#ANY_VERSION].
+    record Update(UUID id, Schiff schiff, long version) implements BatchOperation {
+    }
+
+    /// Ein Schiff löschen.
+    ///
+    /// @param id Die ID des Schiffs.
+    /// @param version Die erwartete Version oder [com.acme.schiff.repository.SchiffRepository#ANY_VERSION].
+    record Delete(UUID id, long version) implements BatchOperation {
+    }
+
+    /// Eine Operation, die bereits vor der Ausführung abgelehnt wurde, z.B. wegen ungültiger Werte. Sie bleibt
+    /// im Batch, damit die Ergebnisse in derselben Reihenfolge wie die Operationen geliefert werden.
+    ///
+    /// @param result Das Ergebnis der Operation.
+    record Rejected(BatchResult result) implements BatchOperation {
+    }
+
+    /// Ändert die Operation den Datenbestand?
+    ///
+    /// @return `true` bei einer Schreiboperation.
+    default boolean isWrite() {
+        return this instanceof Create || this instanceof Update || this instanceof Delete;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.service;
+
+import com.acme.schiff.entity.Schiff;
+import java.util.List;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpStatus;
+
+/// Das Ergebnis einer [BatchOperation] mit dem Statuscode, den die einzelne Anfrage geliefert hätte.
+///
+/// @param status Der Statuscode, z.B. `200`, `201`, `204`, `404`, `409`, `412` oder `422`.
+/// @param id Die ID des geprüften, angelegten, geänderten oder gelöschten Schiffs.
+/// @param version Die geprüfte Version oder die neue Version des angelegten oder geänderten Schiffs.
+/// @param schiffe Die gelesenen Schiffe.
+/// @param detail Die Fehlermeldung wie bei einem `ProblemDetail`.
+/// @author Murat Yahsi
+public record BatchResult(
+    int status,
+    @Nullable UUID id,
+    @Nullable Long version,
+    @Nullable List<Schiff> schiffe,
+    @Nullable String detail
+) {
+    /// Ein Ergebnis für einen Fehler erzeugen.
+    ///
+    /// @param status Der Statuscode.
+    /// @param detail Die Fehlermeldung.
+    /// @return Das Ergebnis.
+    public static BatchResult error(final HttpStatus status, final @Nullable String detail) {
+        return new BatchResult(status.value(), null, null, null, detail);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/// Begrenzter Cache für Schlüssel, zu denen kürzlich nichts gefunden wurde, z.B. IDs oder normalisierte
+/// Suchparameter. Wie beim [ResultCache] gehört zu jedem Eintrag eine Generation des Datenbestands; ein Eintrag
+/// einer älteren Generation gilt nicht mehr. Für IDs genügt die Generation der neu angelegten Schiffe, weil eine
+/// fehlende ID nur durch das Neuanlegen gefunden werden kann.
+///
+/// @param <K> Der Typ der Schlüssel.
+/// @author Murat Yahsi
+final class NegativeCache<K> {
+    private final int maxSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Long> entries = new LinkedHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /// Einen leeren Cache anlegen.
+    ///
+    /// @param maxSize Die maximale Anzahl an Einträgen.
+    NegativeCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /// Wurde zu einem Schlüssel in der aktuellen Generation bereits nichts gefunden?
+    ///
+    /// @param key Der Schlüssel.
+    /// @param generation Die aktuelle Generation.
+    /// @return `true`, falls die Suche nicht ausgeführt werden muss.
+    boolean contains(final K key, final long generation) {
+        lock.lock();
+        try {
+            final var missed = entries.get(key);
+            if (missed != null && missed == generation) {
+                hits.increment();
+                return true;
+            }
+            if (missed != null) {
+                entries.remove(key);
+                invalidations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return false;
+    }
+
+    /// Einen Schlüssel eintragen, zu dem nichts gefunden wurde.
+    ///
+    /// @param key Der Schlüssel.
+    /// @param generation Die Generation, die vor der Suche ermittelt wurde.
+    void add(final K key, final long generation) {
+        lock.lock();
+        try {
+            // erneut einfügen, damit der Eintrag als zuletzt verwendet gilt
+            entries.remove(key);
+            entries.put(key, generation);
+            if (entries.size() > maxSize) {
+                entries.remove(entries.keySet().iterator().next());
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Die Statistik des Cache ermitteln.
+    ///
+    /// @return Die Statistik.
+    ResultCache.Stats stats() {
+        final int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        final var hitCount = hits.sum();
+        final var missCount = misses.sum();
+        final var requests = hitCount + missCount;
+        final var hitRate = requests == 0 ? 0 : (double) hitCount / requests;
+        // die Schlüssel sind klein und werden deshalb nur durch ihre Anzahl begrenzt
+        return new ResultCache.Stats(
+            hitCount,
+            missCount,
+            hitRate,
+            evictions.sum(),
+            invalidations.sum(),
+            0L,
+            size,
+            maxSize,
+            0L,
+            Long.MAX_VALUE
+        );
+    }
+}
@@ -22,7 +22,8 @@ import java.util.Map;
 import java.util.UUID;
 import org.jspecify.annotations.Nullable;
 
-/// [RuntimeException], falls kein Schiff gefunden wurde.
+/// [RuntimeException], falls kein Schiff gefunden wurde. Da die Ursache immer ein fehlender Datensatz ist, wird
+/// kein Stacktrace erzeugt.
 public final class NotFoundException extends RuntimeException {
     @Serial
     private static final long serialVersionUID = 1101909572340666200L;
@@ -37,7 +38,7 @@ public final class NotFoundException extends RuntimeException {
 
     /// Standardkonstruktor für den [SchiffService], wenn alle Schiffn gesucht werden, aber keine existieren.
     NotFoundException() {
-        super("Keine Schiffn gefunden.");
+        super("Keine Schiffn gefunden.", null, false, false);
         id = null;
         suchparameter = null;
     }
@@ -46,7 +47,7 @@ public final class NotFoundException extends RuntimeException {
     ///
     /// @param id Die fehlerhafte ID
     NotFoundException(final UUID id) {
-        super("Kein Schiff mit der ID " + id + " gefunden.");
+        super("Kein Schiff mit der ID " + id + " gefunden.", null, false, false);
         this.id = id;
         suchparameter = null;
     }
@@ -55,7 +56,7 @@ public final class NotFoundException extends RuntimeException {
     ///
     /// @param suchparameter Die fehlerhaften Suchparameter
     NotFoundException(final Map<String, List<String>> suchparameter) {
-        super("Keine Schiffen gefunden.");
+        super("Keine Schiffen gefunden.", null, false, false);
         id = null;
         this.suchparameter = suchparameter;
     }
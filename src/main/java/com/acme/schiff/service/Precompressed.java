@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/// Ein bereits serialisierter JSON-Body, dessen mit _gzip_ und _deflate_ komprimierte Varianten beim ersten
+/// Zugriff berechnet und danach wiederverwendet werden. Da ein Objekt zu genau einem Stand der Daten gehört,
+/// z.B. zu einer Version eines Schiffs oder einer Generation des Datenbestands im [ResultCache], wird es nach
+/// einer Änderung zusammen mit diesem Stand verworfen.
+///
+/// Die Arrays dürfen nicht verändert werden.
+///
+/// @author Murat Yahsi
+public final class Precompressed {
+    private final byte[] identity;
+    private final int count;
+    private final StableValue<byte[]> gzip = StableValue.of();
+    private final StableValue<byte[]> deflate = StableValue.of();
+
+    /// Einen Body mit einem oder mehreren Datensätzen anlegen.
+    ///
+    /// @param identity Der unkomprimierte Body.
+    /// @param count Die Anzahl der Datensätze im Body.
+    Precompressed(final byte[] identity, final int count) {
+        this.identity = identity;
+        this.count = count;
+    }
+
+    /// Die JSON-Datensätze zu einem JSON-Array zusammenfassen.
+    ///
+    /// @param elements Die JSON-Datensätze.
+    /// @return Der Body mit dem JSON-Array.
+    public static Precompressed jsonArray(final List<byte[]> elements) {
+        var length = 2 + Math.max(elements.size() - 1, 0);
+        for (final var element : elements) {
+            length += element.length;
+        }
+        final var array = new byte[length];
+        var pos = 0;
+        array[pos++] = '[';
+        for (var i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                array[pos++] = ',';
+            }
+            final var element = elements.get(i);
+            System.arraycopy(element, 0, array, pos, element.length);
+            pos += element.length;
+        }
+        array[pos] = ']';
+        return new Precompressed(array, elements.size());
+    }
+
+    /// Den unkomprimierten Body ermitteln.
+    ///
+    /// @return Der unkomprimierte Body.
+    public byte[] identity() {
+        return identity;
+    }
+
+    /// Die Größe für einen [ResultCache] abschätzen. Da die komprimierten Varianten erst beim ersten Zugriff
+    /// berechnet werden, wird für sie zusammen höchstens die Größe des unkomprimierten Bodys angenommen.
+    ///
+    /// @return Die geschätzte Größe in Bytes.
+    long estimatedSize() {
+        return 2L * identity.length;
+    }
+
+    /// Die Anzahl der Datensätze im Body ermitteln.
+    ///
+    /// @return Die Anzahl der Datensätze.
+    public int count() {
+        return count;
+    }
+
+    /// Den mit _gzip_ komprimierten Body ermitteln, der beim ersten Aufruf berechnet wird.
+    ///
+    /// @return Der komprimierte Body.
+    public byte[] gzip() {
+        return gzip.orElseSet(() -> compress(true));
+    }
+
+    /// Den mit _deflate_ im _zlib_-Format komprimierten Body ermitteln, der beim ersten Aufruf berechnet wird.
+    ///
+    /// @return Der komprimierte Body.
+    public byte[] deflate() {
+        return deflate.orElseSet(() -> compress(false));
+    }
+
+    private byte[] compress(final boolean gzipFormat) {
+        final var out = new ByteArrayOutputStream();
+        try (var compressed = gzipFormat ? new GZIPOutputStream(out) : new DeflaterOutputStream(out)) {
+            compressed.write(identity);
+        } catch (final IOException ex) {
+            // bei einem ByteArrayOutputStream nicht möglich
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/// Begrenzter Cache für Suchergebnisse, dessen Schlüssel die normalisierten Suchparameter sind. Jeder Eintrag
+/// merkt sich die Generation des Datenbestands, in der er berechnet wurde. Da jedes Neuanlegen, Ändern und
+/// Löschen die Generation erhöht, ist ein Eintrag einer älteren Generation ungültig und wird beim nächsten
+/// Zugriff verworfen. Sind mehr als `maxSize` Einträge vorhanden oder belegen die Einträge insgesamt mehr als
+/// `maxBytes`, wird der am längsten nicht verwendete verdrängt. Ein Suchergebnis, das allein mehr als ein Viertel
+/// von `maxBytes` belegt, wird nicht eingetragen, damit es nicht die übrigen Einträge verdrängt.
+///
+/// @param <V> Der Typ der Suchergebnisse, die unveränderlich sein müssen.
+/// @author Murat Yahsi
+final class ResultCache<V> {
+    private static final int ENTRY_SHARE = 4;
+
+    private final int maxSize;
+    private final long maxBytes;
+    private final ToLongFunction<? super V> weigher;
+    private long bytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Map<String, List<String>>, Entry<V>> entries = new LinkedHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /// Einen leeren Cache anlegen, der nur durch die Anzahl der Einträge begrenzt ist.
+    ///
+    /// @param maxSize Die maximale Anzahl an Einträgen.
+    ResultCache(final int maxSize) {
+        this(maxSize, Long.MAX_VALUE, _ -> 0L);
+    }
+
+    /// Einen leeren Cache anlegen, der durch die Anzahl der Einträge und deren Größe begrenzt ist.
+    ///
+    /// @param maxSize Die maximale Anzahl an Einträgen.
+    /// @param maxBytes Die maximale Größe aller Einträge in Bytes.
+    /// @param weigher Die geschätzte Größe eines Suchergebnisses in Bytes.
+    ResultCache(final int maxSize, final long maxBytes, final ToLongFunction<? super V> weigher) {
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+    }
+
+    /// Das Suchergebnis aus dem Cache lesen oder, falls es fehlt oder veraltet ist, berechnen und eintragen.
+    /// Falls die Berechnung eine Exception wirft, wird nichts eingetragen.
+    ///
+    /// @param suchparameter Die Suchparameter.
+    /// @param generation Die aktuelle Generation des Datenbestands, die vor der Berechnung ermittelt wurde.
+    /// @param loader Die Berechnung des Suchergebnisses.
+    /// @return Das Suchergebnis.
+    V get(final Map<String, List<String>> suchparameter, final long generation, final Supplier<V> loader) {
+        final var key = normalize(suchparameter);
+        lock.lock();
+        try {
+            final var entry = entries.get(key);
+            if (entry != null) {
+                remove(key);
+                if (entry.generation() == generation) {
+                    // erneut einfügen, damit der Eintrag als zuletzt verwendet gilt
+                    entries.put(key, entry);
+                    bytes += entry.bytes();
+                    hits.increment();
+                    return entry.value();
+                }
+                invalidations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        final var value = loader.get();
+        final var weight = weigher.applyAsLong(value);
+        if (weight > maxBytes / ENTRY_SHARE) {
+            rejections.increment();
+            return value;
+        }
+        put(key, new Entry<>(generation, value, weight));
+        return value;
+    }
+
+    /// Die Statistik des Cache ermitteln.
+    ///
+    /// @return Die Statistik.
+    Stats stats() {
+        final int size;
+        final long currentBytes;
+        lock.lock();
+        try {
+            size = entries.size();
+            currentBytes = bytes;
+        } finally {
+            lock.unlock();
+        }
+        final var hitCount = hits.sum();
+        final var missCount = misses.sum();
+        final var requests = hitCount + missCount;
+        final var hitRate = requests == 0 ? 0 : (double) hitCount / requests;
+        return new Stats(
+            hitCount,
+            missCount,
+            hitRate,
+            evictions.sum(),
+            invalidations.sum(),
+            rejections.sum(),
+            size,
+            maxSize,
+            currentBytes,
+            maxBytes
+        );
+    }
+
+    /// Die Suchparameter normalisieren: Schlüssel und Werte werden sortiert und doppelte Werte entfernt, da
+    /// weder die Reihenfolge noch die Wiederholung eines Werts das Suchergebnis ändert.
+    ///
+    /// @param suchparameter Die Suchparameter.
+    /// @return Die normalisierten Suchparameter.
+    static Map<String, List<String>> normalize(final Map<String, ? extends List<String>> suchparameter) {
+        final var normalized = new TreeMap<String, List<String>>();
+        suchparameter.forEach((key, values) -> normalized.put(key, List.copyOf(new TreeSet<>(values))));
+        return normalized;
+    }
+
+    private void put(final Map<String, List<String>> key, final Entry<V> entry) {
+        lock.lock();
+        try {
+            final var current = entries.get(key);
+            // ein parallel berechnetes Ergebnis einer neueren Generation nicht überschreiben
+            if (current != null && current.generation() > entry.generation()) {
+                return;
+            }
+            remove(key);
+            entries.put(key, entry);
+            bytes += entry.bytes();
+            while (entries.size() > maxSize || bytes > maxBytes) {
+                remove(entries.keySet().iterator().next());
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(final Map<String, List<String>> key) {
+        final var entry = entries.remove(key);
+        if (entry != null) {
+            bytes -= entry.bytes();
+        }
+    }
+
+    /// Ein Eintrag im Cache.
+    ///
+    /// @param generation Die Generation des Datenbestands bei der Berechnung.
+    /// @param value Das Suchergebnis.
+    /// @param bytes Die geschätzte Größe des Suchergebnisses in Bytes.
+    /// @param <V> Der Typ des Suchergebnisses.
+    private record Entry<V>(long generation, V value, long bytes) {
+    }
+
+    /// Statistik eines [ResultCache] für _Actuator_.
+    ///
+    /// @param hits Die Anzahl der Zugriffe mit gültigem Eintrag.
+    /// @param misses Die Anzahl der Zugriffe, bei denen das Suchergebnis berechnet wurde.
+    /// @param hitRate Der Anteil der Zugriffe mit gültigem Eintrag zwischen 0 und 1.
+    /// @param evictions Die Anzahl der verdrängten Einträge.
+    /// @param invalidations Die Anzahl der Einträge, die wegen einer Änderung des Datenbestands verworfen wurden.
+    /// @param rejections Die Anzahl der Suchergebnisse, die wegen ihrer Größe nicht eingetragen wurden.
+    /// @param size Die aktuelle Anzahl an Einträgen.
+    /// @param maxSize Die maximale Anzahl an Einträgen.
+    /// @param bytes Die geschätzte Größe aller Einträge in Bytes.
+    /// @param maxBytes Die maximale Größe aller Einträge in Bytes.
+    record Stats(
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions,
+        long invalidations,
+        long rejections,
+        int size,
+        int maxSize,
+        long bytes,
+        long maxBytes
+    ) {
+    }
+}
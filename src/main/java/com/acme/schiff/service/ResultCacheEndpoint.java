@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.service;
+
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/// _Actuator_-Endpoint mit der Statistik der Caches für Suchergebnisse, z.B.
+/// `GET https://localhost:8443/actuator/resultcache`.
+///
+/// @author Murat Yahsi
+@Component
+@Endpoint(id = "resultcache")
+class ResultCacheEndpoint {
+    private final SchiffService service;
+
+    /// Konstruktor mit _package private_ für _Spring_.
+    ///
+    /// @param service Injiziertes Service-Objekt mit den Caches.
+    ResultCacheEndpoint(final SchiffService service) {
+        this.service = service;
+    }
+
+    /// Die Statistik aller Caches für Suchergebnisse ermitteln.
+    ///
+    /// @return Die Statistik je Cache.
+    @ReadOperation
+    public Map<String, ResultCache.Stats> stats() {
+        return service.cacheStats();
+    }
+}
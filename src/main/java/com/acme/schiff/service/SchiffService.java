@@ -17,14 +17,25 @@
 package com.acme.schiff.service;
 
 import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.repository.InvalidCursorException;
+import com.acme.schiff.repository.Page;
+import com.acme.schiff.repository.QueryPlan;
 import com.acme.schiff.repository.SchiffRepository;
+import com.acme.schiff.repository.VersionedJson;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 /// Geschäftslogik für Schiffn.
 /// ![Klassendiagramm](../../../../../asciidoc/SchiffService.svg)
@@ -33,7 +44,25 @@ import org.springframework.stereotype.Service;
 // Maven: ![Klassendiagramm](../../../../../../generated-docs/SchiffService.svg)
 @Service
 public class SchiffService {
+    private static final int CACHE_SIZE = 256;
+    private static final long CACHE_BYTES = 16L << 20;
+    /// Grob geschätzte Größe eines Schiffs im Heap einschließlich Hafen und Crew.
+    private static final long SCHIFF_BYTES = 1024L;
+
     private final SchiffRepository repo;
+    private final ResultCache<Collection<Schiff>> findCache =
+        new ResultCache<>(CACHE_SIZE, CACHE_BYTES, schiffe -> schiffe.size() * SCHIFF_BYTES);
+    private final ResultCache<Precompressed> jsonCache =
+        new ResultCache<>(CACHE_SIZE, CACHE_BYTES, Precompressed::estimatedSize);
+    /// Die komprimierten Varianten je Schiff; statt der Generation wird die Version des Schiffs verwendet.
+    private final ResultCache<Precompressed> jsonByIdCache =
+        new ResultCache<>(CACHE_SIZE, CACHE_BYTES, Precompressed::estimatedSize);
+    private final SingleFlight<UUID, @Nullable Schiff> findByIdFlight = new SingleFlight<>();
+    private final SingleFlight<UUID, @Nullable VersionedJson> findJsonByIdFlight = new SingleFlight<>();
+    private final SingleFlight<Map<String, List<String>>, Collection<Schiff>> findFlight = new SingleFlight<>();
+    private final SingleFlight<Map<String, List<String>>, Precompressed> findJsonFlight = new SingleFlight<>();
+    private final NegativeCache<UUID> findByIdNegativ = new NegativeCache<>(CACHE_SIZE);
+    private final NegativeCache<Map<String, List<String>>> findNegativ = new NegativeCache<>(CACHE_SIZE);
     private final StableValue<Logger> logger = StableValue.of();
 
     /// Konstruktor mit _package private_ für _Spring_.
@@ -43,38 +72,231 @@ public class SchiffService {
         this.repo = repo;
     }
 
-    /// Einen Schiffn anhand seiner ID suchen.
+    /// Einen Schiffn anhand seiner ID suchen. Gleichzeitige Aufrufe mit derselben ID werden zu einem Zugriff auf
+    /// das Repository zusammengefasst.
     ///
     /// @param id Die Id des gesuchten Schiffen
     /// @return Das gefundene Schiff
     /// @throws NotFoundException Falls kein Schiff gefunden wurde
     public Schiff findById(final UUID id) {
-        getLogger().debug("findById: id={}", id);
-        final var schiff = repo.findById(id);
+        return findOptionalById(id).orElseThrow(() -> new NotFoundException(id));
+    }
+
+    /// Einen Schiffn anhand seiner ID suchen wie mit [#findById(UUID)], aber ohne eine Exception, falls kein
+    /// Schiff gefunden wird. Eine solche ID wird bis zum nächsten Neuanlegen in einem [NegativeCache] vermerkt.
+    ///
+    /// @param id Die Id des gesuchten Schiffen
+    /// @return Das gefundene Schiff oder ein leeres Optional
+    public Optional<Schiff> findOptionalById(final UUID id) {
+        getLogger().debug("findOptionalById: id={}", id);
+        final var generation = repo.insertGeneration();
+        if (findByIdNegativ.contains(id, generation)) {
+            return Optional.empty();
+        }
+        final var schiff = findByIdFlight.execute(id, repo.generation(), () -> repo.findById(id));
         if (schiff == null) {
-            throw new NotFoundException(id);
+            findByIdNegativ.add(id, generation);
+            return Optional.empty();
         }
-        getLogger().debug("findById: schiff={}", schiff);
-        return schiff;
+        getLogger().debug("findOptionalById: schiff={}", schiff);
+        return Optional.of(schiff);
     }
 
-    /// Schiffn anhand von SuchParametern als Collection suchen.
+    /// Die Version eines Schiffs anhand seiner ID ermitteln, ohne das Schiff zu serialisieren, z.B. für einen
+    /// bedingten Lesezugriff mit `If-None-Match`.
+    ///
+    /// @param id Die Id des gesuchten Schiffen
+    /// @return Die Version des gefundenen Schiffs oder ein leeres Optional
+    public OptionalLong findVersionById(final UUID id) {
+        getLogger().debug("findVersionById: id={}", id);
+        final var generation = repo.insertGeneration();
+        if (findByIdNegativ.contains(id, generation)) {
+            return OptionalLong.empty();
+        }
+        final var version = repo.findVersionById(id);
+        if (version == null) {
+            findByIdNegativ.add(id, generation);
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(version);
+    }
+
+    /// Einen Schiffn anhand seiner ID als bereits serialisierten JSON-Datensatz suchen. Die komprimierten
+    /// Varianten werden bis zur nächsten Änderung des Schiffs in einem [ResultCache] wiederverwendet. Wird kein
+    /// Schiff gefunden, ist das Ergebnis leer, ohne dass eine Exception erzeugt wird. Eine ID, zu der kein Schiff
+    /// gefunden wurde, wird bis zum nächsten Neuanlegen in einem [NegativeCache] vermerkt.
+    ///
+    /// @param id Die Id des gesuchten Schiffen
+    /// @param encoder Die Serialisierung eines Schiffs als JSON
+    /// @return Der JSON-Body des gefundenen Schiffs mit seiner Version oder ein leeres Optional
+    public Optional<VersionedBody> findJsonById(final UUID id, final Function<Schiff, byte[]> encoder) {
+        getLogger().debug("findJsonById: id={}", id);
+        final var generation = repo.insertGeneration();
+        if (findByIdNegativ.contains(id, generation)) {
+            return Optional.empty();
+        }
+        final var json = findJsonByIdFlight.execute(id, repo.generation(), () -> repo.findJsonById(id, encoder));
+        if (json == null) {
+            findByIdNegativ.add(id, generation);
+            return Optional.empty();
+        }
+        final var body = jsonByIdCache.get(
+            Map.of("id", List.of(id.toString())),
+            json.version(),
+            () -> new Precompressed(json.json(), 1)
+        );
+        return Optional.of(new VersionedBody(json.version(), body));
+    }
+
+    /// Schiffn anhand von SuchParametern als bereits serialisiertes JSON-Array suchen. Das Ergebnis wird bis zur
+    /// nächsten Änderung des Datenbestands einschließlich der komprimierten Varianten in einem [ResultCache]
+    /// wiederverwendet. Fehlt es dort, werden gleichzeitige Aufrufe mit denselben Suchparametern mit
+    /// [SingleFlight] zusammengefasst. Wird kein Schiff gefunden, ist das Ergebnis leer, ohne dass eine
+    /// Exception erzeugt wird.
+    ///
+    /// @param suchparameter Die SuchParametern
+    /// @param encoder Die Serialisierung eines Schiffs als JSON
+    /// @return Das JSON-Array der gefundenen Schiffn oder ein leeres Optional
+    public Optional<Precompressed> findJson(
+        final Map<String, List<String>> suchparameter,
+        final Function<Schiff, byte[]> encoder
+    ) {
+        getLogger().debug("findJson: suchparameter={}", suchparameter);
+        final var generation = repo.generation();
+        final var key = ResultCache.normalize(suchparameter);
+        if (findNegativ.contains(key, generation)) {
+            return Optional.empty();
+        }
+        final var json = jsonCache.get(suchparameter, generation, () -> findJsonFlight.execute(
+            key,
+            generation,
+            () -> Precompressed.jsonArray(repo.findJson(suchparameter, encoder))
+        ));
+        getLogger().debug("findJson: #schiffe={}", json.count());
+        if (json.count() == 0) {
+            findNegativ.add(key, generation);
+            return Optional.empty();
+        }
+        return Optional.of(json);
+    }
+
+    /// Schiffn anhand von SuchParametern als Collection suchen. Das Ergebnis wird bis zur nächsten Änderung des
+    /// Datenbestands in einem [ResultCache] wiederverwendet. Fehlt es dort, werden gleichzeitige Aufrufe mit
+    /// denselben Suchparametern mit [SingleFlight] zusammengefasst.
     ///
     /// @param suchparameter Die SuchParametern
     /// @return Die gefundenen Schiffn
     /// @throws NotFoundException Falls keine Schiffn gefunden wurden
-    @SuppressWarnings({"ReturnCount", "NestedIfDepth"})
     public Collection<Schiff> find(final Map<String, List<String>> suchparameter) {
-        getLogger().debug("find: suchparameter={}", suchparameter);
+        return findOptional(suchparameter).orElseThrow(() -> new NotFoundException(suchparameter));
+    }
 
-        final var schiffe = repo.find(suchparameter);
+    /// Schiffn anhand von SuchParametern suchen wie mit [#find(Map)], aber ohne eine Exception, falls keine
+    /// Schiffn gefunden werden. Solche SuchParameter werden bis zur nächsten Änderung des Datenbestands in einem
+    /// [NegativeCache] vermerkt.
+    ///
+    /// @param suchparameter Die SuchParametern
+    /// @return Die gefundenen Schiffn oder ein leeres Optional
+    public Optional<Collection<Schiff>> findOptional(final Map<String, List<String>> suchparameter) {
+        getLogger().debug("findOptional: suchparameter={}", suchparameter);
+
+        final var generation = repo.generation();
+        final var key = ResultCache.normalize(suchparameter);
+        if (findNegativ.contains(key, generation)) {
+            return Optional.empty();
+        }
+        final var schiffe = findCache.get(suchparameter, generation, () -> findFlight.execute(
+            key,
+            generation,
+            () -> List.copyOf(repo.find(suchparameter))
+        ));
         if (schiffe.isEmpty()) {
-            throw new NotFoundException(suchparameter);
+            findNegativ.add(key, generation);
+            return Optional.empty();
+        }
+
+        getLogger().debug("findOptional: schiffe={}", schiffe);
+        return Optional.of(schiffe);
+    }
+
+    /// Schiffn anhand von SuchParametern suchen und einzeln verarbeiten, ohne sie zuvor zu sammeln.
+    ///
+    /// @param suchparameter Die SuchParametern
+    /// @param action Die Verarbeitung eines gefundenen Schiffs
+    /// @return Die Anzahl der gefundenen Schiffe
+    public int forEach(final Map<String, List<String>> suchparameter, final Consumer<Schiff> action) {
+        getLogger().debug("forEach: suchparameter={}", suchparameter);
+        final var count = repo.forEach(suchparameter, action);
+        getLogger().debug("forEach: count={}", count);
+        return count;
+    }
+
+    /// Eine Seite der Schiffn zu SuchParametern suchen.
+    ///
+    /// @param suchparameter Die SuchParametern ohne `limit` und `cursor`
+    /// @param limit Die maximale Anzahl der Schiffe auf der Seite
+    /// @param cursor Der Cursor der vorherigen Seite oder `null` für die erste Seite
+    /// @return Die Seite mit dem Cursor für die nächste Seite; die erste Seite ist leer, falls keine Schiffn
+    ///     gefunden wurden
+    /// @throws ResponseStatusException Falls der Cursor ungültig (400) oder abgelaufen (410) ist
+    public Page find(
+        final Map<String, List<String>> suchparameter,
+        final int limit,
+        final @Nullable String cursor
+    ) {
+        getLogger().debug("find: suchparameter={}, limit={}, cursor={}", suchparameter, limit, cursor);
+
+        final Page page;
+        try {
+            page = repo.find(suchparameter, limit, cursor);
+        } catch (final InvalidCursorException ex) {
+            if (ex.isExpired()) {
+                throw new ResponseStatusException(HttpStatus.GONE,
+                    "Der Cursor '" + ex.getCursor() + "' ist abgelaufen", ex);
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Der Cursor '" + ex.getCursor() + "' ist ungueltig", ex);
         }
+        getLogger().debug("find: page={}", page);
+        return page;
+    }
+
+    /// Den Ausführungsplan für eine Suche mit SuchParametern ermitteln.
+    ///
+    /// @param suchparameter Die SuchParametern
+    /// @return Der Ausführungsplan mit geschätzten und tatsächlichen Zeilen
+    public QueryPlan explain(final Map<String, List<String>> suchparameter) {
+        getLogger().debug("explain: suchparameter={}", suchparameter);
+        final var plan = repo.explain(suchparameter);
+        getLogger().debug("explain: plan={}", plan);
+        return plan;
+    }
+
+    /// Die Statistik der Caches für Suchergebnisse ermitteln.
+    ///
+    /// @return Die Statistik je Cache.
+    Map<String, ResultCache.Stats> cacheStats() {
+        return Map.of(
+            "find", findCache.stats(),
+            "findJson", jsonCache.stats(),
+            "findJsonById", jsonByIdCache.stats(),
+            "findByIdNegativ", findByIdNegativ.stats(),
+            "findNegativ", findNegativ.stats()
+        );
+    }
 
-        getLogger().debug("find: schiffe={}", schiffe);
-        return schiffe;
+    /// Die Statistik der zusammengefassten Lesezugriffe ermitteln.
+    ///
+    /// @return Die Statistik je Lesezugriff.
+    Map<String, SingleFlight.Stats> flightStats() {
+        return Map.of(
+            "findById", findByIdFlight.stats(),
+            "findJsonById", findJsonByIdFlight.stats(),
+            "find", findFlight.stats(),
+            "findJson", findJsonFlight.stats()
+        );
     }
+
     private Logger getLogger() {
         return logger.orElseSet(() -> LoggerFactory.getLogger(SchiffService.class));
     }
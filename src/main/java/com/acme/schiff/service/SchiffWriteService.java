@@ -17,14 +17,32 @@
 package com.acme.schiff.service;
 
 import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.repository.InvalidQueryException;
+import com.acme.schiff.repository.NameExistsException;
 import com.acme.schiff.repository.SchiffRepository;
+import com.acme.schiff.repository.Transaction;
+import com.acme.schiff.repository.VersionMismatchException;
+import com.acme.schiff.repository.WriteBatch;
+import com.acme.schiff.service.BatchOperation.Check;
+import com.acme.schiff.service.BatchOperation.Create;
+import com.acme.schiff.service.BatchOperation.Delete;
+import com.acme.schiff.service.BatchOperation.Get;
+import com.acme.schiff.service.BatchOperation.Rejected;
+import com.acme.schiff.service.BatchOperation.Update;
 import jakarta.validation.Valid;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -36,6 +54,8 @@ import org.springframework.web.server.ResponseStatusException;
 public class SchiffWriteService {
     private static final Logger LOGGER = LoggerFactory.getLogger(SchiffWriteService.class);
 
+    private static final int PATCH_ATTEMPTS = 3;
+
     private final SchiffRepository repo;
 
     /// Konstruktor für _Constructor Injection_ durch _Spring_.
@@ -53,17 +73,41 @@ public class SchiffWriteService {
     public Schiff create(final Schiff schiff) {
         LOGGER.debug("create: {}", schiff);
 
-        final var existingShip = repo.find(Map.of("name", List.of(schiff.getName())));
-        if (!existingShip.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT,
-                "Ein Schiff mit dem Namen '" + schiff.getName() + "' existiert bereits");
+        final Schiff schiffDB;
+        try {
+            schiffDB = repo.create(schiff);
+        } catch (final NameExistsException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, nameExists(ex.getName()), ex);
         }
-
-        final var schiffDB = repo.create(schiff);
         LOGGER.debug("create: {}", schiffDB);
         return schiffDB;
     }
 
+    /// Mehrere neue Schiffe in einem Schreibvorgang anlegen, z.B. beim Import einer Flotte. Ein Schiff, dessen
+    /// Name bereits vorhanden ist oder im selben Aufruf schon verwendet wurde, wird nicht angelegt.
+    ///
+    /// @param schiffe Die zu speichernden Schiffe.
+    /// @return Für jedes Schiff `null`, falls es mit einer generierten ID angelegt wurde, oder die Fehlermeldung.
+    public List<@Nullable String> createAll(final List<Schiff> schiffe) {
+        LOGGER.debug("createAll: #schiffe={}", schiffe.size());
+        final var created = repo.createAll(schiffe);
+        final var result = new ArrayList<@Nullable String>(created.length);
+        for (var i = 0; i < created.length; i++) {
+            result.add(created[i] ? null : nameExists(schiffe.get(i).getName()));
+        }
+        return result;
+    }
+
+    /// Die aktuelle Version eines Schiffs ermitteln, z.B. um eine Liste von ETags im Header `If-Match`
+    /// aufzulösen.
+    ///
+    /// @param id ID des Schiffs.
+    /// @return Die aktuelle Version oder leer, falls es kein Schiff zur ID gibt.
+    public OptionalLong findVersionById(final UUID id) {
+        final var version = repo.findVersionById(id);
+        return version == null ? OptionalLong.empty() : OptionalLong.of(version);
+    }
+
     /// Ein bestehendes Schiff aktualisieren.
     ///
     /// @param schiff Objekt mit aktualisierten Werten.
@@ -71,32 +115,328 @@ public class SchiffWriteService {
     /// @throws NotFoundException wenn kein Schiff zur gegebenen ID existiert
     /// @throws ResponseStatusException bei Namenskonflikt.
     public void update(@Valid final Schiff schiff, final UUID id) {
+        update(schiff, id, SchiffRepository.ANY_VERSION);
+    }
+
+    /// Ein bestehendes Schiff aktualisieren, falls es noch in der erwarteten Version gespeichert ist. Danach
+    /// enthält das Objekt die neue Version.
+    ///
+    /// @param schiff Objekt mit aktualisierten Werten.
+    /// @param id ID des zu aktualisierenden Schiffs.
+    /// @param version Die erwartete Version oder [SchiffRepository#ANY_VERSION].
+    /// @throws NotFoundException wenn kein Schiff zur gegebenen ID existiert
+    /// @throws ResponseStatusException bei Namenskonflikt oder einer veralteten Version.
+    public void update(@Valid final Schiff schiff, final UUID id, final long version) {
         LOGGER.debug("update: {}", schiff);
-        LOGGER.debug("update: id={}", id);
+        LOGGER.debug("update: id={}, version={}", id, version);
 
         final var schiffDB = repo.findById(id);
         if (schiffDB == null) {
             throw new NotFoundException(id);
         }
 
-        final var existingShips = repo.find(Map.of("name", List.of(schiff.getName())));
-        final var shipWithSameName = existingShips.stream()
-            .filter(s -> !s.getId().equals(id))
-            .findFirst();
-        if (shipWithSameName.isPresent()) {
+        schiff.setId(id);
+        try {
+            if (!repo.update(schiff, version)) {
+                // zwischen dem Lesen und dem Schreiben von einem anderen Request gelöscht
+                throw new NotFoundException(id);
+            }
+        } catch (final NameExistsException ex) {
             throw new ResponseStatusException(HttpStatus.CONFLICT,
-                "Ein anderes Schiff mit dem Namen '" + schiff.getName() + "' existiert bereits");
+                "Ein anderes Schiff mit dem Namen '" + ex.getName() + "' existiert bereits", ex);
+        } catch (final VersionMismatchException ex) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, versionMismatch(ex), ex);
         }
+    }
 
-        schiff.setId(id);
-        repo.update(schiff);
+    /// Einzelne Attribute eines bestehenden Schiffs ändern. Die Änderungen werden auf das gespeicherte Schiff
+    /// angewendet und nur die Indexe der geänderten Attribute aktualisiert. Ohne erwartete Version werden die
+    /// Änderungen erneut angewendet, falls das Schiff zwischenzeitlich von einem anderen Request geändert wurde.
+    ///
+    /// @param id ID des zu ändernden Schiffs.
+    /// @param version Die erwartete Version oder [SchiffRepository#ANY_VERSION].
+    /// @param patch Die Änderungen, die aus dem gespeicherten Schiff ein neues Schiff erzeugen, ohne das
+    ///     gespeicherte Schiff zu verändern.
+    /// @return Das geänderte Schiff mit der neuen Version.
+    /// @throws NotFoundException wenn kein Schiff zur gegebenen ID existiert
+    /// @throws ResponseStatusException bei Namenskonflikt oder einer veralteten Version.
+    public Schiff patch(final UUID id, final long version, final UnaryOperator<Schiff> patch) {
+        LOGGER.debug("patch: id={}, version={}", id, version);
+        for (var attempt = 1;; attempt++) {
+            final var schiffDB = repo.findById(id);
+            if (schiffDB == null) {
+                throw new NotFoundException(id);
+            }
+            if (version != SchiffRepository.ANY_VERSION && version != schiffDB.getVersion()) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, versionMismatch(id, version));
+            }
+            final var schiff = patch.apply(schiffDB);
+            schiff.setId(id);
+            try {
+                if (!repo.update(schiff, schiffDB.getVersion())) {
+                    throw new NotFoundException(id);
+                }
+                LOGGER.debug("patch: {}", schiff);
+                return schiff;
+            } catch (final NameExistsException ex) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, nameExists(ex.getName()), ex);
+            } catch (final VersionMismatchException ex) {
+                if (version != SchiffRepository.ANY_VERSION || attempt == PATCH_ATTEMPTS) {
+                    throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, versionMismatch(ex), ex);
+                }
+                LOGGER.debug("patch: erneuter Versuch nach {}", ex.getMessage());
+            }
+        }
+    }
+
+    /// Alle Schiffe zu Suchparametern in einem Schreibvorgang ändern, z.B. alle Schiffe eines Hafens verlegen.
+    /// Entweder werden alle gefundenen Schiffe geändert oder keines.
+    ///
+    /// @param suchparameter Die Suchparameter; mindestens einer ist erforderlich.
+    /// @param change Die Änderung, die aus einem gespeicherten Schiff ein neues Schiff erzeugt, ohne das
+    ///     gespeicherte Schiff zu verändern.
+    /// @return Die Anzahl der geänderten Schiffe.
+    /// @throws ResponseStatusException bei ungültigen Suchparametern oder einem Namenskonflikt.
+    public int updateByQuery(final Map<String, List<String>> suchparameter, final UnaryOperator<Schiff> change) {
+        LOGGER.debug("updateByQuery: suchparameter={}", suchparameter);
+        try {
+            return repo.updateByQuery(suchparameter, change);
+        } catch (final InvalidQueryException ex) {
+            throw invalidQuery(ex);
+        } catch (final NameExistsException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, nameExists(ex.getName()), ex);
+        }
+    }
+
+    /// Alle Schiffe zu Suchparametern in einem Schreibvorgang löschen.
+    ///
+    /// @param suchparameter Die Suchparameter; mindestens einer ist erforderlich.
+    /// @return Die Anzahl der gelöschten Schiffe.
+    /// @throws ResponseStatusException bei ungültigen Suchparametern.
+    public int deleteByQuery(final Map<String, List<String>> suchparameter) {
+        LOGGER.debug("deleteByQuery: suchparameter={}", suchparameter);
+        try {
+            return repo.deleteByQuery(suchparameter);
+        } catch (final InvalidQueryException ex) {
+            throw invalidQuery(ex);
+        }
     }
 
     /// Ein Schiff anhand seiner ID löschen.
     ///
     /// @param id ID des zu löschenden Schiffs.
     public void deleteById(final UUID id) {
-        LOGGER.debug("deleteById: id={}", id);
-        repo.deleteById(id);
+        deleteById(id, SchiffRepository.ANY_VERSION);
+    }
+
+    /// Ein Schiff anhand seiner ID löschen, falls es noch in der erwarteten Version gespeichert ist.
+    ///
+    /// @param id ID des zu löschenden Schiffs.
+    /// @param version Die erwartete Version oder [SchiffRepository#ANY_VERSION].
+    /// @throws ResponseStatusException bei einer veralteten Version.
+    public void deleteById(final UUID id, final long version) {
+        LOGGER.debug("deleteById: id={}, version={}", id, version);
+        try {
+            repo.deleteById(id, version);
+        } catch (final VersionMismatchException ex) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, versionMismatch(ex), ex);
+        }
+    }
+
+    /// Die Operationen eines Batches in ihrer Reihenfolge ausführen, z.B. die Änderungen eines Clients, der
+    /// seinen Datenbestand synchronisiert. Aufeinanderfolgende Leseoperationen verwenden denselben Snapshot und
+    /// aufeinanderfolgende Schreiboperationen werden in einem gemeinsamen Schreibvorgang ausgeführt, so dass jede
+    /// Operation die vorherigen sieht. Jede Operation wird für sich ausgeführt: Eine fehlgeschlagene Operation
+    /// ändert nichts und hat keine Auswirkung auf die übrigen.
+    ///
+    /// @param operations Die Operationen.
+    /// @return Die Ergebnisse in derselben Reihenfolge wie die Operationen.
+    public List<BatchResult> batch(final List<BatchOperation> operations) {
+        LOGGER.debug("batch: #operations={}", operations.size());
+        final var results = new ArrayList<BatchResult>(operations.size());
+        var start = 0;
+        while (start < operations.size()) {
+            final var write = operations.get(start).isWrite();
+            var end = start + 1;
+            // abgelehnte Operationen unterbrechen eine Gruppe nicht
+            while (end < operations.size()
+                && (operations.get(end) instanceof Rejected || operations.get(end).isWrite() == write)) {
+                end++;
+            }
+            final var group = operations.subList(start, end);
+            results.addAll(write ? writeGroup(group) : readGroup(group));
+            start = end;
+        }
+        return results;
+    }
+
+    private List<BatchResult> readGroup(final List<BatchOperation> group) {
+        final var ids = new HashSet<UUID>();
+        for (final var operation : group) {
+            if (operation instanceof Get get) {
+                ids.addAll(get.ids());
+            } else if (operation instanceof Check check) {
+                ids.add(check.id());
+            }
+        }
+        final Map<UUID, Schiff> found = ids.isEmpty() ? Map.of() : repo.findByIds(ids);
+        final var results = new ArrayList<BatchResult>(group.size());
+        for (final var operation : group) {
+            if (operation instanceof Get get) {
+                final var schiffe = new ArrayList<Schiff>(get.ids().size());
+                for (final var id : get.ids()) {
+                    final var schiff = found.get(id);
+                    if (schiff != null) {
+                        schiffe.add(schiff);
+                    }
+                }
+                results.add(schiffe.isEmpty()
+                    ? BatchResult.error(HttpStatus.NOT_FOUND, "Keine Schiffe mit den IDs " + get.ids() + " gefunden")
+                    : new BatchResult(HttpStatus.OK.value(), null, null, schiffe, null));
+            } else if (operation instanceof Check(final var id, final var version)) {
+                final var schiff = found.get(id);
+                results.add(schiff != null && schiff.getVersion() == version
+                    ? new BatchResult(HttpStatus.OK.value(), id, version, null, null)
+                    : BatchResult.error(HttpStatus.PRECONDITION_FAILED, versionMismatch(id, version)));
+            } else {
+                results.add(((Rejected) operation).result());
+            }
+        }
+        return results;
+    }
+
+    private List<BatchResult> writeGroup(final List<BatchOperation> group) {
+        return repo.write(batch -> {
+            final var results = new ArrayList<BatchResult>(group.size());
+            for (final var operation : group) {
+                results.add(execute(batch, operation));
+            }
+            return results;
+        });
+    }
+
+    private static BatchResult execute(final WriteBatch batch, final BatchOperation operation) {
+        try {
+            return switch (operation) {
+                case Create(final var schiff) -> {
+                    batch.create(schiff);
+                    yield new BatchResult(HttpStatus.CREATED.value(), schiff.getId(), schiff.getVersion(), null, null);
+                }
+                case Update(final var id, final var schiff, final var version) -> {
+                    schiff.setId(id);
+                    yield batch.update(schiff, version)
+                        ? new BatchResult(HttpStatus.NO_CONTENT.value(), id, schiff.getVersion(), null, null)
+                        : BatchResult.error(HttpStatus.NOT_FOUND, "Kein Schiff mit der ID " + id + " gefunden");
+                }
+                case Delete(final var id, final var version) -> {
+                    batch.deleteById(id, version);
+                    yield new BatchResult(HttpStatus.NO_CONTENT.value(), id, null, null, null);
+                }
+                case Rejected(final var result) -> result;
+                case Get _, Check _ -> throw new IllegalArgumentException("Keine Schreiboperation: " + operation);
+            };
+        } catch (final NameExistsException ex) {
+            return BatchResult.error(HttpStatus.CONFLICT, nameExists(ex.getName()));
+        } catch (final VersionMismatchException ex) {
+            return BatchResult.error(HttpStatus.PRECONDITION_FAILED, versionMismatch(ex));
+        }
+    }
+
+    /// Die Operationen als eine optimistische Transaktion ausführen: entweder alle oder keine. Gelesen wird ohne
+    /// Sperre aus einem Snapshot, die Schreiboperationen werden gesammelt und erst beim Commit in einem einzigen
+    /// Schreibvorgang ausgeführt, nachdem die Versionen aller gelesenen und geänderten Schiffe geprüft wurden.
+    /// Die Eindeutigkeit der Namen wird für den Endzustand geprüft, so dass z.B. zwei Schiffe ihre Namen
+    /// tauschen können. Anders als bei [#batch(List)] sehen Leseoperationen die Schreiboperationen derselben
+    /// Transaktion nicht.
+    ///
+    /// @param operations Die Operationen.
+    /// @return Die Ergebnisse in derselben Reihenfolge wie die Operationen.
+    /// @throws ResponseStatusException mit dem Statuscode einer abgelehnten Operation, bei einem Namenskonflikt
+    ///     oder einer veralteten Version; dann wurde nichts geändert.
+    /// @throws NotFoundException wenn ein zu änderndes Schiff nicht existiert.
+    public List<BatchResult> transaction(final List<BatchOperation> operations) {
+        LOGGER.debug("transaction: #operations={}", operations.size());
+        for (var i = 0; i < operations.size(); i++) {
+            if (operations.get(i) instanceof Rejected(final var result)) {
+                throw new ResponseStatusException(HttpStatusCode.valueOf(result.status()),
+                    "Operation " + i + ": " + result.detail());
+            }
+        }
+        final var transaction = repo.begin();
+        final var results = new ArrayList<Supplier<BatchResult>>(operations.size());
+        for (final var operation : operations) {
+            results.add(prepare(transaction, operation));
+        }
+        try {
+            repo.commit(transaction);
+        } catch (final NameExistsException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, nameExists(ex.getName()), ex);
+        } catch (final VersionMismatchException ex) {
+            if (ex.getVersion() == SchiffRepository.ANY_VERSION) {
+                throw new NotFoundException(ex.getId());
+            }
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, versionMismatch(ex), ex);
+        }
+        LOGGER.debug("transaction: {}", transaction);
+        return results.stream().map(Supplier::get).toList();
+    }
+
+    /// Eine Operation in einer Transaktion vormerken.
+    ///
+    /// @return Das Ergebnis, das erst nach dem Commit ermittelt werden darf, weil z.B. die neue Version erst dann
+    ///     feststeht.
+    private static Supplier<BatchResult> prepare(final Transaction transaction, final BatchOperation operation) {
+        return switch (operation) {
+            case Get(final var ids) -> {
+                final var schiffe = new ArrayList<Schiff>(ids.size());
+                for (final var id : ids) {
+                    final var schiff = transaction.findById(id);
+                    if (schiff != null) {
+                        schiffe.add(schiff);
+                    }
+                }
+                if (schiffe.isEmpty()) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Keine Schiffe mit den IDs " + ids + " gefunden");
+                }
+                yield () -> new BatchResult(HttpStatus.OK.value(), null, null, schiffe, null);
+            }
+            case Check(final var id, final var version) -> {
+                transaction.read(id, version);
+                yield () -> new BatchResult(HttpStatus.OK.value(), id, version, null, null);
+            }
+            case Create(final var schiff) -> {
+                transaction.create(schiff);
+                yield () -> new BatchResult(HttpStatus.CREATED.value(), schiff.getId(), schiff.getVersion(), null,
+                    null);
+            }
+            case Update(final var id, final var schiff, final var version) -> {
+                schiff.setId(id);
+                transaction.update(schiff, version);
+                yield () -> new BatchResult(HttpStatus.NO_CONTENT.value(), id, schiff.getVersion(), null, null);
+            }
+            case Delete(final var id, final var version) -> {
+                transaction.deleteById(id, version);
+                yield () -> new BatchResult(HttpStatus.NO_CONTENT.value(), id, null, null, null);
+            }
+            case Rejected(final var result) -> () -> result;
+        };
+    }
+
+    private static String nameExists(final String name) {
+        return "Ein Schiff mit dem Namen '" + name + "' existiert bereits";
+    }
+
+    private static ResponseStatusException invalidQuery(final InvalidQueryException ex) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+            "Die Suchparameter " + ex.getSuchparameter() + " sind ungueltig oder leer", ex);
+    }
+
+    private static String versionMismatch(final VersionMismatchException ex) {
+        return versionMismatch(ex.getId(), ex.getVersion());
+    }
+
+    private static String versionMismatch(final UUID id, final long version) {
+        return "Die Version " + version + " des Schiffs " + id + " ist nicht aktuell";
     }
 }
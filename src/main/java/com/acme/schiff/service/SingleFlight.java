@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/// Zusammenfassen gleicher, gleichzeitiger Lesezugriffe (_Single Flight_): Solange eine Berechnung für einen
+/// Schlüssel läuft, warten weitere Aufrufe mit demselben Schlüssel auf deren Ergebnis, statt dieselbe Arbeit
+/// erneut durchzuführen. Wirft die Berechnung eine Exception, erhalten alle wartenden Aufrufe diese Exception.
+///
+/// Zum Schlüssel gehört die Generation des Datenbestands, damit ein Aufruf nach einer Änderung nicht das
+/// Ergebnis einer noch laufenden Berechnung mit dem vorherigen Datenbestand erhält.
+///
+/// @param <K> Der Typ der Schlüssel, z.B. die ID oder die normalisierten Suchparameter.
+/// @param <V> Der Typ der Ergebnisse.
+/// @author Murat Yahsi
+final class SingleFlight<K, V extends @Nullable Object> {
+    private final Map<Call<K>, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /// Das Ergebnis berechnen oder auf eine bereits laufende Berechnung mit demselben Schlüssel warten.
+    ///
+    /// @param key Der Schlüssel der Berechnung.
+    /// @param generation Die aktuelle Generation des Datenbestands.
+    /// @param loader Die Berechnung.
+    /// @return Das Ergebnis der eigenen oder der bereits laufenden Berechnung.
+    V execute(final K key, final long generation, final Supplier<V> loader) {
+        calls.increment();
+        final var call = new Call<>(generation, key);
+        final var own = new CompletableFuture<V>();
+        final var running = inFlight.putIfAbsent(call, own);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            final var result = loader.get();
+            own.complete(result);
+            return result;
+        } catch (final RuntimeException | Error ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(call, own);
+        }
+    }
+
+    /// Die Statistik ermitteln.
+    ///
+    /// @return Die Statistik.
+    Stats stats() {
+        return new Stats(calls.sum(), coalesced.sum(), inFlight.size());
+    }
+
+    private static <V extends @Nullable Object> V await(final CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (final CompletionException ex) {
+            // die ursprüngliche Exception weiterreichen, z.B. eine NotFoundException
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /// Schlüssel einer laufenden Berechnung.
+    ///
+    /// @param generation Die Generation des Datenbestands.
+    /// @param key Der Schlüssel des Aufrufers.
+    /// @param <K> Der Typ der Schlüssel.
+    private record Call<K>(long generation, K key) {
+    }
+
+    /// Statistik eines [SingleFlight] für _Actuator_.
+    ///
+    /// @param calls Die Anzahl aller Aufrufe.
+    /// @param coalesced Die Anzahl der Aufrufe, die auf eine bereits laufende Berechnung gewartet haben.
+    /// @param inFlight Die Anzahl der gerade laufenden Berechnungen.
+    record Stats(long calls, long coalesced, int inFlight) {
+    }
+}
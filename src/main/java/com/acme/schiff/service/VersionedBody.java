@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.service;
+
+/// Der JSON-Body eines Schiffs mit seinen komprimierten Varianten zusammen mit der Version, in der das Schiff
+/// gespeichert ist.
+///
+/// @param version Die Version des Schiffs, aus der z.B. ein `ETag` gebildet wird.
+/// @param json Der JSON-Body mit den komprimierten Varianten.
+/// @author Murat Yahsi
+public record VersionedBody(long version, Precompressed json) {
+}
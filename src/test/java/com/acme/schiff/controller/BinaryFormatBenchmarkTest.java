@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import com.acme.schiff.entity.Crew;
+import com.acme.schiff.entity.Hafen;
+import com.acme.schiff.entity.Schiff;
+import com.acme.schiff.entity.SchiffTyp;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_25;
+
+/// Vergleich von JSON, _CBOR_ und _Smile_ für Schiffe mit Hafen und Crew: Größe des Arrays, auch mit `gzip`,
+/// sowie die Zeit für das Serialisieren der Schiffe und das Deserialisieren als [SchiffDTO] wie bei einem
+/// Request-Body. Der Benchmark wird nur mit `./gradlew test -Ptest=benchmark` ausgeführt; die Ergebnisse stehen
+/// im _Open Test Report_ unter `build/test-results/test`.
+@Tag("benchmark")
+@DisplayName("Benchmark fuer JSON, CBOR und Smile")
+@EnabledForJreRange(min = JAVA_25, max = JAVA_25)
+@SuppressWarnings({"WriteTag", "PMD.AtLeastOneConstructor"})
+class BinaryFormatBenchmarkTest {
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+    private static final int CREW_MAX = 8;
+    private static final long SEED = 4711;
+    private static final int TAGE_MAX = 20_000;
+    private static final long NANOS_PRO_MIKRO = 1000;
+    private static final long PROZENT = 100;
+    private static final String[] HAEFEN = {"Hamburg", "Rotterdam", "Antwerpen", "Piräus", "Valencia"};
+    private static final String[] LAENDER = {"Deutschland", "Niederlande", "Belgien", "Griechenland", "Spanien"};
+    private static final String[] ROLLEN = {"Kapitän", "Offizier", "Maschinist", "Matrose", "Koch"};
+
+    @ParameterizedTest(name = "[{index}] Benchmark mit {0} Schiffen")
+    @ValueSource(ints = {1, 100, 1000})
+    @DisplayName("Groesse und Kosten fuer Serialisieren und Deserialisieren")
+    void vergleichen(final int anzahl, final TestReporter reporter) {
+        // given
+        final var schiffe = schiffe(anzahl);
+        final var json = configure(JsonMapper.builder()).build();
+        final var jsonGroesse = json.writeValueAsBytes(schiffe).length;
+
+        for (final var mapper : List.<ObjectMapper>of(
+            json,
+            configure(CBORMapper.builder()).build(),
+            configure(SmileMapper.builder()).build()
+        )) {
+            // when
+            final var bytes = mapper.writeValueAsBytes(schiffe);
+            final var dtos = mapper.readValue(bytes, SchiffDTO[].class);
+            final var encodeNanos = measure(() -> mapper.writeValueAsBytes(schiffe));
+            final var decodeNanos = measure(() -> mapper.readValue(bytes, SchiffDTO[].class));
+
+            // then
+            assertThat(dtos).hasSize(anzahl);
+            assertThat(dtos[0].name()).isEqualTo(schiffe.getFirst().getName());
+            assertThat(bytes.length).isLessThanOrEqualTo(jsonGroesse);
+            reporter.publishEntry(
+                mapper.tokenStreamFactory().getFormatName() + " (" + anzahl + " Schiffe)",
+                String.format(
+                    "%d Bytes (%d%% von JSON), gzip %d Bytes, serialisieren %d µs, deserialisieren %d µs",
+                    bytes.length,
+                    bytes.length * PROZENT / jsonGroesse,
+                    gzip(bytes),
+                    encodeNanos / NANOS_PRO_MIKRO,
+                    decodeNanos / NANOS_PRO_MIKRO
+                )
+            );
+        }
+    }
+
+    static <B extends MapperBuilder<?, B>> B configure(final B builder) {
+        // wie WebConfig bzw. jackson.default-property-inclusion in application.yml
+        return builder
+            .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /// Die durchschnittliche Dauer einer Ausführung nach dem Aufwärmen des JIT-Compilers in Nanosekunden.
+    static long measure(final Runnable action) {
+        for (var i = 0; i < WARMUP; i++) {
+            action.run();
+        }
+        final var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static int gzip(final byte[] bytes) {
+        final var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.size();
+    }
+
+    static List<Schiff> schiffe(final int anzahl) {
+        final var random = new Random(SEED);
+        final var typen = SchiffTyp.values();
+        final var schiffe = new ArrayList<Schiff>(anzahl);
+        for (var i = 0; i < anzahl; i++) {
+            final var hafen = random.nextInt(HAEFEN.length);
+            final var crew = IntStream.range(0, 1 + random.nextInt(CREW_MAX))
+                .mapToObj(j -> new Crew(
+                    new UUID(random.nextLong(), random.nextLong()),
+                    "Vorname" + j,
+                    "Nachname" + random.nextInt(anzahl),
+                    ROLLEN[random.nextInt(ROLLEN.length)]
+                ))
+                .toList();
+            final var schiff = new Schiff(
+                new UUID(random.nextLong(), random.nextLong()),
+                "Schiff" + i,
+                LocalDate.ofEpochDay(random.nextInt(TAGE_MAX)),
+                1 + random.nextInt(SchiffDTO.MAX_KAPAZITAET),
+                typen[random.nextInt(typen.length)],
+                new Hafen(new UUID(random.nextLong(), random.nextLong()), HAEFEN[hafen], LAENDER[hafen]),
+                crew
+            );
+            schiff.setVersion(random.nextInt(anzahl));
+            schiffe.add(schiff);
+        }
+        return schiffe;
+    }
+}
@@ -27,16 +27,25 @@ import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 import org.springframework.web.util.UriComponentsBuilder;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static com.acme.schiff.controller.Constants.API_PATH;
+import static com.acme.schiff.controller.Constants.APPLICATION_SMILE_VALUE;
 import static com.acme.schiff.controller.TestConstants.*;
 import static com.acme.schiff.entity.Schiff.NAME_PATTERN;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.ThrowableAssert.catchThrowableOfType;
 import static org.junit.jupiter.api.condition.JRE.JAVA_25;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.LINK;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
 
 @Tag("rest")
 @SpringBootTest(webEnvironment = RANDOM_PORT)
@@ -51,6 +60,8 @@ class SchiffControllerTest {
 
     private static final String NAME_PARAM = "name";
     private static final String TYP_PARAM = "typ";
+    private static final String LIMIT_PARAM = "limit";
+    private static final String FIELDS_PARAM = "fields";
     private static final String KREUZFAHRT = "X";
     private static final String FAEHRE = "F";
 
@@ -138,6 +149,102 @@ class SchiffControllerTest {
                 .isEqualTo(typ);
         });
     }
+    @ParameterizedTest(name = "[{index}] Suche mit einem Typ als NDJSON: typ={0}")
+    @ValueSource(strings = {KREUZFAHRT, FAEHRE})
+    @DisplayName("Suche mit einem Typ als NDJSON")
+    void getNdjson(final String typStr) {
+        // given
+        final var suchparameter = MultiValueMap.fromSingleValue(Map.of(TYP_PARAM, typStr));
+
+        // when
+        final var ndjson = schiffRepo.getNdjson(suchparameter);
+
+        // then
+        softly.assertThat(ndjson)
+            .isNotNull()
+            .endsWith("\n");
+        ndjson.lines().forEach(zeile -> softly.assertThat(zeile)
+            .startsWith("{")
+            .endsWith("}")
+            .contains("\"typ\":\"" + typStr + "\""));
+    }
+
+    @Test
+    @DisplayName("Erste Seite mit Limit und Link-Header")
+    void getPage() {
+        // given
+        final var suchparameter = MultiValueMap.fromSingleValue(Map.of(LIMIT_PARAM, "1"));
+
+        // when
+        final var response = schiffRepo.getPage(suchparameter);
+
+        // then
+        softly.assertThat(response.getBody())
+            .isNotNull()
+            .hasSize(1);
+        softly.assertThat(response.getHeaders().getFirst(LINK))
+            .isNotNull()
+            .contains("rel=\"first\"", "rel=\"next\"", "cursor=");
+    }
+
+    @Test
+    @DisplayName("Suche mit ausgewaehlten Attributen")
+    @SuppressModernizer
+    void getFields() {
+        // given
+        final var suchparameter = MultiValueMap.fromSingleValue(Map.of(FIELDS_PARAM, "id,name,hafen.name"));
+
+        // when
+        final var body = schiffRepo.getAsString(suchparameter);
+
+        // then
+        assertThat(body).isNotNull().isNotBlank();
+        final List<String> namen = JsonPath.read(body, "$[*].name");
+        final List<String> haefen = JsonPath.read(body, "$[*].hafen.name");
+        final List<String> laender = JsonPath.read(body, "$[*].hafen.land");
+        final List<Object> crews = JsonPath.read(body, "$[*].crewList");
+        softly.assertThat(namen).isNotEmpty();
+        softly.assertThat(haefen).isNotEmpty();
+        softly.assertThat(laender).isEmpty();
+        softly.assertThat(crews).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Suche mit unbekanntem Attribut")
+    void getFieldsUngueltig() {
+        // given
+        final var suchparameter = MultiValueMap.fromSingleValue(Map.of(FIELDS_PARAM, "id,tiefgang"));
+
+        // when
+        final var exc = catchThrowableOfType(
+            HttpClientErrorException.BadRequest.class,
+            () -> schiffRepo.getAsString(suchparameter)
+        );
+
+        // then
+        assertThat(exc.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    @ParameterizedTest(name = "[{index}] Suche mit Smile: typ={0}")
+    @ValueSource(strings = FAEHRE)
+    @DisplayName("Suche mit dem binaeren Format Smile")
+    void getSmile(final String typStr) {
+        // given
+        final var suchparameter = MultiValueMap.fromSingleValue(Map.of(TYP_PARAM, typStr));
+
+        // when
+        final var response = schiffRepo.getSmile(suchparameter);
+
+        // then
+        softly.assertThat(response.getHeaders().getContentType()).hasToString(APPLICATION_SMILE_VALUE);
+        final var body = response.getBody();
+        assertThat(body).isNotNull().isNotEmpty();
+        final var schiffe = new SmileMapper().readTree(body);
+        assertThat(schiffe.isArray()).isTrue();
+        softly.assertThat(schiffe.size()).isPositive();
+        schiffe.forEach(schiff -> softly.assertThat(schiff.get("typ").asString()).isEqualTo(typStr));
+    }
+
     @Nested
     @DisplayName("Suche anhand der ID")
     class GetById{
@@ -178,6 +285,65 @@ class SchiffControllerTest {
             softly.assertThat(schiff.getId().toString()).isEqualTo(id);
             softly.assertThat(schiff.getName()).isNotNull();
         }
+
+        @ParameterizedTest(name = "[{index}] Suche mit vorhandener ID als CBOR: id={0}")
+        @ValueSource(strings = ID_VORHANDEN)
+        @DisplayName("Suche mit vorhandener ID und dem binaeren Format CBOR")
+        void getByIdCbor(final String id) {
+            // given
+
+            // when
+            final var response = schiffRepo.getByIdCbor(id);
+
+            // then
+            softly.assertThat(response.getHeaders().getContentType()).isEqualTo(APPLICATION_CBOR);
+            softly.assertThat(response.getHeaders().getETag()).isNotNull();
+            final var body = response.getBody();
+            assertThat(body).isNotNull().isNotEmpty();
+            // eine UUID wird mit CBOR binaer als 16 Bytes serialisiert
+            final var mapper = new CBORMapper();
+            final var schiff = mapper.readTree(body);
+            softly.assertThat(mapper.treeToValue(schiff.get("id"), UUID.class)).isEqualTo(UUID.fromString(id));
+            softly.assertThat(schiff.get("name").asString()).isNotBlank();
+        }
+
+        @ParameterizedTest(name = "[{index}] ETags von CBOR und Smile: id={0}")
+        @ValueSource(strings = ID_VORHANDEN)
+        @DisplayName("Suche mit vorhandener ID und unterschiedlichen ETags fuer CBOR und Smile")
+        void getByIdBinaryEtag(final String id) {
+            // given
+            final var etagJson = schiffRepo.getById(id).getHeaders().getETag();
+            assertThat(etagJson).isNotNull();
+
+            // when
+            final var etagCbor = schiffRepo.getByIdCbor(id).getHeaders().getETag();
+            final var etagSmile = schiffRepo.getByIdSmile(id).getHeaders().getETag();
+
+            // then
+            final var version = etagJson.replaceFirst("(-[a-z]+)?\"$", "");
+            softly.assertThat(etagCbor).isEqualTo(version + "-cbor\"");
+            softly.assertThat(etagSmile).isEqualTo(version + "-smile\"");
+            // die binaeren ETags gehoeren zur selben Version wie JSON
+            final var response = schiffRepo.getByIdIfNoneMatch(id, etagCbor + ", " + etagSmile);
+            softly.assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche mit vorhandener ID und ETag: id={0}")
+        @ValueSource(strings = ID_VORHANDEN)
+        @DisplayName("Suche mit vorhandener ID und If-None-Match")
+        void getByIdNichtGeaendert(final String id) {
+            // given
+            final var etag = schiffRepo.getById(id).getHeaders().getETag();
+            assertThat(etag).isNotNull().startsWith("\"");
+
+            // when
+            final var response = schiffRepo.getByIdIfNoneMatch(id, etag);
+
+            // then
+            softly.assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+            softly.assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+            softly.assertThat(response.getBody()).isNull();
+        }
         @ParameterizedTest(name = "[{index}] Suche mit syntaktisch ungueltiger oder nicht-vorhandener ID: {0}")
         @ValueSource(strings = ID_NICHT_VORHANDEN)
         @DisplayName("Suche mit syntaktisch ungültiger oder nicht-vorhandener ID")
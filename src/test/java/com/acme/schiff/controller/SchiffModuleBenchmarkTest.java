@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2025 - present Murat Yahsi, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.acme.schiff.controller;
+
+import com.acme.schiff.entity.Schiff;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.databind.json.JsonMapper;
+import static com.acme.schiff.controller.BinaryFormatBenchmarkTest.configure;
+import static com.acme.schiff.controller.BinaryFormatBenchmarkTest.measure;
+import static com.acme.schiff.controller.BinaryFormatBenchmarkTest.schiffe;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_25;
+
+/// Vergleich der Serialisierung mit Reflection durch Jackson und mit dem [SchiffModule]: allokierte Bytes und
+/// Zeit je Request, d.h. für das Serialisieren der Schiffe zu einem Response-Body und das Deserialisieren eines
+/// Request-Bodys als [SchiffDTO] bzw. direkt als [SchiffInput]. Zusätzlich wird geprüft, dass beide Varianten
+/// dasselbe JSON liefern. Der Benchmark wird nur mit `./gradlew test -Ptest=benchmark` ausgeführt.
+@Tag("benchmark")
+@DisplayName("Benchmark fuer das SchiffModule")
+@EnabledForJreRange(min = JAVA_25, max = JAVA_25)
+@SuppressWarnings({"WriteTag", "PMD.AtLeastOneConstructor"})
+class SchiffModuleBenchmarkTest {
+    private static final int ITERATIONS = 1000;
+    private static final long NANOS_PRO_MIKRO = 1000;
+
+    @ParameterizedTest(name = "[{index}] Benchmark mit {0} Schiffen")
+    @ValueSource(ints = {1, 100})
+    @DisplayName("Allokierte Bytes und Zeit je Request")
+    void vergleichen(final int anzahl, final TestReporter reporter) {
+        // given
+        final var schiffe = schiffe(anzahl);
+        final var reflection = configure(JsonMapper.builder()).build();
+        final var modul = configure(JsonMapper.builder()).addModule(new SchiffModule()).build();
+        final var request = reflection.writeValueAsBytes(toDTO(schiffe.getFirst()));
+
+        // when
+        final var json = modul.writeValueAsBytes(schiffe);
+        final var dto = modul.readValue(request, SchiffDTO.class);
+        final var input = modul.readValue(request, SchiffInput.class);
+
+        // then
+        assertThat(modul.readTree(json)).isEqualTo(reflection.readTree(reflection.writeValueAsBytes(schiffe)));
+        assertThat(dto).isEqualTo(reflection.readValue(request, SchiffDTO.class));
+        assertThat(toDTO(input.schiff())).isEqualTo(dto);
+        for (final var mapper : List.of(reflection, modul)) {
+            final var variante = mapper == modul ? "SchiffModule" : "Reflection";
+            final var writer = mapper.writerFor(Schiff.class);
+            reporter.publishEntry(
+                variante + " (" + anzahl + " Schiffe)",
+                String.format(
+                    "serialisieren %d Bytes, %d µs; deserialisieren SchiffDTO %d Bytes, %d µs",
+                    allocated(() -> schiffe.forEach(writer::writeValueAsBytes)),
+                    measure(() -> schiffe.forEach(writer::writeValueAsBytes)) / NANOS_PRO_MIKRO,
+                    allocated(() -> mapper.readValue(request, SchiffDTO.class)),
+                    measure(() -> mapper.readValue(request, SchiffDTO.class)) / NANOS_PRO_MIKRO
+                )
+            );
+        }
+        reporter.publishEntry(
+            "SchiffInput (" + anzahl + " Schiffe)",
+            String.format(
+                "deserialisieren und pruefen %d Bytes, %d µs",
+                allocated(() -> modul.readValue(request, SchiffInput.class)),
+                measure(() -> modul.readValue(request, SchiffInput.class)) / NANOS_PRO_MIKRO
+            )
+        );
+    }
+
+    /// Die durchschnittlich allokierten Bytes einer Ausführung im aktuellen Thread nach dem Aufwärmen.
+    private static long allocated(final Runnable action) {
+        final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        measure(action);
+        final var start = threads.getCurrentThreadAllocatedBytes();
+        for (var i = 0; i < ITERATIONS; i++) {
+            action.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - start) / ITERATIONS;
+    }
+
+    private static SchiffDTO toDTO(final Schiff schiff) {
+        final var hafen = schiff.getHafen();
+        return new SchiffDTO(
+            schiff.getName(),
+            schiff.getBaujahr(),
+            schiff.getKapazitaet(),
+            schiff.getTyp(),
+            new HafenDTO(hafen.getName(), hafen.getLand()),
+            schiff.getCrewList().stream()
+                .map(crew -> new CrewDTO(crew.getVorname(), crew.getNachname(), crew.getRolle()))
+                .toList()
+        );
+    }
+}
@@ -22,13 +22,22 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.DeleteExchange;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PatchExchange;
 import org.springframework.web.service.annotation.PostExchange;
 import org.springframework.web.service.annotation.PutExchange;
+import static com.acme.schiff.controller.Constants.APPLICATION_MERGE_PATCH_JSON_VALUE;
+import static com.acme.schiff.controller.Constants.APPLICATION_SMILE_VALUE;
+import static com.acme.schiff.controller.Constants.IDEMPOTENCY_KEY;
 import static com.acme.schiff.controller.TestConstants.VERSION_1;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @HttpExchange
 @SuppressWarnings({"WriteTag", "PMD.AvoidDuplicateLiterals"})
@@ -39,15 +48,71 @@ interface SchiffRepository {
     @GetExchange(url = "/{id}", version = VERSION_1)
     ResponseEntity<String> getByIdAsString(@PathVariable String id);
 
+    @GetExchange(url = "/{id}", version = VERSION_1)
+    ResponseEntity<String> getByIdIfNoneMatch(
+        @PathVariable String id,
+        @RequestHeader(IF_NONE_MATCH) String ifNoneMatch
+    );
+
+    @GetExchange(url = "/{id}", version = VERSION_1, accept = APPLICATION_CBOR_VALUE)
+    ResponseEntity<byte[]> getByIdCbor(@PathVariable String id);
+
+    @GetExchange(url = "/{id}", version = VERSION_1, accept = APPLICATION_SMILE_VALUE)
+    ResponseEntity<byte[]> getByIdSmile(@PathVariable String id);
+
     @GetExchange(version = VERSION_1)
     List<Schiff> get(@RequestParam MultiValueMap<String, String> suchparameter);
 
+    @GetExchange(version = VERSION_1)
+    String getAsString(@RequestParam MultiValueMap<String, String> suchparameter);
+
+    @GetExchange(version = VERSION_1)
+    ResponseEntity<List<Schiff>> getPage(@RequestParam MultiValueMap<String, String> suchparameter);
+
+    @GetExchange(version = VERSION_1, accept = "application/x-ndjson")
+    String getNdjson(@RequestParam MultiValueMap<String, String> suchparameter);
+
+    @GetExchange(version = VERSION_1, accept = APPLICATION_SMILE_VALUE)
+    ResponseEntity<byte[]> getSmile(@RequestParam MultiValueMap<String, String> suchparameter);
+
     @PostExchange(version = VERSION_1)
     ResponseEntity<Void> post(@RequestBody SchiffDTO schiff);
 
+    @PostExchange(version = VERSION_1)
+    ResponseEntity<Void> postIdempotent(@RequestHeader(IDEMPOTENCY_KEY) String key, @RequestBody SchiffDTO schiff);
+
+    @PostExchange(version = VERSION_1, contentType = APPLICATION_CBOR_VALUE)
+    ResponseEntity<Void> postCbor(@RequestBody SchiffDTO schiff);
+
+    @PostExchange(url = "/import", version = VERSION_1, contentType = APPLICATION_NDJSON_VALUE,
+        accept = APPLICATION_NDJSON_VALUE)
+    String postImport(@RequestBody String ndjson);
+
+    @PostExchange(url = "/batch", version = VERSION_1)
+    String postBatch(@RequestBody String json);
+
+    @PostExchange(url = "/transaction", version = VERSION_1)
+    String postTransaction(@RequestBody String json);
+
     @PutExchange(url = "/{id}", version = VERSION_1)
     ResponseEntity<Void> put(@PathVariable String id, @RequestBody SchiffDTO schiff);
 
+    @PutExchange(url = "/{id}", version = VERSION_1)
+    ResponseEntity<Void> putIfMatch(
+        @PathVariable String id,
+        @RequestHeader(IF_MATCH) String ifMatch,
+        @RequestBody SchiffDTO schiff
+    );
+
+    @PatchExchange(url = "/{id}", version = VERSION_1, contentType = APPLICATION_MERGE_PATCH_JSON_VALUE)
+    ResponseEntity<Void> patch(@PathVariable String id, @RequestBody String patch);
+
+    @PostExchange(url = "/update-by-query", version = VERSION_1, contentType = APPLICATION_MERGE_PATCH_JSON_VALUE)
+    String updateByQuery(@RequestParam MultiValueMap<String, String> suchparameter, @RequestBody String patch);
+
+    @PostExchange(url = "/delete-by-query", version = VERSION_1)
+    String deleteByQuery(@RequestParam MultiValueMap<String, String> suchparameter);
+
     @DeleteExchange(url = "/{id}", version = VERSION_1)
     ResponseEntity<Void> deleteById(@PathVariable String id);
 }
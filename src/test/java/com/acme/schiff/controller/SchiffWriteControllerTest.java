@@ -17,11 +17,14 @@
 package com.acme.schiff.controller;
 
 import com.acme.schiff.entity.SchiffTyp;
+import com.jayway.jsonpath.JsonPath;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -39,6 +42,7 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.ProblemDetail;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
@@ -54,8 +58,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.ThrowableAssert.catchThrowableOfType;
 import static org.junit.jupiter.api.condition.JRE.JAVA_25;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_CONTENT;
 
 @Tag("integration")
@@ -71,8 +77,16 @@ class SchiffWriteControllerTest {
 
     private static final String ID_UPDATE_PUT = "00000000-0000-0000-0000-000000000002";
     private static final String ID_DELETE = "00000000-0000-0000-0000-000000000003";
+    private static final String ID_UPDATE_PATCH = "00000000-0000-0000-0000-000000000005";
     private static final String UNGUELTIGES_BAUJAHR = "2100-01-01";
     private static final String NEUER_NAME = "Karlsruher";
+    private static final String NEUER_NAME_CBOR = "Binaerschiff";
+    private static final String NEUER_NAME_IMPORT = "Importschiff";
+    private static final String NEUER_NAME_IDEMPOTENT = "Wiederholschiff";
+    private static final String NEUER_NAME_BATCH = "Batchschiff";
+    private static final String NEUER_NAME_TRANSACTION = "Tauschschiff";
+    private static final String ID_BATCH_GET = "00000000-0000-0000-0000-000000000001";
+    private static final String HAFEN_BY_QUERY = "Helgoland";
     private static final String NEUER_TYP = "F";
     private static final int NEUE_KAPAZITAET = 900;
     private static final String NEUER_HAFEN = "Hamburg";
@@ -83,6 +97,7 @@ class SchiffWriteControllerTest {
     private static final String NEUE_ROLLE = "Kapitän";
     private static final String NAME_INVALID = "?!$";
     private static final int KAPAZITAET_INVALID = 0;
+    private static final String ETAG_VERALTET = "\"0\"";
 
     private final SchiffRepository schiffRepo;
 
@@ -160,6 +175,40 @@ class SchiffWriteControllerTest {
                 .isInstanceOf(URI.class);
         }
 
+        @ParameterizedTest(name = "[{index}] Neues Schiff mit CBOR anlegen: name={0}, typ={1}")
+        @CsvSource(NEUER_NAME_CBOR + "," + NEUER_TYP + "," + NEUES_BAUJAHR + "," +
+            NEUE_KAPAZITAET + "," + NEUER_HAFEN + "," + NEUES_LAND)
+        @DisplayName("Neues Schiff mit dem binaeren Format CBOR anlegen")
+        void postCbor(final ArgumentsAccessor args) {
+            // given
+            final var name = args.getString(0);
+            final var typStr = args.getString(1);
+            final var baujahr = args.get(2, LocalDate.class);
+            final var kapazitaet = args.getInteger(3);
+            final var hafenname = args.getString(4);
+            final var land = args.getString(5);
+
+            if (name == null || typStr == null || baujahr == null || kapazitaet == null ||
+                hafenname == null || land == null) {
+                throw new IllegalStateException("Testdaten sind null");
+            }
+            final var schiffDTO = new SchiffDTO(
+                name,
+                baujahr,
+                kapazitaet,
+                SchiffTyp.of(typStr),
+                new HafenDTO(hafenname, land),
+                null
+            );
+
+            // when
+            final var response = schiffRepo.postCbor(schiffDTO);
+
+            // then
+            softly.assertThat(response.getStatusCode()).isEqualTo(CREATED);
+            softly.assertThat(response.getHeaders().getLocation()).isNotNull();
+        }
+
         @ParameterizedTest(name = "[{index}] Neues Schiff mit ungueltigen Daten: name={0}")
         @CsvSource(NAME_INVALID + "," + NEUER_TYP + "," + UNGUELTIGES_BAUJAHR + "," +
             KAPAZITAET_INVALID + "," + NEUER_HAFEN + "," + NEUES_LAND)
@@ -205,6 +254,152 @@ class SchiffWriteControllerTest {
                 .toList();
             assertThat(actualViolationKeys).containsAnyElementsOf(violationKeys);
         }
+
+        @ParameterizedTest(name = "[{index}] Neues Schiff mit leerem Vornamen in der Crew: name={0}")
+        @CsvSource(NEUER_NAME + "," + NEUER_TYP + "," + NEUES_BAUJAHR + "," +
+            NEUE_KAPAZITAET + "," + NEUER_HAFEN + "," + NEUES_LAND + "," + NEUE_NACHNAME + "," + NEUE_ROLLE)
+        @DisplayName("Neues Schiff mit leerem Vornamen in der Crew")
+        void postInvalidCrew(final ArgumentsAccessor args) {
+            // given
+            final var name = args.getString(0);
+            final var typStr = args.getString(1);
+            final var baujahr = args.get(2, LocalDate.class);
+            final var kapazitaet = args.getInteger(3);
+            final var hafenname = args.getString(4);
+            final var land = args.getString(5);
+            final var nachname = args.getString(6);
+            final var rolle = args.getString(7);
+
+            if (name == null || typStr == null || baujahr == null || kapazitaet == null ||
+                hafenname == null || land == null || nachname == null || rolle == null) {
+                throw new IllegalStateException("Testdaten sind null");
+            }
+            final var schiffDTO = new SchiffDTO(
+                name,
+                baujahr,
+                kapazitaet,
+                SchiffTyp.of(typStr),
+                new HafenDTO(hafenname, land),
+                List.of(new CrewDTO(" ", nachname, rolle))
+            );
+
+            // when
+            final var exc = catchThrowableOfType(
+                HttpClientErrorException.UnprocessableContent.class,
+                () -> schiffRepo.post(schiffDTO)
+            );
+
+            // then
+            assertThat(exc.getStatusCode()).isEqualTo(UNPROCESSABLE_CONTENT);
+            final var body = exc.getResponseBodyAs(ProblemDetail.class);
+            assertThat(body).isNotNull();
+            final var detail = body.getDetail();
+            assertThat(detail).isNotNull();
+            final var violationKeys = Arrays.stream(detail.split(", "))
+                .map(v -> v.substring(0, v.indexOf(": ")))
+                .toList();
+            assertThat(violationKeys).containsExactly("crewList[0].vorname");
+        }
+
+        @ParameterizedTest(name = "[{index}] Neues Schiff mit null in der Crew: name={0}")
+        @CsvSource(NEUER_NAME + "," + NEUER_TYP + "," + NEUES_BAUJAHR + "," +
+            NEUE_KAPAZITAET + "," + NEUER_HAFEN + "," + NEUES_LAND)
+        @DisplayName("Neues Schiff mit null in der Crew")
+        void postCrewNull(final ArgumentsAccessor args) {
+            // given
+            final var name = args.getString(0);
+            final var typStr = args.getString(1);
+            final var baujahr = args.get(2, LocalDate.class);
+            final var kapazitaet = args.getInteger(3);
+            final var hafenname = args.getString(4);
+            final var land = args.getString(5);
+
+            if (name == null || typStr == null || baujahr == null || kapazitaet == null ||
+                hafenname == null || land == null) {
+                throw new IllegalStateException("Testdaten sind null");
+            }
+            final var schiffDTO = new SchiffDTO(
+                name,
+                baujahr,
+                kapazitaet,
+                SchiffTyp.of(typStr),
+                new HafenDTO(hafenname, land),
+                Arrays.asList((CrewDTO) null)
+            );
+
+            // when
+            final var exc = catchThrowableOfType(
+                HttpClientErrorException.UnprocessableContent.class,
+                () -> schiffRepo.post(schiffDTO)
+            );
+
+            // then
+            assertThat(exc.getStatusCode()).isEqualTo(UNPROCESSABLE_CONTENT);
+            final var body = exc.getResponseBodyAs(ProblemDetail.class);
+            assertThat(body).isNotNull();
+            final var detail = body.getDetail();
+            assertThat(detail).isNotNull().startsWith("crewList[0]: ");
+        }
+
+        @ParameterizedTest(name = "[{index}] Wiederholtes Anlegen mit Idempotency-Key: name={0}")
+        @ValueSource(strings = NEUER_NAME_IDEMPOTENT)
+        @DisplayName("Wiederholtes Anlegen mit Idempotency-Key liefert die urspruengliche Antwort")
+        void postIdempotent(final String name) {
+            // given
+            final var key = UUID.randomUUID().toString();
+            final var schiff = new SchiffDTO(
+                name,
+                LocalDate.parse(NEUES_BAUJAHR),
+                NEUE_KAPAZITAET,
+                SchiffTyp.of(NEUER_TYP),
+                new HafenDTO(NEUER_HAFEN, NEUES_LAND),
+                null
+            );
+            final var anderesSchiff = new SchiffDTO(
+                name,
+                LocalDate.parse(NEUES_BAUJAHR),
+                NEUE_KAPAZITAET + 1,
+                SchiffTyp.of(NEUER_TYP),
+                new HafenDTO(NEUER_HAFEN, NEUES_LAND),
+                null
+            );
+
+            // when
+            final var response = schiffRepo.postIdempotent(key, schiff);
+            final var wiederholung = schiffRepo.postIdempotent(key, schiff);
+            final var exc = catchThrowableOfType(
+                HttpClientErrorException.class,
+                () -> schiffRepo.postIdempotent(key, anderesSchiff)
+            );
+
+            // then
+            assertThat(response.getStatusCode()).isEqualTo(CREATED);
+            assertThat(wiederholung.getStatusCode()).isEqualTo(CREATED);
+            assertThat(wiederholung.getHeaders().getLocation()).isEqualTo(response.getHeaders().getLocation());
+            assertThat(exc.getStatusCode()).isEqualTo(UNPROCESSABLE_CONTENT);
+        }
+
+        @ParameterizedTest(name = "[{index}] Import als NDJSON: name={0}")
+        @ValueSource(strings = NEUER_NAME_IMPORT)
+        @DisplayName("Import als NDJSON mit Namenskonflikt und ungueltigem Schiff")
+        void postImport(final String name) {
+            // given
+            final var schiff = "{\"name\":\"%s\",\"baujahr\":\"" + NEUES_BAUJAHR + "\",\"kapazitaet\":" +
+                NEUE_KAPAZITAET + ",\"typ\":\"" + NEUER_TYP + "\",\"hafen\":{\"name\":\"" + NEUER_HAFEN +
+                "\",\"land\":\"" + NEUES_LAND + "\"}}\n";
+            final var ndjson = schiff.formatted(name) + schiff.formatted(name) + schiff.formatted(NAME_INVALID);
+
+            // when
+            final var result = schiffRepo.postImport(ndjson);
+
+            // then
+            assertThat(result).isNotNull();
+            final var zeilen = result.lines().toList();
+            assertThat(zeilen).hasSize(3);
+            softly.assertThat(zeilen.get(0)).contains("\"line\":1", "\"status\":201", "\"id\":");
+            softly.assertThat(zeilen.get(1)).contains("\"line\":2", "\"status\":409", name);
+            softly.assertThat(zeilen.get(2)).contains("\"line\":3", "\"status\":422", "name: ");
+        }
     }
 
     @Nested
@@ -244,6 +439,109 @@ class SchiffWriteControllerTest {
 
             // then
             assertThat(response.getStatusCode()).isEqualTo(NO_CONTENT);
+            assertThat(response.getHeaders().getETag()).isNotNull();
+        }
+
+        @ParameterizedTest(name = "[{index}] Aendern mit veraltetem ETag: id={0}")
+        @ValueSource(strings = ID_UPDATE_PUT)
+        @DisplayName("Aendern mit veraltetem ETag durch PUT")
+        void putVeraltet(final String id) {
+            // given
+            final var hafen = new HafenDTO(NEUER_HAFEN, NEUES_LAND);
+            final var schiff = new SchiffDTO(
+                NEUER_NAME,
+                LocalDate.parse(NEUES_BAUJAHR),
+                NEUE_KAPAZITAET,
+                SchiffTyp.of(NEUER_TYP),
+                hafen,
+                null
+            );
+
+            // when
+            final var exc = catchThrowableOfType(
+                HttpClientErrorException.class,
+                () -> schiffRepo.putIfMatch(id, ETAG_VERALTET, schiff)
+            );
+
+            // then
+            assertThat(exc.getStatusCode()).isEqualTo(PRECONDITION_FAILED);
+        }
+
+        @ParameterizedTest(name = "[{index}] Aendern mit einer Liste von ETags: id={0}")
+        @ValueSource(strings = ID_UPDATE_PUT)
+        @DisplayName("Aendern mit einer Liste von ETags durch PUT")
+        void putIfMatchListe(final String id) {
+            // given
+            final var response = schiffRepo.getById(id);
+            final var schiffOrig = response.getBody();
+            assertThat(schiffOrig).isNotNull();
+            final var etag = response.getHeaders().getETag();
+            assertThat(etag).isNotNull();
+            final var hafenOrig = schiffOrig.getHafen();
+            final var schiff = new SchiffDTO(
+                schiffOrig.getName() + "liste",
+                schiffOrig.getBaujahr(),
+                schiffOrig.getKapazitaet(),
+                schiffOrig.getTyp(),
+                new HafenDTO(hafenOrig.getName(), hafenOrig.getLand()),
+                null
+            );
+
+            // when
+            final var result = schiffRepo.putIfMatch(id, ETAG_VERALTET + ", W/" + etag + ", " + etag, schiff);
+
+            // then
+            assertThat(result.getStatusCode()).isEqualTo(NO_CONTENT);
+            assertThat(result.getHeaders().getETag()).isNotEqualTo(etag);
+        }
+
+        @ParameterizedTest(name = "[{index}] Aendern der Kapazitaet durch PATCH: id={0}")
+        @ValueSource(strings = ID_UPDATE_PATCH)
+        @DisplayName("Aendern der Kapazitaet durch PATCH")
+        void patch(final String id) {
+            // given
+            final var schiffOrig = schiffRepo.getById(id).getBody();
+            assertThat(schiffOrig).isNotNull();
+
+            // when
+            final var response = schiffRepo.patch(id, "{\"kapazitaet\":" + NEUE_KAPAZITAET + "}");
+
+            // then
+            assertThat(response.getStatusCode()).isEqualTo(NO_CONTENT);
+            assertThat(response.getHeaders().getETag()).isNotNull();
+            final var schiff = schiffRepo.getById(id).getBody();
+            assertThat(schiff).isNotNull();
+            softly.assertThat(schiff.getKapazitaet()).isEqualTo(NEUE_KAPAZITAET);
+            softly.assertThat(schiff.getName()).isEqualTo(schiffOrig.getName());
+            softly.assertThat(schiff.getHafen().getName()).isEqualTo(schiffOrig.getHafen().getName());
+        }
+
+        @ParameterizedTest(name = "[{index}] Aendern durch PATCH mit ungueltiger Kapazitaet: id={0}")
+        @ValueSource(strings = ID_UPDATE_PATCH)
+        @DisplayName("Aendern durch PATCH mit ungueltiger Kapazitaet")
+        void patchInvalid(final String id) {
+            // when
+            final var exc = catchThrowableOfType(
+                HttpClientErrorException.class,
+                () -> schiffRepo.patch(id, "{\"kapazitaet\":" + KAPAZITAET_INVALID + "}")
+            );
+
+            // then
+            assertThat(exc.getStatusCode()).isEqualTo(UNPROCESSABLE_CONTENT);
+        }
+
+        @ParameterizedTest(name = "[{index}] Entfernen eines Pflichtattributs durch PATCH: id={0}")
+        @ValueSource(strings = ID_UPDATE_PATCH)
+        @DisplayName("Entfernen eines Pflichtattributs durch PATCH")
+        void patchEntfernen(final String id) {
+            // when
+            final var exc = catchThrowableOfType(
+                HttpClientErrorException.class,
+                () -> schiffRepo.patch(id, "{\"name\":null,\"hafen\":{\"land\":null}}")
+            );
+
+            // then
+            assertThat(exc.getStatusCode()).isEqualTo(UNPROCESSABLE_CONTENT);
         }
     }
 
@@ -261,4 +559,146 @@ class SchiffWriteControllerTest {
             assertThat(response.getStatusCode()).isEqualTo(NO_CONTENT);
         }
     }
+
+    @Nested
+    @DisplayName("Batch")
+    class Batch {
+        @ParameterizedTest(name = "[{index}] Batch mit Anlegen, Lesen und Fehlern: name={0}")
+        @ValueSource(strings = NEUER_NAME_BATCH)
+        @DisplayName("Batch mit Anlegen, Lesen, veraltetem ETag und ungueltigem Schiff")
+        void postBatch(final String name) {
+            // given
+            final var schiff = "{\"name\":\"%s\",\"baujahr\":\"" + NEUES_BAUJAHR + "\",\"kapazitaet\":" +
+                NEUE_KAPAZITAET + ",\"typ\":\"" + NEUER_TYP + "\",\"hafen\":{\"name\":\"" + NEUER_HAFEN +
+                "\",\"land\":\"" + NEUES_LAND + "\"}}";
+            final var json = "[" +
+                "{\"op\":\"create\",\"schiff\":" + schiff.formatted(name) + "}," +
+                "{\"op\":\"get\",\"ids\":[\"" + ID_BATCH_GET + "\"]}," +
+                "{\"op\":\"delete\",\"id\":\"" + ID_UPDATE_PUT + "\",\"ifMatch\":\"\\\"999\\\"\"}," +
+                "{\"op\":\"create\",\"schiff\":" + schiff.formatted(NAME_INVALID) + "}" +
+                "]";
+
+            // when
+            final var result = schiffRepo.postBatch(json);
+
+            // then
+            assertThat(result).isNotNull();
+            final List<Integer> status = JsonPath.read(result, "$[*].status");
+            assertThat(status).containsExactly(201, 200, 412, 422);
+            final String etag = JsonPath.read(result, "$[0].etag");
+            softly.assertThat(etag).isNotNull();
+            final List<String> ids = JsonPath.read(result, "$[1].schiffe[*].id");
+            softly.assertThat(ids).containsExactly(ID_BATCH_GET);
+        }
+
+        @ParameterizedTest(name = "[{index}] Batch mit zu vielen IDs: anzahl={0}")
+        @ValueSource(ints = 101)
+        @DisplayName("Batch mit zu vielen IDs beim Lesen")
+        void postBatchZuVieleIds(final int anzahl) {
+            // given
+            final var ids = String.join(",", Collections.nCopies(anzahl, "\"" + ID_BATCH_GET + "\""));
+            final var json = "[{\"op\":\"get\",\"ids\":[" + ids + "]}]";
+
+            // when
+            final var result = schiffRepo.postBatch(json);
+
+            // then
+            final List<Integer> status = JsonPath.read(result, "$[*].status");
+            assertThat(status).containsExactly(413);
+        }
+
+        @ParameterizedTest(name = "[{index}] Transaktion mit Namenstausch und veralteter Version: name={0}")
+        @ValueSource(strings = NEUER_NAME_TRANSACTION)
+        @DisplayName("Transaktion mit Namenstausch und veralteter Version")
+        void postTransaction(final String name) {
+            // given
+            final var schiff = "{\"name\":\"%s\",\"baujahr\":\"" + NEUES_BAUJAHR + "\",\"kapazitaet\":" +
+                NEUE_KAPAZITAET + ",\"typ\":\"" + NEUER_TYP + "\",\"hafen\":{\"name\":\"" + NEUER_HAFEN +
+                "\",\"land\":\"" + NEUES_LAND + "\"}}";
+            final var name2 = name + "-Partner";
+            final var created = schiffRepo.postTransaction("[" +
+                "{\"op\":\"create\",\"schiff\":" + schiff.formatted(name) + "}," +
+                "{\"op\":\"create\",\"schiff\":" + schiff.formatted(name2) + "}" +
+                "]");
+            final List<String> ids = JsonPath.read(created, "$[*].id");
+            final List<String> etags = JsonPath.read(created, "$[*].etag");
+            final var update = "{\"op\":\"update\",\"id\":\"%s\",\"ifMatch\":\"%s\",\"schiff\":%s}";
+
+            // when
+            final var swapped = schiffRepo.postTransaction("[" +
+                update.formatted(ids.get(0), etags.get(0).replace("\"", "\\\""), schiff.formatted(name2)) + "," +
+                update.formatted(ids.get(1), etags.get(1).replace("\"", "\\\""), schiff.formatted(name)) +
+                "]");
+            final var exc = catchThrowableOfType(
+                HttpClientErrorException.class,
+                () -> schiffRepo.postTransaction("[" +
+                    "{\"op\":\"check\",\"id\":\"" + ids.get(0) + "\",\"ifMatch\":\"" +
+                    etags.get(0).replace("\"", "\\\"") + "\"}," +
+                    "{\"op\":\"delete\",\"id\":\"" + ids.get(1) + "\"}" +
+                    "]")
+            );
+
+            // then
+            final List<Integer> status = JsonPath.read(swapped, "$[*].status");
+            assertThat(status).containsExactly(204, 204);
+            assertThat(exc.getStatusCode()).isEqualTo(PRECONDITION_FAILED);
+            final var checked = schiffRepo.postTransaction(
+                "[{\"op\":\"get\",\"ids\":[\"" + ids.get(1) + "\"]}]");
+            final List<String> namen = JsonPath.read(checked, "$[0].schiffe[*].name");
+            softly.assertThat(namen).containsExactly(name);
+        }
+    }
+
+    @Nested
+    @DisplayName("Aendern und Loeschen nach Suchparametern")
+    class NachSuchparametern {
+        @ParameterizedTest(name = "[{index}] Aendern und Loeschen aller Schiffe eines Hafens: hafen={0}")
+        @ValueSource(strings = HAFEN_BY_QUERY)
+        @DisplayName("Aendern und Loeschen aller Schiffe eines Hafens")
+        void byQuery(final String hafen) {
+            // given
+            for (final var name : List.of("Bulk-Eins", "Bulk-Zwei")) {
+                final var schiff = new SchiffDTO(
+                    name,
+                    LocalDate.parse(NEUES_BAUJAHR),
+                    NEUE_KAPAZITAET,
+                    SchiffTyp.of(NEUER_TYP),
+                    new HafenDTO(hafen, NEUES_LAND),
+                    null
+                );
+                assertThat(schiffRepo.post(schiff).getStatusCode()).isEqualTo(CREATED);
+            }
+            final var suchparameter = new LinkedMultiValueMap<String, String>();
+            suchparameter.add("hafen", hafen);
+
+            // when
+            final var patch = "{\"kapazitaet\":" + (NEUE_KAPAZITAET + 1) + "}";
+            final var updated = schiffRepo.updateByQuery(suchparameter, patch);
+            final var deleted = schiffRepo.deleteByQuery(suchparameter);
+
+            // then
+            final int updateCount = JsonPath.read(updated, "$.count");
+            final int deleteCount = JsonPath.read(deleted, "$.count");
+            softly.assertThat(updateCount).isEqualTo(2);
+            softly.assertThat(deleteCount).isEqualTo(2);
+        }
+
+        @ParameterizedTest(name = "[{index}] Loeschen mit ungueltigem Suchparameter: {0}")
+        @ValueSource(strings = "unbekannt")
+        @DisplayName("Loeschen nach Suchparametern ohne gueltige Suchparameter")
+        void deleteByQueryInvalid(final String parameter) {
+            // given
+            final var suchparameter = new LinkedMultiValueMap<String, String>();
+            suchparameter.add(parameter, "x");
+
+            // when
+            final var exc = catchThrowableOfType(
+                HttpClientErrorException.class,
+                () -> schiffRepo.deleteByQuery(suchparameter)
+            );
+
+            // then
+            assertThat(exc.getStatusCode()).isEqualTo(BAD_REQUEST);
+        }
+    }
 }
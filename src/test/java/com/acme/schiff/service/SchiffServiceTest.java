@@ -17,9 +17,24 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.*;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowableOfType;
@@ -37,6 +52,9 @@ class SchiffServiceTest {
     private static final String ID_VORHANDEN = "00000000-0000-0000-0000-000000000001";
     private static final String ID_NICHT_VORHANDEN = "ffffffff-ffff-ffff-ffff-ffffffffffff";
     private static final String NAME = "Titanic";
+    private static final String NAME_IGNORE_CASE = "TITANIC";
+    private static final int CACHE_SIZE = 16;
+    private static final long CACHE_BYTES = 16L;
 
     private final SchiffService service;
 
@@ -78,6 +96,214 @@ class SchiffServiceTest {
             .forEach(n -> softly.assertThat(n).isEqualTo(name));
     }
 
+    @ParameterizedTest(name = "[{index}] Suche ohne Beachtung der Groß- und Kleinschreibung: name={0}")
+    @ValueSource(strings = NAME_IGNORE_CASE)
+    @DisplayName("Suche ohne Beachtung der Groß- und Kleinschreibung")
+    void findByNameIgnoreCase(final String name) {
+        final var params = Map.of("name", List.of(name), SchiffRepository.IGNORE_CASE, List.of("true"));
+        final var schiffe = service.find(params);
+
+        softly.assertThat(schiffe)
+            .isNotEmpty()
+            .extracting(Schiff::getName)
+            .contains(NAME);
+    }
+
+    @ParameterizedTest(name = "[{index}] Ausfuehrungsplan fuer Name und Typ: name={0}")
+    @ValueSource(strings = NAME)
+    @DisplayName("Ausfuehrungsplan fuer Name und Typ")
+    void explain(final String name) {
+        final var params = Map.of("name", List.of(name), "typ", List.of("X"));
+
+        final var plan = service.explain(params);
+        final var schiffe = service.find(params);
+
+        softly.assertThat(plan.gueltig()).isTrue();
+        softly.assertThat(plan.treffer()).isEqualTo(schiffe.size());
+        softly.assertThat(plan.tatsaechlicheZeilen()).isGreaterThanOrEqualTo(plan.treffer());
+        softly.assertThat(plan.schaetzungen()).hasSizeGreaterThan(2);
+        softly.assertThat(schiffe)
+            .extracting(Schiff::getName)
+            .containsOnly(name);
+    }
+
+    @Test
+    @DisplayName("JSON-Array mit komprimierten Varianten")
+    void findJsonKomprimiert() throws IOException {
+        // given
+        final Function<Schiff, byte[]> encoder =
+            schiff -> ("{\"id\":\"" + schiff.getId() + "\"}").getBytes(StandardCharsets.UTF_8);
+
+        // when
+        final var json = service.findJson(Map.of(), encoder).orElseThrow();
+
+        // then
+        final byte[] gzip;
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(json.gzip()))) {
+            gzip = in.readAllBytes();
+        }
+        final byte[] deflate;
+        try (var in = new InflaterInputStream(new ByteArrayInputStream(json.deflate()))) {
+            deflate = in.readAllBytes();
+        }
+        softly.assertThat(new String(json.identity(), StandardCharsets.UTF_8)).startsWith("[{").endsWith("}]");
+        softly.assertThat(gzip).isEqualTo(json.identity());
+        softly.assertThat(deflate).isEqualTo(json.identity());
+        softly.assertThat(json.gzip()).isSameAs(json.gzip());
+    }
+
+    @ParameterizedTest(name = "[{index}] Einzelne Verarbeitung der Schiffe mit Typ: typ={0}")
+    @ValueSource(strings = "X")
+    @DisplayName("Einzelne Verarbeitung der Schiffe mit Typ")
+    void forEach(final String typ) {
+        final var params = Map.of("typ", List.of(typ));
+        final var schiffe = new ArrayList<Schiff>();
+
+        final var count = service.forEach(params, schiffe::add);
+
+        softly.assertThat(count).isEqualTo(schiffe.size()).isPositive();
+        schiffe.forEach(schiff -> softly.assertThat(schiff.getTyp()).isEqualTo(SchiffTyp.of(typ)));
+    }
+
+    @Test
+    @DisplayName("Cache fuer nicht gefundene Schluessel mit Generationen")
+    void negativeCache() {
+        final var cache = new NegativeCache<String>(1);
+
+        final var vorher = cache.contains("a", 1L);
+        cache.add("a", 1L);
+        final var treffer = cache.contains("a", 1L);
+        final var neuAngelegt = cache.contains("a", 2L);
+        cache.add("a", 2L);
+        cache.add("b", 2L);
+        final var verdraengt = cache.contains("a", 2L);
+
+        softly.assertThat(vorher).isFalse();
+        softly.assertThat(treffer).isTrue();
+        softly.assertThat(neuAngelegt).isFalse();
+        softly.assertThat(verdraengt).isFalse();
+        final var stats = cache.stats();
+        softly.assertThat(stats.hits()).isEqualTo(1L);
+        softly.assertThat(stats.misses()).isEqualTo(3L);
+        softly.assertThat(stats.invalidations()).isEqualTo(1L);
+        softly.assertThat(stats.evictions()).isEqualTo(1L);
+        softly.assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Cache fuer Suchergebnisse mit Generationen")
+    void resultCache() {
+        final var cache = new ResultCache<String>(1);
+        final var typen = Map.of("typ", List.of("C", "X"));
+        final var typenUmsortiert = Map.of("typ", List.of("X", "C", "C"));
+
+        final var ergebnis = cache.get(typen, 1L, () -> "alt");
+        final var treffer = cache.get(typenUmsortiert, 1L, () -> "falsch");
+        final var neu = cache.get(typen, 2L, () -> "neu");
+        cache.get(Map.of("typ", List.of("F")), 2L, () -> "faehre");
+
+        softly.assertThat(ergebnis).isEqualTo("alt");
+        softly.assertThat(treffer).isEqualTo("alt");
+        softly.assertThat(neu).isEqualTo("neu");
+        final var stats = cache.stats();
+        softly.assertThat(stats.hits()).isEqualTo(1L);
+        softly.assertThat(stats.misses()).isEqualTo(3L);
+        softly.assertThat(stats.invalidations()).isEqualTo(1L);
+        softly.assertThat(stats.evictions()).isEqualTo(1L);
+        softly.assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Cache fuer Suchergebnisse mit begrenzter Groesse")
+    void resultCacheBytes() {
+        final var cache = new ResultCache<String>(CACHE_SIZE, CACHE_BYTES, String::length);
+
+        // 5 Einträge mit je 4 Bytes, so dass der erste verdrängt wird
+        List.of("C", "F", "M", "R", "S")
+            .forEach(typ -> cache.get(Map.of("typ", List.of(typ)), 1L, () -> typ.repeat(4)));
+        final var verdraengt = cache.get(Map.of("typ", List.of("C")), 1L, () -> "neu");
+        final var gross = cache.get(Map.of("typ", List.of("X")), 1L, () -> "X".repeat(5));
+
+        softly.assertThat(verdraengt).isEqualTo("neu");
+        softly.assertThat(gross).isEqualTo("XXXXX");
+        final var stats = cache.stats();
+        softly.assertThat(stats.rejections()).isEqualTo(1L);
+        softly.assertThat(stats.evictions()).isEqualTo(2L);
+        softly.assertThat(stats.size()).isEqualTo(4);
+        softly.assertThat(stats.bytes()).isEqualTo(15L);
+    }
+
+    @Test
+    @DisplayName("Gleichzeitige Aufrufe mit demselben Schluessel zusammenfassen")
+    void singleFlight() throws InterruptedException, ExecutionException {
+        final var flight = new SingleFlight<String, Integer>();
+        final var freigabe = new CountDownLatch(1);
+        final var berechnungen = new AtomicInteger();
+        final var aufrufe = 8;
+        final var ergebnisse = new ArrayList<Future<Integer>>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < aufrufe; i++) {
+                ergebnisse.add(executor.submit(() -> flight.execute(NAME, 1L, () -> {
+                    berechnungen.incrementAndGet();
+                    try {
+                        freigabe.await();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return aufrufe;
+                })));
+            }
+            // erst freigeben, wenn alle anderen Aufrufe auf die laufende Berechnung warten
+            while (flight.stats().inFlight() != 1 || flight.stats().coalesced() < aufrufe - 1L) {
+                Thread.onSpinWait();
+            }
+            freigabe.countDown();
+            for (final var ergebnis : ergebnisse) {
+                softly.assertThat(ergebnis.get()).isEqualTo(aufrufe);
+            }
+        }
+
+        softly.assertThat(berechnungen.get()).isEqualTo(1);
+        softly.assertThat(flight.stats().coalesced()).isEqualTo(aufrufe - 1L);
+        softly.assertThat(flight.stats().inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Blaettern durch alle Schiffe mit Cursor")
+    void findPage() {
+        final var ids = new HashSet<UUID>();
+        var page = service.find(Collections.emptyMap(), 2, null);
+        var seiten = 1;
+        while (true) {
+            softly.assertThat(page.schiffe()).hasSizeLessThanOrEqualTo(2);
+            page.schiffe().forEach(schiff -> softly.assertThat(ids.add(schiff.getId())).isTrue());
+            final var next = page.next();
+            if (next == null) {
+                break;
+            }
+            page = service.find(Collections.emptyMap(), 2, next);
+            seiten++;
+        }
+
+        softly.assertThat(seiten).isGreaterThan(1);
+        softly.assertThat(ids).hasSizeGreaterThan(2);
+    }
+
+    @Test
+    @DisplayName("Blaettern mit ungueltigem Cursor")
+    void findPageCursorUngueltig() {
+        final var ex = catchThrowableOfType(
+            ResponseStatusException.class,
+            () -> service.find(Collections.emptyMap(), 2, "ungueltig")
+        );
+
+        assertThat(ex)
+            .isNotNull()
+            .extracting(ResponseStatusException::getStatusCode)
+            .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Nested
     @DisplayName("Suche anhand der ID")
     class FindById {
@@ -94,6 +320,35 @@ class SchiffServiceTest {
                 .isEqualTo(schiffId);
         }
 
+        @ParameterizedTest(name = "[{index}] Suche mit vorhandener ID als JSON-Datensatz: id={0}")
+        @ValueSource(strings = ID_VORHANDEN)
+        @DisplayName("Suche mit vorhandener ID als JSON-Datensatz aus dem Cache")
+        void findJsonById(final String id) {
+            final var schiffId = UUID.fromString(id);
+            final Function<Schiff, byte[]> encoder =
+                schiff -> ("{\"id\":\"" + schiff.getId() + "\"}").getBytes(StandardCharsets.UTF_8);
+
+            final var json = service.findJsonById(schiffId, encoder).orElseThrow().json();
+            final var jsonCache = service.findJsonById(schiffId, encoder).orElseThrow().json();
+
+            softly.assertThat(new String(json.identity(), StandardCharsets.UTF_8)).contains(id);
+            softly.assertThat(jsonCache.identity()).isSameAs(json.identity());
+            softly.assertThat(jsonCache).isSameAs(json);
+        }
+
+        @ParameterizedTest(name = "[{index}] Suche mit nicht-vorhandener ID als JSON-Datensatz: id={0}")
+        @ValueSource(strings = ID_NICHT_VORHANDEN)
+        @DisplayName("Suche mit nicht-vorhandener ID als JSON-Datensatz ohne Exception")
+        void findJsonByIdNichtVorhanden(final String id) {
+            final var schiffId = UUID.fromString(id);
+
+            final var json = service.findJsonById(schiffId, _ -> new byte[0]);
+            final var jsonNegativ = service.findJsonById(schiffId, _ -> new byte[0]);
+
+            softly.assertThat(json).isEmpty();
+            softly.assertThat(jsonNegativ).isEmpty();
+        }
+
         @ParameterizedTest(name = "[{index}] Suche mit nicht-vorhandener ID: id={0}")
         @ValueSource(strings = ID_NICHT_VORHANDEN)
         @DisplayName("Suche mit nicht-vorhandener ID")
@@ -110,6 +365,19 @@ class SchiffServiceTest {
                 .extracting(NotFoundException::getId)
                 .isEqualTo(schiffId);
         }
+
+        @ParameterizedTest(name = "[{index}] Suche mit nicht-vorhandener ID ohne Exception: id={0}")
+        @ValueSource(strings = ID_NICHT_VORHANDEN)
+        @DisplayName("Suche mit nicht-vorhandener ID ohne Exception")
+        void findOptionalByIdNichtVorhanden(final String id) {
+            final var schiffId = UUID.fromString(id);
+
+            final var schiff = service.findOptionalById(schiffId);
+            final var schiffNegativ = service.findOptionalById(schiffId);
+
+            softly.assertThat(schiff).isEmpty();
+            softly.assertThat(schiffNegativ).isEmpty();
+        }
     }
     @Test
     @DisplayName("Suche nach Schiffstyp FAEHRE")
@@ -122,4 +390,49 @@ class SchiffServiceTest {
             .allSatisfy(s -> softly.assertThat(s.getTyp()).isEqualTo(SchiffTyp.FAEHRE));
     }
 
+    @Test
+    @DisplayName("Suche nach mehreren Schiffstypen")
+    void findByTypen() {
+        final var params = Map.of("typ", List.of("C", "M"));
+        final var schiffe = service.find(params);
+
+        softly.assertThat(schiffe)
+            .extracting(Schiff::getTyp)
+            .contains(SchiffTyp.CONTAINER, SchiffTyp.MILITAER)
+            .containsOnly(SchiffTyp.CONTAINER, SchiffTyp.MILITAER);
+    }
+
+    @Test
+    @DisplayName("Suche nach einem Bereich für Kapazität und Baujahr")
+    @SuppressWarnings("MagicNumber")
+    void findByKapazitaetUndBaujahr() {
+        final var params = Map.of(
+            "kapazitaetMin", List.of("2000"),
+            "kapazitaetMax", List.of("5000"),
+            "baujahrVon", List.of("1930-01-01")
+        );
+        final var schiffe = service.find(params);
+
+        softly.assertThat(schiffe)
+            .isNotEmpty()
+            .allSatisfy(s -> {
+                softly.assertThat(s.getKapazitaet()).isBetween(2000, 5000);
+                softly.assertThat(s.getBaujahr()).isAfterOrEqualTo(LocalDate.of(1930, 1, 1));
+            });
+    }
+
+    @Test
+    @DisplayName("Suche nach Schiffstypen ohne Heimathafen in einem Land")
+    void findByTypenOhneLand() {
+        final var params = Map.of("typ", List.of("X", "F"), "land", List.of("!England"));
+        final var schiffe = service.find(params);
+
+        softly.assertThat(schiffe)
+            .isNotEmpty()
+            .allSatisfy(s -> {
+                softly.assertThat(s.getTyp()).isIn(SchiffTyp.KREUZFAHRT, SchiffTyp.FAEHRE);
+                softly.assertThat(s.getHafen().getLand()).isNotEqualTo("England");
+            });
+    }
+
 }
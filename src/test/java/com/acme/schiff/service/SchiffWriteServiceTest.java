@@ -20,18 +20,31 @@ import com.acme.schiff.repository.SchiffRepository;
 import com.acme.schiff.repository.SchiffBuilder;
 import com.acme.schiff.repository.HafenBuilder;
 import com.acme.schiff.repository.CrewBuilder;
+import com.acme.schiff.entity.Schiff;
 import com.acme.schiff.entity.SchiffTyp;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.gaul.modernizer_maven_annotations.SuppressModernizer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.parallel.Execution;
@@ -39,10 +52,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.aggregator.ArgumentsAccessor;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.web.server.ResponseStatusException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.catchThrowableOfType;
 import static org.junit.jupiter.api.condition.JRE.JAVA_25;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 
 @Tag("unit")
 @Tag("service-write")
@@ -64,6 +81,15 @@ class SchiffWriteServiceTest {
     private static final String NEUE_ROLLE = "Kapitän";
     private static final String ID_UPDATE = "00000000-0000-0000-0000-000000000002";
     private static final String ID_DELETE = "00000000-0000-0000-0000-000000000003";
+    private static final String NAME_VORHANDEN = "Black-Pearl";
+    private static final String NAME_TEILSTRING = "Titan";
+    private static final String NAME_VERSION = "Versioniert";
+    private static final String NAME_WIEDERVERWENDET = "Wiederverwendet";
+    private static final String NAME_SCHWELLE = "Schwelle-";
+    private static final String NAME_UMBENANNT = "Umbenannt-";
+    private static final String NAME_NACHRUECKER = "Nachruecker-";
+    private static final String LAND_SCHWELLE = "Schwellenland";
+    private static final int ANZAHL_SCHWELLE = 6400;
 
     private final SchiffWriteService service;
     private final SchiffRepository repo;
@@ -141,6 +167,93 @@ class SchiffWriteServiceTest {
         softly.assertThat(created.getHafen().getName()).isEqualTo(NEUER_HAFEN);
     }
 
+    @Test
+    @DisplayName("Paralleles Neuanlegen von Schiffen")
+    void createParallel() throws ExecutionException, InterruptedException {
+        // given
+        final var anzahl = 64;
+        final var namen = IntStream.range(0, anzahl)
+            .mapToObj(i -> "Parallel-Q" + (char) ('a' + i / 26) + (char) ('a' + i % 26))
+            .toList();
+
+        // when
+        final var futures = new ArrayList<Future<Schiff>>(anzahl);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            namen.forEach(name -> futures.add(executor.submit(() -> service.create(neuesSchiff(name)))));
+        }
+
+        // then
+        final var ids = new HashSet<UUID>();
+        for (final var future : futures) {
+            final var created = future.get();
+            ids.add(created.getId());
+            final var result = repo.findById(created.getId());
+            assertThat(result).isNotNull();
+            softly.assertThat(result.getName()).isEqualTo(created.getName());
+        }
+        assertThat(ids).hasSize(anzahl);
+    }
+
+    @ParameterizedTest(name = "[{index}] Neues Schiff mit vorhandenem Namen: name={0}")
+    @ValueSource(strings = NAME_VORHANDEN)
+    @DisplayName("Neues Schiff mit vorhandenem Namen")
+    void createNameExists(final String name) {
+        // given
+        final var schiff = neuesSchiff(name);
+
+        // when
+        final var ex = catchThrowableOfType(
+            ResponseStatusException.class,
+            () -> service.create(schiff)
+        );
+
+        // then
+        assertThat(ex)
+            .isNotNull()
+            .extracting(ResponseStatusException::getStatusCode)
+            .isEqualTo(CONFLICT);
+    }
+
+    @ParameterizedTest(name = "[{index}] Neues Schiff mit Teilstring eines vorhandenen Namens: name={0}")
+    @ValueSource(strings = NAME_TEILSTRING)
+    @DisplayName("Neues Schiff mit Teilstring eines vorhandenen Namens")
+    void createNameTeilstring(final String name) {
+        // when
+        final var created = service.create(neuesSchiff(name));
+
+        // then
+        final var result = repo.findById(created.getId());
+        assertThat(result).isNotNull();
+        assertThat(result.getName()).isEqualTo(name);
+    }
+
+    @Test
+    @DisplayName("Paralleles Neuanlegen von Schiffen mit gleichem Namen")
+    void createParallelGleicherName() throws InterruptedException {
+        // given
+        final var anzahl = 16;
+        final var name = "Parallel-Gleich";
+
+        // when
+        final var futures = new ArrayList<Future<Schiff>>(anzahl);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.range(0, anzahl)
+                .forEach(_ -> futures.add(executor.submit(() -> service.create(neuesSchiff(name)))));
+        }
+
+        // then
+        var erfolgreich = 0;
+        for (final var future : futures) {
+            try {
+                future.get();
+                erfolgreich++;
+            } catch (final ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(ResponseStatusException.class);
+            }
+        }
+        assertThat(erfolgreich).isOne();
+    }
+
     @ParameterizedTest(name = "[{index}] Aendern eines vorhandenen Schiffs: id={0}")
     @ValueSource(strings = ID_UPDATE)
     @DisplayName("Aendern eines vorhandenen Schiffs")
@@ -161,6 +274,33 @@ class SchiffWriteServiceTest {
         assertThat(result.getName()).isEqualTo(NEUER_NAME_UPDATE);
     }
 
+    @Test
+    @DisplayName("Aendern nur mit der aktuellen Version")
+    void updateVersion() {
+        // given
+        final var created = service.create(neuesSchiff(NAME_VERSION));
+        final var id = created.getId();
+        final var version = created.getVersion();
+        final var aenderung = neuesSchiff(NAME_VERSION + "-Neu");
+
+        // when
+        service.update(aenderung, id, version);
+        final var ex = catchThrowableOfType(
+            ResponseStatusException.class,
+            () -> service.update(neuesSchiff(NAME_VERSION + "-Alt"), id, version)
+        );
+
+        // then
+        softly.assertThat(aenderung.getVersion()).isGreaterThan(version);
+        softly.assertThat(ex)
+            .isNotNull()
+            .extracting(ResponseStatusException::getStatusCode)
+            .isEqualTo(PRECONDITION_FAILED);
+        final var result = repo.findById(id);
+        assertThat(result).isNotNull();
+        softly.assertThat(result.getName()).isEqualTo(NAME_VERSION + "-Neu");
+    }
+
     @ParameterizedTest(name = "[{index}] Loeschen eines vorhandenen Schiffs: id={0}")
     @ValueSource(strings = ID_DELETE)
     @DisplayName("Loeschen eines vorhandenen Schiffs")
@@ -175,4 +315,169 @@ class SchiffWriteServiceTest {
         final var result = repo.findById(schiffId);
         assertThat(result).isNull();
     }
+
+    @Test
+    @DisplayName("Neuanlegen mit der Zeilennummer eines geloeschten Schiffs")
+    void createNachDelete() {
+        // given
+        final var geloescht = service.create(neuesSchiff(NAME_WIEDERVERWENDET));
+        service.deleteById(geloescht.getId());
+        final var generation = repo.insertGeneration();
+
+        // when
+        final var created = service.create(neuesSchiff(NAME_WIEDERVERWENDET));
+
+        // then
+        softly.assertThat(repo.insertGeneration()).isGreaterThan(generation);
+        softly.assertThat(repo.findById(created.getId())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Indexe mit einigen Tausend Schiffen nach Neuanlegen, Aendern und Loeschen")
+    @SuppressWarnings("MagicNumber")
+    void indexeSchwellwerte() {
+        // given: mehr als 4096 Eintraege je Bitmap, 512 je Blatt und Posting-Block sowie 1024 Zeilen je Chunk;
+        // beim Typ wechseln sich CONTAINER und FAEHRE so ab, dass ein Bitmap-Container entsteht, beim Land
+        // haengen die Zeilen zusammen und bilden Runs
+        final var erwartet = new HashMap<UUID, Schiff>();
+        final var schiffe = IntStream.rangeClosed(1, ANZAHL_SCHWELLE)
+            .mapToObj(i -> schwellenSchiff(NAME_SCHWELLE + i, i, i % 3 == 0 ? SchiffTyp.FAEHRE : SchiffTyp.CONTAINER))
+            .toList();
+        assertThat(service.createAll(schiffe)).containsOnlyNulls();
+        schiffe.forEach(schiff -> erwartet.put(schiff.getId(), schiff));
+        pruefeIndexe(erwartet);
+
+        // when: Typ und Kapazitaet eines Bereichs aendern und einzelne Schiffe umbenennen
+        final var geaendert = service.updateByQuery(schwellenQuery(4001, 4800), schiff -> {
+            schiff.setTyp(SchiffTyp.SEGELBOOT);
+            schiff.setKapazitaet(schiff.getKapazitaet() + ANZAHL_SCHWELLE);
+            return schiff;
+        });
+        erwartet.values().stream()
+            .filter(schiff -> schiff.getKapazitaet() >= 4001 && schiff.getKapazitaet() <= 4800)
+            .forEach(schiff -> {
+                schiff.setTyp(SchiffTyp.SEGELBOOT);
+                schiff.setKapazitaet(schiff.getKapazitaet() + ANZAHL_SCHWELLE);
+            });
+        schiffe.stream().filter(schiff -> schiff.getKapazitaet() % 97 == 0).forEach(schiff -> {
+            final var umbenannt = repo.findById(schiff.getId());
+            assertThat(umbenannt).isNotNull();
+            umbenannt.setName(NAME_UMBENANNT + schiff.getKapazitaet());
+            service.update(umbenannt, schiff.getId());
+            schiff.setName(umbenannt.getName());
+        });
+
+        // then
+        assertThat(geaendert).isEqualTo(800);
+        pruefeIndexe(erwartet);
+
+        // when: die erste Haelfte loeschen, so dass die Bitmaps wieder Arrays werden, und die frei gewordenen
+        // Zeilen durch neue Schiffe wiederverwenden
+        final var geloescht = service.deleteByQuery(schwellenQuery(1, ANZAHL_SCHWELLE / 2));
+        erwartet.values().removeIf(schiff -> schiff.getKapazitaet() <= ANZAHL_SCHWELLE / 2);
+        pruefeIndexe(erwartet);
+        final var nachruecker = IntStream.rangeClosed(1, 2000)
+            .mapToObj(i -> schwellenSchiff(NAME_NACHRUECKER + i, i, SchiffTyp.MILITAER))
+            .toList();
+        assertThat(service.createAll(nachruecker)).containsOnlyNulls();
+        nachruecker.forEach(schiff -> erwartet.put(schiff.getId(), schiff));
+
+        // then
+        assertThat(geloescht).isEqualTo(ANZAHL_SCHWELLE / 2);
+        pruefeIndexe(erwartet);
+
+        // when: alle Schiffe wieder loeschen, damit die uebrigen Tests den urspruenglichen Datenbestand sehen
+        final var alle = service.deleteByQuery(Map.of("land", List.of(LAND_SCHWELLE)));
+
+        // then
+        assertThat(alle).isEqualTo(erwartet.size());
+        assertThat(repo.find(Map.of("land", List.of(LAND_SCHWELLE)))).isEmpty();
+    }
+
+    /// Die Suche nach Typ, Land, Kapazitaet, Teilstring des Namens und ID mit dem erwarteten Datenbestand
+    /// vergleichen.
+    @SuppressWarnings("MagicNumber")
+    private void pruefeIndexe(final Map<UUID, Schiff> erwartet) {
+        assertThat(ids(Map.of("land", List.of(LAND_SCHWELLE)))).isEqualTo(erwartet.keySet());
+        for (final var typ : SchiffTyp.values()) {
+            softly.assertThat(ids(Map.of("land", List.of(LAND_SCHWELLE), "typ", List.of(typ.getValue()))))
+                .as("typ=%s", typ)
+                .isEqualTo(gefiltert(erwartet, schiff -> schiff.getTyp() == typ));
+        }
+        softly.assertThat(ids(schwellenQuery(1000, 4500)))
+            .as("kapazitaet")
+            .isEqualTo(gefiltert(erwartet, schiff -> schiff.getKapazitaet() >= 1000 && schiff.getKapazitaet() <= 4500));
+        for (final var teilstring : List.of(NAME_SCHWELLE + "12", NAME_UMBENANNT, NAME_NACHRUECKER + '1')) {
+            softly.assertThat(ids(Map.of("land", List.of(LAND_SCHWELLE), "name", List.of(teilstring))))
+                .as("name=%s", teilstring)
+                .isEqualTo(gefiltert(erwartet, schiff -> schiff.getName().contains(teilstring)));
+        }
+        erwartet.forEach((id, schiff) -> {
+            final var result = repo.findById(id);
+            softly.assertThat(result).as("id=%s", id).isNotNull();
+            if (result != null) {
+                softly.assertThat(result.getName()).isEqualTo(schiff.getName());
+            }
+        });
+    }
+
+    private Set<UUID> ids(final Map<String, List<String>> suchparameter) {
+        return repo.find(suchparameter).stream().map(Schiff::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<UUID> gefiltert(final Map<UUID, Schiff> erwartet, final Predicate<Schiff> filter) {
+        return erwartet.values().stream().filter(filter).map(Schiff::getId).collect(Collectors.toSet());
+    }
+
+    private static Map<String, List<String>> schwellenQuery(final int kapazitaetMin, final int kapazitaetMax) {
+        return Map.of(
+            "land", List.of(LAND_SCHWELLE),
+            "kapazitaetMin", List.of(String.valueOf(kapazitaetMin)),
+            "kapazitaetMax", List.of(String.valueOf(kapazitaetMax))
+        );
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static Schiff schwellenSchiff(final String name, final int kapazitaet, final SchiffTyp typ) {
+        final var hafen = HafenBuilder
+            .getBuilder()
+            .setName(NEUER_HAFEN)
+            .setLand(LAND_SCHWELLE)
+            .build();
+        return SchiffBuilder
+            .getBuilder()
+            .setName(name)
+            .setBaujahr(LocalDate.of(1900, 1, 1).plusDays(kapazitaet))
+            .setKapazitaet(kapazitaet)
+            .setTyp(typ)
+            .setHafen(hafen)
+            .setCrewList(List.of())
+            .build();
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static Schiff neuesSchiff(final String name) {
+        final var hafen = HafenBuilder
+            .getBuilder()
+            .setName(NEUER_HAFEN)
+            .setLand(NEUER_LAND)
+            .build();
+        final var crew = List.of(
+            CrewBuilder
+                .getBuilder()
+                .setVorname(NEUE_VORNAME)
+                .setNachname(NEUE_NACHNAME)
+                .setRolle(NEUE_ROLLE)
+                .build()
+        );
+        return SchiffBuilder
+            .getBuilder()
+            .setName(name)
+            .setBaujahr(LocalDate.of(2015, 5, 5))
+            .setKapazitaet(NEUE_KAPAZITAET)
+            .setTyp(SchiffTyp.FAEHRE)
+            .setHafen(hafen)
+            .setCrewList(crew)
+            .build();
+    }
 }